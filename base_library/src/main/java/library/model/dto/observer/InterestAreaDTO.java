@@ -0,0 +1,69 @@
+package library.model.dto.observer;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * Data Transfer Object (DTO) for a fixed geographic area, given in degrees, that an observed class is subscribed in
+ */
+@XmlRootElement(name = "interestArea")
+@XmlAccessorType(XmlAccessType.NONE)
+public class InterestAreaDTO {
+
+    @XmlElement
+    private double minLongitude;
+
+    @XmlElement
+    private double minLatitude;
+
+    @XmlElement
+    private double maxLongitude;
+
+    @XmlElement
+    private double maxLatitude;
+
+    public InterestAreaDTO() {
+        // empty constructor
+    }
+
+    public InterestAreaDTO(double minLongitude, double minLatitude, double maxLongitude, double maxLatitude) {
+        this.minLongitude = minLongitude;
+        this.minLatitude = minLatitude;
+        this.maxLongitude = maxLongitude;
+        this.maxLatitude = maxLatitude;
+    }
+
+    public double getMinLongitude() {
+        return minLongitude;
+    }
+
+    public void setMinLongitude(double minLongitude) {
+        this.minLongitude = minLongitude;
+    }
+
+    public double getMinLatitude() {
+        return minLatitude;
+    }
+
+    public void setMinLatitude(double minLatitude) {
+        this.minLatitude = minLatitude;
+    }
+
+    public double getMaxLongitude() {
+        return maxLongitude;
+    }
+
+    public void setMaxLongitude(double maxLongitude) {
+        this.maxLongitude = maxLongitude;
+    }
+
+    public double getMaxLatitude() {
+        return maxLatitude;
+    }
+
+    public void setMaxLatitude(double maxLatitude) {
+        this.maxLatitude = maxLatitude;
+    }
+}
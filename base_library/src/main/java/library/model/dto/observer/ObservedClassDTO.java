@@ -22,6 +22,19 @@ public class ObservedClassDTO {
     @XmlElement(name = "attribute")
     private List<String> attributes = new ArrayList<>();
 
+    /**
+     * Half the edge length (in degrees) of a square region around the position of the observing object.
+     * Only updates of objects within the region are received, 0 subscribes to the whole class.
+     */
+    @XmlElement
+    private double interestRadius;
+
+    /**
+     * Fixed area the updates are received from, e.g. for observers without a position
+     */
+    @XmlElement
+    private InterestAreaDTO interestArea;
+
     private String fomPath;
 
     private Class<SimulationObject> objectClass;
@@ -59,6 +72,29 @@ public class ObservedClassDTO {
         this.objectClass = objectClass;
     }
 
+    public double getInterestRadius() {
+        return interestRadius;
+    }
+
+    public void setInterestRadius(double interestRadius) {
+        this.interestRadius = interestRadius;
+    }
+
+    public InterestAreaDTO getInterestArea() {
+        return interestArea;
+    }
+
+    public void setInterestArea(InterestAreaDTO interestArea) {
+        this.interestArea = interestArea;
+    }
+
+    /**
+     * @return true if the class should only be subscribed within regions instead of as a whole
+     */
+    public boolean hasInterestRegion() {
+        return interestRadius > 0 || interestArea != null;
+    }
+
     public String getFomPath() {
         return fomPath;
     }
@@ -0,0 +1,31 @@
+package library.model.dto.scenario;
+
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * Policies to pack several simulation objects into a single federate.
+ * Objects with different time step sizes are never packed into the same federate.
+ */
+@XmlRootElement
+public enum FederateGroupingPolicy {
+
+    /**
+     * every simulation object gets its own federate
+     */
+    NONE,
+
+    /**
+     * objects of the same class share a federate
+     */
+    BY_CLASS,
+
+    /**
+     * objects are packed into federates of a fixed number of objects, see objectsPerFederate of the scenario
+     */
+    BY_COUNT,
+
+    /**
+     * objects within the same geographic sector share a federate, see sectorSize of the scenario
+     */
+    BY_SECTOR
+}
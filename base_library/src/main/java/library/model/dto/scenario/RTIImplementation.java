@@ -0,0 +1,20 @@
+package library.model.dto.scenario;
+
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * The runtime infrastructures (RTI) the federates of a simulation run can be connected with
+ */
+@XmlRootElement
+public enum RTIImplementation {
+
+    /**
+     * the Portico RTI, needed if the federation is distributed over several processes
+     */
+    PORTICO,
+
+    /**
+     * an in-memory RTI delivering callbacks directly between the federates, all federates have to run in the same JVM
+     */
+    LOOPBACK
+}
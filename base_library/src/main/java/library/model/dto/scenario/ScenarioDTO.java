@@ -27,6 +27,81 @@ public class ScenarioDTO implements Serializable {
     @XmlElement(name = "library")
     private String library = "";
 
+    @XmlElement(name = "timeManagementMode")
+    private TimeManagementMode timeManagementMode = TimeManagementMode.LOCKSTEP;
+
+    /**
+     * If true, the federates let the RTI deliver callbacks immediately and sleep while waiting for them,
+     * instead of polling for them
+     */
+    @XmlElement(name = "immediateCallbacks")
+    private boolean immediateCallbacks;
+
+    @XmlElement(name = "federateGrouping")
+    private FederateGroupingPolicy federateGrouping = FederateGroupingPolicy.NONE;
+
+    /**
+     * maximum number of objects per federate, 0 means unlimited (only for BY_COUNT it has to be set)
+     */
+    @XmlElement(name = "objectsPerFederate")
+    private int objectsPerFederate;
+
+    /**
+     * edge length of a sector in degrees, used by the BY_SECTOR grouping
+     */
+    @XmlElement(name = "sectorSize")
+    private double sectorSize = 1.0;
+
+    /**
+     * maximum error of the dead reckoned position of traffic participants in meters, 0 sends every position change
+     */
+    @XmlElement(name = "deadReckoningThreshold")
+    private double deadReckoningThreshold;
+
+    /**
+     * keep the numeric attribute values of the hosted objects of each federate in primitive arrays, see StateStore
+     */
+    @XmlElement(name = "columnarStateStore")
+    private boolean columnarStateStore;
+
+    /**
+     * number of threads each federate uses to execute the behaviours of its hosted objects, 1 executes them sequentially
+     */
+    @XmlElement(name = "behaviourThreads")
+    private int behaviourThreads = 1;
+
+    /**
+     * maximum logical time a federate whose hosted objects are all idle advances at once, 0 advances one time step at
+     * a time (the steps of idle objects are skipped anyway)
+     */
+    @XmlElement(name = "maxIdleAdvance")
+    private double maxIdleAdvance;
+
+    /**
+     * the RTI the federates are connected with, LOOPBACK avoids Portico when the whole federation runs in this JVM
+     */
+    @XmlElement(name = "rtiImplementation")
+    private RTIImplementation rtiImplementation = RTIImplementation.PORTICO;
+
+    /**
+     * logical time at which the state of the hosted objects is written to a checkpoint, negative writes no checkpoint
+     */
+    @XmlElement(name = "checkpointTime")
+    private double checkpointTime = -1;
+
+    /**
+     * directory the checkpoints are written to
+     */
+    @XmlElement(name = "checkpointDirectory")
+    private String checkpointDirectory = "checkpoints";
+
+    /**
+     * if a run is restored from a checkpoint, take over the behaviours of the checkpointed objects, false keeps the
+     * behaviours of this scenario, so one checkpoint can be forked into runs with different behaviours
+     */
+    @XmlElement(name = "restoreBehaviours")
+    private boolean restoreBehaviours = true;
+
     @XmlElementWrapper
     @XmlElement(name = "simulationObject")
     private ArrayList<SimulationObject> simulationObjects = new ArrayList<>();
@@ -181,6 +256,110 @@ public class ScenarioDTO implements Serializable {
         this.loggingTypes = loggingTypes;
     }
 
+    public TimeManagementMode getTimeManagementMode() {
+        return timeManagementMode;
+    }
+
+    public void setTimeManagementMode(TimeManagementMode timeManagementMode) {
+        this.timeManagementMode = timeManagementMode;
+    }
+
+    public boolean isImmediateCallbacks() {
+        return immediateCallbacks;
+    }
+
+    public void setImmediateCallbacks(boolean immediateCallbacks) {
+        this.immediateCallbacks = immediateCallbacks;
+    }
+
+    public FederateGroupingPolicy getFederateGrouping() {
+        return federateGrouping;
+    }
+
+    public void setFederateGrouping(FederateGroupingPolicy federateGrouping) {
+        this.federateGrouping = federateGrouping;
+    }
+
+    public int getObjectsPerFederate() {
+        return objectsPerFederate;
+    }
+
+    public void setObjectsPerFederate(int objectsPerFederate) {
+        this.objectsPerFederate = objectsPerFederate;
+    }
+
+    public double getSectorSize() {
+        return sectorSize;
+    }
+
+    public void setSectorSize(double sectorSize) {
+        this.sectorSize = sectorSize;
+    }
+
+    public double getDeadReckoningThreshold() {
+        return deadReckoningThreshold;
+    }
+
+    public void setDeadReckoningThreshold(double deadReckoningThreshold) {
+        this.deadReckoningThreshold = deadReckoningThreshold;
+    }
+
+    public boolean isColumnarStateStore() {
+        return columnarStateStore;
+    }
+
+    public void setColumnarStateStore(boolean columnarStateStore) {
+        this.columnarStateStore = columnarStateStore;
+    }
+
+    public int getBehaviourThreads() {
+        return behaviourThreads;
+    }
+
+    public void setBehaviourThreads(int behaviourThreads) {
+        this.behaviourThreads = behaviourThreads;
+    }
+
+    public double getMaxIdleAdvance() {
+        return maxIdleAdvance;
+    }
+
+    public void setMaxIdleAdvance(double maxIdleAdvance) {
+        this.maxIdleAdvance = maxIdleAdvance;
+    }
+
+    public RTIImplementation getRtiImplementation() {
+        return rtiImplementation;
+    }
+
+    public void setRtiImplementation(RTIImplementation rtiImplementation) {
+        this.rtiImplementation = rtiImplementation;
+    }
+
+    public double getCheckpointTime() {
+        return checkpointTime;
+    }
+
+    public void setCheckpointTime(double checkpointTime) {
+        this.checkpointTime = checkpointTime;
+    }
+
+    public String getCheckpointDirectory() {
+        return checkpointDirectory;
+    }
+
+    public void setCheckpointDirectory(String checkpointDirectory) {
+        this.checkpointDirectory = checkpointDirectory;
+    }
+
+    public boolean isRestoreBehaviours() {
+        return restoreBehaviours;
+    }
+
+    public void setRestoreBehaviours(boolean restoreBehaviours) {
+        this.restoreBehaviours = restoreBehaviours;
+    }
+
     public ArrayList<TerminationCondition<?>> getTerminationCondition() {
         return terminationCondition;
     }
@@ -0,0 +1,20 @@
+package library.model.dto.scenario;
+
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * Modes for the time management of a simulation run
+ */
+@XmlRootElement
+public enum TimeManagementMode {
+
+    /**
+     * every federate is time regulating and time constrained, so all federates advance in lockstep
+     */
+    LOCKSTEP,
+
+    /**
+     * federates advance with their own step size and only wait for federates they actually receive data from
+     */
+    FREE_FLOW
+}
@@ -78,6 +78,17 @@ public class ConstantSpeedBehaviour extends Behaviour implements IBehaviour {
         return valuesToUpdate;
     }
 
+    /**
+     * A traffic participant without speed doesn't move until another behaviour changes its speed
+     */
+    @Override
+    public double getIdleTime() {
+        if (trafficParticipant == null || trafficParticipant.getSpeed() == null || trafficParticipant.getSpeed().getValue() == null) {
+            return 0;
+        }
+        return trafficParticipant.getSpeed().getValue() == 0 ? Double.POSITIVE_INFINITY : 0;
+    }
+
     @Override
     public void setSimulationObject(SimulationObject trafficParticipant) {
         if (trafficParticipant instanceof TrafficParticipant) {
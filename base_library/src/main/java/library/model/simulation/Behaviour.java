@@ -29,6 +29,9 @@ public abstract class Behaviour extends SimulationSuperClass implements IBehavio
     @XmlElement
     private SystemUnderTestConfig systemUnderTestConfig = new SystemUnderTestConfig();
 
+    @XmlElement
+    private double outputDelay = 0;
+
     public Behaviour(List<Goal> goals) {
         super();
         this.goals.addAll(goals);
@@ -74,6 +77,15 @@ public abstract class Behaviour extends SimulationSuperClass implements IBehavio
         this.systemUnderTestConfig = systemUnderTestConfig;
     }
 
+    @Override
+    public double getOutputDelay() {
+        return outputDelay;
+    }
+
+    public void setOutputDelay(double outputDelay) {
+        this.outputDelay = outputDelay;
+    }
+
     public void setSystemUnderTestConfigValues(String address, int port, boolean isWebsocket) {
         this.systemUnderTestConfig.setAddress(address);
         this.systemUnderTestConfig.setPort(port);
@@ -18,4 +18,26 @@ public interface IBehaviour {
 
     void setSimulationObject(SimulationObject simulationObject);
 
+    /**
+     * Logical time between a step of the behaviour and the moment its results may affect other objects, e.g. the delay
+     * of a sensor report. The federate hosting the object adds it to its lookahead, so other federates can run ahead.
+     *
+     * @return the output delay, 0 if the results are visible after the step
+     */
+    default double getOutputDelay() {
+        return 0;
+    }
+
+    /**
+     * Logical time, counted from the last step of the behaviour, in which it won't change the state of its object, e.g.
+     * while a vessel is moored or an engine waits for its time goal. The federate hosting the object skips the steps of
+     * the object as long as all of its behaviours are idle, the next executed step gets the skipped time passed. So a
+     * behaviour may only be idle if it handles any time passed and doesn't react to other objects while it is idle.
+     *
+     * @return the idle time, 0 if the behaviour has to be executed in every step
+     */
+    default double getIdleTime() {
+        return 0;
+    }
+
 }
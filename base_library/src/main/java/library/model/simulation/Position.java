@@ -51,15 +51,15 @@ public class Position extends SimulationSuperClass {
     }
 
     public void setLatitude(double latitude) {
-        this.latitude.setSingleValue(latitude);
+        this.latitude.setDoubleValue(latitude);
     }
 
     public void setLongitude(double longitude) {
-        this.longitude.setSingleValue(longitude);
+        this.longitude.setDoubleValue(longitude);
     }
 
     public void setAltitude(double altitude) {
-        this.altitude.setSingleValue(altitude);
+        this.altitude.setDoubleValue(altitude);
     }
 
     @Override
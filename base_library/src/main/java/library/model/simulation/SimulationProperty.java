@@ -5,6 +5,7 @@ import library.model.simulation.enums.SimulationPropertyType;
 import library.model.simulation.enums.SimulationVisibilityKind;
 import library.model.simulation.units.SimulationUnit;
 
+import javax.xml.bind.Marshaller;
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
 import javax.xml.bind.annotation.XmlElement;
@@ -18,6 +19,10 @@ import java.util.UUID;
 
 /**
  * Attaches different attributes that go alongside a value
+ * <p>
+ * Double values can be read and written unboxed with {@link #getDoubleValue()} and {@link #setDoubleValue(double)}.
+ * A value written that way is kept as primitive and only boxed into the value list when it is read as object
+ * (or marshalled), so kinematics updated every time step don't allocate a Double per update.
  *
  * @param <T>
  */
@@ -50,11 +55,20 @@ public class SimulationProperty<T> {
     @XmlElement
     private boolean subscribe;
 
+    // minimum change of a numeric value before it gets published again, 0 publishes every change
+    @XmlElement
+    private double updateThreshold;
+
     // if the value of the SimulationAttribute is an ArrayList or a HashMap, the type of the data inside it should be saved here
     private Class listType;
 
     private int currentIndex;
 
+    // single value written by setDoubleValue, which is not yet in the value list
+    // (volatile, since behaviours executed in parallel may read and thereby flush the same property)
+    private double doubleValue;
+    private volatile boolean doubleValuePending;
+
     public SimulationProperty() {
         super();
         setID();
@@ -151,10 +165,79 @@ public class SimulationProperty<T> {
     }
 
     public T getValue() {
+        flushDoubleValue();
         return value.get(this.currentIndex);
     }
 
+    /**
+     * Reads the current value without boxing it, if it was written by {@link #setDoubleValue(double)}
+     *
+     * @return the current value, which has to be a number
+     */
+    public double getDoubleValue() {
+        if (doubleValuePending) {
+            return doubleValue;
+        }
+        return ((Number) value.get(this.currentIndex)).doubleValue();
+    }
+
+    /**
+     * Sets a single double value like {@link #setSingleValue(Object)}, but without boxing it.
+     * Only meant for properties holding Double values.
+     *
+     * @param value the new value
+     */
+    @SuppressWarnings("unchecked")
+    public void setDoubleValue(double value) {
+        if (currentIndex != 0) {
+            // the pending value always replaces the first value of the list, like setSingleValue does
+            setSingleValue((T) Double.valueOf(value));
+            return;
+        }
+        this.type = SimulationPropertyType.SINGLE;
+        this.doubleValue = value;
+        this.doubleValuePending = true;
+        this.dataType = Double.class.getName();
+    }
+
+    /**
+     * Moves a value written by setDoubleValue into the value list
+     */
+    @SuppressWarnings("unchecked")
+    private void flushDoubleValue() {
+        if (!doubleValuePending) {
+            return;
+        }
+        synchronized (this) {
+            if (!doubleValuePending) {
+                return;
+            }
+            if (this.value.size() > 0) {
+                this.value.set(0, (T) Double.valueOf(doubleValue));
+            } else {
+                this.value.add((T) Double.valueOf(doubleValue));
+            }
+            doubleValuePending = false;
+        }
+    }
+
+    /**
+     * JAXB callback, so pending double values are marshalled as well
+     */
+    private void beforeMarshal(Marshaller marshaller) {
+        flushDoubleValue();
+    }
+
+    /**
+     * @return true if the property holds a value, which isn't the case for properties of discovered objects before
+     * their first update
+     */
+    public boolean hasValue() {
+        return doubleValuePending || value != null && currentIndex < value.size();
+    }
+
     public T next() {
+        flushDoubleValue();
         if ((this.type == SimulationPropertyType.RANGE || this.type == SimulationPropertyType.LIST) && currentIndex < this.value.size() - 1) {
             currentIndex++;
         }
@@ -162,6 +245,7 @@ public class SimulationProperty<T> {
     }
 
     public T previous() {
+        flushDoubleValue();
         if ((this.type == SimulationPropertyType.RANGE || this.type == SimulationPropertyType.LIST) && currentIndex > 0) {
             currentIndex--;
         }
@@ -184,11 +268,26 @@ public class SimulationProperty<T> {
         this.subscribe = subscribe;
     }
 
+    public double getUpdateThreshold() {
+        return updateThreshold;
+    }
+
+    /**
+     * Sets the minimum change of a numeric value that is needed before the value gets published again.
+     * Use a small epsilon for floating point values, 0 publishes every change.
+     *
+     * @param updateThreshold minimum absolute change, ignored for non-numeric values
+     */
+    public void setUpdateThreshold(double updateThreshold) {
+        this.updateThreshold = updateThreshold;
+    }
+
     private void setID() {
         this.id = UUID.randomUUID().toString();
     }
 
     public void setSingleValue(T value) {
+        this.doubleValuePending = false;
         this.type = SimulationPropertyType.SINGLE;
         if (this.value.size() > 0) {
             this.value.set(0, value);
@@ -199,6 +298,7 @@ public class SimulationProperty<T> {
     }
 
     public void setRangedValue(double startValue, double endValue, double stepSize) {
+        this.doubleValuePending = false;
         this.type = SimulationPropertyType.RANGE;
         ArrayList<T> values = new ArrayList<>();
         Double istart = Math.min(startValue, endValue);
@@ -240,6 +340,8 @@ public class SimulationProperty<T> {
             return false;
         }
         SimulationProperty<?> that = (SimulationProperty<?>) o;
+        flushDoubleValue();
+        that.flushDoubleValue();
         return publish == this.publish &&
                this.subscribe == this.subscribe &&
                currentIndex == that.currentIndex &&
@@ -253,6 +355,7 @@ public class SimulationProperty<T> {
 
     @Override
     public String toString() {
+        flushDoubleValue();
         if (Primitives.isWrapperType(this.getValue().getClass()) || (this.getValue().getClass() == String.class)) {
             return String.format("\"" + this.getName() + "\":\"" + this.value.get(0).toString() + "\"");
         }
@@ -272,16 +375,19 @@ public class SimulationProperty<T> {
     }
 
     public void setValue(List<T> value) {
+        this.doubleValuePending = false;
         this.value = value;
     }
 
     public void setValue(T value) {
         ArrayList<T> t = new ArrayList<>();
         t.add(value);
+        this.doubleValuePending = false;
         this.value = t;
     }
 
     public void setCurrentIndex(int currentIndex) {
+        flushDoubleValue();
         this.currentIndex = currentIndex;
     }
 
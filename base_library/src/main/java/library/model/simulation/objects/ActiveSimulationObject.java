@@ -16,6 +16,10 @@ public abstract class ActiveSimulationObject extends DynamicSimulationObject imp
     @XmlElement
     private double timeStepSize;
 
+    // lookahead of the federate hosting the object, derived from the time step size and the behaviour if not positive
+    @XmlElement
+    private double lookahead;
+
     @XmlElement
     private Behaviour behaviour;
 
@@ -75,6 +79,14 @@ public abstract class ActiveSimulationObject extends DynamicSimulationObject imp
         return timeStepSize;
     }
 
+    public double getLookahead() {
+        return lookahead;
+    }
+
+    public void setLookahead(double lookahead) {
+        this.lookahead = lookahead;
+    }
+
     @Override
     public void setBehaviour(Behaviour behaviour) {
         this.behaviour = behaviour;
@@ -96,6 +96,13 @@ public abstract class DynamicSimulationObject extends SimulationObject implement
         objectList.add(simulationObject);
     }
 
+    public void removeObservedObject(SimulationObject simulationObject) {
+        ArrayList<SimulationObject> objectList = this.observedObjects.get(simulationObject.getClass());
+        if (objectList != null) {
+            objectList.remove(simulationObject);
+        }
+    }
+
     public void setRestrictions(ArrayList<Restriction> limitations) {
         this.limitations = limitations;
     }
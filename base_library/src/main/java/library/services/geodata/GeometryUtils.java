@@ -1,22 +1,37 @@
 package library.services.geodata;
 
 import library.model.simulation.Position;
+import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.io.ParseException;
-import org.locationtech.jts.io.WKTReader;
 
 public class GeometryUtils {
 
+    // GeometryFactory is thread-safe, so a single instance can be shared by all queries
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory();
+
+    /**
+     * Creates a point geometry for the given position. The point is created directly via a GeometryFactory instead of
+     * parsing a WKT string, as this method is called for every geodata query.
+     *
+     * @param position position to create the point for
+     * @return point geometry with longitude as x and latitude as y
+     * @throws ParseException kept for compatibility with the former WKT based implementation
+     */
     protected static Geometry createGeometryFromPosition(Position position) throws ParseException {
-        WKTReader wktReader = new WKTReader();
-        Geometry geometry;
-        try {
-            geometry = wktReader.read("POINT (" + position.getLongitude().getValue() + " " + position.getLatitude().getValue() + ")");
-        } catch (ParseException e) {
-            e.printStackTrace();
-            throw e;
-        }
-        return geometry;
+        return createGeometryFromCoordinate(position.getLongitude().getValue(), position.getLatitude().getValue());
+    }
+
+    /**
+     * Creates a point geometry for the given coordinate, for callers that don't have a Position at hand
+     *
+     * @param longitude x of the point
+     * @param latitude  y of the point
+     * @return point geometry
+     */
+    protected static Geometry createGeometryFromCoordinate(double longitude, double latitude) {
+        return GEOMETRY_FACTORY.createPoint(new Coordinate(longitude, latitude));
     }
 
 }
@@ -8,14 +8,16 @@ import library.model.traffic.Obstacle;
 import library.model.traffic.PossibleDomains;
 import library.model.traffic.TrafficParticipant;
 import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.index.strtree.STRtree;
 import org.locationtech.jts.io.ParseException;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
+import static library.services.geodata.GeometryUtils.createGeometryFromCoordinate;
 import static library.services.geodata.GeometryUtils.createGeometryFromPosition;
 
 /**
@@ -23,12 +25,22 @@ import static library.services.geodata.GeometryUtils.createGeometryFromPosition;
  */
 public class MapDataProvider {
 
-    private static HashMap<SimulationObject, MapDataProvider> pmdpMap = new HashMap<>();
+    // simulation runs executed in parallel register their objects concurrently
+    private static final Map<SimulationObject, MapDataProvider> pmdpMap = Collections.synchronizedMap(new HashMap<>());
 
     public static void addToMap(SimulationObject simulationObject, MapDataProvider mapDataProvider) {
         pmdpMap.put(simulationObject, mapDataProvider);
     }
 
+    /**
+     * Removes the object, has to be called when its simulation run has finished, so the map of the run can be freed
+     *
+     * @param simulationObject object registered with {@link #addToMap(SimulationObject, MapDataProvider)}
+     */
+    public static void removeFromMap(SimulationObject simulationObject) {
+        pmdpMap.remove(simulationObject);
+    }
+
     public static MapDataProvider getMap(SimulationObject simulationObject) {
         return pmdpMap.get(simulationObject);
     }
@@ -37,6 +49,19 @@ public class MapDataProvider {
     HashMap<Geometry, Obstacle> obstacleMap;
     List<TrafficParticipant> trafficParticipants;
 
+    // spatial indices over the entries of envelopMap and obstacleMap, built once when the map is loaded
+    private STRtree infrastructureIndex;
+    private STRtree obstacleIndex;
+
+    // edge length of the cells of the traffic participant grid in degrees (about 1 km in latitude)
+    private static final double TRAFFIC_PARTICIPANT_CELL_SIZE = 0.01;
+
+    // index over the moving traffic participants, kept up to date by updateTrafficParticipant
+    private final TrafficParticipantGrid trafficParticipantGrid = new TrafficParticipantGrid(TRAFFIC_PARTICIPANT_CELL_SIZE);
+
+    // the participants of the scenario by their id, reflected participants stand in for them in the index
+    private final Map<String, TrafficParticipant> trafficParticipantsById = new HashMap<>();
+
     public MapDataProvider(ScenarioDTO scenario) {
         envelopMap = new HashMap<>();
         obstacleMap = new HashMap<>();
@@ -50,52 +75,131 @@ public class MapDataProvider {
             }
             if (simulationObject instanceof TrafficParticipant) {
                 trafficParticipants.add((TrafficParticipant) simulationObject);
+                trafficParticipantsById.put(simulationObject.getId(), (TrafficParticipant) simulationObject);
+                trafficParticipantGrid.update((TrafficParticipant) simulationObject);
             }
         }
+        infrastructureIndex = buildIndex(envelopMap);
+        obstacleIndex = buildIndex(obstacleMap);
+    }
+
+    /**
+     * Builds a STRtree holding the entries of the given map, indexed by the envelope of their key.
+     *
+     * @param map map of envelopes to simulation objects
+     * @return the built (and therefore immutable) index
+     */
+    private static <T extends SimulationObject> STRtree buildIndex(HashMap<Geometry, T> map) {
+        STRtree index = new STRtree();
+        for (Map.Entry<Geometry, T> entry : map.entrySet()) {
+            index.insert(entry.getKey().getEnvelopeInternal(), entry);
+        }
+        index.build();
+        return index;
+    }
+
+    /**
+     * Returns all entries of the given index whose envelope contains the given geometry.
+     *
+     * @param index    index built by buildIndex
+     * @param geometry geometry to query with
+     * @return candidate entries, still to be checked against the exact geometry
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> List<Map.Entry<Geometry, T>> queryIndex(STRtree index, Geometry geometry) {
+        return (List<Map.Entry<Geometry, T>>) index.query(geometry.getEnvelopeInternal());
     }
 
     public List<Infrastructure> getInfrastructureAtPosition(Position position) throws ParseException {
         Geometry positionGeometry = createGeometryFromPosition(position);
-        return envelopMap
-                .entrySet()
-                .stream()
-                .filter(t -> t.getKey().contains(positionGeometry))
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue))
-                .values()
-                .stream()
-                .filter(t -> t.getForm().getValue().contains(positionGeometry))
-                .collect(Collectors.toList());
+        List<Infrastructure> output = new ArrayList<>();
+        for (Map.Entry<Geometry, Infrastructure> entry : MapDataProvider.<Infrastructure>queryIndex(infrastructureIndex, positionGeometry)) {
+            if (entry.getKey().contains(positionGeometry) && entry.getValue().getForm().getValue().contains(positionGeometry)) {
+                output.add(entry.getValue());
+            }
+        }
+        return output;
     }
 
     public List<Obstacle> getObstacleAtPosition(Position position, ArrayList<Obstacle> detectedObstacles) throws ParseException {
         Geometry positionGeometry = createGeometryFromPosition(position);
-        HashMap<Geometry, Obstacle> nMap = new HashMap<>(obstacleMap);
+        // detected obstacles change with every call and are therefore not part of the index
+        HashMap<Geometry, Obstacle> detectedMap = new HashMap<>();
         if (detectedObstacles != null) {
             for (Obstacle obs : detectedObstacles) {
-                nMap.put(obs.getForm().getValue(), obs);
+                detectedMap.put(obs.getForm().getValue(), obs);
+            }
+        }
+        List<Obstacle> output = new ArrayList<>();
+        for (Map.Entry<Geometry, Obstacle> entry : MapDataProvider.<Obstacle>queryIndex(obstacleIndex, positionGeometry)) {
+            // a detected obstacle with the same geometry replaces the one known from the map
+            if (!detectedMap.containsKey(entry.getKey())
+                    && entry.getKey().contains(positionGeometry)
+                    && entry.getValue().getForm().getValue().contains(positionGeometry)) {
+                output.add(entry.getValue());
             }
         }
-        return nMap
-                .entrySet()
-                .stream()
-                .filter(t -> t.getKey().contains(positionGeometry))
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue))
-                .values()
-                .stream()
-                .filter(t -> t.getForm().getValue().contains(positionGeometry))
-                .collect(Collectors.toList());
+        for (Map.Entry<Geometry, Obstacle> entry : detectedMap.entrySet()) {
+            if (entry.getKey().contains(positionGeometry) && entry.getValue().getForm().getValue().contains(positionGeometry)) {
+                output.add(entry.getValue());
+            }
+        }
+        return output;
     }
 
     public List<Obstacle> getObstacleIntersected(Geometry geometry, ArrayList<Obstacle> detectedObstacles) {
         List<Obstacle> output = new ArrayList<>();
-        ArrayList<Obstacle> coll = new ArrayList<>(obstacleMap.values());
+        for (Map.Entry<Geometry, Obstacle> entry : MapDataProvider.<Obstacle>queryIndex(obstacleIndex, geometry)) {
+            if (entry.getValue().getForm().getValue().intersects(geometry)) {
+                output.add(entry.getValue());
+            }
+        }
         if (detectedObstacles != null) {
-            coll.addAll(detectedObstacles);
+            detectedObstacles.stream().filter(t -> t.getForm().getValue().intersects(geometry)).forEach(output::add);
         }
-        coll.stream().filter(t -> t.getForm().getValue().intersects(geometry)).forEach(output::add);
         return output;
     }
 
+    /**
+     * Checks if the given coordinate lies on an infrastructure usable by the given domain and is not blocked by an
+     * obstacle. Equivalent to querying the infrastructures and obstacles at the position, but stops at the first match
+     * and doesn't need a Position instance, as it is called for every cell by the route search.
+     *
+     * @param longitude         longitude of the coordinate
+     * @param latitude          latitude of the coordinate
+     * @param possibleDomains   domain that has to be able to use the infrastructure
+     * @param detectedObstacles additionally detected obstacles, may be null
+     * @return true if the coordinate is usable and free
+     */
+    public boolean isNavigableAt(double longitude, double latitude, PossibleDomains possibleDomains, List<Obstacle> detectedObstacles) {
+        Geometry positionGeometry = createGeometryFromCoordinate(longitude, latitude);
+        boolean usable = false;
+        for (Map.Entry<Geometry, Infrastructure> entry : MapDataProvider.<Infrastructure>queryIndex(infrastructureIndex, positionGeometry)) {
+            if (entry.getKey().contains(positionGeometry)
+                    && entry.getValue().isUsableBy(possibleDomains)
+                    && entry.getValue().getForm().getValue().contains(positionGeometry)) {
+                usable = true;
+                break;
+            }
+        }
+        if (!usable) {
+            return false;
+        }
+        for (Map.Entry<Geometry, Obstacle> entry : MapDataProvider.<Obstacle>queryIndex(obstacleIndex, positionGeometry)) {
+            if (entry.getKey().contains(positionGeometry) && entry.getValue().getForm().getValue().contains(positionGeometry)) {
+                return false;
+            }
+        }
+        if (detectedObstacles != null) {
+            for (Obstacle obstacle : detectedObstacles) {
+                if (obstacle.getForm().getValue().contains(positionGeometry)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
     public List<Infrastructure> getInfrastructureAtPosition(Position position, PossibleDomains possibleDomains) {
         List<Infrastructure> output;
         try {
@@ -104,12 +208,7 @@ public class MapDataProvider {
             e.printStackTrace();
             return new ArrayList<>();
         }
-        List<Infrastructure> finalOutput = output;
-        output.forEach(t -> {
-            if (!t.isUsableBy(possibleDomains)) {
-                finalOutput.remove(t);
-            }
-        });
+        output.removeIf(t -> !t.isUsableBy(possibleDomains));
         return output;
     }
 
@@ -121,7 +220,64 @@ public class MapDataProvider {
         return new ArrayList<>(obstacleMap.values());
     }
 
+    /**
+     * @return all traffic participants of the scenario (read only)
+     */
     public List<TrafficParticipant> getAllTrafficParticipants() {
-        return new ArrayList<>(trafficParticipants);
+        return Collections.unmodifiableList(trafficParticipants);
+    }
+
+    /**
+     * Moves the participant to its current position in the index of the neighbour queries, has to be called whenever
+     * the position of a traffic participant changed.
+     * A participant reflected from another federate replaces the participant of the scenario with the same id in the
+     * index, unless that one is hosted with this map (see {@link #addToMap}) and therefore kept up to date already.
+     *
+     * @param trafficParticipant a traffic participant of the scenario or the reflected copy of one
+     */
+    public void updateTrafficParticipant(TrafficParticipant trafficParticipant) {
+        TrafficParticipant scenarioParticipant = trafficParticipantsById.get(trafficParticipant.getId());
+        if (scenarioParticipant != null && scenarioParticipant != trafficParticipant) {
+            if (getMap(scenarioParticipant) == this) {
+                return;
+            }
+            trafficParticipantGrid.remove(scenarioParticipant);
+        }
+        trafficParticipantGrid.update(trafficParticipant);
+    }
+
+    /**
+     * Removes the participant from the index of the neighbour queries, has to be called once a reflected participant
+     * was deleted by its federate. The participant of the scenario it replaced isn't found again either.
+     *
+     * @param trafficParticipant a traffic participant of the scenario or the reflected copy of one
+     */
+    public void removeTrafficParticipant(TrafficParticipant trafficParticipant) {
+        trafficParticipantGrid.remove(trafficParticipant);
+    }
+
+    /**
+     * Returns the traffic participants within the given distance of a position. Only the participants in the nearby
+     * cells of the index are looked at, so the costs depend on the number of participants nearby.
+     *
+     * @param longitude longitude of the position
+     * @param latitude  latitude of the position
+     * @param range     distance in meters
+     * @return the participants within range (including a participant at the position itself)
+     */
+    public List<TrafficParticipant> getTrafficParticipantsInRange(double longitude, double latitude, double range) {
+        return trafficParticipantGrid.getWithin(longitude, latitude, range);
+    }
+
+    /**
+     * Returns the k traffic participants closest to a position
+     *
+     * @param longitude longitude of the position
+     * @param latitude  latitude of the position
+     * @param k         maximum number of participants
+     * @return the closest participants, the closest first (including a participant at the position itself)
+     */
+    public List<TrafficParticipant> getNearestTrafficParticipants(double longitude, double latitude, int k) {
+        return trafficParticipantGrid.getNearest(longitude, latitude, k);
     }
 }
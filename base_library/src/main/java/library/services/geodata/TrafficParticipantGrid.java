@@ -0,0 +1,235 @@
+package library.services.geodata;
+
+import library.model.simulation.Position;
+import library.model.traffic.TrafficParticipant;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Uniform grid over the positions of traffic participants, so neighbour queries only look at the participants in the
+ * cells around the queried position instead of at all participants.
+ * The grid doesn't notice position changes by itself, {@link #update(TrafficParticipant)} has to be called after a
+ * participant moved. A participant only changes its cell if it crossed a cell border.
+ * All methods are synchronized, since federates running in parallel update and query the same grid.
+ */
+final class TrafficParticipantGrid {
+
+    private static final double EARTH_RADIUS = 6371 * 1000; // in meters
+    private static final double METERS_PER_DEGREE = EARTH_RADIUS * Math.PI / 180;
+
+    // edge length of a cell in degrees
+    private final double cellSize;
+
+    private final Map<Long, List<Entry>> cells = new HashMap<>();
+    private final Map<TrafficParticipant, Entry> entries = new IdentityHashMap<>();
+
+    TrafficParticipantGrid(double cellSize) {
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * Adds the participant or moves it to its current position
+     */
+    synchronized void update(TrafficParticipant trafficParticipant) {
+        Position position = trafficParticipant.getPosition() != null && trafficParticipant.getPosition().hasValue()
+                ? trafficParticipant.getPosition().getValue() : null;
+        Entry entry = entries.get(trafficParticipant);
+        if (position == null) {
+            if (entry != null) {
+                remove(trafficParticipant);
+            }
+            return;
+        }
+        double latitude = position.getLatitude().getDoubleValue();
+        double longitude = position.getLongitude().getDoubleValue();
+        long cell = cellOf(longitude, latitude);
+        if (entry == null) {
+            entry = new Entry(trafficParticipant);
+            entries.put(trafficParticipant, entry);
+            cells.computeIfAbsent(cell, c -> new ArrayList<>()).add(entry);
+        } else if (entry.cell != cell) {
+            removeFromCell(entry);
+            cells.computeIfAbsent(cell, c -> new ArrayList<>()).add(entry);
+        }
+        entry.cell = cell;
+        entry.latitude = latitude;
+        entry.longitude = longitude;
+    }
+
+    synchronized void remove(TrafficParticipant trafficParticipant) {
+        Entry entry = entries.remove(trafficParticipant);
+        if (entry != null) {
+            removeFromCell(entry);
+        }
+    }
+
+    private void removeFromCell(Entry entry) {
+        List<Entry> cellEntries = cells.get(entry.cell);
+        cellEntries.remove(entry);
+        if (cellEntries.isEmpty()) {
+            cells.remove(entry.cell);
+        }
+    }
+
+    /**
+     * @param longitude longitude of the center in degrees
+     * @param latitude  latitude of the center in degrees
+     * @param radius    radius in meters
+     * @return all participants within the radius around the given position
+     */
+    synchronized List<TrafficParticipant> getWithin(double longitude, double latitude, double radius) {
+        List<TrafficParticipant> result = new ArrayList<>();
+        double latitudeRange = radius / METERS_PER_DEGREE;
+        double longitudeRange = longitudeRange(latitude, radius);
+        int minX = column(longitude - longitudeRange);
+        int maxX = column(longitude + longitudeRange);
+        int minY = row(latitude - latitudeRange);
+        int maxY = row(latitude + latitudeRange);
+        if ((long) (maxX - minX + 1) * (maxY - minY + 1) > entries.size()) {
+            // less participants than cells to look at
+            for (Entry entry : entries.values()) {
+                if (distanceInMeters(latitude, longitude, entry.latitude, entry.longitude) <= radius) {
+                    result.add(entry.trafficParticipant);
+                }
+            }
+            return result;
+        }
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                List<Entry> cellEntries = cells.get(key(x, y));
+                if (cellEntries == null) {
+                    continue;
+                }
+                for (Entry entry : cellEntries) {
+                    if (distanceInMeters(latitude, longitude, entry.latitude, entry.longitude) <= radius) {
+                        result.add(entry.trafficParticipant);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Searches the cells in rings around the given position until no closer participant can be found anymore
+     *
+     * @param longitude longitude of the center in degrees
+     * @param latitude  latitude of the center in degrees
+     * @param k         maximum number of participants to return
+     * @return the k participants closest to the given position, the closest first
+     */
+    synchronized List<TrafficParticipant> getNearest(double longitude, double latitude, int k) {
+        // farthest of the current candidates at the head
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>((a, b) -> Double.compare(b.distance, a.distance));
+        int centerX = column(longitude);
+        int centerY = row(latitude);
+        int visited = 0;
+        for (int ring = 0; k > 0 && visited < entries.size(); ring++) {
+            for (int x = centerX - ring; x <= centerX + ring; x++) {
+                // only the border of the ring, the inner cells were searched before
+                int step = x == centerX - ring || x == centerX + ring ? 1 : Math.max(2 * ring, 1);
+                for (int y = centerY - ring; y <= centerY + ring; y += step) {
+                    List<Entry> cellEntries = cells.get(key(x, y));
+                    if (cellEntries == null) {
+                        continue;
+                    }
+                    for (Entry entry : cellEntries) {
+                        visited++;
+                        double distance = distanceInMeters(latitude, longitude, entry.latitude, entry.longitude);
+                        if (candidates.size() < k) {
+                            candidates.add(new Candidate(entry.trafficParticipant, distance));
+                        } else if (distance < candidates.peek().distance) {
+                            candidates.poll();
+                            candidates.add(new Candidate(entry.trafficParticipant, distance));
+                        }
+                    }
+                }
+            }
+            if (candidates.size() == k && candidates.peek().distance <= distanceOutside(longitude, latitude, centerX, centerY, ring)) {
+                break;
+            }
+        }
+
+        List<Candidate> sorted = new ArrayList<>(candidates);
+        sorted.sort((a, b) -> Double.compare(a.distance, b.distance));
+        List<TrafficParticipant> result = new ArrayList<>(sorted.size());
+        for (Candidate candidate : sorted) {
+            result.add(candidate.trafficParticipant);
+        }
+        return result;
+    }
+
+    /**
+     * @return the (approximate) minimum distance in meters between the position and any cell outside of the given ring
+     */
+    private double distanceOutside(double longitude, double latitude, int centerX, int centerY, int ring) {
+        double minLatitude = (centerY - ring) * cellSize;
+        double maxLatitude = (centerY + ring + 1) * cellSize;
+        double latitudeGap = Math.min(latitude - minLatitude, maxLatitude - latitude);
+        double longitudeGap = Math.min(longitude - (centerX - ring) * cellSize, (centerX + ring + 1) * cellSize - longitude);
+        // meridians converge, so the distance of a longitude gap is the smallest at the latitude farthest from the equator
+        double cos = Math.cos(Math.toRadians(Math.min(Math.max(Math.abs(minLatitude), Math.abs(maxLatitude)), 90)));
+        return Math.min(latitudeGap, longitudeGap * cos) * METERS_PER_DEGREE;
+    }
+
+    private double longitudeRange(double latitude, double radius) {
+        double cos = Math.cos(Math.toRadians(Math.min(Math.abs(latitude) + radius / METERS_PER_DEGREE, 89.9)));
+        return radius / (METERS_PER_DEGREE * cos);
+    }
+
+    private int column(double longitude) {
+        return (int) Math.floor(longitude / cellSize);
+    }
+
+    private int row(double latitude) {
+        return (int) Math.floor(latitude / cellSize);
+    }
+
+    private long cellOf(double longitude, double latitude) {
+        return key(column(longitude), row(latitude));
+    }
+
+    private static long key(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    static double distanceInMeters(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double latitudeDiff = Math.toRadians(latitude2 - latitude1);
+        double longitudeDiff = Math.toRadians(longitude2 - longitude1);
+        double a = Math.sin(latitudeDiff / 2) * Math.sin(latitudeDiff / 2)
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2))
+                * Math.sin(longitudeDiff / 2) * Math.sin(longitudeDiff / 2);
+        return EARTH_RADIUS * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+
+    private static final class Candidate {
+
+        private final TrafficParticipant trafficParticipant;
+        private final double distance;
+
+        private Candidate(TrafficParticipant trafficParticipant, double distance) {
+            this.trafficParticipant = trafficParticipant;
+            this.distance = distance;
+        }
+    }
+
+    /**
+     * A participant with the position it is indexed at
+     */
+    private static final class Entry {
+
+        private final TrafficParticipant trafficParticipant;
+        private long cell;
+        private double latitude;
+        private double longitude;
+
+        private Entry(TrafficParticipant trafficParticipant) {
+            this.trafficParticipant = trafficParticipant;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package library.services.logging;
+
+import library.services.logging.LogRingBuffer.LogRecord;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Hands log records over to a background thread, which writes them to the loggers in batches.
+ * The logging threads (e.g. federates in their time step loop) therefore never wait on disk writes or network I/O,
+ * unless the buffer is full and the {@link OverflowPolicy} is BLOCK.
+ * <p>
+ * There is a single consumer thread, so the order of the records is kept and the loggers don't need to be thread-safe.
+ * The {@link LoggingService} uses one dispatcher for its loggers, components with their own loggers can create another one.
+ */
+public class AsyncLogDispatcher {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final LogRingBuffer ringBuffer;
+    private final int batchSize;
+    private final OverflowPolicy overflowPolicy;
+    private final Supplier<Map<LoggingType, ILogger>> loggers;
+    private final Thread consumer;
+
+    private final AtomicLong droppedRecords = new AtomicLong();
+    private volatile long processedRecords = 0;
+    private volatile boolean consumerWaiting = false;
+    private volatile boolean running = true;
+
+    /**
+     * @param capacity       capacity of the ring buffer
+     * @param batchSize      maximum number of records written at once
+     * @param overflowPolicy what to do if the buffer is full
+     * @param loggers        supplies the currently registered loggers
+     */
+    public AsyncLogDispatcher(int capacity, int batchSize, OverflowPolicy overflowPolicy, Supplier<Map<LoggingType, ILogger>> loggers) {
+        this(capacity, batchSize, overflowPolicy, loggers, "LoggingService-Consumer");
+    }
+
+    /**
+     * @param capacity       capacity of the ring buffer
+     * @param batchSize      maximum number of records written at once
+     * @param overflowPolicy what to do if the buffer is full
+     * @param loggers        supplies the currently registered loggers
+     * @param consumerName   name of the consumer thread, so the dispatchers can be told apart in thread dumps
+     */
+    public AsyncLogDispatcher(int capacity, int batchSize, OverflowPolicy overflowPolicy, Supplier<Map<LoggingType, ILogger>> loggers,
+                              String consumerName) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize has to be positive");
+        }
+        this.ringBuffer = new LogRingBuffer(capacity);
+        this.batchSize = batchSize;
+        this.overflowPolicy = overflowPolicy;
+        this.loggers = loggers;
+        this.consumer = new Thread(this::consume, consumerName);
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    /**
+     * Queues a record for the given logger type, or for all loggers if the type is null
+     *
+     * @param loggingType type of the logger or null
+     * @param data        the data to log
+     */
+    public void dispatch(LoggingType loggingType, String data) {
+        LogRecord record = new LogRecord(loggingType, data);
+        while (!ringBuffer.offer(record)) {
+            // the consumer itself must never wait for space, e.g. if a logger logs itself
+            if (overflowPolicy == OverflowPolicy.DROP || !running || Thread.currentThread() == consumer) {
+                droppedRecords.incrementAndGet();
+                return;
+            }
+            LockSupport.unpark(consumer);
+            LockSupport.parkNanos(FULL_PARK_NANOS);
+        }
+        if (consumerWaiting) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    /**
+     * Waits until all records queued so far are written, at most for the given time
+     *
+     * @param timeoutMillis maximum time to wait
+     * @return true if all records were written
+     */
+    public boolean flush(long timeoutMillis) {
+        if (Thread.currentThread() == consumer) {
+            // e.g. a logger logging itself
+            return false;
+        }
+        long target = ringBuffer.getClaimedCount();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (processedRecords < target) {
+            if (!consumer.isAlive() || System.nanoTime() > deadline) {
+                return false;
+            }
+            LockSupport.unpark(consumer);
+            LockSupport.parkNanos(FULL_PARK_NANOS);
+        }
+        return true;
+    }
+
+    /**
+     * Writes all pending records and stops the consumer thread
+     *
+     * @param timeoutMillis maximum time to wait for the pending records
+     */
+    public void shutdown(long timeoutMillis) {
+        flush(timeoutMillis);
+        running = false;
+        LockSupport.unpark(consumer);
+    }
+
+    private void consume() {
+        List<LogRecord> batch = new ArrayList<>(batchSize);
+        while (running) {
+            batch.clear();
+            if (ringBuffer.drainTo(batch, batchSize) == 0) {
+                consumerWaiting = true;
+                // check again, a producer may have missed the flag
+                if (ringBuffer.drainTo(batch, batchSize) == 0) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+                consumerWaiting = false;
+                if (batch.isEmpty()) {
+                    continue;
+                }
+            }
+            write(batch);
+            processedRecords += batch.size();
+        }
+    }
+
+    private void write(List<LogRecord> batch) {
+        long dropped = droppedRecords.getAndSet(0);
+        for (Map.Entry<LoggingType, ILogger> entry : loggers.get().entrySet()) {
+            ILogger logger = entry.getValue();
+            List<String> data = new ArrayList<>(batch.size() + 1);
+            if (dropped > 0) {
+                data.add(dropped + " log records were dropped, since the logging buffer was full");
+            }
+            for (LogRecord record : batch) {
+                if (record.loggingType == null || record.loggingType == entry.getKey()) {
+                    data.add(record.data);
+                }
+            }
+            if (data.isEmpty()) {
+                continue;
+            }
+            try {
+                logger.logBatch(data);
+            } catch (IOException e) {
+                e.printStackTrace();
+            } catch (RuntimeException e) {
+                // a broken logger must not stop the logging of the whole simulation
+                e.printStackTrace();
+            }
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package library.services.logging;
 
+import java.util.List;
+
 /**
  * A basic Logger for logging to the console
  */
@@ -14,6 +16,16 @@ public class ConsoleLogger implements ILogger{
         System.out.println(data);
     }
 
+    /**
+     * Prints the whole batch at once, instead of one println per line
+     *
+     * @param data
+     */
+    @Override
+    public void logBatch(List<String> data) {
+        System.out.println(String.join(System.lineSeparator(), data));
+    }
+
     @Override
     public void close() {
 
@@ -6,6 +6,7 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 
 /**
  * FileLogger with minimal overhead
@@ -16,9 +17,17 @@ public class FileLogger implements ILogger{
     private BufferedWriter bufferedWriter;
 
     public FileLogger(){
+        this(null);
+    }
+
+    /**
+     * @param name added to the name of the log file, so several loggers started at the same time use different files
+     */
+    public FileLogger(String name){
         DateTimeFormatter dtf = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm");
         LocalDateTime now = LocalDateTime.now();
-        this.outputFile = new File(dtf.format(now) + "_sim.log");
+        String fileName = name == null ? dtf.format(now) : dtf.format(now) + "_" + name;
+        this.outputFile = new File(fileName + "_sim.log");
         try {
             this.bufferedWriter = new BufferedWriter(new FileWriter(outputFile));
         } catch (IOException e) {
@@ -31,6 +40,20 @@ public class FileLogger implements ILogger{
         bufferedWriter.write(data + "\n");
     }
 
+    /**
+     * Writes the whole batch and flushes the writer afterwards, so the log file is up to date after every batch
+     *
+     * @param data
+     * @throws IOException
+     */
+    @Override
+    public void logBatch(List<String> data) throws IOException {
+        for (String aData : data) {
+            bufferedWriter.write(aData + "\n");
+        }
+        bufferedWriter.flush();
+    }
+
     @Override
     public void close() {
         try {
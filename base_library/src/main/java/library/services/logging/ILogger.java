@@ -1,11 +1,25 @@
 package library.services.logging;
 
 import java.io.IOException;
+import java.util.List;
 
 /**
  * Every Logger Class needs to provide a logData Method
  */
 public interface ILogger {
     void logData(String data) throws IOException;
+
+    /**
+     * Logs several data strings at once, loggers may override this to write them more efficiently
+     *
+     * @param data the data strings in the order they were logged
+     * @throws IOException
+     */
+    default void logBatch(List<String> data) throws IOException {
+        for (String aData : data) {
+            logData(aData);
+        }
+    }
+
     void close();
 }
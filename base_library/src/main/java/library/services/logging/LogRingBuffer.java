@@ -0,0 +1,117 @@
+package library.services.logging;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded, lock-free ring buffer for log records with many producers and a single consumer.
+ * Every slot has a sequence number which tells producers and the consumer if the slot is free or filled
+ * (see D. Vyukov's bounded MPMC queue), so neither side ever takes a lock.
+ */
+final class LogRingBuffer {
+
+    private final int capacity;
+    private final int mask;
+    private final LogRecord[] records;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+
+    // only accessed by the consumer thread
+    private long head = 0;
+
+    /**
+     * @param capacity minimal capacity of the buffer, rounded up to the next power of two
+     */
+    LogRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity has to be positive");
+        }
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.capacity = size;
+        this.mask = this.capacity - 1;
+        this.records = new LogRecord[this.capacity];
+        this.sequences = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds a record to the buffer, may be called by any thread
+     *
+     * @param record record to add
+     * @return false if the buffer is full
+     */
+    boolean offer(LogRecord record) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    records[index] = record;
+                    // publishes the record to the consumer
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (difference < 0) {
+                return false;
+            }
+            // another producer claimed the slot in the meantime, try the next one
+        }
+    }
+
+    /**
+     * Moves up to maxRecords records into the given batch, must only be called by the consumer thread
+     *
+     * @param batch      list to add the records to
+     * @param maxRecords maximum number of records to move
+     * @return number of moved records
+     */
+    int drainTo(List<LogRecord> batch, int maxRecords) {
+        int drained = 0;
+        while (drained < maxRecords) {
+            int index = (int) head & mask;
+            if (sequences.get(index) != head + 1) {
+                // empty, or the next record is not completely published yet
+                break;
+            }
+            batch.add(records[index]);
+            records[index] = null;
+            // frees the slot for the producers
+            sequences.set(index, head + capacity);
+            head++;
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * @return number of records ever claimed by producers
+     */
+    long getClaimedCount() {
+        return tail.get();
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * A single log record, either for all loggers or for the logger of a specific type
+     */
+    static final class LogRecord {
+
+        final LoggingType loggingType;
+        final String data;
+
+        LogRecord(LoggingType loggingType, String data) {
+            this.loggingType = loggingType;
+            this.data = data;
+        }
+    }
+}
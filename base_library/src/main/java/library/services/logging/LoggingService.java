@@ -5,18 +5,41 @@ import java.net.SocketException;
 import java.net.UnknownHostException;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Holds all loggers and is able to command every single one to log a specific data string
+ * Holds all loggers and is able to command every single one to log a specific data string.
+ * <p>
+ * By default the data is logged asynchronously: it is put into a lock-free ring buffer and written to the loggers
+ * in batches by a background thread, so the logging thread does not wait on disk writes or network I/O.
+ * See {@link #configureAsynchronousLogging(int, int, OverflowPolicy)} and {@link #setAsynchronous(boolean)}.
  */
 public class LoggingService {
-    private static HashMap<LoggingType, ILogger> loggers = new HashMap<>();
+
+    public static final int DEFAULT_BUFFER_CAPACITY = 8192;
+    public static final int DEFAULT_BATCH_SIZE = 256;
+    private static final long FLUSH_TIMEOUT_MILLIS = 5000;
+
+    private static Map<LoggingType, ILogger> loggers = new ConcurrentHashMap<>();
+
+    private static volatile boolean asynchronous = true;
+    private static volatile AsyncLogDispatcher dispatcher;
+    private static int bufferCapacity = DEFAULT_BUFFER_CAPACITY;
+    private static int batchSize = DEFAULT_BATCH_SIZE;
+    private static OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+
+    static {
+        // write what is still in the buffer when the simulation ends
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> flush(), "LoggingService-Shutdown"));
+    }
 
     public LoggingService() {
     }
 
     public LoggingService(HashMap<LoggingType, ILogger> loggers) {
-        this.loggers = loggers;
+        flush();
+        LoggingService.loggers = new ConcurrentHashMap<>(loggers);
     }
 
     public static void log(String data) {
@@ -30,6 +53,10 @@ public class LoggingService {
      * @throws IOException
      */
     public static void logWithAll(String data) {
+        if (asynchronous) {
+            getDispatcher().dispatch(null, data);
+            return;
+        }
         for (ILogger logger : loggers.values()) {
             try {
                 logger.logData(data);
@@ -46,6 +73,12 @@ public class LoggingService {
      * @param data
      */
     public static void log(LoggingType loggingType, String data) {
+        if (asynchronous) {
+            if (loggers.containsKey(loggingType)) {
+                getDispatcher().dispatch(loggingType, data);
+            }
+            return;
+        }
         try {
             if (loggers.containsKey(loggingType)) {
                 loggers.get(loggingType).logData(data);
@@ -88,10 +121,11 @@ public class LoggingService {
      * closes and removes all loggers
      */
     public static void removeAllLoggers() {
+        flush();
         for (ILogger logger : loggers.values()) {
             logger.close();
         }
-        loggers = new HashMap<>();
+        loggers = new ConcurrentHashMap<>();
     }
 
     /**
@@ -100,11 +134,81 @@ public class LoggingService {
      * @param loggingType
      */
     public static void removeLogger(LoggingType loggingType) {
+        flush();
         loggers.get(loggingType).close();
         loggers.remove(loggingType);
     }
 
+    /**
+     * Returns the registered loggers, after all data logged so far has been written to them
+     *
+     * @return the registered loggers
+     */
     public static Collection<ILogger> getLoggers() {
+        flush();
         return loggers.values();
     }
+
+    /**
+     * Waits until all data logged so far has been written by the loggers (for a few seconds at most)
+     */
+    public static void flush() {
+        AsyncLogDispatcher currentDispatcher = dispatcher;
+        if (currentDispatcher != null) {
+            currentDispatcher.flush(FLUSH_TIMEOUT_MILLIS);
+        }
+    }
+
+    /**
+     * Configures the asynchronous logging. Data that is still pending is written before the configuration changes.
+     *
+     * @param capacity       number of log records the buffer can hold (rounded up to the next power of two)
+     * @param batchSize      maximum number of records the background thread writes to the loggers at once
+     * @param overflowPolicy whether records are dropped or the logging thread waits, if the buffer is full
+     */
+    public static synchronized void configureAsynchronousLogging(int capacity, int batchSize, OverflowPolicy overflowPolicy) {
+        if (capacity <= 0 || batchSize <= 0 || overflowPolicy == null) {
+            throw new IllegalArgumentException("capacity and batchSize have to be positive and overflowPolicy must not be null");
+        }
+        LoggingService.bufferCapacity = capacity;
+        LoggingService.batchSize = batchSize;
+        LoggingService.overflowPolicy = overflowPolicy;
+        stopDispatcher();
+    }
+
+    /**
+     * Switches between asynchronous logging and logging directly on the calling thread
+     *
+     * @param asynchronous true to log asynchronously (default)
+     */
+    public static synchronized void setAsynchronous(boolean asynchronous) {
+        if (!asynchronous) {
+            stopDispatcher();
+        }
+        LoggingService.asynchronous = asynchronous;
+    }
+
+    public static boolean isAsynchronous() {
+        return asynchronous;
+    }
+
+    private static AsyncLogDispatcher getDispatcher() {
+        AsyncLogDispatcher currentDispatcher = dispatcher;
+        if (currentDispatcher == null) {
+            synchronized (LoggingService.class) {
+                if (dispatcher == null) {
+                    dispatcher = new AsyncLogDispatcher(bufferCapacity, batchSize, overflowPolicy, () -> loggers);
+                }
+                currentDispatcher = dispatcher;
+            }
+        }
+        return currentDispatcher;
+    }
+
+    private static void stopDispatcher() {
+        if (dispatcher != null) {
+            dispatcher.shutdown(FLUSH_TIMEOUT_MILLIS);
+            dispatcher = null;
+        }
+    }
 }
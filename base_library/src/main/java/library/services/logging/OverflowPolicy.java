@@ -0,0 +1,17 @@
+package library.services.logging;
+
+/**
+ * Decides what happens to a log record if the buffer of the asynchronous logging is full
+ */
+public enum OverflowPolicy {
+
+    /**
+     * the record is dropped, the number of dropped records is logged as soon as there is space again
+     */
+    DROP,
+
+    /**
+     * the logging thread waits until there is space in the buffer again
+     */
+    BLOCK
+}
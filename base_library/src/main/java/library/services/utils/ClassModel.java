@@ -0,0 +1,202 @@
+package library.services.utils;
+
+import java.beans.IntrospectionException;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The reflection metadata of a class: its inheritance stack, its fields (including the fields of its superclasses),
+ * its getters and setters and the generic types of its fields.
+ * The metadata is computed once per class on first use and then shared by all callers (and threads), so reflection
+ * in the hot paths (e.g. when reflecting attribute values) boils down to a few map lookups.
+ */
+public final class ClassModel {
+
+    private static final Map<Class<?>, ClassModel> MODELS = new ConcurrentHashMap<>();
+    private static final Map<Field, Optional<Class<?>>> GENERIC_TYPES = new ConcurrentHashMap<>();
+
+    private final Class<?> type;
+
+    // the class itself first, Object last
+    private final List<Class<?>> hierarchy;
+
+    // fields of the classes below a class of the hierarchy, by that class (Object.class for all fields)
+    private final Map<Class<?>, FieldTable> fieldTables = new ConcurrentHashMap<>();
+
+    private final Map<String, Optional<Method>> getters = new ConcurrentHashMap<>();
+    private final Map<String, Optional<Method>> setters = new ConcurrentHashMap<>();
+
+    private ClassModel(Class<?> type) {
+        this.type = type;
+        List<Class<?>> classes = new ArrayList<>();
+        for (Class<?> clazz = type; clazz != null; clazz = clazz.getSuperclass()) {
+            classes.add(clazz);
+        }
+        this.hierarchy = Collections.unmodifiableList(classes);
+    }
+
+    /**
+     * @param type the class
+     * @return the (shared) model of the class
+     */
+    public static ClassModel of(Class<?> type) {
+        return MODELS.computeIfAbsent(type, ClassModel::new);
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * @return the class itself followed by all its superclasses, Object last
+     */
+    public List<Class<?>> getHierarchy() {
+        return hierarchy;
+    }
+
+    /**
+     * Creates a stack of the classes of the inheritance structure, the class itself at the bottom
+     *
+     * @param stopAt topmost class to put on the stack, the stack goes up to Object if it is null or not a superclass
+     * @return a new stack the caller is free to modify
+     */
+    public Stack<Class<?>> getInheritanceStack(Class<?> stopAt) {
+        Stack<Class<?>> classes = new Stack<>();
+        for (Class<?> clazz : hierarchy) {
+            classes.push(clazz);
+            if (clazz != type && clazz == stopAt) {
+                break;
+            }
+        }
+        return classes;
+    }
+
+    /**
+     * @return all fields of the class and its superclasses, the fields of the class itself first
+     */
+    public List<Field> getFields() {
+        return getFieldTable(Object.class).fields;
+    }
+
+    /**
+     * @param stopAt superclass whose fields (and the fields of its superclasses) are left out
+     * @return the fields of the class and its superclasses below the given class, the fields of the class itself first
+     */
+    public List<Field> getFields(Class<?> stopAt) {
+        return getFieldTable(stopAt).fields;
+    }
+
+    /**
+     * Searches a field by its name, ignoring the case. If several fields match, the one declared lowest in the
+     * inheritance structure is returned.
+     *
+     * @param name   name of the field
+     * @param stopAt superclass whose fields (and the fields of its superclasses) are left out
+     * @return the field or null if there is none
+     */
+    public Field getField(String name, Class<?> stopAt) {
+        return getFieldTable(stopAt).fieldsByName.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    private FieldTable getFieldTable(Class<?> stopAt) {
+        return fieldTables.computeIfAbsent(stopAt != null ? stopAt : Object.class, this::createFieldTable);
+    }
+
+    private FieldTable createFieldTable(Class<?> stopAt) {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> clazz : hierarchy) {
+            if (clazz != type && clazz == stopAt) {
+                break;
+            }
+            fields.addAll(Arrays.asList(clazz.getDeclaredFields()));
+        }
+        return new FieldTable(fields);
+    }
+
+    /**
+     * Resolves the getter of a property, named "is..." or "get..."
+     *
+     * @param property name of the property
+     * @return the getter or null if there is none
+     */
+    public Method getGetter(String property) {
+        return getters.computeIfAbsent(property, p -> Optional.ofNullable(findGetter(p))).orElse(null);
+    }
+
+    /**
+     * Resolves the setter of a property, named "set..."
+     *
+     * @param property name of the property
+     * @return the setter or null if there is none
+     */
+    public Method getSetter(String property) {
+        return setters.computeIfAbsent(property, p -> Optional.ofNullable(findSetter(p))).orElse(null);
+    }
+
+    private Method findGetter(String property) {
+        try {
+            return new PropertyDescriptor(property, type, "is" + capitalize(property), null).getReadMethod();
+        } catch (IntrospectionException e) {
+            return null;
+        }
+    }
+
+    private Method findSetter(String property) {
+        try {
+            return new PropertyDescriptor(property, type, null, "set" + capitalize(property)).getWriteMethod();
+        } catch (IntrospectionException e) {
+            return null;
+        }
+    }
+
+    private static String capitalize(String property) {
+        return Character.toUpperCase(property.charAt(0)) + property.substring(1);
+    }
+
+    /**
+     * Resolves the (first) type argument of a generic field, e.g. Double for a SimulationProperty&lt;Double&gt;
+     *
+     * @param field the generic field
+     * @return the type argument or null if the field isn't generic or its type argument isn't a class
+     */
+    public static Class<?> getGenericType(Field field) {
+        return GENERIC_TYPES.computeIfAbsent(field, f -> Optional.ofNullable(findGenericType(f))).orElse(null);
+    }
+
+    private static Class<?> findGenericType(Field field) {
+        if (!(field.getGenericType() instanceof ParameterizedType)) {
+            return null;
+        }
+        Type actualType = ((ParameterizedType) field.getGenericType()).getActualTypeArguments()[0];
+        return actualType instanceof Class ? (Class<?>) actualType : null;
+    }
+
+    /**
+     * Fields of a part of the inheritance structure, with an index by their lower case name
+     */
+    private static final class FieldTable {
+
+        private final List<Field> fields;
+        private final Map<String, Field> fieldsByName = new HashMap<>();
+
+        private FieldTable(List<Field> fields) {
+            this.fields = Collections.unmodifiableList(fields);
+            for (Field field : fields) {
+                fieldsByName.putIfAbsent(field.getName().toLowerCase(Locale.ROOT), field);
+            }
+        }
+    }
+}
@@ -1,13 +1,13 @@
 package library.services.utils;
 
-import java.beans.IntrospectionException;
-import java.beans.PropertyDescriptor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
-import java.util.Arrays;
 
+/**
+ * Reflection helpers, backed by the shared metadata of {@link ClassModel}
+ */
 public class ReflectionUtils {
 
     /**
@@ -17,17 +17,7 @@ public class ReflectionUtils {
      * @return list of all attributes in the class
      */
     public static ArrayList<Field> getFieldsOfClass(Class<?> classOfSimObject) {
-        ArrayList<Field> fields = new ArrayList<>(Arrays.asList(classOfSimObject.getDeclaredFields()));
-        Class<?> superClass = classOfSimObject.getSuperclass();
-        while (true) {
-            fields.addAll(Arrays.asList(superClass.getDeclaredFields()));
-            if (superClass.getSuperclass() == null) {
-                break;
-            } else {
-                superClass = superClass.getSuperclass();
-            }
-        }
-        return fields;
+        return new ArrayList<>(ClassModel.of(classOfSimObject).getFields());
     }
 
     /**
@@ -39,29 +29,18 @@ public class ReflectionUtils {
      */
     public static Object getValueObjectFromField(Field field, Object object) {
         try {
-            String property = field.getName();
-            Method method = new PropertyDescriptor(property, object.getClass(), "is" + Character.toUpperCase(property.charAt(0)) + property.substring(1), null).getReadMethod();
+            Method method = ClassModel.of(object.getClass()).getGetter(field.getName());
             if (method == null) {
                 return null;
             }
             return method.invoke(object);
-        } catch (IllegalAccessException | InvocationTargetException | IntrospectionException e) {
+        } catch (IllegalAccessException | InvocationTargetException e) {
             return null;
         }
     }
 
     public static ArrayList<Field> getAllFieldsOfClass(Class clazz) {
-        ArrayList<Field> fields = new ArrayList<>(Arrays.asList(clazz.getDeclaredFields()));
-        Class superClass = clazz.getSuperclass();
-        while (true) {
-            fields.addAll(Arrays.asList(superClass.getDeclaredFields()));
-            if (superClass.getSuperclass() == null) {
-                break;
-            } else {
-                superClass = superClass.getSuperclass();
-            }
-        }
-        return fields;
+        return getFieldsOfClass(clazz);
     }
 
     public static ArrayList<Field> getAllFieldsOfClass(Object object) {
@@ -0,0 +1,52 @@
+package library.model.simulation;
+
+import library.model.simulation.enums.SimulationPropertyType;
+import library.model.simulation.units.NoUnit;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Marshaller;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SimulationPropertyTest {
+
+    @org.junit.jupiter.api.Test
+    void doubleValueTest() {
+        SimulationProperty<Double> property = new SimulationProperty<>(NoUnit.get(), 1.5, "speed");
+        assertEquals(1.5, property.getDoubleValue());
+
+        property.setDoubleValue(2.5);
+        assertEquals(2.5, property.getDoubleValue());
+        assertEquals(2.5, property.getValue());
+        assertEquals(SimulationPropertyType.SINGLE, property.getAttributeType());
+
+        // a value set as object replaces a pending double value
+        property.setDoubleValue(3.5);
+        property.setSingleValue(4.5);
+        assertEquals(4.5, property.getDoubleValue());
+        assertEquals(4.5, property.getValue());
+
+        SimulationProperty<Integer> integerProperty = new SimulationProperty<>(NoUnit.get(), 7, "count");
+        assertEquals(7.0, integerProperty.getDoubleValue());
+    }
+
+    @org.junit.jupiter.api.Test
+    void rangedDoubleValueTest() {
+        SimulationProperty<Double> property = SimulationProperty.getRangedSimulationAttribute(false, false, NoUnit.get(), 0, 2, 1, "ranged");
+        assertEquals(1.0, property.next());
+        assertEquals(1.0, property.getDoubleValue());
+    }
+
+    @org.junit.jupiter.api.Test
+    void marshalDoubleValueTest() throws Exception {
+        SimulationProperty<Double> property = new SimulationProperty<>(NoUnit.get(), 1.5, "latitude");
+        property.setDoubleValue(53.25);
+
+        Marshaller marshaller = JAXBContext.newInstance(SimulationProperty.class).createMarshaller();
+        StringWriter writer = new StringWriter();
+        marshaller.marshal(property, writer);
+        assertTrue(writer.toString().contains("53.25"));
+    }
+}
@@ -3,7 +3,13 @@ package library.services.geodata;
 import library.model.dto.scenario.ScenarioDTO;
 import library.model.simulation.Position;
 import library.model.traffic.Infrastructure;
+import library.model.traffic.Obstacle;
+import library.model.traffic.PossibleDomains;
+import library.model.traffic.TrafficParticipant;
 import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.io.ParseException;
 
 import java.io.IOException;
@@ -11,6 +17,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class MapDataProviderTest {
 
@@ -26,4 +34,138 @@ class MapDataProviderTest {
         assertEquals(1, infrastructures1.size());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void getInfrastructureAndObstaclesFromIndex() throws ParseException {
+        ScenarioDTO scenario = new ScenarioDTO();
+        Infrastructure water = new Infrastructure(true, new Position(8.05, 53.05, 0), rectangle(8.0, 53.0, 8.1, 53.1), 0);
+        water.addDomain(PossibleDomains.MARITIME);
+        scenario.addSimulationObject(water);
+        // the envelope of the triangle covers its whole bounding box, the exact geometry only the lower right half
+        Infrastructure triangle = new Infrastructure(true, new Position(8.25, 53.05, 0), triangle(8.2, 53.0, 8.3, 53.1), 0);
+        triangle.addDomain(PossibleDomains.MARITIME);
+        scenario.addSimulationObject(triangle);
+        Obstacle wall = new Obstacle(true, new Position(8.05, 53.05, 0), rectangle(8.04, 53.0, 8.06, 53.08), 0);
+        scenario.addSimulationObject(wall);
+        MapDataProvider mapDataProvider = new MapDataProvider(scenario);
+
+        assertEquals(List.of(water), mapDataProvider.getInfrastructureAtPosition(new Position(8.02, 53.02, 0)));
+        assertEquals(List.of(triangle), mapDataProvider.getInfrastructureAtPosition(new Position(8.28, 53.02, 0)));
+        // within the envelope of the triangle, but outside of it
+        assertTrue(mapDataProvider.getInfrastructureAtPosition(new Position(8.22, 53.08, 0)).isEmpty());
+        // outside of every envelope
+        assertTrue(mapDataProvider.getInfrastructureAtPosition(new Position(8.15, 53.05, 0)).isEmpty());
+        // only usable by the maritime domain
+        assertEquals(List.of(water), mapDataProvider.getInfrastructureAtPosition(new Position(8.02, 53.02, 0), PossibleDomains.MARITIME));
+        assertTrue(mapDataProvider.getInfrastructureAtPosition(new Position(8.02, 53.02, 0), PossibleDomains.STREET).isEmpty());
+
+        assertEquals(List.of(wall), mapDataProvider.getObstacleAtPosition(new Position(8.05, 53.02, 0), null));
+        assertTrue(mapDataProvider.getObstacleAtPosition(new Position(8.05, 53.09, 0), null).isEmpty());
+        // detected obstacles are found besides the ones of the map
+        Obstacle detected = new Obstacle(true, new Position(8.02, 53.02, 0), rectangle(8.01, 53.01, 8.03, 53.03), 0);
+        ArrayList<Obstacle> detectedObstacles = new ArrayList<>(List.of(detected));
+        assertEquals(List.of(detected), mapDataProvider.getObstacleAtPosition(new Position(8.02, 53.02, 0), detectedObstacles));
+
+        Geometry line = new GeometryFactory().createLineString(new Coordinate[]{new Coordinate(8.02, 53.02), new Coordinate(8.08, 53.02)});
+        assertEquals(List.of(wall), mapDataProvider.getObstacleIntersected(line, null));
+        assertEquals(List.of(wall, detected), mapDataProvider.getObstacleIntersected(line, detectedObstacles));
+
+        assertTrue(mapDataProvider.isNavigableAt(8.02, 53.05, PossibleDomains.MARITIME, null));
+        assertFalse(mapDataProvider.isNavigableAt(8.05, 53.02, PossibleDomains.MARITIME, null));
+        assertFalse(mapDataProvider.isNavigableAt(8.02, 53.02, PossibleDomains.MARITIME, detectedObstacles));
+        assertFalse(mapDataProvider.isNavigableAt(8.22, 53.08, PossibleDomains.MARITIME, null));
+        assertFalse(mapDataProvider.isNavigableAt(8.15, 53.05, PossibleDomains.MARITIME, null));
+    }
+
+    @Test
+    public void getTrafficParticipantsNearby() {
+        ScenarioDTO scenario = new ScenarioDTO();
+        // one participant every 0.005 degrees of longitude (about 330 m at this latitude)
+        List<TrafficParticipant> trafficParticipants = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            TrafficParticipant trafficParticipant = createTrafficParticipant(8.5 + i * 0.005, 53.5);
+            trafficParticipants.add(trafficParticipant);
+            scenario.addSimulationObject(trafficParticipant);
+        }
+        MapDataProvider mapDataProvider = new MapDataProvider(scenario);
+
+        List<TrafficParticipant> inRange = mapDataProvider.getTrafficParticipantsInRange(8.5, 53.5, 700);
+        assertEquals(3, inRange.size());
+        assertTrue(inRange.containsAll(trafficParticipants.subList(0, 3)));
+
+        List<TrafficParticipant> nearest = mapDataProvider.getNearestTrafficParticipants(8.5 + 10 * 0.005, 53.5, 3);
+        assertEquals(List.of(trafficParticipants.get(10)), nearest.subList(0, 1));
+        assertTrue(nearest.containsAll(trafficParticipants.subList(9, 12)));
+
+        // moved participants are found at their new position
+        trafficParticipants.get(19).getPosition().getValue().setLongitude(8.501);
+        mapDataProvider.updateTrafficParticipant(trafficParticipants.get(19));
+        assertEquals(4, mapDataProvider.getTrafficParticipantsInRange(8.5, 53.5, 700).size());
+        assertEquals(trafficParticipants.get(19), mapDataProvider.getNearestTrafficParticipants(8.5011, 53.5, 1).get(0));
+    }
+
+    @Test
+    public void reflectedTrafficParticipantsReplaceTheirScenarioParticipant() {
+        ScenarioDTO scenario = new ScenarioDTO();
+        TrafficParticipant remote = createTrafficParticipant(8.5, 53.5);
+        TrafficParticipant hosted = createTrafficParticipant(8.51, 53.5);
+        scenario.addSimulationObject(remote);
+        scenario.addSimulationObject(hosted);
+        MapDataProvider mapDataProvider = new MapDataProvider(scenario);
+        MapDataProvider.addToMap(hosted, mapDataProvider);
+        try {
+            // the copy reflected from the federate hosting the participant is found instead of the scenario participant
+            TrafficParticipant reflectedRemote = createTrafficParticipant(8.6, 53.5);
+            reflectedRemote.setId(remote.getId());
+            mapDataProvider.updateTrafficParticipant(reflectedRemote);
+            assertTrue(mapDataProvider.getTrafficParticipantsInRange(8.5, 53.5, 100).isEmpty());
+            assertEquals(List.of(reflectedRemote), mapDataProvider.getTrafficParticipantsInRange(8.6, 53.5, 100));
+
+            // participants hosted with this map are kept up to date by their own federate
+            TrafficParticipant reflectedHosted = createTrafficParticipant(8.7, 53.5);
+            reflectedHosted.setId(hosted.getId());
+            mapDataProvider.updateTrafficParticipant(reflectedHosted);
+            assertEquals(List.of(hosted), mapDataProvider.getTrafficParticipantsInRange(8.51, 53.5, 100));
+            assertTrue(mapDataProvider.getTrafficParticipantsInRange(8.7, 53.5, 100).isEmpty());
+        } finally {
+            MapDataProvider.removeFromMap(hosted);
+        }
+    }
+
+    @Test
+    public void removedTrafficParticipantsAreNotFound() {
+        ScenarioDTO scenario = new ScenarioDTO();
+        TrafficParticipant remote = createTrafficParticipant(8.5, 53.5);
+        scenario.addSimulationObject(remote);
+        MapDataProvider mapDataProvider = new MapDataProvider(scenario);
+
+        TrafficParticipant reflectedRemote = createTrafficParticipant(8.6, 53.5);
+        reflectedRemote.setId(remote.getId());
+        mapDataProvider.updateTrafficParticipant(reflectedRemote);
+        mapDataProvider.removeTrafficParticipant(reflectedRemote);
+
+        // neither the deleted copy nor the scenario participant it replaced are found anymore
+        assertTrue(mapDataProvider.getTrafficParticipantsInRange(8.6, 53.5, 100).isEmpty());
+        assertTrue(mapDataProvider.getTrafficParticipantsInRange(8.5, 53.5, 100).isEmpty());
+        assertTrue(mapDataProvider.getNearestTrafficParticipants(8.5, 53.5, 5).isEmpty());
+    }
+
+    private static Geometry rectangle(double minLongitude, double minLatitude, double maxLongitude, double maxLatitude) {
+        return new GeometryFactory().createPolygon(new Coordinate[]{
+                new Coordinate(minLongitude, minLatitude), new Coordinate(maxLongitude, minLatitude),
+                new Coordinate(maxLongitude, maxLatitude), new Coordinate(minLongitude, maxLatitude),
+                new Coordinate(minLongitude, minLatitude)});
+    }
+
+    private static Geometry triangle(double minLongitude, double minLatitude, double maxLongitude, double maxLatitude) {
+        return new GeometryFactory().createPolygon(new Coordinate[]{
+                new Coordinate(minLongitude, minLatitude), new Coordinate(maxLongitude, minLatitude),
+                new Coordinate(maxLongitude, maxLatitude), new Coordinate(minLongitude, minLatitude)});
+    }
+
+    private static TrafficParticipant createTrafficParticipant(double longitude, double latitude) {
+        return new TrafficParticipant(1, true, new Position(longitude, latitude, 0),
+                                      new GeometryFactory().createPoint(new Coordinate(longitude, latitude)), 0,
+                                      PossibleDomains.values()[0], 1.0, 0.0, 0.0, 0.0,
+                                      new Position(longitude, latitude, 0), 1, 1);
+    }
+}
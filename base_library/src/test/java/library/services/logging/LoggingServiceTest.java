@@ -3,6 +3,12 @@ package library.services.logging;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class LoggingServiceTest {
 
@@ -21,6 +27,82 @@ class LoggingServiceTest {
         loggingService.removeAllLoggers();
     }
 
+    @org.junit.jupiter.api.Test
+    void asynchronousLoggingKeepsOrderTest() throws InterruptedException {
+        List<String> loggedData = Collections.synchronizedList(new ArrayList<>());
+        registerCollectingLogger(loggedData, 0);
+        LoggingService.configureAsynchronousLogging(16, 4, OverflowPolicy.BLOCK);
+
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final int thread = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    LoggingService.logWithAll(thread + ":" + i);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        LoggingService.flush();
+
+        // nothing is lost with BLOCK and the records of each thread keep their order
+        assertEquals(4000, loggedData.size());
+        int[] lastIndex = {-1, -1, -1, -1};
+        for (String data : loggedData) {
+            String[] parts = data.split(":");
+            int thread = Integer.parseInt(parts[0]);
+            int index = Integer.parseInt(parts[1]);
+            assertEquals(lastIndex[thread] + 1, index);
+            lastIndex[thread] = index;
+        }
+    }
+
+    @org.junit.jupiter.api.Test
+    void asynchronousLoggingDropsWhenFullTest() {
+        List<String> loggedData = Collections.synchronizedList(new ArrayList<>());
+        registerCollectingLogger(loggedData, 1);
+        LoggingService.configureAsynchronousLogging(16, 4, OverflowPolicy.DROP);
+
+        for (int i = 0; i < 500; i++) {
+            LoggingService.logWithAll("Entry " + i);
+        }
+        LoggingService.logWithAll("Last Entry");
+        LoggingService.flush();
+
+        // the slow logger can't keep up, so records are dropped instead of blocking the logging thread
+        assertTrue(loggedData.size() < 500);
+    }
+
+    private void registerCollectingLogger(List<String> loggedData, long delayMillis) {
+        HashMap<LoggingType, ILogger> loggers = new HashMap<>();
+        loggers.put(LoggingType.EXAMPLE, new ILogger() {
+            @Override
+            public void logData(String data) {
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException e) {
+                    e.printStackTrace();
+                }
+                loggedData.add(data);
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+        new LoggingService(loggers);
+    }
+
+    // the logging service is static, so a failed test mustn't leave its loggers or configuration to the next ones
+    @org.junit.jupiter.api.AfterEach
+    void resetLoggingService() {
+        LoggingService.configureAsynchronousLogging(LoggingService.DEFAULT_BUFFER_CAPACITY, LoggingService.DEFAULT_BATCH_SIZE, OverflowPolicy.BLOCK);
+        LoggingService.removeAllLoggers();
+    }
+
     //Attempts to call the deleteLog() methods on each Logger if it exists
     void deleteLogFiles(LoggingService ls) {
         ArrayList<ILogger> loggers = new ArrayList<>(ls.getLoggers());
@@ -0,0 +1,81 @@
+package benchmarks;
+
+import library.model.dto.scenario.ScenarioDTO;
+import library.model.traffic.Infrastructure;
+import library.services.geodata.GeoPackageReader;
+import library.services.geodata.MapDataProvider;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+
+/**
+ * Locates the scenarios and geodata bundled with the project, so the benchmarks run offline and on the same data.
+ */
+public class BenchmarkResources {
+
+    /**
+     * System property to point the benchmarks at another scenarios directory
+     */
+    public static final String SCENARIOS_DIRECTORY_PROPERTY = "benchmarks.scenarios";
+
+    public static final String WATERBODY_GEOPACKAGE = "/library/services/geodata/waterbody.gpkg";
+
+    /**
+     * Returns the directory holding the scenario xml files. Unless set by {@link #SCENARIOS_DIRECTORY_PROPERTY}, the
+     * scenarios directory of the project is searched from the working directory upwards.
+     *
+     * @return the scenarios directory
+     * @throws IOException if no scenarios directory can be found
+     */
+    public static Path getScenariosDirectory() throws IOException {
+        String configuredDirectory = System.getProperty(SCENARIOS_DIRECTORY_PROPERTY);
+        if (configuredDirectory != null && !configuredDirectory.isBlank()) {
+            return Path.of(configuredDirectory);
+        }
+        Path directory = Path.of("").toAbsolutePath();
+        while (directory != null) {
+            Path scenarios = directory.resolve("scenarios");
+            if (Files.isDirectory(scenarios)) {
+                return scenarios;
+            }
+            directory = directory.getParent();
+        }
+        throw new IOException("scenarios directory not found, set -D" + SCENARIOS_DIRECTORY_PROPERTY);
+    }
+
+    /**
+     * Reads the infrastructures of a bundled GeoPackage. The reader needs a real file, therefore the resource is copied
+     * to a temporary file first (the resource may be packed inside the benchmarks jar).
+     *
+     * @param resource path of the GeoPackage resource
+     * @return the infrastructures of the GeoPackage
+     * @throws IOException if the resource can't be found or read
+     */
+    public static ArrayList<Infrastructure> readGeoPackage(String resource) throws IOException {
+        File file = File.createTempFile("benchmark", ".gpkg");
+        file.deleteOnExit();
+        try (InputStream inputStream = GeoPackageReader.class.getResourceAsStream(resource)) {
+            if (inputStream == null) {
+                throw new IOException("resource " + resource + " not found");
+            }
+            Files.copy(inputStream, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        return new GeoPackageReader().read(file.getAbsolutePath());
+    }
+
+    /**
+     * @param resource path of the GeoPackage resource
+     * @return a map holding all infrastructures of the given GeoPackage
+     * @throws IOException if the resource can't be found or read
+     */
+    public static MapDataProvider createMapDataProvider(String resource) throws IOException {
+        ScenarioDTO scenario = new ScenarioDTO();
+        readGeoPackage(resource).forEach(scenario::addSimulationObject);
+        return new MapDataProvider(scenario);
+    }
+}
@@ -0,0 +1,77 @@
+package benchmarks.federate;
+
+import hla.rti1516e.encoding.DecoderException;
+import hla.rti1516e.encoding.EncoderException;
+import library.model.traffic.PossibleDomains;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.portico.impl.hla1516e.Rti1516eFactory;
+import simulation.federate.handler.AttributeCodec;
+import simulation.federate.handler.AttributeCodecRegistry;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding of a single attribute value, as done by the OutgoingDataHandler for every published and by the
+ * IncomingDataHandler for every reflected attribute. Both handlers need a connected RTIambassador, so the benchmark
+ * calls the codecs they resolve per attribute handle directly.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AttributeCodecBenchmark {
+
+    @Param({"Double", "Integer", "Boolean", "String", "Enum"})
+    public String attributeType;
+
+    private AttributeCodec codec;
+    private Object value;
+    private byte[] encodedValue;
+
+    @Setup
+    public void setUp() throws EncoderException {
+        switch (attributeType) {
+            case "Double":
+                value = 53.535395;
+                break;
+            case "Integer":
+                value = 42;
+                break;
+            case "Boolean":
+                value = true;
+                break;
+            case "String":
+                value = "Example Vessel";
+                break;
+            case "Enum":
+                value = PossibleDomains.MARITIME;
+                break;
+            default:
+                throw new IllegalArgumentException("unknown attribute type " + attributeType);
+        }
+        codec = new AttributeCodecRegistry(new Rti1516eFactory().getEncoderFactory()).getCodec(value.getClass());
+        encodedValue = codec.encode(value);
+    }
+
+    @Benchmark
+    public byte[] encode() throws EncoderException {
+        return codec.encode(value);
+    }
+
+    @Benchmark
+    public Object decode() throws DecoderException {
+        return codec.decode(encodedValue);
+    }
+}
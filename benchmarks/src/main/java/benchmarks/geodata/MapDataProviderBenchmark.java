@@ -0,0 +1,81 @@
+package benchmarks.geodata;
+
+import benchmarks.BenchmarkResources;
+import library.model.dto.scenario.ScenarioDTO;
+import library.model.simulation.Position;
+import library.model.traffic.Infrastructure;
+import library.model.traffic.Obstacle;
+import library.services.geodata.MapDataProvider;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.io.ParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Position and intersection queries on the waterbody GeoPackage bundled with the libraries.
+ * For the intersection queries the polygons of the GeoPackage are added as obstacles, since the GeoPackage itself only
+ * contains infrastructures.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapDataProviderBenchmark {
+
+    // start and goal of the route used in the FollowAStarRouteBehaviour tests, both on the waterbody
+    private static final Position START = new Position(8.574818, 53.535395, 0);
+    private static final Position END = new Position(8.4906635, 53.3280752, 0);
+
+    private MapDataProvider mapDataProvider;
+    private Geometry segment;
+    private ArrayList<Obstacle> detectedObstacles;
+
+    @Setup
+    public void setUp() throws IOException {
+        ArrayList<Infrastructure> infrastructures = BenchmarkResources.readGeoPackage(BenchmarkResources.WATERBODY_GEOPACKAGE);
+        ScenarioDTO scenario = new ScenarioDTO();
+        for (Infrastructure infrastructure : infrastructures) {
+            scenario.addSimulationObject(infrastructure);
+            scenario.addSimulationObject(new Obstacle(true, infrastructure.getPosition().getValue(), infrastructure.getForm().getValue(), 0));
+        }
+        mapDataProvider = new MapDataProvider(scenario);
+
+        segment = new GeometryFactory().createLineString(new Coordinate[]{
+                new Coordinate(START.getLongitude().getValue(), START.getLatitude().getValue()),
+                new Coordinate(END.getLongitude().getValue(), END.getLatitude().getValue())
+        });
+        detectedObstacles = new ArrayList<>();
+    }
+
+    @Benchmark
+    public List<Infrastructure> infrastructureAtPosition() throws ParseException {
+        return mapDataProvider.getInfrastructureAtPosition(START);
+    }
+
+    @Benchmark
+    public List<Obstacle> obstacleAtPosition() throws ParseException {
+        return mapDataProvider.getObstacleAtPosition(START, detectedObstacles);
+    }
+
+    @Benchmark
+    public List<Obstacle> obstacleIntersected() {
+        return mapDataProvider.getObstacleIntersected(segment, detectedObstacles);
+    }
+}
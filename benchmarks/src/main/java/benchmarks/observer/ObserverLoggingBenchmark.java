@@ -0,0 +1,123 @@
+package benchmarks.observer;
+
+import benchmarks.BenchmarkResources;
+import hla.rti1516e.AttributeHandle;
+import interpreter.utils.ReflectionUtils;
+import library.model.dto.observer.Observer;
+import library.model.dto.observer.ObserverWebSocketConfig;
+import library.model.dto.scenario.ScenarioDTO;
+import library.model.simulation.SimulationProperty;
+import library.model.simulation.objects.SimulationObject;
+import library.services.scenario.ScenarioConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import simulation.federate.observer.ObserverFederate;
+
+import javax.xml.bind.JAXBException;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building and logging the JSON of all objects of the short example scenario, as the ObserverFederate does once per time step.
+ * Every attribute of the objects is observed. No loggers are registered, so the logging part only measures the hand-over
+ * to the asynchronous dispatcher.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObserverLoggingBenchmark {
+
+    private ObserverFederate observerFederate;
+    private List<SimulationObject> simulationObjects;
+
+    @Setup
+    public void setUp() throws IOException, JAXBException, IllegalAccessException {
+        String scenarioPath = BenchmarkResources.getScenariosDirectory().resolve("ExampleScenarioShort.xml").toString();
+        ScenarioDTO scenario = ScenarioConverter.convertToScenarioModel(scenarioPath);
+        simulationObjects = scenario.getSimulationObjects();
+
+        observerFederate = new ObserverFederate(new Observer(1.0, new ObserverWebSocketConfig("localhost", 3001)), "BenchmarkObserver");
+        int handle = 0;
+        for (SimulationObject simulationObject : simulationObjects) {
+            for (Field field : ReflectionUtils.getFieldsOfClass(simulationObject.getClass())) {
+                if (!field.getType().equals(SimulationProperty.class)) {
+                    continue;
+                }
+                field.setAccessible(true);
+                SimulationProperty<?> simulationProperty = (SimulationProperty<?>) field.get(simulationObject);
+                if (simulationProperty != null && simulationProperty.getName() != null) {
+                    // only the attribute names are used when building the JSON
+                    observerFederate.cacheAttributeHandleData(new BenchmarkAttributeHandle(handle++), simulationProperty.getName(), Object.class);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void buildJson(Blackhole blackhole) {
+        for (SimulationObject simulationObject : simulationObjects) {
+            blackhole.consume(observerFederate.getAttributesAsJSON(simulationObject));
+        }
+    }
+
+    @Benchmark
+    public void buildAndLogJson() {
+        for (SimulationObject simulationObject : simulationObjects) {
+            observerFederate.logWithAll(observerFederate.getAttributesAsJSON(simulationObject));
+        }
+    }
+
+    /**
+     * Attribute handles are created by the RTI, this is a minimal replacement to fill the caches of the federate
+     */
+    private static final class BenchmarkAttributeHandle implements AttributeHandle {
+
+        private final int handle;
+
+        private BenchmarkAttributeHandle(int handle) {
+            this.handle = handle;
+        }
+
+        @Override
+        public int encodedLength() {
+            return 4;
+        }
+
+        @Override
+        public void encode(byte[] buffer, int offset) {
+            buffer[offset] = (byte) (handle >>> 24);
+            buffer[offset + 1] = (byte) (handle >>> 16);
+            buffer[offset + 2] = (byte) (handle >>> 8);
+            buffer[offset + 3] = (byte) handle;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof BenchmarkAttributeHandle && ((BenchmarkAttributeHandle) o).handle == handle;
+        }
+
+        @Override
+        public int hashCode() {
+            return handle;
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(handle);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package benchmarks.route;
+
+import benchmarks.BenchmarkResources;
+import library.model.maritime.behaviours.RouteUtils;
+import library.model.simulation.Position;
+import library.services.geodata.MapDataProvider;
+import org.geotools.feature.SchemaException;
+import org.locationtech.jts.io.ParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Route generation between fixed points on the waterbody GeoPackage. A single route takes long enough to be measured
+ * one at a time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RouteBenchmark {
+
+    // start and goal of the route used in the FollowAStarRouteBehaviour tests
+    private static final Position START = new Position(8.574818, 53.535395, 0);
+    private static final Position END = new Position(8.4906635, 53.3280752, 0);
+
+    private MapDataProvider mapDataProvider;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapDataProvider = BenchmarkResources.createMapDataProvider(BenchmarkResources.WATERBODY_GEOPACKAGE);
+    }
+
+    @Benchmark
+    public ArrayList<Position> generateRoute() throws ParseException, SchemaException, IOException {
+        return RouteUtils.generateRoute(mapDataProvider, START, END, END, new ArrayList<>(), false);
+    }
+}
@@ -0,0 +1,56 @@
+package benchmarks.scenario;
+
+import benchmarks.BenchmarkResources;
+import library.model.dto.scenario.ScenarioDTO;
+import library.services.scenario.ScenarioConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.xml.bind.JAXBException;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading of the bundled scenarios. The ExampleControlledScenario is left out, since loading it starts the websocket
+ * server of its controlled behaviour, and so is the ExampleScenario, which is still in an outdated format.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScenarioConverterBenchmark {
+
+    @Param({"ExampleScenarioShort.xml",
+            "AnchorageTestScenario.xml",
+            "BeaconTestScenario.xml",
+            "ChannelTestScenario.xml",
+            "LateralMarkTestScenario.xml",
+            "LighthouseTestScenario.xml",
+            "RestrictedAreaTestScenario.xml",
+            "SafeWaterMarkTestScenario.xml",
+            "TrafficSeparationSchemeTestScenario.xml"})
+    public String scenarioFile;
+
+    private String scenarioPath;
+
+    @Setup
+    public void setUp() throws IOException {
+        scenarioPath = BenchmarkResources.getScenariosDirectory().resolve(scenarioFile).toString();
+    }
+
+    @Benchmark
+    public ScenarioDTO convertToScenarioModel() throws JAXBException, IOException {
+        return ScenarioConverter.convertToScenarioModel(scenarioPath);
+    }
+}
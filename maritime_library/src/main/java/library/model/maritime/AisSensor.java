@@ -1,21 +1,33 @@
 package library.model.maritime;
 
+import library.model.simulation.Position;
 import library.model.simulation.SimulationComponent;
+import library.model.simulation.SimulationProperty;
 import library.model.simulation.objects.SimulationObject;
+import library.model.simulation.units.SpeedUnit;
 import library.model.traffic.Sensor;
 import library.model.traffic.TrafficParticipant;
 import library.services.geodata.MapDataProvider;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlTransient;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
- * AIS (Automatic Identification System) Sensor that detects and collects data from all vessels.
+ * AIS (Automatic Identification System) Sensor that receives the reports of the vessels within its VHF reception range.
+ * The vessels in range are looked up in the spatial index of the MapDataProvider. Like real AIS transponders, every
+ * vessel only reports at the interval given by its transponder class, its speed and whether it is turning
+ * (ITU-R M.1371), so a vessel doesn't show up in the received data on every call.
+ * The transponder class of a vessel is the one of its own AisSensor, vessels without an AisSensor report as class A.
  */
 @Getter
 @Setter
@@ -23,6 +35,31 @@ import java.util.List;
 @XmlAccessorType(XmlAccessType.FIELD)
 public class AisSensor extends Sensor {
 
+    /** Typical VHF reception range of a ship borne AIS station (40 nautical miles) in meters */
+    public static final double DEFAULT_RECEPTION_RANGE = 40 * 1852;
+
+    /** Vessels turning faster than this (in degrees per second) report at the shorter interval of turning vessels */
+    private static final double TURNING_RATE = 5.0 / 30.0;
+
+    /** Vessels slower than this (in knots) are treated as anchored or moored */
+    private static final double STATIONARY_SPEED = 0.5;
+
+    private static final double KNOTS_PER_METER_PER_SECOND = 1 / SpeedUnit.KNOTS.getUnitToBase();
+
+    /** Reception range in meters */
+    @XmlElement
+    private double receptionRange = DEFAULT_RECEPTION_RANGE;
+
+    /** Class of the transponder of the parent vessel, determines how often the parent reports to other vessels */
+    @XmlElement
+    private AisTransponderClass transponderClass = AisTransponderClass.CLASS_A;
+
+    /** Reporting state of the vessels in range by their ids, the vessel instances are replaced when a run is restored */
+    @XmlTransient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final Map<String, ReportState> reportStates = new HashMap<>();
+
     public AisSensor() {
         super();
     }
@@ -36,28 +73,116 @@ public class AisSensor extends Sensor {
     }
 
     /**
-     * Scans for nearby vessels and returns a list of detected vessels.
+     * Receives the reports of the vessels in range which are due at the given time. A vessel reports when it comes into
+     * range and afterwards whenever its reporting interval has elapsed since its last report.
+     *
+     * @param time simulation time in seconds, has to increase between calls
+     * @return the received reports
      */
-    public List<AisData> getAisData() {
-        List<AisData> detectedVessels = new ArrayList<>();
+    public List<AisData> getAisData(double time) {
+        List<AisData> receivedReports = new ArrayList<>();
 
         SimulationObject parent = getParent();
-        if (parent == null) {
-            return detectedVessels;
+        if (parent == null || parent.getPosition() == null || !parent.getPosition().hasValue()) {
+            return receivedReports;
         }
 
         MapDataProvider mapDataProvider = MapDataProvider.getMap(parent);
         if (mapDataProvider == null) {
-            return detectedVessels;
+            return receivedReports;
+        }
+
+        Position position = parent.getPosition().getValue();
+        List<TrafficParticipant> participantsInRange = mapDataProvider.getTrafficParticipantsInRange(
+                position.getLongitude().getDoubleValue(), position.getLatitude().getDoubleValue(), receptionRange);
+
+        for (TrafficParticipant tp : participantsInRange) {
+            if (!(tp instanceof Vessel) || tp == parent) {
+                continue;
+            }
+            Vessel vessel = (Vessel) tp;
+            double heading = doubleValueOf(vessel.getRotation());
+            ReportState state = reportStates.get(vessel.getId());
+            if (state == null) {
+                state = new ReportState();
+                reportStates.put(vessel.getId(), state);
+                receivedReports.add(new AisData(vessel));
+                state.lastReport = time;
+            } else {
+                boolean turning = time > state.lastSeen
+                        && angleBetween(heading, state.heading) / (time - state.lastSeen) > TURNING_RATE;
+                if (time - state.lastReport >= getReportInterval(vessel, turning)) {
+                    receivedReports.add(new AisData(vessel));
+                    state.lastReport = time;
+                }
+            }
+            state.heading = heading;
+            state.lastSeen = time;
         }
 
-        List<TrafficParticipant> allParticipants = mapDataProvider.getAllTrafficParticipants();
+        // vessels out of range are received again as soon as they come back
+        reportStates.values().removeIf(state -> state.lastSeen != time);
+        return receivedReports;
+    }
 
-        for (TrafficParticipant tp : allParticipants) {
-            if (tp instanceof Vessel && tp != parent) {
-                detectedVessels.add(new AisData((Vessel) tp));
+    /**
+     * @param vessel  the reporting vessel
+     * @param turning whether the vessel is changing its course
+     * @return the reporting interval of the vessel in seconds
+     */
+    static double getReportInterval(Vessel vessel, boolean turning) {
+        double speed = getSpeedInKnots(vessel);
+        AisSensor transponder = vessel.getAisSensor();
+        if (transponder != null && transponder.getTransponderClass() == AisTransponderClass.CLASS_B) {
+            if (speed <= 2) {
+                return 180;
+            } else if (speed <= 14) {
+                return 30;
+            } else if (speed <= 23) {
+                return 15;
             }
+            return 5;
         }
-        return detectedVessels;
+
+        if (speed < STATIONARY_SPEED) {
+            return 180;
+        } else if (speed <= 14) {
+            return turning ? 10.0 / 3 : 10;
+        } else if (speed <= 23) {
+            return turning ? 2 : 6;
+        }
+        return 2;
+    }
+
+    private static double getSpeedInKnots(Vessel vessel) {
+        SimulationProperty<Double> speed = vessel.getSpeed();
+        double value = doubleValueOf(speed);
+        if (speed != null && speed.getUnit() instanceof SpeedUnit && speed.getUnit().getUnitToBase() != null) {
+            return value * speed.getUnit().getUnitToBase() * KNOTS_PER_METER_PER_SECOND;
+        }
+        // speeds are in meters per second unless stated otherwise
+        return value * KNOTS_PER_METER_PER_SECOND;
+    }
+
+    private static double doubleValueOf(SimulationProperty<Double> property) {
+        return property != null && property.hasValue() ? property.getDoubleValue() : 0;
+    }
+
+    /**
+     * @return the absolute difference of two headings in degrees (0 to 180)
+     */
+    private static double angleBetween(double heading1, double heading2) {
+        double difference = Math.abs(heading1 - heading2) % 360;
+        return difference > 180 ? 360 - difference : difference;
+    }
+
+    /**
+     * When a vessel last reported and where it was heading when it was last seen
+     */
+    private static final class ReportState {
+
+        private double lastReport;
+        private double lastSeen;
+        private double heading;
     }
 }
@@ -0,0 +1,16 @@
+package library.model.maritime;
+
+import javax.xml.bind.annotation.XmlEnum;
+import javax.xml.bind.annotation.XmlType;
+
+/**
+ * Defines the class of an AIS transponder, which determines its reporting intervals
+ */
+@XmlType
+@XmlEnum
+public enum AisTransponderClass {
+    /** Mandatory for SOLAS vessels, reports every 2 to 10 seconds while underway */
+    CLASS_A,
+    /** Used by smaller vessels, reports every 5 to 30 seconds while underway */
+    CLASS_B
+}
@@ -92,6 +92,18 @@ public class DefectEngineBehaviour extends Behaviour {
         return res;
     }
 
+    /**
+     * The engine doesn't change anything until the time goal is reached, afterwards it keeps the vessel stopped in
+     * every step
+     */
+    @Override
+    public double getIdleTime() {
+        if (timeGoal == null || saved) {
+            return 0;
+        }
+        return Math.max(0, timeGoal.getTargetTime().getValue() - this.timePassed);
+    }
+
     @Override
     public void setGoals(ArrayList<Goal> goals) {
         this.goals = goals;
@@ -210,17 +210,17 @@ public class FollowRouteBehaviour extends Behaviour implements IBehaviour {
                 e.printStackTrace();
             }
 
-            double distanceToNextWaypoint = this.coordinateDiffInMeters(currentPosition.getLatitude().getValue(), currentPosition.getLongitude().getValue(), this.route.get(this.nextWaypointIndex).getLatitude().getValue(), this.route.get(this.nextWaypointIndex).getLongitude().getValue());
+            double distanceToNextWaypoint = this.coordinateDiffInMeters(currentPosition.getLatitude().getDoubleValue(), currentPosition.getLongitude().getDoubleValue(), this.route.get(this.nextWaypointIndex).getLatitude().getDoubleValue(), this.route.get(this.nextWaypointIndex).getLongitude().getDoubleValue());
             if (distanceToNextWaypoint > distance) {
                 // move on line to nextWaypoint
                 double steps = distanceToNextWaypoint / distance;
-                double step_lat = (route.get(nextWaypointIndex).getLatitude().getValue() - currentPosition.getLatitude().getValue()) / steps;
-                double step_lon = (route.get(nextWaypointIndex).getLongitude().getValue() - currentPosition.getLongitude().getValue()) / steps;
+                double step_lat = (route.get(nextWaypointIndex).getLatitude().getDoubleValue() - currentPosition.getLatitude().getDoubleValue()) / steps;
+                double step_lon = (route.get(nextWaypointIndex).getLongitude().getDoubleValue() - currentPosition.getLongitude().getDoubleValue()) / steps;
 
                 Position newPosition = new Position();
-                newPosition.setLatitude(currentPosition.getLatitude().getValue() + step_lat);
-                newPosition.setLongitude(currentPosition.getLongitude().getValue() + step_lon);
-                newPosition.setAltitude(currentPosition.getAltitude().getValue());
+                newPosition.setLatitude(currentPosition.getLatitude().getDoubleValue() + step_lat);
+                newPosition.setLongitude(currentPosition.getLongitude().getDoubleValue() + step_lon);
+                newPosition.setAltitude(currentPosition.getAltitude().getDoubleValue());
                 currentPosition = newPosition;
                 distance = 0;
             } else {
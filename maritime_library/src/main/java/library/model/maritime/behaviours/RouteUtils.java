@@ -1,7 +1,6 @@
 package library.model.maritime.behaviours;
 
 import library.model.simulation.Position;
-import library.model.traffic.Infrastructure;
 import library.model.traffic.Obstacle;
 import library.model.traffic.PossibleDomains;
 import library.services.geodata.MapDataProvider;
@@ -30,11 +29,11 @@ import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.TreeSet;
 
 /**
  * TODO add more comments!!!
@@ -42,6 +41,12 @@ import java.util.TreeSet;
 public class RouteUtils {
 
     private static final Double stepSize = 0.0004; // TODO unit? why 0.0004? and why is this fixed?
+    // a cell closer to the end than the diagonal of a cell is connected to the end directly
+    private static final double GOAL_RANGE = Math.sqrt(2 * stepSize * stepSize);
+    // the eight neighbours of a cell and the cost of moving there
+    private static final int[] NEIGHBOUR_COLUMNS = {-1, 1, -1, 1, -1, 1, 0, 0};
+    private static final int[] NEIGHBOUR_ROWS = {-1, -1, 1, 1, 0, 0, -1, 1};
+    private static final double[] NEIGHBOUR_COSTS = {GOAL_RANGE, GOAL_RANGE, GOAL_RANGE, GOAL_RANGE, stepSize, stepSize, stepSize, stepSize};
     private static Position currentGoalPosition;
     private static Integer nextStep = 0;
 
@@ -98,253 +103,301 @@ public class RouteUtils {
 
 
     /**
-     * Implementation of an interpretation of the A* search algorithm for maritime vehicles (see https://en.wikipedia.org/wiki/A*_search_algorithm)
+     * Implementation of the A* search algorithm for maritime vehicles (see https://en.wikipedia.org/wiki/A*_search_algorithm)
+     * <p>
+     * The search runs on a grid with a cell size of stepSize, anchored at the start position. Each cell is connected to
+     * its eight neighbours, the cost of a move is its euclidean length and the heuristic is the straight distance to the
+     * end, which never overestimates, so the shortest route on the grid is found. A cell can be entered if there is
+     * maritime infrastructure and no obstacle at its center. The search ends as soon as a cell in range of the end is
+     * taken from the open set.
      *
-     * @param mapDataProvider
-     * @param start
-     * @param end
-     * @param currentGoalPosition
-     * @param detectedObstacles
-     * @param export
-     * @return
+     * @param mapDataProvider     provides the infrastructures and obstacles
+     * @param start               start of the route
+     * @param end                 end of the route
+     * @param currentGoalPosition not used anymore, the search is directed at the end
+     * @param detectedObstacles   obstacles detected in addition to the ones of the map, may be null
+     * @param export              if true, the route is exported as shapefiles before and after smoothing
+     * @return the route from start to end or an empty list if there is none
      * @throws ParseException
      * @throws SchemaException
      * @throws IOException
      */
     public static ArrayList<Position> generateRoute(MapDataProvider mapDataProvider, Position start, Position end, Position currentGoalPosition, ArrayList<Obstacle> detectedObstacles, boolean export) throws ParseException, SchemaException, IOException {
-//        if (this.mapDataProvider == null) {
-//            setMapDataProvider();
-//        }
-        List<WayToPosition> minimumNodesToPosition = new ArrayList<>();
-
-        // automatically sorted List
-        TreeSet<IncompleteRoute> incompleteRoutes = new TreeSet<>((ir1, ir2) -> {
-            Double distance1Left = ir1.getDistanceLeft();
-            Double distance2Left = ir2.getDistanceLeft();
-            Double totalDistance = distanceBetween(ir1.getRoute().get(0), currentGoalPosition);
-            Double percentage1Left = distance1Left / totalDistance;
-            Double percentage2Left = distance2Left / totalDistance;
-            Double distanceTravelled1 = 10.0; // TODO why 10?
-            Double distanceTravelled2 = 10.0; // TODO why 10?
-            Double totalTravellableDistance = 10.0; // TODO why 10?
-            if (ir1.getRoute().size() > 10 && ir2.getRoute().size() > 10) { // TODO don't exactly know why this is here
-                distanceTravelled1 = distanceBetween(ir1.getRoute().get(ir1.getRoute().size() - 11), ir1.getRoute().get(ir1.getRoute().size() - 1));
-                distanceTravelled2 = distanceBetween(ir2.getRoute().get(ir2.getRoute().size() - 11), ir2.getRoute().get(ir2.getRoute().size() - 1));
-            }
-            Double percentageTravelled1 = distanceTravelled1 / totalTravellableDistance;
-            Double percentageTravelled2 = distanceTravelled2 / totalTravellableDistance;
-            return Double.compare(percentage1Left + percentageTravelled1, percentage2Left + percentageTravelled2);
-        });
-
-        try {
-            System.out.println("Trying to calculate route from " + start + " to " + end);
-
-            boolean goalReached = false;
-
-            // generate the first IncompleteRoute which only contains the start Position
-            IncompleteRoute firstRoute = new IncompleteRoute();
-
-            // start the route with the given starting point
-            firstRoute.addRouteEntry(start);
-
-            // distance between start and end
-            firstRoute.setDistanceLeft(distanceBetween(firstRoute.getRoute().get(firstRoute.getRoute().size() - 1), end)); // TODO no need to do an index lookup
-            incompleteRoutes.add(firstRoute);
-
-            // start a loop until no more options are left or goal is reached
-            // Probably needs another termination condition to prevent eternal calculations for extremely complex routes
-            IncompleteRoute incompleteRoute = null; // TODO remove unused?
-            int counter = 0;
-            int debug_counter = 0;
-            while (incompleteRoutes.size() > 0 && !goalReached) {
-                //System.out.println("TEST " + debug_counter);
-                debug_counter++;
-                IncompleteRoute toExtend = incompleteRoutes.first();
-                incompleteRoute = toExtend;
-
-                // generate next steps and alter in 4 directions
-                ArrayList<Position> newPositions = new ArrayList<>();
-                for (int i = 0; i < 4; i++) {
-                    Position new1 = new Position();
-                    new1.setLatitude(toExtend.getRoute().get(toExtend.getRoute().size() - 1).getLatitude().getValue());
-                    new1.setLongitude(toExtend.getRoute().get(toExtend.getRoute().size() - 1).getLongitude().getValue());
-                    newPositions.add(new1);
+        System.out.println("Trying to calculate route from " + start + " to " + end);
+
+        double startLongitude = start.getLongitude().getValue();
+        double startLatitude = start.getLatitude().getValue();
+        double endLongitude = end.getLongitude().getValue();
+        double endLatitude = end.getLatitude().getValue();
+
+        SearchNodes nodes = new SearchNodes();
+        OpenSet openSet = new OpenSet(nodes);
+        openSet.addOrUpdate(nodes.add(cellKey(0, 0), distanceBetween(startLongitude, startLatitude, endLongitude, endLatitude), 0.0, false));
+
+        int counter = 0;
+        while (!openSet.isEmpty()) {
+            int node = openSet.poll();
+            nodes.closed[node] = true;
+
+            // check if in range of end and if yes, set the final result and terminate the algorithm
+            if (nodes.distanceLeft[node] < GOAL_RANGE) {
+                ArrayList<Position> route = buildRoute(nodes, node, start, startLongitude, startLatitude);
+                route.add(end);
+                nextStep = 0;
+                if (export) {
+                    route2Shapefiles(route, "finishedRoute"); // QUESTION what are those shapefiles used for
                 }
-                newPositions.get(0).setLongitude(newPositions.get(0).getLongitude().getValue() - stepSize);
-                newPositions.get(0).setLatitude(newPositions.get(0).getLatitude().getValue() - stepSize);
-                newPositions.get(1).setLongitude(newPositions.get(1).getLongitude().getValue() + stepSize);
-                newPositions.get(1).setLatitude(newPositions.get(1).getLatitude().getValue() - stepSize);
-                newPositions.get(2).setLongitude(newPositions.get(2).getLongitude().getValue() - stepSize);
-                newPositions.get(2).setLatitude(newPositions.get(2).getLatitude().getValue() + stepSize);
-                newPositions.get(3).setLongitude(newPositions.get(3).getLongitude().getValue() + stepSize);
-                newPositions.get(3).setLatitude(newPositions.get(3).getLatitude().getValue() + stepSize);
-
-                // iterate over each of the 4 generated new positions
-                for (Position aNewPosition : newPositions) {
-                    // check if in range of end and if yes, set the final result and terminate the algorithm
-                    if (distanceBetween(aNewPosition, end) < Math.sqrt(2 * stepSize * stepSize)) { // QUESTION why (2 * stepSize * stepSize) ?
-                        ArrayList<Position> route = new ArrayList<>(toExtend.getRoute());
-                        route.add(aNewPosition);
-                        route.add(end);
-                        nextStep = 0;
-                        goalReached = true;
-                        if (export) {
-                            route2Shapefiles(route, "finishedRoute"); // QUESTION what are those shapefiles used for
-                        }
-                        route = smoothenRoute(route, mapDataProvider, detectedObstacles);
-                        if (export) {
-                            route2Shapefiles(route, "smoothenedRoute");
-                        }
-                        return route;
-                    }
-
-                    // check if there is usable infrastructure (water) at the new position
-                    List<Infrastructure> infrastructures = mapDataProvider.getInfrastructureAtPosition(aNewPosition);
-                    boolean foundWater = false;
-                    for (Infrastructure anInfrastructure : infrastructures) {
-                        if (anInfrastructure.isUsableBy(PossibleDomains.MARITIME)) {
-                            foundWater = true;
-                        }
-                    }
+                route = smoothenRoute(route, mapDataProvider, detectedObstacles);
+                if (export) {
+                    route2Shapefiles(route, "smoothenedRoute");
+                }
+                return route;
+            }
 
-                    // check if there is one or more obstacle at the new position
-                    boolean foundObstacle = false;
-                    List<Obstacle> obstaclesAtPosition = mapDataProvider.getObstacleAtPosition(aNewPosition, detectedObstacles);
-                    if (!obstaclesAtPosition.isEmpty()) {
-                        foundObstacle = true;
-                    }
+            counter++;
+            if (counter % 500 == 0) {
+                System.out.println("Distance of last expanded route after " + counter + " iterations: " + nodes.distanceLeft[node]);
+            }
 
-                    if (foundWater && !foundObstacle) {
-                        // copy toExtend and append the new Position, then add this newly generated Route to the list
-                        // only uses shallow copy to save performance. Possible because positions aren't updated during the algorithm
-                        ArrayList<Position> copy = new ArrayList<>(toExtend.getRoute());
-
-                        if (!copy.contains(aNewPosition)/* && (minus5ToCurrent <= minus5ToNext)*/) {
-
-                            // check if there is already a shorter route to the reached point
-                            boolean foundShorterPath = false;
-                            for (WayToPosition aWay : minimumNodesToPosition) {
-                                if (aWay.getLatitude().equals(aNewPosition.getLatitude().getValue()) && aWay.getLongitude().equals(aNewPosition.getLongitude().getValue())
-                                        && aWay.getAmountOfNodes() <= copy.size() + 1) {
-                                    foundShorterPath = true;
-
-                                }
-                            }
-                            if (!foundShorterPath) {
-                                minimumNodesToPosition.add(new WayToPosition(aNewPosition.getLatitude().getValue(), aNewPosition.getLongitude().getValue(), copy.size() + 1));
-                                copy.add(aNewPosition);
-                                IncompleteRoute newRoute = new IncompleteRoute();
-                                newRoute.setRoute(copy);
-                                newRoute.setDistanceLeft(distanceBetween(newRoute.getRoute().get(newRoute.getRoute().size() - 1), end));
-                                incompleteRoutes.add(newRoute);
-                                counter++;
-                                if (counter % 500 == 0) {
-                                    System.out.println("Distance of last found route after " + counter + " iterations: " + newRoute.distanceLeft);
-                                }
-                            }
-                        }
+            long cell = nodes.cells[node];
+            int column = cellColumn(cell);
+            int row = cellRow(cell);
+            for (int i = 0; i < NEIGHBOUR_COLUMNS.length; i++) {
+                long neighbourCell = cellKey(column + NEIGHBOUR_COLUMNS[i], row + NEIGHBOUR_ROWS[i]);
+                int neighbour = nodes.indexOf(neighbourCell);
+                if (neighbour >= 0 && nodes.closed[neighbour]) {
+                    continue;
+                }
+                if (neighbour < 0) {
+                    double longitude = startLongitude + (column + NEIGHBOUR_COLUMNS[i]) * stepSize;
+                    double latitude = startLatitude + (row + NEIGHBOUR_ROWS[i]) * stepSize;
+                    double distanceLeft = distanceBetween(longitude, latitude, endLongitude, endLatitude);
+                    // the last step to the end doesn't have to be checked, the end is given
+                    boolean navigable = distanceLeft < GOAL_RANGE
+                            || mapDataProvider.isNavigableAt(longitude, latitude, PossibleDomains.MARITIME, detectedObstacles);
+                    // cells which can't be entered are closed right away, so they are only checked once
+                    neighbour = nodes.add(neighbourCell, distanceLeft, Double.POSITIVE_INFINITY, !navigable);
+                    if (!navigable) {
+                        continue;
                     }
                 }
-
-                // after adding the next step, remove the extended route
-                incompleteRoutes.remove(toExtend);
+                double costSoFar = nodes.costSoFar[node] + NEIGHBOUR_COSTS[i];
+                if (costSoFar < nodes.costSoFar[neighbour]) {
+                    nodes.costSoFar[neighbour] = costSoFar;
+                    nodes.parents[neighbour] = node;
+                    openSet.addOrUpdate(neighbour);
+                }
             }
-            return new ArrayList<>();
-        } catch (Exception e) {
-            throw e;
         }
+        return new ArrayList<>();
     }
 
-    private static class IncompleteRoute {
+    /**
+     * Follows the parent pointers from the given node back to the start
+     *
+     * @return the route from start to the given node, the start being the given instance
+     */
+    private static ArrayList<Position> buildRoute(SearchNodes nodes, int node, Position start, double startLongitude, double startLatitude) {
+        ArrayList<Position> route = new ArrayList<>();
+        for (int current = node; nodes.parents[current] >= 0; current = nodes.parents[current]) {
+            long cell = nodes.cells[current];
+            route.add(new Position(startLongitude + cellColumn(cell) * stepSize, startLatitude + cellRow(cell) * stepSize, 0));
+        }
+        route.add(start);
+        Collections.reverse(route);
+        return route;
+    }
 
-        private ArrayList<Position> route;
-        private Double distanceLeft;
+    // a cell is encoded as a single long: the column in the upper, the row in the lower 32 bits
+    private static long cellKey(int column, int row) {
+        return ((long) column << 32) | (row & 0xFFFFFFFFL);
+    }
 
-        public IncompleteRoute() {
-            this.route = new ArrayList<>();
-            this.distanceLeft = Double.MAX_VALUE;
-        }
+    private static int cellColumn(long cell) {
+        return (int) (cell >> 32);
+    }
 
-        public ArrayList<Position> getRoute() {
-            return route;
-        }
+    private static int cellRow(long cell) {
+        return (int) cell;
+    }
 
-        public void addRouteEntry(Position newEntry) {
-            this.route.add(newEntry);
+    /**
+     * The nodes of a route search, stored in parallel arrays and found by their cell via open addressing
+     */
+    private static final class SearchNodes {
+
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private long[] cells = new long[INITIAL_CAPACITY];
+        private double[] costSoFar = new double[INITIAL_CAPACITY];
+        private double[] distanceLeft = new double[INITIAL_CAPACITY];
+        private int[] parents = new int[INITIAL_CAPACITY];
+        private boolean[] closed = new boolean[INITIAL_CAPACITY];
+        private int[] heapPositions = new int[INITIAL_CAPACITY];
+        private int size = 0;
+
+        // node index + 1 by cell, 0 marks a free slot
+        private long[] slotCells = new long[INITIAL_CAPACITY * 2];
+        private int[] slotNodes = new int[INITIAL_CAPACITY * 2];
+
+        private int indexOf(long cell) {
+            int mask = slotCells.length - 1;
+            for (int slot = slot(cell, mask); slotNodes[slot] != 0; slot = (slot + 1) & mask) {
+                if (slotCells[slot] == cell) {
+                    return slotNodes[slot] - 1;
+                }
+            }
+            return -1;
         }
 
-        public void setRoute(ArrayList<Position> route) {
-            this.route = route;
+        private int add(long cell, double distanceLeft, double costSoFar, boolean closed) {
+            if (size == cells.length) {
+                grow();
+            }
+            int node = size++;
+            this.cells[node] = cell;
+            this.costSoFar[node] = costSoFar;
+            this.distanceLeft[node] = distanceLeft;
+            this.parents[node] = -1;
+            this.closed[node] = closed;
+            this.heapPositions[node] = -1;
+            insertSlot(cell, node);
+            return node;
         }
 
-        public Double getDistanceLeft() {
-            return distanceLeft;
+        private void insertSlot(long cell, int node) {
+            int mask = slotCells.length - 1;
+            int slot = slot(cell, mask);
+            while (slotNodes[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slotCells[slot] = cell;
+            slotNodes[slot] = node + 1;
         }
 
-        public void setDistanceLeft(Double distanceLeft) {
-            this.distanceLeft = distanceLeft;
+        private void grow() {
+            int capacity = cells.length * 2;
+            cells = Arrays.copyOf(cells, capacity);
+            costSoFar = Arrays.copyOf(costSoFar, capacity);
+            distanceLeft = Arrays.copyOf(distanceLeft, capacity);
+            parents = Arrays.copyOf(parents, capacity);
+            closed = Arrays.copyOf(closed, capacity);
+            heapPositions = Arrays.copyOf(heapPositions, capacity);
+            // keep the load factor of the slots at one half at most
+            slotCells = new long[capacity * 2];
+            slotNodes = new int[capacity * 2];
+            for (int node = 0; node < size; node++) {
+                insertSlot(cells[node], node);
+            }
         }
-    }
-
-    protected static Double distanceBetween(Position pos1, Position pos2) {
-        Double latDiff = Math.abs(pos2.getLatitude().getValue() - pos1.getLatitude().getValue());
-        Double lonDiff = Math.abs(pos2.getLongitude().getValue() - pos1.getLongitude().getValue());
 
-        return Math.sqrt((latDiff * latDiff) + (lonDiff * lonDiff));
+        private static int slot(long cell, int mask) {
+            long hash = cell * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
     }
 
-    private static class WayToPosition {
+    /**
+     * Binary min-heap of node indices ordered by the estimated total cost (cost so far + distance left). Ties are
+     * broken by the distance left, so the node closest to the end is expanded first. The position of each node in the
+     * heap is tracked, so the cost of a node in the open set can be decreased in place.
+     */
+    private static final class OpenSet {
 
-        private Double latitude;
-        private Double longitude;
-        private Integer amountOfNodes;
+        private final SearchNodes nodes;
+        private int[] heap = new int[SearchNodes.INITIAL_CAPACITY];
+        private int size = 0;
 
-        public Double getLatitude() {
-            return latitude;
+        private OpenSet(SearchNodes nodes) {
+            this.nodes = nodes;
         }
 
-        public void setLatitude(Double latitude) {
-            this.latitude = latitude;
+        private boolean isEmpty() {
+            return size == 0;
         }
 
-        public Double getLongitude() {
-            return longitude;
+        private void addOrUpdate(int node) {
+            int position = nodes.heapPositions[node];
+            if (position < 0) {
+                if (size == heap.length) {
+                    heap = Arrays.copyOf(heap, size * 2);
+                }
+                position = size++;
+                heap[position] = node;
+            }
+            siftUp(position);
         }
 
-        public void setLongitude(Double longitude) {
-            this.longitude = longitude;
+        private int poll() {
+            int first = heap[0];
+            nodes.heapPositions[first] = -1;
+            size--;
+            if (size > 0) {
+                heap[0] = heap[size];
+                siftDown(0);
+            }
+            return first;
         }
 
-        public Integer getAmountOfNodes() {
-            return amountOfNodes;
+        private void siftUp(int position) {
+            int node = heap[position];
+            while (position > 0) {
+                int parentPosition = (position - 1) >>> 1;
+                int parent = heap[parentPosition];
+                if (!isBefore(node, parent)) {
+                    break;
+                }
+                place(parent, position);
+                position = parentPosition;
+            }
+            place(node, position);
         }
 
-        public void setAmountOfNodes(Integer amountOfNodes) {
-            this.amountOfNodes = amountOfNodes;
+        private void siftDown(int position) {
+            int node = heap[position];
+            while (true) {
+                int childPosition = 2 * position + 1;
+                if (childPosition >= size) {
+                    break;
+                }
+                if (childPosition + 1 < size && isBefore(heap[childPosition + 1], heap[childPosition])) {
+                    childPosition++;
+                }
+                int child = heap[childPosition];
+                if (!isBefore(child, node)) {
+                    break;
+                }
+                place(child, position);
+                position = childPosition;
+            }
+            place(node, position);
         }
 
-        public WayToPosition(Double latitude, Double longitude, Integer amountOfNodes) {
-            this.latitude = latitude;
-            this.longitude = longitude;
-            this.amountOfNodes = amountOfNodes;
+        private void place(int node, int position) {
+            heap[position] = node;
+            nodes.heapPositions[node] = position;
         }
 
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) {
-                return true;
-            }
-            if (o == null || getClass() != o.getClass()) {
-                return false;
+        private boolean isBefore(int node1, int node2) {
+            double estimate1 = nodes.costSoFar[node1] + nodes.distanceLeft[node1];
+            double estimate2 = nodes.costSoFar[node2] + nodes.distanceLeft[node2];
+            if (estimate1 != estimate2) {
+                return estimate1 < estimate2;
             }
-            WayToPosition that = (WayToPosition) o;
-            return Objects.equals(latitude, that.latitude) && Objects.equals(longitude, that.longitude) && Objects.equals(amountOfNodes, that.amountOfNodes);
+            return nodes.distanceLeft[node1] < nodes.distanceLeft[node2];
         }
+    }
 
-        @Override
-        public int hashCode() {
-            return Objects.hash(latitude, longitude, amountOfNodes);
-        }
+    protected static Double distanceBetween(Position pos1, Position pos2) {
+        return distanceBetween(pos1.getLongitude().getValue(), pos1.getLatitude().getValue(),
+                               pos2.getLongitude().getValue(), pos2.getLatitude().getValue());
+    }
+
+    private static double distanceBetween(double longitude1, double latitude1, double longitude2, double latitude2) {
+        double latDiff = latitude2 - latitude1;
+        double lonDiff = longitude2 - longitude1;
+
+        return Math.sqrt((latDiff * latDiff) + (lonDiff * lonDiff));
     }
 
     public static double angleFromCoordinate(double angleOld, double lat1, double long1, double lat2, double long2) {
@@ -367,9 +420,7 @@ public class RouteUtils {
     private static ArrayList<Position> smoothenRoute(ArrayList<Position> originalRoute, MapDataProvider mapDataProvider, ArrayList<Obstacle> detectedObstacles) {
         int lastRunNodeCount;
         ArrayList<Position> routeCopy = new ArrayList<>(originalRoute);
-        ArrayList<Position> checkPositions;
         while (true) {
-            checkPositions = new ArrayList<>();
             lastRunNodeCount = routeCopy.size();
             ArrayList<Position> deleteList = new ArrayList<>();
             for (int i = 2; i < routeCopy.size(); i += 2) {
@@ -382,19 +433,8 @@ public class RouteUtils {
                 double step_b = (second.getLongitude().getValue() - first.getLongitude().getValue()) / steps;
                 boolean waterFound = true;
                 for (int j = 1; j < steps; j++) {
-                    Position checkPosition = new Position(first.getLongitude().getValue() + step_b * j, first.getLatitude().getValue() + step_a * j, 0);
-                    checkPositions.add(checkPosition);
-                    if (mapDataProvider.getInfrastructureAtPosition(checkPosition, PossibleDomains.MARITIME).isEmpty()) {
-                        waterFound = false;
-                        break;
-                    }
-                    List<Obstacle> temp = new ArrayList<>();
-                    try {
-                        temp = mapDataProvider.getObstacleAtPosition(checkPosition, detectedObstacles);
-                    } catch (ParseException e) {
-                        e.printStackTrace();
-                    }
-                    if (!temp.isEmpty()) {
+                    if (!mapDataProvider.isNavigableAt(first.getLongitude().getValue() + step_b * j, first.getLatitude().getValue() + step_a * j,
+                                                       PossibleDomains.MARITIME, detectedObstacles)) {
                         waterFound = false;
                         break;
                     }
@@ -54,10 +54,10 @@ public class TurningBehaviour extends Behaviour {
     @Override
     public HashMap<String, Object> nextStep(double timePassed) {
         
-        double currentSpeed = vessel.getSpeed().getValue();
-        double currentBearing = normalizeAngle(vessel.getRotation().getValue());
-        double turningCircle = vessel.getTurningCircle().getValue();
-        double inertia = vessel.getInertia().getValue();
+        double currentSpeed = vessel.getSpeed().getDoubleValue();
+        double currentBearing = normalizeAngle(vessel.getRotation().getDoubleValue());
+        double turningCircle = vessel.getTurningCircle().getDoubleValue();
+        double inertia = vessel.getInertia().getDoubleValue();
         
         // Calculate the maximum rate of turn based on turning circle
         // Rate of turn (degrees per second) = (speed / turning_circle_radius) * (180/π)
@@ -107,8 +107,8 @@ public class TurningBehaviour extends Behaviour {
         }
         
         // Calculate new position using great circle navigation with average bearing
-        double latOld = vessel.getPosition().getValue().getLatitude().getValue();
-        double lonOld = vessel.getPosition().getValue().getLongitude().getValue();
+        double latOld = vessel.getPosition().getValue().getLatitude().getDoubleValue();
+        double lonOld = vessel.getPosition().getValue().getLongitude().getDoubleValue();
         
         double latNew = Math.asin(Math.sin(Math.toRadians(latOld))
                 * Math.cos(distance / r)
@@ -0,0 +1,84 @@
+package library.model.maritime;
+
+import library.model.dto.scenario.ScenarioDTO;
+import library.model.simulation.Position;
+import library.model.simulation.SimulationProperty;
+import library.model.simulation.units.NoUnit;
+import library.model.simulation.units.SpeedUnit;
+import library.services.geodata.MapDataProvider;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AisSensorTest {
+
+    @Test
+    void vesselsInRangeReportAtTheirInterval() {
+        Vessel receiver = createVessel("R", 8.5, 53.5, 0.0);
+        // about 6.6 km away at 5 m/s (9.7 kn), class A reports every 10 seconds
+        Vessel classA = createVessel("A", 8.6, 53.5, 5.0);
+        // class B reports every 30 seconds at the same speed
+        Vessel classB = createVessel("B", 8.5, 53.6, 5.0);
+        AisSensor classBTransponder = new AisSensor();
+        classBTransponder.setTransponderClass(AisTransponderClass.CLASS_B);
+        classB.setAisSensor(classBTransponder);
+        // about 100 km away, out of the default reception range
+        Vessel outOfRange = createVessel("C", 10.0, 53.5, 5.0);
+
+        ScenarioDTO scenario = new ScenarioDTO();
+        scenario.addSimulationObject(receiver);
+        scenario.addSimulationObject(classA);
+        scenario.addSimulationObject(classB);
+        scenario.addSimulationObject(outOfRange);
+        MapDataProvider.addToMap(receiver, new MapDataProvider(scenario));
+        try {
+            AisSensor sensor = new AisSensor();
+            receiver.setAisSensor(sensor);
+
+            int classAReports = 0;
+            int classBReports = 0;
+            for (int second = 0; second < 60; second++) {
+                List<AisData> received = sensor.getAisData(second);
+                for (AisData aisData : received) {
+                    assertTrue(aisData.getMmsi().equals("A") || aisData.getMmsi().equals("B"));
+                    if (aisData.getMmsi().equals("A")) {
+                        classAReports++;
+                    } else {
+                        classBReports++;
+                    }
+                }
+            }
+
+            assertEquals(6, classAReports);
+            assertEquals(2, classBReports);
+        } finally {
+            MapDataProvider.removeFromMap(receiver);
+        }
+    }
+
+    @Test
+    void turningVesselsReportMoreOften() {
+        Vessel vessel = createVessel("A", 8.5, 53.5, 5.0);
+        assertEquals(10, AisSensor.getReportInterval(vessel, false));
+        assertEquals(10.0 / 3, AisSensor.getReportInterval(vessel, true));
+
+        vessel.setSpeed(new SimulationProperty<>(SpeedUnit.KNOTS, 18.0, "speed"));
+        assertEquals(6, AisSensor.getReportInterval(vessel, false));
+        assertEquals(2, AisSensor.getReportInterval(vessel, true));
+
+        vessel.setSpeed(new SimulationProperty<>(SpeedUnit.KNOTS, 0.0, "speed"));
+        assertEquals(180, AisSensor.getReportInterval(vessel, false));
+    }
+
+    private static Vessel createVessel(String mmsi, double longitude, double latitude, double speed) {
+        Vessel vessel = new Vessel();
+        vessel.setPosition(new SimulationProperty<>(NoUnit.get(), new Position(longitude, latitude, 0), "position"));
+        vessel.setSpeed(new SimulationProperty<>(SpeedUnit.METERSPERSECOND, speed, "speed"));
+        vessel.setRotation(new SimulationProperty<>(NoUnit.get(), 90.0, "rotation"));
+        vessel.setMmsi(new SimulationProperty<>(NoUnit.get(), mmsi, "mmsi"));
+        return vessel;
+    }
+}
@@ -0,0 +1,45 @@
+package library.model.maritime.behaviours;
+
+import library.model.examples.goals.TimeGoal;
+import library.model.maritime.ContainerShip;
+import library.model.simulation.Position;
+import library.model.simulation.SimulationProperty;
+import library.model.simulation.units.NoUnit;
+import library.model.simulation.units.SpeedUnit;
+import library.model.simulation.units.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DefectEngineBehaviourTest {
+
+    @Test
+    void engineIsIdleUntilItsTimeGoal() {
+        ContainerShip containerShip = new ContainerShip();
+        containerShip.setPosition(new SimulationProperty<>(NoUnit.get(), new Position(8.5, 53.5, 0), "position"));
+        containerShip.setSpeed(new SimulationProperty<>(SpeedUnit.METERSPERSECOND, 5.0, "speed"));
+        containerShip.setEmergencyDeclared(new SimulationProperty<>(NoUnit.get(), false, "emergencyDeclared"));
+
+        DefectEngineBehaviour defectEngineBehaviour = new DefectEngineBehaviour();
+        defectEngineBehaviour.setSimulationObject(containerShip);
+        defectEngineBehaviour.addGoal(new TimeGoal(new SimulationProperty<>(TimeUnit.SECOND, 180.0, "time when the engine should stop working")));
+
+        // the time goal is only known after the first step
+        assertEquals(0, defectEngineBehaviour.getIdleTime());
+        assertTrue(defectEngineBehaviour.nextStep(60).isEmpty());
+        assertEquals(120, defectEngineBehaviour.getIdleTime());
+
+        // the skipped steps are passed at once, the engine still works at the time goal
+        assertTrue(defectEngineBehaviour.nextStep(120).isEmpty());
+        assertEquals(0, defectEngineBehaviour.getIdleTime());
+
+        Map<String, Object> attributeUpdates = defectEngineBehaviour.nextStep(60);
+        assertEquals(0.0, attributeUpdates.get(containerShip.getSpeed().getId()));
+        assertEquals(true, attributeUpdates.get(containerShip.getEmergencyDeclared().getId()));
+        // the broken engine keeps the vessel stopped in every step
+        assertEquals(0, defectEngineBehaviour.getIdleTime());
+    }
+}
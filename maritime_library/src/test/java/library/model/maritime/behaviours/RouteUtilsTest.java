@@ -0,0 +1,125 @@
+package library.model.maritime.behaviours;
+
+import library.model.dto.scenario.ScenarioDTO;
+import library.model.simulation.Position;
+import library.model.traffic.Infrastructure;
+import library.model.traffic.Obstacle;
+import library.model.traffic.PossibleDomains;
+import library.services.geodata.MapDataProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for verifying the route generation.
+ * The map is a square of water with a wall in the middle, which leaves a passage in the north.
+ */
+class RouteUtilsTest {
+
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory();
+
+    private ScenarioDTO scenario;
+
+    @BeforeEach
+    void setUp() {
+        scenario = new ScenarioDTO();
+        Infrastructure water = new Infrastructure(true, new Position(8.05, 53.05, 0), rectangle(8.0, 53.0, 8.1, 53.1), 0);
+        water.addDomain(PossibleDomains.MARITIME);
+        scenario.addSimulationObject(water);
+        scenario.addSimulationObject(new Obstacle(true, new Position(8.05, 53.04, 0), rectangle(8.04, 53.0, 8.06, 53.08), 0));
+    }
+
+    /**
+     * Tests that the route leads around the wall and is close to the shortest possible route.
+     */
+    @Test
+    @DisplayName("Test route around an obstacle")
+    void testRouteAroundObstacle() throws Exception {
+        // 1. ARRANGE
+        MapDataProvider mapDataProvider = new MapDataProvider(scenario);
+        Position start = new Position(8.02, 53.02, 0);
+        Position end = new Position(8.08, 53.02, 0);
+
+        // 2. ACT
+        ArrayList<Position> route = RouteUtils.generateRoute(mapDataProvider, start, end, end, new ArrayList<>(), false);
+
+        // 3. ASSERT
+        assertFalse(route.isEmpty(), "A route should be found");
+        assertSame(start, route.get(0), "Route should begin at the start");
+        assertSame(end, route.get(route.size() - 1), "Route should end at the end");
+        double length = 0.0;
+        for (int i = 1; i < route.size(); i++) {
+            Position position = route.get(i);
+            if (i < route.size() - 1) {
+                assertTrue(mapDataProvider.isNavigableAt(position.getLongitude().getValue(), position.getLatitude().getValue(), PossibleDomains.MARITIME, null),
+                           "Waypoint " + position + " should be navigable");
+            }
+            length += RouteUtils.distanceBetween(route.get(i - 1), position);
+        }
+        // up to the north end of the wall, along it and back down again
+        double shortestLength = 2 * Math.sqrt(0.02 * 0.02 + 0.06 * 0.06) + 0.02;
+        // waypoints may lie on the border of the wall, which allows to cut its corners by less than a step
+        assertTrue(length > shortestLength - 0.0004, "Route can't be shorter than the way around the wall, but was " + length);
+        assertTrue(length < shortestLength * 1.1, "Route should be close to the shortest one, but was " + length);
+    }
+
+    /**
+     * Tests that detected obstacles are avoided as well.
+     */
+    @Test
+    @DisplayName("Test route around a detected obstacle")
+    void testRouteAroundDetectedObstacle() throws Exception {
+        // 1. ARRANGE
+        MapDataProvider mapDataProvider = new MapDataProvider(scenario);
+        Position start = new Position(8.02, 53.09, 0);
+        Position end = new Position(8.08, 53.09, 0);
+        ArrayList<Obstacle> detectedObstacles = new ArrayList<>();
+        detectedObstacles.add(new Obstacle(true, new Position(8.05, 53.09, 0), rectangle(8.045, 53.08, 8.055, 53.095), 0));
+
+        // 2. ACT
+        ArrayList<Position> route = RouteUtils.generateRoute(mapDataProvider, start, end, end, detectedObstacles, false);
+
+        // 3. ASSERT
+        assertFalse(route.isEmpty(), "A route should be found");
+        for (Position position : route) {
+            assertTrue(mapDataProvider.isNavigableAt(position.getLongitude().getValue(), position.getLatitude().getValue(), PossibleDomains.MARITIME, detectedObstacles),
+                       "Waypoint " + position + " should be navigable");
+        }
+        assertTrue(route.stream().anyMatch(p -> p.getLatitude().getValue() > 53.095), "Route should pass north of the detected obstacle");
+    }
+
+    /**
+     * Tests that an empty route is returned if the end can't be reached.
+     */
+    @Test
+    @DisplayName("Test unreachable end")
+    void testUnreachableEnd() throws Exception {
+        // 1. ARRANGE
+        MapDataProvider mapDataProvider = new MapDataProvider(scenario);
+        Position start = new Position(8.02, 53.02, 0);
+        Position end = new Position(8.2, 53.02, 0);
+
+        // 2. ACT
+        ArrayList<Position> route = RouteUtils.generateRoute(mapDataProvider, start, end, end, null, false);
+
+        // 3. ASSERT
+        assertTrue(route.isEmpty(), "No route should be found outside of the water");
+    }
+
+    private static Geometry rectangle(double minLongitude, double minLatitude, double maxLongitude, double maxLatitude) {
+        return GEOMETRY_FACTORY.createPolygon(new Coordinate[]{
+                new Coordinate(minLongitude, minLatitude),
+                new Coordinate(maxLongitude, minLatitude),
+                new Coordinate(maxLongitude, maxLatitude),
+                new Coordinate(minLongitude, maxLatitude),
+                new Coordinate(minLongitude, minLatitude)
+        });
+    }
+}
@@ -0,0 +1,77 @@
+package library;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Plugin to generate the model.index file containing the names of all top level classes of the library model
+ * (library.model and its subpackages) of a module. The simulation reads these indexes at startup instead of scanning
+ * the whole classpath.
+ * The index only lists class names, neither accessors nor FOM fragments are generated: the FOM of a simulation object
+ * depends on the publish/subscribe flags and components of the instance in the scenario, so FOMs are still built at
+ * runtime and reused through the FOMCache.
+ * model.index will be written to target/classes/library/model/model.index, so it ends up in the jar of the module
+ * to generate model.index: mvn pgmtss:maven_plugins:1.0:build-modelindex -e
+ */
+@Mojo(name = "build-modelindex", defaultPhase = LifecyclePhase.PROCESS_CLASSES)
+public class ModelIndexBuilder extends AbstractMojo {
+
+    static final String MODEL_PACKAGE_PATH = "library" + File.separator + "model";
+    static final String INDEX_FILE_NAME = "model.index";
+
+    @Parameter(defaultValue = "${project}", required = true, readonly = true)
+    MavenProject project;
+
+    public void execute() throws MojoExecutionException {
+        File classesDir = new File(project.getBuild().getOutputDirectory());
+        File modelDir = new File(classesDir, MODEL_PACKAGE_PATH);
+        if (!modelDir.isDirectory()) {
+            getLog().info("No model classes in " + classesDir + ", skipping " + INDEX_FILE_NAME);
+            return;
+        }
+
+        List<String> classNames = new ArrayList<>();
+        listModelClasses(modelDir, "library.model", classNames);
+        Collections.sort(classNames);
+
+        File target = new File(modelDir, INDEX_FILE_NAME);
+        try {
+            Files.write(target.toPath(), classNames, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new MojoExecutionException("Could not write " + target, e);
+        }
+        getLog().info("Wrote " + classNames.size() + " model classes to " + target);
+    }
+
+    /**
+     * Adds the names of all top level classes inside the folder and its subfolders.
+     * Nested classes (and everything else that isn't a top level class file) are left out.
+     *
+     * @param folder      folder of the package
+     * @param packageName name of the package
+     * @param classNames  the list to add the fully qualified class names to
+     */
+    private void listModelClasses(final File folder, String packageName, List<String> classNames) {
+        for (final File fileEntry : Objects.requireNonNull(folder.listFiles())) {
+            String name = fileEntry.getName();
+            if (fileEntry.isDirectory()) {
+                listModelClasses(fileEntry, packageName + "." + name, classNames);
+            } else if (name.endsWith(".class") && !name.contains("$") && !name.equals("package-info.class")) {
+                classNames.add(packageName + "." + name.substring(0, name.length() - ".class".length()));
+            }
+        }
+    }
+}
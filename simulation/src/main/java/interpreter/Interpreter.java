@@ -1,21 +1,24 @@
 package interpreter;
 
 import com.google.common.primitives.Primitives;
+import hla.rti1516e.CallbackModel;
 import hla.rti1516e.exceptions.FederateNotExecutionMember;
 import hla.rti1516e.exceptions.NotConnected;
 import interpreter.fom.model.FOM;
 import interpreter.fom.model.FOMAttribute;
 import interpreter.fom.model.FOMInteraction;
 import interpreter.fom.model.FOMObjectClass;
+import interpreter.fom.utils.FOMCache;
 import interpreter.fom.utils.FOMContentUtils;
-import interpreter.fom.utils.FOMFileUtils;
 import interpreter.fom.utils.ModelUtils;
+import interpreter.utils.FederateGroupingUtils;
 import interpreter.utils.ReflectionUtils;
 import library.model.dto.observer.ObservedClassDTO;
 import library.model.dto.observer.ObservedObjectDTO;
 import library.model.dto.observer.Observer;
 import library.model.dto.scenario.ScenarioDTO;
 import library.model.simulation.objects.ActiveSimulationObject;
+import library.model.simulation.objects.DynamicSimulationObject;
 import library.model.simulation.objects.IActiveDynamic;
 import library.model.simulation.SimulationComponent;
 import library.model.simulation.objects.SimulationObject;
@@ -23,6 +26,9 @@ import library.model.simulation.SimulationProperty;
 import library.services.logging.LoggingType;
 import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.NotNull;
+import simulation.coordination.Checkpoint;
+import simulation.coordination.CheckpointRecorder;
+import simulation.coordination.FederateDescription;
 import simulation.federate.AbstractFederate;
 import simulation.federate.interpreted.InterpretedFederate;
 import simulation.federate.observer.ObserverFederate;
@@ -34,9 +40,13 @@ import java.lang.reflect.Type;
 import java.nio.file.Path;
 import java.security.InvalidParameterException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.Stack;
 import java.util.stream.Collectors;
 
@@ -46,8 +56,6 @@ import java.util.stream.Collectors;
  */
 public class Interpreter {
 
-    private static Interpreter instance = null;
-
     /** this maps the native data types to the according HLADataTypes */
     public static final HashMap<String, String> DATATYPE_MAP = new HashMap<>() {{
         put("Integer", "HLAinteger32BE");
@@ -63,17 +71,24 @@ public class Interpreter {
     }};
 
     private final List<ReferenceStore> referenceStores = new ArrayList<>();
-
-    private Interpreter() {
-
+    private final String federationName;
+    private Checkpoint checkpoint;
+    // indexes of the federates created by this interpreter, null creates all federates of the scenario
+    private Set<Integer> hostedFederates;
+    // name of the process hosting the created federates if the federation is spread across several processes
+    private String nodeName;
+
+    public Interpreter() {
+        this(AbstractFederate.DEFAULT_FEDERATION_NAME);
     }
 
-    // Singleton Pattern
-    public static Interpreter getInstance() {
-        if (instance == null) {
-            instance = new Interpreter();
-        }
-        return instance;
+    /**
+     * Every simulation run uses its own interpreter, so the reference stores of concurrent runs are kept apart
+     *
+     * @param federationName name of the federation the created federates will join
+     */
+    public Interpreter(String federationName) {
+        this.federationName = federationName;
     }
 
     /**
@@ -91,19 +106,26 @@ public class Interpreter {
 
         try {
 
-            //////////////////////////////////////////////////////////////////////////////////
-            // (1) CREATE AN (ACTIVE) INTERPRETED FEDERATE OF EACH TOP-LEVEL SIMULATION-OBJECT
-            //////////////////////////////////////////////////////////////////////////////////
+            ///////////////////////////////////////////////////////////////////////////////////////////
+            // (1) CREATE AN (ACTIVE) INTERPRETED FEDERATE OF EACH GROUP OF TOP-LEVEL SIMULATION-OBJECTS
+            ///////////////////////////////////////////////////////////////////////////////////////////
             // build FOMs, referenceStores and federates based on the given top level simulation objects
-            for (SimulationObject simulationObject : scenario.getSimulationObjects()) {
-                if (simulationObject instanceof IActiveDynamic) {
-                    int iterations = -1;
-                    if (scenario.isStepsLimited()) {
-                        iterations = scenario.getSimulationIterations();
-                    }
-                    // create a interpreted federate (including generation of a FOM, etc.) for every top level simulation object
-                    InterpretedFederate interpretedFederate = createInterpretedFederate((ActiveSimulationObject) simulationObject, iterations);
+            int iterations = -1;
+            if (scenario.isStepsLimited()) {
+                iterations = scenario.getSimulationIterations();
+            }
+            // several objects may be hosted by the same federate, depending on the grouping policy of the scenario
+            Map<String, List<ActiveSimulationObject>> groups = groupSimulationObjects(scenario);
+            int federateIndex = 0;
+            for (Map.Entry<String, List<ActiveSimulationObject>> group : groups.entrySet()) {
+                if (isHosted(federateIndex++)) {
+                    // create a interpreted federate (including generation of the FOMs, etc.) for every group of top level simulation objects
+                    InterpretedFederate interpretedFederate = createInterpretedFederate(group.getKey(), group.getValue(), iterations);
                     createdFederates.add(interpretedFederate);
+                } else {
+                    // the objects are hosted by another process, but the FOM paths of their classes are still needed
+                    // by the subscriptions of the hosted objects and observers
+                    createReferenceStores(group.getValue());
                 }
             }
 
@@ -111,7 +133,9 @@ public class Interpreter {
             // this has to be done after all interpreted federates are created by when all FOMs and reference stores are generated
             for (AbstractFederate createdFederate : createdFederates) {
                 InterpretedFederate interpretedFederate = (InterpretedFederate) createdFederate;
-                prepareObservedClasses(interpretedFederate.getSimulatedObject().getObservedClasses());
+                for (DynamicSimulationObject simulatedObject : interpretedFederate.getSimulatedObjects()) {
+                    prepareObservedClasses(simulatedObject.getObservedClasses());
+                }
             }
 
             ////////////////////////////////////////////////////////////////////
@@ -119,12 +143,17 @@ public class Interpreter {
             ////////////////////////////////////////////////////////////////////
             // create and add passive observing federates
             for (Observer observer : scenario.getObservers()) {
+                if (!isHosted(federateIndex++)) {
+                    continue;
+                }
 
                 prepareObservedObjects(observer.getObservedObjects());
                 prepareObservedClasses(observer.getObservedClasses());
 
                 // create a observerFederate for every observer that is configured in the given scenario
                 ObserverFederate observerFederate = new ObserverFederate(observer, ModelUtils.getHashedClassIdentifier(observer));
+                // the name of the federation is part of the names of the observers log files
+                observerFederate.setFederationName(federationName);
 
                 // TODO check logging process
                 // register Observer specific LoggingTypes for the Observed-Values
@@ -150,6 +179,37 @@ public class Interpreter {
             // TerminationFederate terminationFederate = createTerminationFederate(scenario, iterations);
             // createdFederates.add(terminationFederate);
 
+            // the regions of the data distribution management only pay off if anyone subscribes within regions
+            boolean interestManagement = usesInterestManagement(scenario);
+
+            // all federates of a scenario share the same RTI and the same kind of time management, callback delivery,
+            // dead reckoning, state storage and idle advances
+            for (AbstractFederate createdFederate : createdFederates) {
+                createdFederate.setInterestManagement(interestManagement);
+                createdFederate.setDeadReckoningThreshold(scenario.getDeadReckoningThreshold());
+                createdFederate.setColumnarStateStore(scenario.isColumnarStateStore());
+                createdFederate.setBehaviourThreads(scenario.getBehaviourThreads());
+                createdFederate.setMaxIdleAdvance(scenario.getMaxIdleAdvance());
+                createdFederate.setFederationName(federationName);
+                createdFederate.setTimeManagementMode(scenario.getTimeManagementMode());
+                createdFederate.setCallbackModel(scenario.isImmediateCallbacks() ? CallbackModel.HLA_IMMEDIATE : CallbackModel.HLA_EVOKED);
+                createdFederate.setRtiImplementation(scenario.getRtiImplementation());
+            }
+
+            // a restored run continues at the time of the checkpoint, and may write a later checkpoint itself
+            CheckpointRecorder checkpointRecorder = createCheckpointRecorder(scenario, createdFederates);
+            for (AbstractFederate createdFederate : createdFederates) {
+                if (createdFederate instanceof InterpretedFederate) {
+                    InterpretedFederate interpretedFederate = (InterpretedFederate) createdFederate;
+                    if (checkpoint != null) {
+                        interpretedFederate.restoreFrom(checkpoint);
+                    }
+                    interpretedFederate.setCheckpointRecorder(checkpointRecorder);
+                } else if (checkpoint != null) {
+                    createdFederate.setStartTime(checkpoint.getStartTime());
+                }
+            }
+
         } catch (FederateNotExecutionMember federateNotExecutionMember) {
             //Log that creation of one federate failed;
             federateNotExecutionMember.printStackTrace();
@@ -158,6 +218,113 @@ public class Interpreter {
         return createdFederates;
     }
 
+    /**
+     * Describes the federates {@link #createFederates(ScenarioDTO)} creates for the scenario without creating them,
+     * so they can be distributed across several processes. The descriptions are in the order of the federates, the
+     * index of a description is the index that is hosted by {@link #setHostedFederates}.
+     *
+     * @param scenario provided scenario
+     * @return a description of every federate of the scenario
+     */
+    public List<FederateDescription> describeFederates(ScenarioDTO scenario) {
+        List<FederateDescription> federateDescriptions = new ArrayList<>();
+        for (Map.Entry<String, List<ActiveSimulationObject>> group : groupSimulationObjects(scenario).entrySet()) {
+            List<String> objectIds = group.getValue()
+                                          .stream()
+                                          .map(SimulationObject::getId)
+                                          .collect(Collectors.toList());
+            federateDescriptions.add(new FederateDescription(federateDescriptions.size(), group.getKey(), objectIds));
+        }
+        for (Observer observer : scenario.getObservers()) {
+            federateDescriptions.add(new FederateDescription(federateDescriptions.size(), ModelUtils.getHashedClassIdentifier(observer), new ArrayList<>()));
+        }
+        return federateDescriptions;
+    }
+
+    private Map<String, List<ActiveSimulationObject>> groupSimulationObjects(ScenarioDTO scenario) {
+        List<ActiveSimulationObject> activeSimulationObjects = new ArrayList<>();
+        for (SimulationObject simulationObject : scenario.getSimulationObjects()) {
+            if (simulationObject instanceof IActiveDynamic) {
+                activeSimulationObjects.add((ActiveSimulationObject) simulationObject);
+            }
+        }
+        return FederateGroupingUtils.groupSimulationObjects(activeSimulationObjects,
+                                                            scenario.getFederateGrouping(),
+                                                            scenario.getObjectsPerFederate(),
+                                                            scenario.getSectorSize());
+    }
+
+    private boolean isHosted(int federateIndex) {
+        return hostedFederates == null || hostedFederates.contains(federateIndex);
+    }
+
+    /**
+     * Lets {@link #createFederates(ScenarioDTO)} only create some of the federates of the scenario, the others are
+     * hosted by other processes
+     *
+     * @param federateIndexes indexes of the federates to create (see {@link #describeFederates(ScenarioDTO)}) or
+     *                        null to create all
+     */
+    public void setHostedFederates(Collection<Integer> federateIndexes) {
+        this.hostedFederates = federateIndexes != null ? new HashSet<>(federateIndexes) : null;
+    }
+
+    /**
+     * @param nodeName name of the process hosting the created federates, it is part of the name of the checkpoint file
+     *                 since every process writes the checkpoint of its own federates
+     */
+    public void setNodeName(String nodeName) {
+        this.nodeName = nodeName;
+    }
+
+    /**
+     * @return the recorder collecting the checkpoint of the interpreted federates or null if the scenario doesn't
+     * write a checkpoint (or the run is restored from a checkpoint at or after the checkpoint time)
+     */
+    private CheckpointRecorder createCheckpointRecorder(ScenarioDTO scenario, List<AbstractFederate> createdFederates) {
+        if (scenario.getCheckpointTime() < 0 || checkpoint != null && scenario.getCheckpointTime() <= checkpoint.getStartTime()) {
+            return null;
+        }
+        int interpretedFederates = (int) createdFederates.stream().filter(f -> f instanceof InterpretedFederate).count();
+        List<String> scenarioObjectIds = scenario.getSimulationObjects()
+                                                 .stream()
+                                                 .map(SimulationObject::getId)
+                                                 .collect(Collectors.toList());
+        String fileName = federationName + (nodeName != null ? "-" + nodeName : "") + "-t" + scenario.getCheckpointTime() + ".xml";
+        Path file = Path.of(scenario.getCheckpointDirectory(), fileName);
+        return new CheckpointRecorder(scenario.getCheckpointTime(), file, interpretedFederates, scenarioObjectIds);
+    }
+
+    /**
+     * Lets the created federates continue from the given checkpoint, the objects of the scenario have to be replaced
+     * by the checkpointed objects before (see {@link Checkpoint#restoreObjects})
+     *
+     * @param checkpoint the checkpoint or null to start at t=0
+     */
+    public void setCheckpoint(Checkpoint checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
+    /**
+     * Checks if any simulated object or observer observes a class only within a region. All objects of the scenario
+     * are checked, so every process of a federation spread across several processes comes to the same result.
+     *
+     * @param scenario the scenario
+     * @return true if the federates have to use the data distribution management
+     */
+    private boolean usesInterestManagement(ScenarioDTO scenario) {
+        for (SimulationObject simulationObject : scenario.getSimulationObjects()) {
+            if (simulationObject instanceof IActiveDynamic
+                && ((DynamicSimulationObject) simulationObject).getObservedClasses().stream().anyMatch(ObservedClassDTO::hasInterestRegion)) {
+                return true;
+            }
+        }
+        return scenario.getObservers()
+                       .stream()
+                       .flatMap(observer -> observer.getObservedClasses().stream())
+                       .anyMatch(ObservedClassDTO::hasInterestRegion);
+    }
+
     private void prepareObservedClasses(@NotNull List<ObservedClassDTO> observedClasses) {
         for (ObservedClassDTO observedClass : observedClasses) {
             String type = observedClass.getType();
@@ -213,6 +380,8 @@ public class Interpreter {
 
             // TODO this should probably be some kind of serializable data representing the fom files content
             //      if we want to execute the simulation in a physically distributed way at some point in the future
+            //      (the nodes started by the ClusterLauncher share a host, so each one reads the scenario and generates the
+            //      same FOMs itself, only the assignment of the federates is passed as FederateDescriptions)
 
             if (id != null && !id.isBlank()) {
 
@@ -247,10 +416,11 @@ public class Interpreter {
     }
 
     /**
-     * TODO javadoc
+     * Generates the FOM module of the simulation object. Identical modules are shared through the FOMCache, so the
+     * module file is only written if no object (of this or a previous run) had the same FOM before.
      *
-     * @param simulationObject
-     * @return
+     * @param simulationObject the simulation object
+     * @return the FOM of the simulation object
      */
     private FOM getFOMForSimulationObject(SimulationObject simulationObject) {
 
@@ -261,16 +431,6 @@ public class Interpreter {
             return null; // TODO throw an appropriate exception
         }
 
-        Path path;
-        String filename = FOMFileUtils.getFOMFileName(simulationObject);
-
-        boolean fomAlreadyExists = false;
-        try {
-            fomAlreadyExists = FOMFileUtils.checkIfFomFileExists(filename);
-        } catch (IOException exception) {
-            exception.printStackTrace(); // TODO implement proper error handling / logging
-        }
-
         FOMObjectClass objectClass = getFOMObjectClass(simulationObject);
         List<FOMObjectClass> objectClasses = List.of(objectClass);
 
@@ -278,11 +438,15 @@ public class Interpreter {
         // List<FOMInteraction> interactions = getFOMInteractions(simulationObject);
         List<FOMInteraction> interactions = new ArrayList<>();
 
-        if (!fomAlreadyExists) {
-            String fomString = FOMContentUtils.generateFOMString(objectClasses, interactions, filename);
-            path = FOMFileUtils.saveFomAsXMLFile(filename, fomString);
-        } else {
-            path = FOMFileUtils.getPathFromFileName(filename);
+        // the name of the module has to be the same for identical objects, so only the class name is used
+        String fomString = FOMContentUtils.generateFOMString(objectClasses, interactions, simulationObject.getClass().getSimpleName());
+        Path path = null;
+        String filename = null;
+        try {
+            path = FOMCache.getModule(fomString);
+            filename = path.getFileName().toString();
+        } catch (IOException exception) {
+            exception.printStackTrace(); // TODO implement proper error handling / logging
         }
 
         return new FOM(path, filename, objectClasses, interactions);
@@ -521,8 +685,10 @@ public class Interpreter {
         );
 
         String typeName;
+        Type typeArgument = null;
         if (genericType instanceof ParameterizedType) {
-            typeName = ((ParameterizedType) genericType).getActualTypeArguments()[0].getTypeName();
+            typeArgument = ((ParameterizedType) genericType).getActualTypeArguments()[0];
+            typeName = typeArgument.getTypeName();
             typeName = typeName.substring(typeName.lastIndexOf(".") + 1);
         } else {
             typeName = genericType.getTypeName();
@@ -531,10 +697,15 @@ public class Interpreter {
             fomAttribute.setDataType(typeName);
         } else {
             Class<?> typeClass = null;
-            for (Class<?> cls : ModelUtils.getClasses()) {
-                if (cls.getSimpleName().equals(typeName)) {
-                    typeClass = cls;
-                    break;
+            if (typeArgument instanceof Class) {
+                // the type is known already, no need to search the model classes for it
+                typeClass = (Class<?>) typeArgument;
+            } else {
+                for (Class<?> cls : ModelUtils.getClasses()) {
+                    if (cls.getSimpleName().equals(typeName)) {
+                        typeClass = cls;
+                        break;
+                    }
                 }
             }
             if (typeClass != null && typeClass.isEnum()) {
@@ -552,31 +723,47 @@ public class Interpreter {
     ///////////////////////////////////
 
     /**
-     * Creates an interpreted federate
+     * Creates an interpreted federate hosting the given simulation objects
      *
-     * @param simulationObject simulated object
-     * @return Federate object of the object to be simulated
+     * @param groupName         name of the group of objects
+     * @param simulationObjects simulated objects
+     * @return Federate object of the objects to be simulated
      * @throws FederateNotExecutionMember Federate not able to be executed
      * @throws NotConnected               Federate not able to connect to federation
      */
-    private InterpretedFederate createInterpretedFederate(@NotNull ActiveSimulationObject simulationObject, int iterations) throws FederateNotExecutionMember {
+    private InterpretedFederate createInterpretedFederate(String groupName, @NotNull List<ActiveSimulationObject> simulationObjects, int iterations) throws FederateNotExecutionMember {
 
-        ReferenceStore referenceStore = new ReferenceStore();
-        FOM fom = getFOMForSimulationObject(simulationObject);
-        // TODO maybe move the following two values and the initialization to the constructor?
-        referenceStore.setFom(fom);
-        referenceStore.setSimulationObject(simulationObject);
-        referenceStore.initialize();
-        referenceStores.add(referenceStore);
+        List<ReferenceStore> groupReferenceStores = createReferenceStores(simulationObjects);
 
         try {
-            return new InterpretedFederate(referenceStore, iterations);
+            return new InterpretedFederate(groupName, groupReferenceStores, iterations);
         } catch (FederateNotExecutionMember notConnected) {
             notConnected.printStackTrace(); // TODO use proper logging service
             throw notConnected;
         }
     }
 
+    /**
+     * Generates the FOMs and reference stores of the given simulation objects
+     *
+     * @param simulationObjects simulated objects
+     * @return the reference stores of the objects
+     */
+    private List<ReferenceStore> createReferenceStores(@NotNull List<ActiveSimulationObject> simulationObjects) {
+        List<ReferenceStore> groupReferenceStores = new ArrayList<>();
+        for (ActiveSimulationObject simulationObject : simulationObjects) {
+            ReferenceStore referenceStore = new ReferenceStore();
+            FOM fom = getFOMForSimulationObject(simulationObject);
+            // TODO maybe move the following two values and the initialization to the constructor?
+            referenceStore.setFom(fom);
+            referenceStore.setSimulationObject(simulationObject);
+            referenceStore.initialize();
+            referenceStores.add(referenceStore);
+            groupReferenceStores.add(referenceStore);
+        }
+        return groupReferenceStores;
+    }
+
     // TODO re-add
     // /**
     //  * creates the termination federate for the simulation
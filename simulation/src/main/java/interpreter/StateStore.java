@@ -0,0 +1,149 @@
+package interpreter;
+
+import library.model.simulation.SimulationProperty;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the numeric attribute values of the objects hosted by a federate in primitive arrays (struct of arrays).
+ * Every numeric attribute of the given reference stores gets a fixed slot, its current value, the value last sent to
+ * the RTI and its update threshold are stored at that index of the respective array.
+ * Tasks write through the slots and the change detection of the outgoing data only compares doubles, so unchanged
+ * attributes are neither boxed, encoded nor looked up in maps.
+ * <p>
+ * The SimulationProperties stay the state seen by behaviours and components, the store mirrors their values.
+ * The values are only taken over when written through {@link #write}, which is how the tasks of the federate change
+ * the hosted objects, so the store isn't synchronized with the properties every step.
+ * Only attributes whose values can be represented exactly as double (Double, Float, Integer, Short, Byte) get a slot.
+ */
+public class StateStore {
+
+    private final SimulationProperty<?>[] properties;
+    private final double[] values;
+    private final double[] sentValues;
+    private final double[] updateThresholds;
+    private final boolean[] sent;
+
+    private final Map<String, Integer> slotsById = new HashMap<>();
+    private final Map<SimulationProperty<?>, Integer> slotsByProperty = new IdentityHashMap<>();
+
+    /**
+     * @param referenceStores the reference stores of the objects hosted by a federate
+     */
+    public StateStore(List<ReferenceStore> referenceStores) {
+        this(referenceStores.stream()
+                            .flatMap(referenceStore -> referenceStore.getAllSimulationAttributes().stream())
+                            .collect(Collectors.toList()));
+    }
+
+    /**
+     * @param attributes the attributes of the objects hosted by a federate, only the numeric ones get a slot
+     */
+    StateStore(Collection<SimulationProperty<?>> attributes) {
+        List<SimulationProperty<?>> numericProperties = new ArrayList<>();
+        for (SimulationProperty<?> property : attributes) {
+            if (isNumeric(property) && !slotsByProperty.containsKey(property)) {
+                slotsByProperty.put(property, numericProperties.size());
+                slotsById.put(property.getId(), numericProperties.size());
+                numericProperties.add(property);
+            }
+        }
+
+        int size = numericProperties.size();
+        this.properties = numericProperties.toArray(new SimulationProperty<?>[0]);
+        this.values = new double[size];
+        this.sentValues = new double[size];
+        this.updateThresholds = new double[size];
+        this.sent = new boolean[size];
+        for (int slot = 0; slot < size; slot++) {
+            values[slot] = properties[slot].getDoubleValue();
+            updateThresholds[slot] = properties[slot].getUpdateThreshold();
+        }
+    }
+
+    private static boolean isNumeric(SimulationProperty<?> property) {
+        if (!property.hasValue()) {
+            return false;
+        }
+        Class<?> type = property.getValue().getClass();
+        return type == Double.class || type == Float.class || type == Integer.class || type == Short.class || type == Byte.class;
+    }
+
+    /**
+     * @return the number of slots
+     */
+    public int size() {
+        return properties.length;
+    }
+
+    /**
+     * @param attributeId id of a SimulationProperty
+     * @return the slot of the property or -1 if it has none
+     */
+    public int getSlot(String attributeId) {
+        Integer slot = slotsById.get(attributeId);
+        return slot != null ? slot : -1;
+    }
+
+    /**
+     * @param property a SimulationProperty
+     * @return the slot of the property or -1 if it has none
+     */
+    public int getSlot(SimulationProperty<?> property) {
+        Integer slot = slotsByProperty.get(property);
+        return slot != null ? slot : -1;
+    }
+
+    public SimulationProperty<?> getProperty(int slot) {
+        return properties[slot];
+    }
+
+    public double get(int slot) {
+        return values[slot];
+    }
+
+    /**
+     * Sets the value of the slot and of its property
+     *
+     * @param slot  the slot
+     * @param value the new value, has to be of the type of the property
+     * @return false if the value isn't a number, nothing is written in that case
+     */
+    @SuppressWarnings("unchecked")
+    public boolean write(int slot, Object value) {
+        if (!(value instanceof Number)) {
+            return false;
+        }
+        values[slot] = ((Number) value).doubleValue();
+        ((SimulationProperty<Object>) properties[slot]).setSingleValue(value);
+        return true;
+    }
+
+    /**
+     * Checks if the value of the slot has to be sent, which is the case if it was never sent or it changed since it was
+     * last sent (by at least the update threshold of its property)
+     */
+    public boolean isChanged(int slot) {
+        if (!sent[slot]) {
+            return true;
+        }
+        if (updateThresholds[slot] > 0) {
+            return Math.abs(values[slot] - sentValues[slot]) >= updateThresholds[slot];
+        }
+        return Double.compare(values[slot], sentValues[slot]) != 0;
+    }
+
+    /**
+     * Remembers the current value of the slot as sent
+     */
+    public void markSent(int slot) {
+        sentValues[slot] = values[slot];
+        sent[slot] = true;
+    }
+}
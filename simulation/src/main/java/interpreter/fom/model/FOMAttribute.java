@@ -16,6 +16,7 @@ public class FOMAttribute {
     private String ownerShip = "NoTransfer";
     private String name;
     private String dataType;
+    private List<FOMDimension> dimensions = new ArrayList<>(FOMDimension.SPATIAL_DIMENSIONS);
 
     List<SimulationProperty> instances = new ArrayList<>();
     // DO IT LIKE THAT
@@ -82,4 +83,12 @@ public class FOMAttribute {
     public void setDataType(String dataType) {
         this.dataType = dataType;
     }
+
+    public List<FOMDimension> getDimensions() {
+        return dimensions;
+    }
+
+    public void setDimensions(List<FOMDimension> dimensions) {
+        this.dimensions = dimensions;
+    }
 }
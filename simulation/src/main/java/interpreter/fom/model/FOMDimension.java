@@ -1,12 +1,41 @@
 package interpreter.fom.model;
 
+import java.util.List;
+
+/**
+ * This Class reflects a dimension of a FOM, which is used for the data distribution management (DDM) of the RTI.
+ * Regions are ranges within the dimensions, updates are only delivered if the update and the subscription region overlap.
+ */
 public class FOMDimension {
 
+    /**
+     * Longitude in degrees, mapped linearly from [-180, 180] to [0, upperBound]
+     */
+    public static final FOMDimension LONGITUDE = new FOMDimension("Longitude", 36000);
+
+    /**
+     * Latitude in degrees, mapped linearly from [-90, 90] to [0, upperBound]
+     */
+    public static final FOMDimension LATITUDE = new FOMDimension("Latitude", 18000);
+
+    /**
+     * The dimensions every generated object class attribute is available for
+     */
+    public static final List<FOMDimension> SPATIAL_DIMENSIONS = List.of(LONGITUDE, LATITUDE);
+
     String name = "";
+    long upperBound;
 
-    // TODO
+    public FOMDimension(String name, long upperBound) {
+        this.name = name;
+        this.upperBound = upperBound;
+    }
 
     public String getName() {
         return name;
     }
+
+    public long getUpperBound() {
+        return upperBound;
+    }
 }
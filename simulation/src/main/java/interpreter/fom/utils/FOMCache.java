@@ -0,0 +1,110 @@
+package interpreter.fom.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Content addressed cache of the generated FOM modules.
+ * A module is stored under the SHA-256 hash of its XML, so objects with identical FOMs share one file (and the RTI gets
+ * it only once), while a changed FOM always ends up in a new file. The files are kept in a per user cache directory
+ * and reused across runs, within a run the paths are served from memory.
+ * The directory can be set with the system property {@link #CACHE_DIRECTORY_PROPERTY}, it defaults to ~/.pgmtss/foms.
+ */
+public final class FOMCache {
+
+    public static final String CACHE_DIRECTORY_PROPERTY = "pgmtss.fomCacheDirectory";
+
+    // the generation date is no part of the content that matters, otherwise every day would produce new modules
+    private static final Pattern MODIFICATION_DATE = Pattern.compile("<modificationDate>[^<]*</modificationDate>");
+
+    private static final Map<String, Path> MODULES = new ConcurrentHashMap<>();
+
+    private FOMCache() {}
+
+    /**
+     * Returns the file of the given FOM module, it is only written if no identical module was written before
+     *
+     * @param content String that holds the FOM XML
+     * @return path of the module file
+     * @throws IOException if the module file could not be written
+     */
+    public static Path getModule(String content) throws IOException {
+        String hash = hash(content);
+        Path path = MODULES.get(hash);
+        if (path != null) {
+            return path;
+        }
+        synchronized (MODULES) {
+            path = MODULES.get(hash);
+            if (path == null) {
+                path = getCacheDirectory().resolve(hash + ".xml");
+                if (!Files.isRegularFile(path)) {
+                    write(path, content);
+                }
+                MODULES.put(hash, path);
+            }
+            return path;
+        }
+    }
+
+    /**
+     * @return the directory holding the cached modules, it is created if it does not exist
+     */
+    public static Path getCacheDirectory() throws IOException {
+        String configuredDirectory = System.getProperty(CACHE_DIRECTORY_PROPERTY);
+        Path directory;
+        if (configuredDirectory != null && !configuredDirectory.isBlank()) {
+            directory = Path.of(configuredDirectory);
+        } else {
+            directory = Path.of(System.getProperty("user.home"), ".pgmtss", "foms");
+        }
+        return Files.createDirectories(directory);
+    }
+
+    /**
+     * Writes the module into a temporary file first, so other processes sharing the cache never read a partial module
+     */
+    private static void write(Path path, String content) throws IOException {
+        String prettyContent;
+        try {
+            prettyContent = FOMFileUtils.prettyPrint(content);
+        } catch (Exception e) {
+            e.printStackTrace();
+            prettyContent = content;
+        }
+        Path temporaryFile = Files.createTempFile(path.getParent(), "fom", ".tmp");
+        try {
+            Files.writeString(temporaryFile, prettyContent, StandardCharsets.UTF_8);
+            Files.move(temporaryFile, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    /**
+     * @param content String that holds the FOM XML
+     * @return the hex encoded SHA-256 hash of the relevant content
+     */
+    static String hash(String content) {
+        String relevantContent = MODIFICATION_DATE.matcher(content).replaceAll("");
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(relevantContent.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform has to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package interpreter.fom.utils;
 
 import interpreter.fom.model.FOMAttribute;
+import interpreter.fom.model.FOMDimension;
 import interpreter.fom.model.FOMInteraction;
 import interpreter.fom.model.FOMObjectClass;
 import interpreter.fom.model.SharingType;
@@ -57,6 +58,9 @@ public final class FOMContentUtils {
                            "           " + FOMContentUtils.convertFOMInteractionsToFomString(interactions) +
                            "       </interactionClass>\n" +
                            "   </interactions>\n" +
+                           "   <dimensions>\n" +
+                           "       " + FOMContentUtils.convertFOMDimensionsToFomString(FOMDimension.SPATIAL_DIMENSIONS) +
+                           "   </dimensions>\n" +
                            "</objectModel>\n";
 
         return fomString;
@@ -167,6 +171,12 @@ public final class FOMContentUtils {
                          .append("       <updateType>").append(attribute.getUpdateType()).append("</updateType>\n")
                          .append("       <ownership>").append(attribute.getOwnerShip()).append("</ownership>\n")
                          .append("       <sharing>").append(publishSubscribe).append("</sharing>\n")
+                         .append("       <dimensions>\n")
+                         .append(attribute.getDimensions()
+                                          .stream()
+                                          .map(d -> "           <dimension>" + d.getName() + "</dimension>\n")
+                                          .collect(Collectors.joining()))
+                         .append("       </dimensions>\n")
                          .append("   </attribute>\n");
             }
             fomString.append("   ").append(convertFOMObjectsToFomString(objectClass.getSubClasses()))
@@ -175,4 +185,28 @@ public final class FOMContentUtils {
         return fomString.toString();
     }
 
+    /**
+     * This method generates the definitions of the given dimensions, which are referenced by the attributes
+     *
+     * @param dimensions the dimensions that should be converted into a FOM String
+     * @return the resulting String
+     */
+    public static String convertFOMDimensionsToFomString(List<FOMDimension> dimensions) {
+        if (dimensions == null) {
+            return "";
+        }
+
+        StringBuilder fomString = new StringBuilder();
+        for (FOMDimension dimension : dimensions) {
+            fomString.append("<dimension>\n")
+                     .append("   <name>").append(dimension.getName()).append("</name>\n")
+                     .append("   <dataType>HLAinteger64BE</dataType>\n")
+                     .append("   <upperBound>").append(dimension.getUpperBound()).append("</upperBound>\n")
+                     .append("   <normalization>linear</normalization>\n")
+                     .append("   <value>Excluded</value>\n")
+                     .append("</dimension>\n");
+        }
+        return fomString.toString();
+    }
+
 }
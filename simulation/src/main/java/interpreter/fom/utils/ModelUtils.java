@@ -5,39 +5,117 @@ import interpreter.utils.ReflectionUtils;
 import library.model.simulation.SimulationComponent;
 import library.model.simulation.objects.SimulationObject;
 import library.model.simulation.SimulationProperty;
+import library.services.logging.LoggingService;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.lang.reflect.Field;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 public final class ModelUtils {
 
     private final static String MODEL_PACKAGE = "library.model";
+    // written by the build-modelindex goal of the maven_plugins for every library
+    private final static String MODEL_INDEX = "library/model/model.index";
     private static List<Class<?>> classes = null;
 
     private ModelUtils() {}
 
     /**
-     * Scans all classes accessible from the context class loader which belong to the given package and subpackages.
+     * Returns all top level classes of the model package and its subpackages. The classes are taken from the model
+     * indexes generated at build time, only if there are none the classpath is scanned. Modules with an outdated index
+     * are scanned as well.
      *
      * @return The classes
-     * @throws ClassNotFoundException
      * @throws IOException
      */
-    @SuppressWarnings("UnstableApiUsage")
-    public static List<Class<?>> getClasses() throws IOException {
+    public static synchronized List<Class<?>> getClasses() throws IOException {
         if (classes == null) {
-            ClassPath cp = ClassPath.from(Thread.currentThread().getContextClassLoader());
-            classes = cp.getTopLevelClassesRecursive(MODEL_PACKAGE)
-                        .stream()
-                        .map(info -> info.load())
-                        .collect(Collectors.toList());
+            ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+            List<Class<?>> indexedClasses = loadIndexedClasses(classLoader);
+            classes = !indexedClasses.isEmpty() ? indexedClasses : scanClasses(classLoader);
         }
         return classes;
     }
 
+    private static List<Class<?>> loadIndexedClasses(ClassLoader classLoader) throws IOException {
+        Set<String> classNames = new HashSet<>();
+        List<Class<?>> indexedClasses = new ArrayList<>();
+        Enumeration<URL> indexes = classLoader.getResources(MODEL_INDEX);
+        while (indexes.hasMoreElements()) {
+            URL index = indexes.nextElement();
+            List<Class<?>> moduleClasses = loadIndex(index, classLoader);
+            if (moduleClasses == null) {
+                moduleClasses = scanModule(index, classLoader);
+            }
+            for (Class<?> clazz : moduleClasses) {
+                if (classNames.add(clazz.getName())) {
+                    indexedClasses.add(clazz);
+                }
+            }
+        }
+        return indexedClasses;
+    }
+
+    /**
+     * Loads the classes listed in the model index of a module
+     *
+     * @return the classes or null if the index is outdated, i.e. one of its classes can't be loaded
+     */
+    private static List<Class<?>> loadIndex(URL index, ClassLoader classLoader) throws IOException {
+        List<String> classNames;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(index.openStream(), StandardCharsets.UTF_8))) {
+            classNames = reader.lines()
+                               .map(String::trim)
+                               .filter(line -> !line.isEmpty())
+                               .collect(Collectors.toList());
+        }
+
+        List<Class<?>> indexedClasses = new ArrayList<>();
+        for (String className : classNames) {
+            try {
+                indexedClasses.add(Class.forName(className, false, classLoader));
+            } catch (ClassNotFoundException | LinkageError e) {
+                LoggingService.log("Model index " + index + " is outdated, " + className + " can't be loaded (" + e
+                                           + "), scanning the classpath for the model classes of the module instead");
+                return null;
+            }
+        }
+        return indexedClasses;
+    }
+
+    /**
+     * Scans the classpath for the model classes of the module the given model index belongs to
+     */
+    @SuppressWarnings("UnstableApiUsage")
+    private static List<Class<?>> scanModule(URL index, ClassLoader classLoader) throws IOException {
+        String indexUrl = index.toString();
+        String moduleRoot = indexUrl.substring(0, indexUrl.length() - MODEL_INDEX.length());
+        return ClassPath.from(classLoader)
+                        .getTopLevelClassesRecursive(MODEL_PACKAGE)
+                        .stream()
+                        .filter(info -> info.url().toString().startsWith(moduleRoot))
+                        .map(ClassPath.ClassInfo::load)
+                        .collect(Collectors.toList());
+    }
+
+    @SuppressWarnings("UnstableApiUsage")
+    private static List<Class<?>> scanClasses(ClassLoader classLoader) throws IOException {
+        ClassPath cp = ClassPath.from(classLoader);
+        return cp.getTopLevelClassesRecursive(MODEL_PACKAGE)
+                 .stream()
+                 .map(info -> info.load())
+                 .collect(Collectors.toList());
+    }
+
     public static Class<?> getClass(String classname) throws IOException {
         List<Class<?>> classes = getClasses();
         return classes.parallelStream()
@@ -0,0 +1,86 @@
+package interpreter.utils;
+
+import library.model.dto.scenario.FederateGroupingPolicy;
+import library.model.simulation.Position;
+import library.model.simulation.SimulationProperty;
+import library.model.simulation.objects.ActiveSimulationObject;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class FederateGroupingUtils {
+
+    /**
+     * Groups the given simulation objects according to the given policy, so each group can be hosted by a single
+     * federate. Objects with different time step sizes always end up in different groups.
+     *
+     * @param simulationObjects  objects to group
+     * @param policy             the grouping policy
+     * @param objectsPerFederate maximum size of a group, 0 means unlimited
+     * @param sectorSize         edge length of a sector in degrees (only used for BY_SECTOR)
+     * @return the groups by their name, in order of their first object
+     */
+    public static Map<String, List<ActiveSimulationObject>> groupSimulationObjects(List<ActiveSimulationObject> simulationObjects,
+                                                                                  FederateGroupingPolicy policy,
+                                                                                  int objectsPerFederate,
+                                                                                  double sectorSize) {
+        if (policy == null) {
+            policy = FederateGroupingPolicy.NONE;
+        }
+        if (policy == FederateGroupingPolicy.BY_COUNT && objectsPerFederate <= 0) {
+            throw new IllegalArgumentException("grouping by count needs a positive number of objects per federate");
+        }
+        if (policy == FederateGroupingPolicy.BY_SECTOR && sectorSize <= 0) {
+            throw new IllegalArgumentException("grouping by sector needs a positive sector size");
+        }
+
+        // first collect the objects by their group key ...
+        Map<String, List<ActiveSimulationObject>> groupsByKey = new LinkedHashMap<>();
+        for (ActiveSimulationObject simulationObject : simulationObjects) {
+            String key = getGroupKey(simulationObject, policy, sectorSize) + "@" + simulationObject.getTimeStepSize();
+            groupsByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(simulationObject);
+        }
+
+        // ... then split groups that are too big
+        Map<String, List<ActiveSimulationObject>> groups = new LinkedHashMap<>();
+        for (Map.Entry<String, List<ActiveSimulationObject>> entry : groupsByKey.entrySet()) {
+            List<ActiveSimulationObject> group = entry.getValue();
+            if (objectsPerFederate <= 0 || group.size() <= objectsPerFederate) {
+                groups.put(entry.getKey(), group);
+                continue;
+            }
+            for (int i = 0; i < group.size(); i += objectsPerFederate) {
+                int part = i / objectsPerFederate;
+                groups.put(entry.getKey() + "#" + part, new ArrayList<>(group.subList(i, Math.min(i + objectsPerFederate, group.size()))));
+            }
+        }
+        return groups;
+    }
+
+    private static String getGroupKey(ActiveSimulationObject simulationObject, FederateGroupingPolicy policy, double sectorSize) {
+        switch (policy) {
+            case BY_CLASS:
+                return simulationObject.getClass().getSimpleName();
+            case BY_COUNT:
+                return "Group";
+            case BY_SECTOR:
+                return getSector(simulationObject, sectorSize);
+            case NONE:
+            default:
+                return simulationObject.getId();
+        }
+    }
+
+    private static String getSector(ActiveSimulationObject simulationObject, double sectorSize) {
+        SimulationProperty<Position> positionProperty = simulationObject.getPosition();
+        if (positionProperty == null || positionProperty.getValue() == null) {
+            return "Sector(unknown)";
+        }
+        Position position = positionProperty.getValue();
+        long column = (long) Math.floor(position.getLongitude().getValue() / sectorSize);
+        long row = (long) Math.floor(position.getLatitude().getValue() / sectorSize);
+        return "Sector(" + column + "," + row + ")";
+    }
+}
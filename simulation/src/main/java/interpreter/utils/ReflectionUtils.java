@@ -5,22 +5,27 @@ import library.model.simulation.objects.SimulationObject;
 import library.model.simulation.SimulationProperty;
 import library.model.simulation.SimulationSuperClass;
 
-import java.beans.IntrospectionException;
-import java.beans.PropertyDescriptor;
+import library.services.utils.ClassModel;
+
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Reflection helpers of the interpreter, backed by the shared metadata of {@link ClassModel}
+ */
 public class ReflectionUtils {
 
+    // resolved attribute paths (e.g. "position.latitude") by class and path
+    private static final Map<Class<?>, Map<String, FieldPath>> FIELD_PATHS = new ConcurrentHashMap<>();
+
     /**
      * generates a list of all the classes fields, including all superclasses.
      *
@@ -28,26 +33,23 @@ public class ReflectionUtils {
      * @return list of all attributes in the class
      */
     public static ArrayList<Field> getFieldsOfClass(Class<?> classOfSimObject) {
-        ArrayList<Field> allObjectFields = new ArrayList<>(
-            Arrays.asList(classOfSimObject.getDeclaredFields())
-        );
-        Class<?> superClass = classOfSimObject.getSuperclass();
-        while (superClass != null && !superClass.equals(SimulationSuperClass.class)) {
-            allObjectFields.addAll(Arrays.asList(superClass.getDeclaredFields()));
-            superClass = superClass.getSuperclass();
-        }
-        return allObjectFields;
+        return new ArrayList<>(ClassModel.of(classOfSimObject).getFields(SimulationSuperClass.class));
     }
 
     /**
-     * TODO write documentation
+     * Searches a field of the class or its superclasses by its name, ignoring the case
      *
-     * @param clazz
-     * @param fieldName
-     * @return
+     * @param clazz     class to search the field in
+     * @param fieldName name of the field
+     * @return the field
+     * @throws NoSuchElementException if there is no such field
      */
     public static Field getFieldOfClassByName(Class<?> clazz, String fieldName) {
-        return getFieldFromFieldListByName(getFieldsOfClass(clazz), fieldName);
+        Field field = ClassModel.of(clazz).getField(fieldName, SimulationSuperClass.class);
+        if (field == null) {
+            throw new NoSuchElementException("No field " + fieldName + " in " + clazz.getName());
+        }
+        return field;
     }
 
     /**
@@ -64,91 +66,55 @@ public class ReflectionUtils {
     }
 
     /**
-     * TODO write documentation
+     * Resolves the field of a (compound) attribute, e.g. the latitude field of Position for "position.latitude"
      *
-     * @param clazz
-     * @param fieldPath
-     * @return
+     * @param clazz     class of the simulation object
+     * @param fieldPath attribute name, with the names of nested attributes chained with a dot in between
+     * @return the field of the last attribute of the path
      */
     public static Field getDeepFieldOfClassByName(Class<? extends SimulationObject> clazz, String fieldPath) {
-        String[] attributeNamesSplitByDot = fieldPath.split("\\.");
-
-        // get the field representing the attribute inside the object
-        Field attributeField = ReflectionUtils.getFieldOfClassByName(clazz, attributeNamesSplitByDot[0]);
-
-        // attributes are always of type SimulationAttribute<T>, we therefore have to get the actual generic type
-        Class<?> attributeType = ReflectionUtils.getGenericTypeOfField(attributeField);
-
-        // if the attribute is a compound attribute (indicated by attribute names chained with a dot in between)
-        if (attributeNamesSplitByDot.length > 1) {
-            // ... we have to get we have to go along the data structure according to the chained name until we arrive at the final field
-            for (int i = 1; i < attributeNamesSplitByDot.length; i++) {
-                String attributeName = attributeNamesSplitByDot[i];
-                attributeField = ReflectionUtils.getFieldOfClassByName(attributeType, attributeName);
-            }
-        }
-        return attributeField;
+        return getFieldPath(clazz, fieldPath).getLastField();
     }
 
     /**
-     * TODO write documentation
+     * Resolves the field of a (compound) attribute and the object holding it, e.g. the Position of a vessel and the
+     * latitude field for "position.latitude". Missing properties along the path are created.
      *
-     * @param simulationObject
-     * @param fieldPath
-     * @return
+     * @param simulationObject the simulation object
+     * @param fieldPath        attribute name, with the names of nested attributes chained with a dot in between
+     * @return the object holding the last attribute of the path and its field
      * @throws IllegalAccessException
      * @throws InvocationTargetException
      * @throws InstantiationException
      */
     @SuppressWarnings("unchecked")
     public static Map.Entry<Object, Field> getDeepObjectAndFieldByPath(SimulationObject simulationObject, String fieldPath) throws IllegalAccessException, InvocationTargetException, InstantiationException {
-
-        String[] attributeNamesSplitByDot = fieldPath.split("\\.");
+        FieldPath path = getFieldPath(simulationObject.getClass(), fieldPath);
 
         Object object = simulationObject;
-        Class<?> clazz = object.getClass();
-        String attributeName = attributeNamesSplitByDot[0];
-        Field attributeField = ReflectionUtils.getFieldOfClassByName(clazz, attributeNamesSplitByDot[0]);
-        attributeField.setAccessible(true);
-
-        Class<?> attributeType = ReflectionUtils.getGenericTypeOfField(attributeField);
-
-        if (attributeField.get(object) == null) {
-            attributeField.setAccessible(true);
-            SimulationProperty newSimulationProperty = (SimulationProperty) getEmptyConstructorIfPresent(attributeField.getType()).newInstance();
-            newSimulationProperty.setName(attributeName);
-            if (Primitives.isWrapperType(attributeType)) {
-                // newSimulationAttribute.setSingleValue(0);
-            } else {
-                newSimulationProperty.setSingleValue(getEmptyConstructorIfPresent(attributeType).newInstance());
-            }
-            attributeField.set(object, newSimulationProperty);
-        }
-
-        // if the attribute is a compound attribute (indicated by attribute names chained with a dot in between)
-        if (attributeNamesSplitByDot.length > 1) {
-            // ... we have to get we have to go along the data structure according to the chained name until we arrive at the final field
-            for (int i = 1; i < attributeNamesSplitByDot.length; i++) {
-                attributeName = attributeNamesSplitByDot[i];
-
-                if (attributeField.get(object) == null) {
-                    attributeField.setAccessible(true);
-                    SimulationProperty newSimulationProperty = (SimulationProperty) getEmptyConstructorIfPresent(attributeField.getType()).newInstance();
-                    newSimulationProperty.setName(attributeName);
-                    if (Primitives.isWrapperType(attributeType)) {
-                        // do we have to do something for primitive wrapper types?
-                    } else {
-                        newSimulationProperty.setSingleValue(getEmptyConstructorIfPresent(attributeType).newInstance());
-                    }
-                    attributeField.set(object, newSimulationProperty);
+        // the first property is always created, the following ones only if they hold nested attributes
+        for (int i = 0; i < Math.max(path.fields.length - 1, 1); i++) {
+            Field attributeField = path.fields[i];
+            Class<?> attributeType = path.types[i];
+            if (attributeField.get(object) == null) {
+                SimulationProperty newSimulationProperty = (SimulationProperty) getEmptyConstructorIfPresent(attributeField.getType()).newInstance();
+                newSimulationProperty.setName(path.names[i]);
+                if (!Primitives.isWrapperType(attributeType)) {
+                    newSimulationProperty.setSingleValue(getEmptyConstructorIfPresent(attributeType).newInstance());
                 }
-
-                SimulationProperty simAttribute = (SimulationProperty) attributeField.get(object);
-                object = simAttribute.getValue();
-                attributeField = ReflectionUtils.getFieldOfClassByName(attributeType, attributeName);
+                attributeField.set(object, newSimulationProperty);
+            }
+            if (i < path.fields.length - 1) {
+                // go along the data structure according to the chained name until we arrive at the final field
+                object = ((SimulationProperty) attributeField.get(object)).getValue();
             }
         }
-        return Map.entry(object, attributeField);
+        return Map.entry(object, path.getLastField());
+    }
+
+    private static FieldPath getFieldPath(Class<?> clazz, String fieldPath) {
+        return FIELD_PATHS.computeIfAbsent(clazz, c -> new ConcurrentHashMap<>())
+                          .computeIfAbsent(fieldPath, p -> new FieldPath(clazz, p));
     }
 
     /**
@@ -160,13 +126,12 @@ public class ReflectionUtils {
      */
     public static Object getValueObjectFromField(Field field, Object object) {
         try {
-            String property = field.getName();
-            Method method = new PropertyDescriptor(property, object.getClass(), "is" + Character.toUpperCase(property.charAt(0)) + property.substring(1), null).getReadMethod();
+            Method method = ClassModel.of(object.getClass()).getGetter(field.getName());
             if (method == null) {
                 return null;
             }
             return method.invoke(object);
-        } catch (IllegalAccessException | InvocationTargetException | IntrospectionException e) {
+        } catch (IllegalAccessException | InvocationTargetException e) {
             return null;
         }
     }
@@ -178,9 +143,7 @@ public class ReflectionUtils {
      * @return
      */
     public static Class<?> getGenericTypeOfField(Field genericField) {
-        ParameterizedType fieldParamType = (ParameterizedType) genericField.getGenericType();
-        Type actualType = fieldParamType.getActualTypeArguments()[0];
-        return (Class<?>) actualType;
+        return ClassModel.getGenericType(genericField);
     }
 
     /**
@@ -214,16 +177,7 @@ public class ReflectionUtils {
 
     public static Stack<Class<?>> getInheritanceStackOfClass(Class clazz, Class stopAt) {
         // create a stack of classes representing the inheritance structure
-        Stack<Class<?>> classes = new Stack<>();
-        classes.push(clazz);
-        while (classes.peek().getSuperclass() != null) {
-            Class<?> superClass = classes.peek().getSuperclass();
-            classes.push(superClass);
-            if (superClass != null && superClass == stopAt) {
-                break;
-            }
-        }
-        return classes;
+        return ClassModel.of(clazz).getInheritanceStack(stopAt);
     }
 
     public static Stack<Class<?>> getInheritanceStackOfClass(Class clazz) {
@@ -248,4 +202,32 @@ public class ReflectionUtils {
         }
         return constructor;
     }
+
+    /**
+     * The fields along the path of a (compound) attribute, together with their names and generic types
+     */
+    private static final class FieldPath {
+
+        private final String[] names;
+        private final Field[] fields;
+        private final Class<?>[] types;
+
+        private FieldPath(Class<?> clazz, String fieldPath) {
+            this.names = fieldPath.split("\\.");
+            this.fields = new Field[names.length];
+            this.types = new Class<?>[names.length];
+            Class<?> declaringType = clazz;
+            for (int i = 0; i < names.length; i++) {
+                fields[i] = getFieldOfClassByName(declaringType, names[i]);
+                fields[i].setAccessible(true);
+                // attributes are always of type SimulationProperty<T>, we therefore have to get the actual generic type
+                types[i] = getGenericTypeOfField(fields[i]);
+                declaringType = types[i];
+            }
+        }
+
+        private Field getLastField() {
+            return fields[fields.length - 1];
+        }
+    }
 }
\ No newline at end of file
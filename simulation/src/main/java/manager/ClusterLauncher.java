@@ -0,0 +1,418 @@
+package manager;
+
+import com.beust.jcommander.JCommander;
+import com.beust.jcommander.Parameter;
+import interpreter.Interpreter;
+import interpreter.fom.utils.FOMCache;
+import library.model.dto.scenario.RTIImplementation;
+import library.model.dto.scenario.ScenarioDTO;
+import library.model.simulation.objects.SimulationObject;
+import library.services.scenario.ScenarioConverter;
+import simulation.coordination.Checkpoint;
+import simulation.coordination.FederateDescription;
+import simulation.coordination.NodeDescription;
+import simulation.federate.AbstractFederate;
+
+import javax.xml.bind.JAXBException;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Spreads the federates of a scenario across several processes on the local host, so the size of a scenario isn't
+ * limited by the heap and the garbage collection of a single JVM anymore.
+ * <p>
+ * The launcher describes the federates of the scenario (see {@link Interpreter#describeFederates}), assigns them to
+ * the nodes by the number of their objects and starts a {@link NodeAgent} process for every node. The first node also
+ * hosts the master federate. The launcher itself doesn't connect to the RTI, it only starts the nodes in the right
+ * order, monitors them and stops all nodes if one of them fails.
+ * The nodes use Portico bound to the loopback interface, so a cluster can be run on a single machine without network.
+ */
+public class ClusterLauncher {
+
+    // environment variable pointing Portico to its RID file, the nodes get a RID file binding Portico to the loopback interface
+    private static final String RID_FILE_VARIABLE = "RTI_RID_FILE";
+
+    @Parameter(names = {"--scenario", "-s"}, required = true)
+    private String scenarioPath;
+
+    @Parameter(names = {"--nodes", "-n"})
+    private int nodes = 2;
+
+    // checkpoints the run is restored from, a clustered run writes one checkpoint per node
+    @Parameter(names = {"--checkpoint", "-c"})
+    private List<String> checkpointPaths = new ArrayList<>();
+
+    @Parameter(names = {"--federation", "-f"})
+    private String federationName = null;
+
+    // options of the node JVMs, e.g. "-Xmx4g"
+    @Parameter(names = {"--node-options", "-o"})
+    private String nodeOptions = "";
+
+    // class path of the node JVMs, by default the class path of the launcher
+    @Parameter(names = {"--classpath", "-cp"})
+    private String classPath = null;
+
+    private final Object lock = new Object();
+    private final List<NodeProcess> nodeProcesses = new ArrayList<>();
+    // set if the nodes are stopped since the scenario ran out of time, they don't exit normally then
+    private volatile boolean stopped = false;
+
+    public static void main(String... args) {
+        ClusterLauncher clusterLauncher = new ClusterLauncher();
+        JCommander.newBuilder()
+                  .addObject(clusterLauncher)
+                  .build()
+                  .parse(args);
+        System.exit(clusterLauncher.run());
+    }
+
+    /**
+     * Starts the nodes of the scenario and waits for them to finish
+     *
+     * @return the exit code of the launcher, 0 if all nodes finished successfully
+     */
+    public int run() {
+        ///////////////////////////////////
+        // STEP 1 "describe the federates"
+        ///////////////////////////////////
+        ScenarioDTO scenario;
+        try {
+            scenario = ScenarioConverter.convertToScenarioModel(scenarioPath);
+            if (!checkpointPaths.isEmpty()) {
+                List<Path> checkpointFiles = checkpointPaths.stream()
+                                                            .map(Path::of)
+                                                            .collect(Collectors.toList());
+                Checkpoint.read(checkpointFiles).restoreObjects(scenario);
+            }
+        } catch (JAXBException | IOException e) {
+            e.printStackTrace();
+            System.out.println("ERROR: Invalid Scenario");
+            return 1;
+        }
+        if (scenario.getRtiImplementation() == RTIImplementation.LOOPBACK) {
+            System.out.println("ERROR: The loopback RTI only connects federates of the same process, use PORTICO to run a cluster");
+            return 1;
+        }
+        if (federationName == null) {
+            federationName = AbstractFederate.DEFAULT_FEDERATION_NAME + "-" + ProcessHandle.current().pid();
+        }
+        List<FederateDescription> federates = new Interpreter(federationName).describeFederates(scenario);
+        List<List<FederateDescription>> assignment = assignFederates(federates, Math.max(1, nodes));
+
+        ///////////////////////////////////
+        // STEP 2 "write the descriptions"
+        ///////////////////////////////////
+        List<String> scenarioObjectIds = scenario.getSimulationObjects()
+                                                 .stream()
+                                                 .map(SimulationObject::getId)
+                                                 .collect(Collectors.toList());
+        List<String> absoluteCheckpointPaths = checkpointPaths.stream()
+                                                              .map(path -> Path.of(path).toAbsolutePath().toString())
+                                                              .collect(Collectors.toList());
+        List<Path> descriptionFiles = new ArrayList<>();
+        Path ridFile;
+        try {
+            Path directory = Files.createTempDirectory("pgmtss-cluster");
+            for (int node = 0; node < assignment.size(); node++) {
+                NodeDescription description = new NodeDescription(node, node == 0, federationName, Path.of(scenarioPath).toAbsolutePath().toString(),
+                                                                  absoluteCheckpointPaths, scenarioObjectIds, assignment.get(node));
+                Path descriptionFile = directory.resolve("node" + node + ".xml");
+                description.write(descriptionFile);
+                descriptionFiles.add(descriptionFile);
+                System.out.println("Node " + node + ": " + description.getFederates().size() + " federates with " + description.getObjectCount() + " objects");
+            }
+            ridFile = writeRidFile(directory);
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.out.println("ERROR: Couldn't write the node descriptions");
+            return 1;
+        }
+
+        ///////////////////////////////////
+        // STEP 3 "start the nodes"
+        ///////////////////////////////////
+        Runtime.getRuntime().addShutdownHook(new Thread(this::destroyNodes));
+        try {
+            // the master node creates the federation, the other nodes are started once they can join it
+            NodeProcess masterNode = startNode(0, descriptionFiles.get(0), ridFile);
+            if (!await(() -> masterNode.announced)) {
+                return abort();
+            }
+            for (int node = 1; node < descriptionFiles.size(); node++) {
+                startNode(node, descriptionFiles.get(node), ridFile);
+            }
+            if (!await(() -> nodeProcesses.stream().allMatch(nodeProcess -> nodeProcess.ready))) {
+                return abort();
+            }
+            Writer masterInput = masterNode.input;
+            masterInput.write(NodeAgent.START + System.lineSeparator());
+            masterInput.flush();
+            System.out.println("Started federation " + federationName + " on " + nodeProcesses.size() + " nodes");
+        } catch (IOException | InterruptedException e) {
+            e.printStackTrace();
+            return abort();
+        }
+
+        Timer timer = new Timer(true);
+        if (scenario.isTimeLimited()) {
+            timer.schedule(new TimerTask() {
+                @Override
+                public void run() {
+                    System.out.println(String.format("Simulation time of %d ms has run out and the Simulation %s will end.", scenario.getMaxDuration(), federationName));
+                    stopped = true;
+                    destroyNodes();
+                }
+            }, scenario.getMaxDuration());
+        }
+
+        ///////////////////////////////////
+        // STEP 4 "monitor the nodes"
+        ///////////////////////////////////
+        try {
+            synchronized (lock) {
+                while (!nodeProcesses.stream().allMatch(nodeProcess -> nodeProcess.exited)) {
+                    // a federation with a missing node can't advance anymore
+                    if (!stopped && nodeProcesses.stream().anyMatch(nodeProcess -> nodeProcess.exited && nodeProcess.exitCode != 0)) {
+                        return abort();
+                    }
+                    lock.wait();
+                }
+            }
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+            return abort();
+        } finally {
+            timer.cancel();
+        }
+        if (!stopped && nodeProcesses.stream().anyMatch(nodeProcess -> nodeProcess.exitCode != 0)) {
+            return abort();
+        }
+        System.out.println("INFO: All nodes finished.");
+        return 0;
+    }
+
+    /**
+     * Assigns the federates to the nodes, every federate to the node with the fewest objects so far, starting with the
+     * federates with the most objects
+     *
+     * @return the federates of every node that got any, the first node always exists since it hosts the master
+     */
+    static List<List<FederateDescription>> assignFederates(List<FederateDescription> federates, int nodes) {
+        List<List<FederateDescription>> assignment = new ArrayList<>();
+        int[] weights = new int[nodes];
+        for (int node = 0; node < nodes; node++) {
+            assignment.add(new ArrayList<>());
+        }
+        List<FederateDescription> sortedFederates = new ArrayList<>(federates);
+        sortedFederates.sort(Comparator.comparingInt(FederateDescription::getWeight).reversed());
+        for (FederateDescription federate : sortedFederates) {
+            int lightestNode = 0;
+            for (int node = 1; node < nodes; node++) {
+                if (weights[node] < weights[lightestNode]) {
+                    lightestNode = node;
+                }
+            }
+            assignment.get(lightestNode).add(federate);
+            weights[lightestNode] += federate.getWeight();
+        }
+        for (List<FederateDescription> nodeFederates : assignment) {
+            nodeFederates.sort(Comparator.comparingInt(FederateDescription::getIndex));
+        }
+        // ties go to the first nodes, so only the last nodes can be empty
+        while (assignment.size() > 1 && assignment.get(assignment.size() - 1).isEmpty()) {
+            assignment.remove(assignment.size() - 1);
+        }
+        return assignment;
+    }
+
+    /**
+     * Writes the RID file of the nodes, the RID file of the working directory (or of RTI_RID_FILE) is kept but Portico
+     * is bound to the loopback interface
+     */
+    private static Path writeRidFile(Path directory) throws IOException {
+        String configuredRidFile = System.getenv(RID_FILE_VARIABLE);
+        Path baseRidFile = configuredRidFile != null ? Path.of(configuredRidFile) : Path.of("RTI.rid");
+        StringBuilder rid = new StringBuilder();
+        if (Files.isRegularFile(baseRidFile)) {
+            rid.append(Files.readString(baseRidFile, StandardCharsets.UTF_8)).append(System.lineSeparator());
+        }
+        // later entries override the ones of the base file
+        rid.append("# the nodes of a cluster only communicate through the loopback interface").append(System.lineSeparator());
+        rid.append("portico.connection = jgroups").append(System.lineSeparator());
+        rid.append("portico.jgroups.udp.bindAddress = LOOPBACK").append(System.lineSeparator());
+        rid.append("portico.wan.enabled = false").append(System.lineSeparator());
+        Path ridFile = directory.resolve("RTI.rid");
+        Files.writeString(ridFile, rid.toString(), StandardCharsets.UTF_8);
+        return ridFile;
+    }
+
+    private NodeProcess startNode(int node, Path descriptionFile, Path ridFile) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        // JGroups has to use IPv4 to bind to 127.0.0.1
+        command.add("-Djava.net.preferIPv4Stack=true");
+        String fomCacheDirectory = System.getProperty(FOMCache.CACHE_DIRECTORY_PROPERTY);
+        if (fomCacheDirectory != null) {
+            command.add("-D" + FOMCache.CACHE_DIRECTORY_PROPERTY + "=" + fomCacheDirectory);
+        }
+        if (!nodeOptions.isBlank()) {
+            command.addAll(Arrays.asList(nodeOptions.trim().split("\\s+")));
+        }
+        command.add("-cp");
+        command.add(classPath != null ? classPath : getClassPath());
+        command.add(NodeAgent.class.getName());
+        command.add("--description");
+        command.add(descriptionFile.toString());
+
+        ProcessBuilder processBuilder = new ProcessBuilder(command).redirectErrorStream(true);
+        processBuilder.environment().put(RID_FILE_VARIABLE, ridFile.toString());
+        NodeProcess nodeProcess = new NodeProcess(node, processBuilder.start());
+        synchronized (lock) {
+            nodeProcesses.add(nodeProcess);
+        }
+        Thread outputThread = new Thread(nodeProcess::readOutput, "node" + node + "-output");
+        outputThread.setDaemon(true);
+        outputThread.start();
+        return nodeProcess;
+    }
+
+    /**
+     * Started by mvn exec:java the classes are loaded by a class loader of Maven and the class path of the JVM only
+     * holds Maven itself, so the class path is collected from the class loaders as well
+     *
+     * @return the class path of the node processes
+     */
+    private static String getClassPath() {
+        Set<String> entries = new LinkedHashSet<>();
+        for (ClassLoader classLoader = ClusterLauncher.class.getClassLoader(); classLoader != null; classLoader = classLoader.getParent()) {
+            if (classLoader instanceof URLClassLoader) {
+                for (URL url : ((URLClassLoader) classLoader).getURLs()) {
+                    try {
+                        entries.add(Path.of(url.toURI()).toString());
+                    } catch (URISyntaxException | IllegalArgumentException e) {
+                        // not a local file, the nodes can't use it anyway
+                    }
+                }
+            }
+        }
+        entries.addAll(Arrays.asList(System.getProperty("java.class.path").split(File.pathSeparator)));
+        entries.remove("");
+        return String.join(File.pathSeparator, entries);
+    }
+
+    /**
+     * Waits until the condition is met
+     *
+     * @return false if a node exited before
+     */
+    private boolean await(BooleanSupplier condition) throws InterruptedException {
+        synchronized (lock) {
+            while (!condition.getAsBoolean()) {
+                if (nodeProcesses.stream().anyMatch(nodeProcess -> nodeProcess.exited)) {
+                    return false;
+                }
+                lock.wait();
+            }
+            return true;
+        }
+    }
+
+    private int abort() {
+        synchronized (lock) {
+            for (NodeProcess nodeProcess : nodeProcesses) {
+                if (nodeProcess.exited && nodeProcess.exitCode != 0) {
+                    System.out.println("ERROR: Node " + nodeProcess.node + " failed with exit code " + nodeProcess.exitCode);
+                }
+            }
+        }
+        System.out.println("ERROR: Stopping all nodes of federation " + federationName);
+        destroyNodes();
+        return 1;
+    }
+
+    private void destroyNodes() {
+        List<NodeProcess> runningNodes;
+        synchronized (lock) {
+            runningNodes = new ArrayList<>(nodeProcesses);
+        }
+        for (NodeProcess nodeProcess : runningNodes) {
+            if (nodeProcess.process.isAlive()) {
+                nodeProcess.process.destroy();
+            }
+        }
+    }
+
+    /**
+     * A started node, its state is updated by the thread reading its output and guarded by the lock of the launcher
+     */
+    private final class NodeProcess {
+
+        private final int node;
+        private final Process process;
+        private final Writer input;
+        private boolean announced = false;
+        private boolean ready = false;
+        private boolean exited = false;
+        private int exitCode = 0;
+
+        private NodeProcess(int node, Process process) {
+            this.node = node;
+            this.process = process;
+            this.input = new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Passes the output of the node on to the console until the node exits
+         */
+        private void readOutput() {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    System.out.println("[node " + node + "] " + line);
+                    if (line.equals(NodeAgent.ANNOUNCED) || line.equals(NodeAgent.READY)) {
+                        synchronized (lock) {
+                            announced = true;
+                            ready |= line.equals(NodeAgent.READY);
+                            lock.notifyAll();
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            int code;
+            try {
+                code = process.waitFor();
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+                code = -1;
+            }
+            synchronized (lock) {
+                exited = true;
+                exitCode = code;
+                lock.notifyAll();
+            }
+        }
+    }
+}
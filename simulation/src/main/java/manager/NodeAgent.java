@@ -0,0 +1,229 @@
+package manager;
+
+import com.beust.jcommander.JCommander;
+import com.beust.jcommander.Parameter;
+import hla.rti1516e.CallbackModel;
+import interpreter.Interpreter;
+import library.model.dto.scenario.ScenarioDTO;
+import library.model.simulation.objects.IActiveDynamic;
+import library.model.simulation.objects.SimulationObject;
+import library.services.geodata.MapDataProvider;
+import library.services.logging.LoggingService;
+import library.services.scenario.ScenarioConverter;
+import simulation.coordination.Checkpoint;
+import simulation.coordination.NodeDescription;
+import simulation.federate.AbstractFederate;
+import simulation.federate.interpreted.InterpretedFederate;
+import simulation.federate.master.MasterFederate;
+
+import javax.xml.bind.JAXBException;
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.LogManager;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Hosts a part of the federates of a federation in a process of its own. The nodes of a federation are started and
+ * monitored by the {@link ClusterLauncher}, each node starts and monitors its own federates like the
+ * {@link SimulationWatchDog} does for a run within a single process.
+ * <p>
+ * A node reports its progress to the launcher by writing {@link #ANNOUNCED} and {@link #READY} to its standard output.
+ * The node hosting the master federate waits for {@link #START} on its standard input before the federation starts,
+ * so apart from the RTI the processes only communicate through the pipes to the launcher.
+ */
+public class NodeAgent {
+
+    // written by the master node once the master federate announced the sync point, the other nodes may join then
+    public static final String ANNOUNCED = "NODE-ANNOUNCED";
+    // written once all federates of the node reached the sync point
+    public static final String READY = "NODE-READY";
+    // sent to the master node once all nodes are ready
+    public static final String START = "START";
+
+    @Parameter(names = {"--description", "-d"}, required = true)
+    private String descriptionPath;
+
+    public static void main(String... args) {
+
+        Logger logger = Logger.getAnonymousLogger();
+        LogManager manager = LogManager.getLogManager();
+        try {
+            manager.readConfiguration(new FileInputStream("simulation/properties/logging.properties"));
+            logger.getHandlers();
+        } catch (IOException e) {
+            logger.warning(e.getMessage());
+        }
+
+        NodeAgent nodeAgent = new NodeAgent();
+        JCommander.newBuilder()
+                  .addObject(nodeAgent)
+                  .build()
+                  .parse(args);
+        // the RTI may keep threads alive after the federation ended
+        System.exit(nodeAgent.run());
+    }
+
+    /**
+     * Creates the federates of the node and runs them until they finished
+     *
+     * @return the exit code of the node, 0 if all federates were started
+     */
+    public int run() {
+        NodeDescription description;
+        ScenarioDTO scenario;
+        Checkpoint checkpoint = null;
+        try {
+            description = NodeDescription.read(Path.of(descriptionPath));
+            scenario = ScenarioConverter.convertToScenarioModel(description.getScenarioPath());
+            if (!description.getCheckpointPaths().isEmpty()) {
+                List<Path> checkpointFiles = description.getCheckpointPaths()
+                                                        .stream()
+                                                        .map(Path::of)
+                                                        .collect(Collectors.toList());
+                checkpoint = Checkpoint.read(checkpointFiles);
+                checkpoint.restoreObjects(scenario);
+            }
+            description.applyObjectIds(scenario);
+        } catch (JAXBException | IOException | IllegalStateException e) {
+            e.printStackTrace();
+            System.out.println("ERROR: Invalid node description or scenario");
+            return 1;
+        }
+
+        String federationName = description.getFederationName();
+        Interpreter interpreter = new Interpreter(federationName);
+        interpreter.setCheckpoint(checkpoint);
+        interpreter.setHostedFederates(description.getFederateIndexes());
+        interpreter.setNodeName("node" + description.getNode());
+        List<AbstractFederate> federates = interpreter.createFederates(scenario);
+        if (federates.size() != description.getFederates().size()) {
+            System.out.println("ERROR: Created " + federates.size() + " of " + description.getFederates().size() + " federates");
+            return 1;
+        }
+
+        // the objects of the other nodes are left out of the map, they are only known through the RTI
+        List<SimulationObject> hostedObjects = new ArrayList<>();
+        for (AbstractFederate federate : federates) {
+            if (federate instanceof InterpretedFederate) {
+                hostedObjects.addAll(((InterpretedFederate) federate).getSimulatedObjects());
+            }
+        }
+        Set<String> hostedObjectIds = hostedObjects.stream()
+                                                   .map(SimulationObject::getId)
+                                                   .collect(Collectors.toCollection(HashSet::new));
+        scenario.getSimulationObjects().removeIf(simulationObject -> simulationObject instanceof IActiveDynamic
+                                                                     && !hostedObjectIds.contains(simulationObject.getId()));
+        MapDataProvider mapDataProvider = new MapDataProvider(scenario);
+        scenario.getLoggingTypes().forEach(LoggingService::registerLogger);
+        for (SimulationObject hostedObject : hostedObjects) {
+            MapDataProvider.addToMap(hostedObject, mapDataProvider);
+        }
+        System.out.println("Node " + description.getNode() + " hosts " + federates.size() + " federates with " + hostedObjects.size() + " objects");
+
+        try {
+            return runFederates(description, scenario, checkpoint, federates);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+            return 1;
+        } finally {
+            for (SimulationObject hostedObject : hostedObjects) {
+                MapDataProvider.removeFromMap(hostedObject);
+            }
+        }
+    }
+
+    private int runFederates(NodeDescription description, ScenarioDTO scenario, Checkpoint checkpoint, List<AbstractFederate> federates) throws InterruptedException {
+        MasterFederate masterFederate = null;
+        Thread masterThread = null;
+        if (description.isMaster()) {
+            masterFederate = new MasterFederate(scenario.getSimulationIterations(), scenario.getTimeManagementMode(), description.getFederationName());
+            masterFederate.setCallbackModel(scenario.isImmediateCallbacks() ? CallbackModel.HLA_IMMEDIATE : CallbackModel.HLA_EVOKED);
+            masterFederate.setRtiImplementation(scenario.getRtiImplementation());
+            if (checkpoint != null) {
+                masterFederate.setStartTime(checkpoint.getStartTime());
+            }
+            masterThread = new Thread(masterFederate, "MasterFederate");
+            masterThread.start();
+            // the federation has to exist before the federates of the other nodes join it
+            synchronized (masterFederate.LOCK) {
+                while (!masterFederate.isSyncPointAnnounced()) {
+                    if (!masterThread.isAlive()) {
+                        System.out.println("ERROR: The master federate ended before announcing the sync point");
+                        return 1;
+                    }
+                    masterFederate.LOCK.wait(1000);
+                }
+            }
+            System.out.println(ANNOUNCED);
+        }
+
+        List<Thread> threads = new ArrayList<>();
+        for (AbstractFederate federate : federates) {
+            Thread thread = new Thread(federate, federate.getFederateName());
+            threads.add(thread);
+            thread.start();
+        }
+        for (int i = 0; i < federates.size(); i++) {
+            AbstractFederate federate = federates.get(i);
+            // wait for each of the federates to be fully initialized
+            synchronized (federate.LOCK) {
+                while (!federate.isAtSyncPoint()) {
+                    if (!threads.get(i).isAlive()) {
+                        System.out.println("ERROR: " + federate.getFederateName() + " ended before reaching the sync point");
+                        return 1;
+                    }
+                    federate.LOCK.wait(1000);
+                }
+            }
+        }
+        System.out.println(READY);
+
+        if (masterFederate != null) {
+            if (!awaitStart()) {
+                System.out.println("ERROR: The launcher didn't start the federation");
+                return 1;
+            }
+            // tell the master federate that everything is synced, so it starts the actual simulation
+            synchronized (masterFederate.LOCK) {
+                masterFederate.setFederationFullySynced(true);
+                masterFederate.LOCK.notify();
+            }
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+            System.out.println(thread.getName() + " has ended");
+        }
+        if (masterThread != null) {
+            masterThread.join();
+        }
+        return 0;
+    }
+
+    /**
+     * @return true if the launcher sent the start command, false if it closed the standard input before
+     */
+    private static boolean awaitStart() {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().equals(START)) {
+                    return true;
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return false;
+    }
+}
@@ -7,6 +7,7 @@ import library.model.dto.scenario.ScenarioDTO;
 import library.services.geodata.MapDataProvider;
 import library.services.logging.LoggingService;
 import library.services.scenario.ScenarioConverter;
+import simulation.coordination.Checkpoint;
 import simulation.federate.AbstractFederate;
 
 import javax.swing.*;
@@ -16,9 +17,11 @@ import javax.xml.bind.JAXBException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -49,20 +52,24 @@ public class SimulationManager {
     @Parameter(names = {"--runs", "-r"})
     private int runs = 1;
 
+    @Parameter(names = {"--parallel", "-p"})
+    private int parallelRuns = 1;
+
+    // checkpoint all runs are restored from, null starts them at t=0
+    @Parameter(names = {"--checkpoint", "-c"})
+    private String checkpointPath = null;
+
     private final Scanner scanner;
     private final Map<String, List<AbstractFederate>> previousSimulations;
-    private final Map<String, Integer> currentIndexHashMap;
 
-    private SimulationWatchDog currentSimulationWatchDog;
-    private Timer simulationStopperTimer;
-    private SimulationStopperTask simulationStopperTask;
+    private final Timer simulationStopperTimer;
     private final List<String> scenarioPathList;
-    private int scenarioPathIndex;
-
-    private Object waitForStopLock = new Object();
-    private boolean waitForStop = false;
 
-    private Interpreter interpreter = Interpreter.getInstance();
+    // all simulation runs still to do and the currently executed ones, guarded by runLock
+    private final Object runLock = new Object();
+    private final Queue<SimulationRun> pendingRuns = new LinkedList<>();
+    private final Map<SimulationWatchDog, SimulationStopperTask> runningSimulations = new LinkedHashMap<>();
+    private int federationCounter = 0;
 
     public static void main(String... args) {
 
@@ -84,13 +91,10 @@ public class SimulationManager {
     }
 
     public SimulationManager() {
-        scenarioPathIndex = 0;
         scanner = new Scanner(System.in);
         previousSimulations = new HashMap<>();
-        currentIndexHashMap = new HashMap<>();
         scenarioPathList = new ArrayList<>();
-        simulationStopperTimer = new Timer();
-        simulationStopperTask = null;
+        simulationStopperTimer = new Timer(true);
         Logger rootLogger = LogManager.getLogManager().getLogger("");
         rootLogger.setLevel(Level.WARNING);
         for (Handler h : rootLogger.getHandlers()) {
@@ -107,7 +111,7 @@ public class SimulationManager {
         }
 
         if (autostart && !scenarioPathList.isEmpty()) {
-            startNextScenario();
+            startSimulationRuns();
         }
 
         waitForInput();
@@ -139,9 +143,14 @@ public class SimulationManager {
             scenario clear           clear all scenarios from the list
             runs                     prompts the currently selected number of runs
             runs <number>            defines the number runs the simulation will be executed
+            parallel                 prompts the currently selected number of runs executed at the same time
+            parallel <number>        defines the number of runs executed at the same time
+            checkpoint               prompts the checkpoint the runs are restored from
+            checkpoint <path>        restores the runs from the checkpoint file <path> instead of starting at t=0
+            checkpoint clear         starts the runs at t=0 again
             start                    starts the simulation with loaded scenario
-            stop current             stops simulation of current scenario, proceeds with the next scenario
-            stop all                 stops simulation of current scenario, without proceeding to the next
+            stop current             stops the currently executed runs, proceeds with the next runs
+            stop all                 stops the currently executed runs, without proceeding to the next
             status                   shows the current state of the simulation system
             exit                     exits the program
             """
@@ -161,16 +170,12 @@ public class SimulationManager {
                     break;
 
                 case "exit":
-                    simulationStopperTimer.cancel();
                     stopSimulation(true);
-                    System.out.println("Exiting...");
-                    currentSimulationWatchDog = null;
-                    System.exit(0);
+                    exit();
                     break;
 
                 case "start":
-                    scenarioPathIndex = 0;
-                    startNextScenario();
+                    startSimulationRuns();
                     break;
 
                 case "scenario":
@@ -228,6 +233,37 @@ public class SimulationManager {
                     }
                     break;
 
+                case "parallel":
+                    String parallelParam = input.poll();
+                    if (!parallelParam.isBlank()) {
+                        try {
+                            parallelRuns = Math.max(1, Integer.parseInt(parallelParam));
+                            System.out.println("Set parallel runs to " + parallelRuns);
+                        } catch (NumberFormatException nfe) {
+                            System.out.println("Unable to read number of parallel runs, try again with valid number.");
+                        }
+                    } else {
+                        System.out.println("Parallel runs is set to " + parallelRuns);
+                    }
+                    break;
+
+                case "checkpoint":
+                    String checkpointParam = input.poll();
+                    if (checkpointParam.equals("clear")) {
+                        checkpointPath = null;
+                        System.out.println("Runs start at t=0");
+                    } else if (!checkpointParam.isBlank()) {
+                        if (isPathFile(checkpointParam)) {
+                            checkpointPath = checkpointParam;
+                            System.out.println("Restoring runs from " + checkpointPath);
+                        } else {
+                            System.out.println("Invalid path, please try again.");
+                        }
+                    } else {
+                        System.out.println(checkpointPath != null ? "Restoring runs from " + checkpointPath : "Runs start at t=0");
+                    }
+                    break;
+
                 case "stop":
                     String stopParam = input.poll();
                     switch (stopParam) {
@@ -268,128 +304,142 @@ public class SimulationManager {
         }
     }
 
-    private void startNextScenario() {
-
+    /**
+     * Queues every run of every selected scenario and starts as many of them as may be executed at the same time
+     */
+    private void startSimulationRuns() {
         if (scenarioPathList.isEmpty()) {
             System.out.println("ERROR: No scenarios selected.");
             return;
-        } else if (scenarioPathIndex >= scenarioPathList.size()) {
-            System.out.println("INFO: All simulation runs finished.");
-            scenarioPathIndex = 0;
-            simulationStopperTimer.cancel();
-            stopSimulation(true);
-            System.out.println("Exiting...");
-            currentSimulationWatchDog = null;
-            System.exit(0);
-            return;
         }
-
-        String scenario = scenarioPathList.get(scenarioPathIndex);
-        try {
-            synchronized (waitForStopLock) {
-                while (waitForStop) {
-                    try {
-                        waitForStopLock.wait();
-                    } catch (InterruptedException e) {
-                        e.printStackTrace();
-                        throw e;
-                    }
+        boolean finished;
+        synchronized (runLock) {
+            if (!runningSimulations.isEmpty()) {
+                System.out.println("ERROR: Simulation is already running.");
+                return;
+            }
+            pendingRuns.clear();
+            for (String scenarioPath : scenarioPathList) {
+                for (int run = 1; run <= runs; run++) {
+                    pendingRuns.add(new SimulationRun(scenarioPath, run));
                 }
-                startScenario(scenario);
-                scenarioPathIndex++;
             }
-        } catch (InterruptedException e) {
-            System.out.print("ERROR: Could not start simulation of scenario " + scenario + " because of the following problem:");
-            System.out.print("ERROR: " + e.getMessage());
-            e.printStackTrace();
+            finished = startPendingRuns();
+        }
+        if (finished) {
+            System.out.println("INFO: All simulation runs finished.");
+            exit();
         }
     }
 
     /**
-     * TODO write javadoc documentation about what happens here
+     * Starts pending runs until the configured number of parallel runs is reached. The caller has to hold the runLock.
      *
-     * @param scenarioPath
+     * @return true if there is nothing left to do, the caller exits the program then (after releasing the runLock)
      */
-    private void startScenario(String scenarioPath) {
-
-        // if the scenario is not part of the list of scenarios to run yet, add it with a run counter of 0 (hasn't run yet)
-        if (!currentIndexHashMap.containsKey(scenarioPath)) {
-            currentIndexHashMap.put(scenarioPath, 0);
+    private boolean startPendingRuns() {
+        while (runningSimulations.size() < Math.max(1, parallelRuns) && !pendingRuns.isEmpty()) {
+            startRun(pendingRuns.poll());
         }
+        return runningSimulations.isEmpty() && pendingRuns.isEmpty();
+    }
 
-        // if the scenario hasn't run as often as it should be (indicated by 'runs') than run it and increment the run counter
-        if (currentIndexHashMap.get(scenarioPath) < runs) {
-
-            // increase individual scenario run counter
-            currentIndexHashMap.replace(scenarioPath, currentIndexHashMap.get(scenarioPath) + 1);
+    private void exit() {
+        simulationStopperTimer.cancel();
+        System.out.println("Exiting...");
+        System.exit(0);
+    }
 
-            // TODO proper logging
-            System.out.println(scenarioPath + ": Doing simulation run " + (currentIndexHashMap.get(scenarioPath)) + " of " + runs);
+    /**
+     * Reads the scenario of the given run and starts its simulation.
+     * Every run is executed in a federation of its own and has its own MapDataProvider and Interpreter,
+     * so it doesn't interfere with runs executed at the same time.
+     *
+     * @param run the run to start
+     */
+    private void startRun(SimulationRun run) {
+        String scenarioPath = run.scenarioPath;
+
+        // TODO proper logging
+        System.out.println(scenarioPath + ": Doing simulation run " + run.number + " of " + runs);
+
+        ///////////////////////////////////
+        // STEP 1 "read and convert"
+        ///////////////////////////////////
+        ScenarioDTO scenario;
+        MapDataProvider mapDataProvider;
+        Checkpoint checkpoint = null;
+        try {
+            // let the scenario xml be converted to a valid java data model
+            scenario = ScenarioConverter.convertToScenarioModel(scenarioPath);
+            if (checkpointPath != null) {
+                // every run reads the checkpoint again, so runs restored from the same checkpoint don't share objects
+                checkpoint = Checkpoint.read(Path.of(checkpointPath));
+                int restoredObjects = checkpoint.restoreObjects(scenario);
+                System.out.println(scenarioPath + ": Restored " + restoredObjects + " objects at " + checkpoint.getStartTime() + " from " + checkpointPath);
+            }
+            mapDataProvider = new MapDataProvider(scenario);
+            scenario.getLoggingTypes().stream().forEach(type -> LoggingService.registerLogger(type));
+        } catch (JAXBException | IOException e) {
+            // if something fails, don't run anything and return instead
+            e.printStackTrace();
+            System.out.println("ERROR: Invalid Scenario");
+            return;
+        }
 
-            simulationStopperTimer.cancel();
+        ///////////////////////////////////
+        // LEGACY STEP 2 "generate FOMs"
+        ///////////////////////////////////
+
+        // generate HLA compliant data model (FOM) from the previous initialized java scenario model
+        // List<FOM> foms = interpreter.generateFOMs(scenario);
+
+        // reload Scenario since its structure may have been altered by the FOM Generation
+        // QUESTION: Is it inevitable that the structure will be changed by FOM generation?
+        // commented this out to test if it works without re-building after the behavioural refactoring (see commit 0edbf3a)
+        // 01/02/2022: seems to work without the code below... comment and code will stay here for a while in case of errors
+        // 04/02/2022: first startup does not work anymore, because two different hashcodes will be generated and the FOM file is not found... investigating
+        //
+        // try {
+        //     scenario = ScenarioConverter.convertToScenarioModel(scenarioPath);
+        //     mapDataProvider = new MapDataProvider(scenario);
+        // } catch (JAXBException | FileNotFoundException e) {
+        //     e.printStackTrace();
+        //     System.out.println("ERROR: Invalid Scenario");
+        //     return;
+        // }
+
+        ///////////////////////////////////
+        // STEP 2 "prepare simulation"
+        ///////////////////////////////////
+        federationCounter++;
+        String federationName = AbstractFederate.DEFAULT_FEDERATION_NAME + "-" + federationCounter;
+        List<AbstractFederate> allFederates = prepareSimulation(scenario, federationName, checkpoint);
+        List<Thread> allThreads = prepareThreads(allFederates);
+
+        SimulationWatchDog simulationWatchDog = new SimulationWatchDog(this, allThreads, allFederates, scenarioPath, mapDataProvider, scenario.getSimulationIterations(), scenario.getTimeManagementMode(), scenario.isImmediateCallbacks(), federationName);
+        simulationWatchDog.setRtiImplementation(scenario.getRtiImplementation());
+        if (checkpoint != null) {
+            simulationWatchDog.setStartTime(checkpoint.getStartTime());
+        }
 
-            ///////////////////////////////////
-            // STEP 1 "read and convert"
-            ///////////////////////////////////
-            ScenarioDTO scenario;
-            MapDataProvider mapDataProvider;
-            try {
-                // let the scenario xml be converted to a valid java data model
-                scenario = ScenarioConverter.convertToScenarioModel(scenarioPath);
-                mapDataProvider = new MapDataProvider(scenario);
-                scenario.getLoggingTypes().stream().forEach(type -> LoggingService.registerLogger(type));
-            } catch (JAXBException | IOException e) {
-                // if something fails, don't run anything and return instead
-                e.printStackTrace();
-                System.out.println("ERROR: Invalid Scenario");
-                return;
-            }
+        SimulationStopperTask simulationStopperTask = null;
+        if (scenario.isTimeLimited()) {
+            simulationStopperTask = new SimulationStopperTask(this, simulationWatchDog, scenario.getMaxDuration());
+        }
+        runningSimulations.put(simulationWatchDog, simulationStopperTask);
 
-            ///////////////////////////////////
-            // LEGACY STEP 2 "generate FOMs"
-            ///////////////////////////////////
-
-            // generate HLA compliant data model (FOM) from the previous initialized java scenario model
-            // List<FOM> foms = interpreter.generateFOMs(scenario);
-
-            // reload Scenario since its structure may have been altered by the FOM Generation
-            // QUESTION: Is it inevitable that the structure will be changed by FOM generation?
-            // commented this out to test if it works without re-building after the behavioural refactoring (see commit 0edbf3a)
-            // 01/02/2022: seems to work without the code below... comment and code will stay here for a while in case of errors
-            // 04/02/2022: first startup does not work anymore, because two different hashcodes will be generated and the FOM file is not found... investigating
-            //
-            // try {
-            //     scenario = ScenarioConverter.convertToScenarioModel(scenarioPath);
-            //     mapDataProvider = new MapDataProvider(scenario);
-            // } catch (JAXBException | FileNotFoundException e) {
-            //     e.printStackTrace();
-            //     System.out.println("ERROR: Invalid Scenario");
-            //     return;
-            // }
-
-            ///////////////////////////////////
-            // STEP 2 "prepare simulation"
-            ///////////////////////////////////
-            List<AbstractFederate> allFederates = prepareSimulation(scenario);
-            List<Thread> allThreads = prepareThreads(allFederates);
-
-            currentSimulationWatchDog = new SimulationWatchDog(this, allThreads, allFederates, scenarioPath, mapDataProvider, scenario.getSimulationIterations());
-            Thread mainThread = new Thread(currentSimulationWatchDog);
-            mainThread.start();
-
-            if (scenario.isTimeLimited()) {
-                simulationStopperTimer = new Timer();
-                simulationStopperTask = new SimulationStopperTask(this, scenario.getMaxDuration());
-                simulationStopperTimer.schedule(simulationStopperTask, scenario.getMaxDuration());
-            }
+        Thread mainThread = new Thread(simulationWatchDog, federationName);
+        mainThread.start();
 
-        } else { // if the scenario has been executed as many times as indicated by 'runs', go back to the start method to run the next one
-            System.out.println(scenarioPath + ": All simulation runs (" + runs + ") for the current scenario " + scenarioPath + " finished"); // TODO proper logging
-            startNextScenario();
+        if (simulationStopperTask != null) {
+            simulationStopperTimer.schedule(simulationStopperTask, scenario.getMaxDuration());
         }
     }
 
-    private List<AbstractFederate> prepareSimulation(ScenarioDTO scenario) {
+    private List<AbstractFederate> prepareSimulation(ScenarioDTO scenario, String federationName, Checkpoint checkpoint) {
+        Interpreter interpreter = new Interpreter(federationName);
+        interpreter.setCheckpoint(checkpoint);
         return interpreter.createFederates(scenario);
     }
 
@@ -430,46 +480,90 @@ public class SimulationManager {
 
     // TODO has to be refactored for physically distributed simulation execution
     protected void stopSimulation(boolean stopAll) {
-        waitForStop = true;
-        simulationStopperTimer.cancel();
+        List<SimulationWatchDog> simulationWatchDogs;
+        synchronized (runLock) {
+            if (stopAll) {
+                pendingRuns.clear();
+            }
+            simulationWatchDogs = new ArrayList<>(runningSimulations.keySet());
+        }
 
-        if (stopAll) {
-            scenarioPathIndex = scenarioPathList.size();
+        for (SimulationWatchDog simulationWatchDog : simulationWatchDogs) {
+            stopRun(simulationWatchDog);
         }
+    }
 
-        if (currentSimulationWatchDog != null) {
-            currentSimulationWatchDog.setSimulationHasEnded(true);
-            System.out.println("Simulation is stopping."); // TODO proper logging
-            int counter = 0;
-            while (currentSimulationWatchDog.hasRunningThreads()) {
-                try {
-                    Thread.sleep(1000);
-                } catch (Exception e) {
-                    e.printStackTrace();
-                }
-                System.out.println("There are still running Threads after " + (counter + 1) + " seconds. Waiting ...");
-                if (counter == 30) {
-                    break;
-                }
-                counter++;
+    /**
+     * Stops a single simulation run in a thread of its own, so the timer of the time limits isn't blocked while the
+     * federates of the run finish and the other runs are still stopped in time
+     *
+     * @param simulationWatchDog the watchdog of the run
+     */
+    protected void stopRunInBackground(SimulationWatchDog simulationWatchDog) {
+        Thread stopper = new Thread(() -> stopRun(simulationWatchDog), "Stopper-" + simulationWatchDog.getFederationName());
+        stopper.setDaemon(true);
+        stopper.start();
+    }
+
+    /**
+     * Stops a single simulation run and waits for its federates to finish
+     *
+     * @param simulationWatchDog the watchdog of the run
+     */
+    protected void stopRun(SimulationWatchDog simulationWatchDog) {
+        simulationWatchDog.setSimulationHasEnded(true);
+        System.out.println("Simulation " + simulationWatchDog.getFederationName() + " is stopping."); // TODO proper logging
+        int counter = 0;
+        while (simulationWatchDog.hasRunningThreads()) {
+            try {
+                Thread.sleep(1000);
+            } catch (Exception e) {
+                e.printStackTrace();
             }
-            if (currentSimulationWatchDog.hasRunningThreads()) {
-                System.out.println("WARNING: There are still running Threads...");
-            } else {
-                synchronized (waitForStopLock) {
-                    waitForStop = false;
-                    waitForStopLock.notify();
-                    System.out.println("Simulation has ended. ");
-                }
+            System.out.println("There are still running Threads after " + (counter + 1) + " seconds. Waiting ...");
+            if (counter == 30) {
+                break;
             }
+            counter++;
+        }
+        if (simulationWatchDog.hasRunningThreads()) {
+            System.out.println("WARNING: There are still running Threads...");
+        } else {
+            System.out.println("Simulation " + simulationWatchDog.getFederationName() + " has ended. ");
         }
     }
 
-    protected void simulationFinished(String scenarioPath, List<AbstractFederate> allFederates) {
-        // put 'away' the finished simulation run
-        previousSimulations.put(scenarioPath, allFederates);
+    protected void simulationFinished(SimulationWatchDog simulationWatchDog) {
+        boolean finished;
+        synchronized (runLock) {
+            // put 'away' the finished simulation run
+            previousSimulations.put(simulationWatchDog.getScenarioPath(), simulationWatchDog.getFederates());
 
-        // start the next simulation run (and maybe also the next scenario)
-        startScenario(scenarioPath);
+            SimulationStopperTask simulationStopperTask = runningSimulations.remove(simulationWatchDog);
+            if (simulationStopperTask != null) {
+                simulationStopperTask.cancel();
+            }
+
+            // start the next simulation runs (and maybe also the next scenario)
+            finished = startPendingRuns();
+        }
+        if (finished) {
+            System.out.println("INFO: All simulation runs finished.");
+            exit();
+        }
+    }
+
+    /**
+     * A single run of a scenario
+     */
+    private static final class SimulationRun {
+
+        private final String scenarioPath;
+        private final int number;
+
+        private SimulationRun(String scenarioPath, int number) {
+            this.scenarioPath = scenarioPath;
+            this.number = number;
+        }
     }
 }
@@ -8,16 +8,19 @@ import java.util.TimerTask;
 public class SimulationStopperTask extends TimerTask {
 
     private final SimulationManager simulationManager;
+    private final SimulationWatchDog simulationWatchDog;
     private final long simulationTime;
 
-    public SimulationStopperTask(SimulationManager simulationManager, long simulationTime) {
+    public SimulationStopperTask(SimulationManager simulationManager, SimulationWatchDog simulationWatchDog, long simulationTime) {
         this.simulationManager = simulationManager;
+        this.simulationWatchDog = simulationWatchDog;
         this.simulationTime = simulationTime;
     }
 
     @Override
     public void run() {
-        System.out.println(String.format("Simulation time of %d ms has run out and the current Simulation will end.", simulationTime));
-        simulationManager.stopSimulation(false);
+        System.out.println(String.format("Simulation time of %d ms has run out and the Simulation %s will end.", simulationTime, simulationWatchDog.getFederationName()));
+        // the timer thread is shared by all runs, so it must not wait for the federates to finish
+        simulationManager.stopRunInBackground(simulationWatchDog);
     }
 }
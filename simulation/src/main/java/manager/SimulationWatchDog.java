@@ -1,13 +1,16 @@
 package manager;
 
+import hla.rti1516e.CallbackModel;
 import simulation.federate.AbstractFederate;
 import simulation.federate.master.MasterFederate;
 import simulation.federate.interpreted.InterpretedFederate;
+import library.model.dto.scenario.RTIImplementation;
+import library.model.dto.scenario.TimeManagementMode;
 import library.model.simulation.objects.SimulationObject;
 import library.services.geodata.MapDataProvider;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Takes all Federates and coordinates their simulation with the creation of a MasterFederate.
@@ -19,29 +22,41 @@ public class SimulationWatchDog implements Runnable {
     List<AbstractFederate> federates;
     String scenarioPath;
     private MapDataProvider mapDataProvider;
-    private static ArrayList<SimulationWatchDog> watchDogs;
-    private Boolean simulationHasEnded;
+    // several simulation runs may be executed at the same time
+    private static final List<SimulationWatchDog> watchDogs = new CopyOnWriteArrayList<>();
+    private volatile Boolean simulationHasEnded;
     private int iterations;
+    private TimeManagementMode timeManagementMode;
+    private boolean immediateCallbacks;
+    private RTIImplementation rtiImplementation = RTIImplementation.PORTICO;
+    private double startTime = 0;
+    private final String federationName;
     private MasterFederate masterFederate;
 
-    public SimulationWatchDog(SimulationManager simulationManager, List<Thread> threadArrayList, List<AbstractFederate> federates, String scenarioPath, MapDataProvider mapDataProvider, int iterations) {
+    public SimulationWatchDog(SimulationManager simulationManager, List<Thread> threadArrayList, List<AbstractFederate> federates, String scenarioPath, MapDataProvider mapDataProvider, int iterations, TimeManagementMode timeManagementMode, boolean immediateCallbacks) {
+        this(simulationManager, threadArrayList, federates, scenarioPath, mapDataProvider, iterations, timeManagementMode, immediateCallbacks, AbstractFederate.DEFAULT_FEDERATION_NAME);
+    }
+
+    public SimulationWatchDog(SimulationManager simulationManager, List<Thread> threadArrayList, List<AbstractFederate> federates, String scenarioPath, MapDataProvider mapDataProvider, int iterations, TimeManagementMode timeManagementMode, boolean immediateCallbacks, String federationName) {
         this.simulationManager = simulationManager;
         this.threadArrayList = threadArrayList;
         this.federates = federates;
         this.scenarioPath = scenarioPath;
         this.mapDataProvider = mapDataProvider;
         this.iterations = iterations;
+        this.timeManagementMode = timeManagementMode;
+        this.immediateCallbacks = immediateCallbacks;
+        this.federationName = federationName;
 
         for (AbstractFederate federate : federates) {
             if(federate instanceof InterpretedFederate){
                 InterpretedFederate interpretedFederate = (InterpretedFederate) federate;
-                MapDataProvider.addToMap(interpretedFederate.getSimulatedObject(), mapDataProvider);
+                for (SimulationObject simulatedObject : interpretedFederate.getSimulatedObjects()) {
+                    MapDataProvider.addToMap(simulatedObject, mapDataProvider);
+                }
             }
         }
 
-        if (watchDogs == null) {
-            watchDogs = new ArrayList<>();
-        }
         SimulationWatchDog.watchDogs.add(this);
         this.simulationHasEnded = false;
     }
@@ -58,7 +73,10 @@ public class SimulationWatchDog implements Runnable {
 
     @Override
     public void run() {
-        this.masterFederate = new MasterFederate(this.iterations);
+        this.masterFederate = new MasterFederate(this.iterations, this.timeManagementMode, this.federationName);
+        this.masterFederate.setCallbackModel(immediateCallbacks ? CallbackModel.HLA_IMMEDIATE : CallbackModel.HLA_EVOKED);
+        this.masterFederate.setRtiImplementation(rtiImplementation);
+        this.masterFederate.setStartTime(startTime);
         Thread masterThread = new Thread(masterFederate);
         masterThread.start();
         try {
@@ -86,7 +104,22 @@ public class SimulationWatchDog implements Runnable {
             masterFederate.LOCK.notify();
         }
         waitForThreadsToFinish();
-        simulationManager.simulationFinished(scenarioPath, federates);
+        release();
+        simulationManager.simulationFinished(this);
+    }
+
+    /**
+     * Unregisters this watchdog and the simulated objects, so nothing of a finished run is kept alive
+     */
+    private void release() {
+        for (AbstractFederate federate : federates) {
+            if (federate instanceof InterpretedFederate) {
+                for (SimulationObject simulatedObject : ((InterpretedFederate) federate).getSimulatedObjects()) {
+                    MapDataProvider.removeFromMap(simulatedObject);
+                }
+            }
+        }
+        SimulationWatchDog.watchDogs.remove(this);
     }
 
     public Boolean hasFederate(AbstractFederate federate) {
@@ -97,8 +130,10 @@ public class SimulationWatchDog implements Runnable {
         for (AbstractFederate federate : federates) {
             if(federate instanceof InterpretedFederate) {
                 InterpretedFederate interpretedFederate = (InterpretedFederate) federate;
-                if (interpretedFederate.getSimulatedObject() == simulatedObject) {
-                    return true;
+                for (SimulationObject hostedObject : interpretedFederate.getSimulatedObjects()) {
+                    if (hostedObject == simulatedObject) {
+                        return true;
+                    }
                 }
             }
         }
@@ -140,7 +175,33 @@ public class SimulationWatchDog implements Runnable {
         return false;
     }
 
+    /**
+     * Sets the RTI the master federate connects to, it has to be the one the other federates of the run use
+     */
+    public void setRtiImplementation(RTIImplementation rtiImplementation) {
+        this.rtiImplementation = rtiImplementation;
+    }
+
+    /**
+     * Sets the time the master federate starts at, it has to be the start time of a restored run
+     */
+    public void setStartTime(double startTime) {
+        this.startTime = startTime;
+    }
+
     public MapDataProvider getMapDataProvider() {
         return mapDataProvider;
     }
+
+    public String getScenarioPath() {
+        return scenarioPath;
+    }
+
+    public List<AbstractFederate> getFederates() {
+        return federates;
+    }
+
+    public String getFederationName() {
+        return federationName;
+    }
 }
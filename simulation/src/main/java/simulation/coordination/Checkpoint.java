@@ -0,0 +1,304 @@
+package simulation.coordination;
+
+import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.converters.Converter;
+import com.thoughtworks.xstream.converters.MarshallingContext;
+import com.thoughtworks.xstream.converters.UnmarshallingContext;
+import com.thoughtworks.xstream.io.HierarchicalStreamReader;
+import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
+import com.thoughtworks.xstream.security.AnyTypePermission;
+import library.model.dto.scenario.ScenarioDTO;
+import library.model.examples.behaviours.ControlledBehaviour;
+import library.model.simulation.Task;
+import library.model.simulation.objects.DynamicSimulationObject;
+import library.model.simulation.objects.IActiveDynamic;
+import library.model.simulation.objects.SimulationObject;
+import library.services.geodata.MapDataProvider;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * State of the hosted objects of a federation at a logical time. It is written by the interpreted federates of a run
+ * once they reach the checkpoint time of the scenario (see {@link CheckpointRecorder}), a run restored from it
+ * continues the checkpointed objects from there instead of starting the scenario at t=0.
+ * <p>
+ * The objects are written with XStream, so private fields and the internals of behaviours are kept as well.
+ * References into the runtime of a run (the map, the objects of other federates and the servers of controlled
+ * behaviours) are left out, the restored run sets them up again. Every call of {@link #read(Path)} returns new objects,
+ * so one checkpoint can be forked into several runs.
+ */
+public class Checkpoint {
+
+    private static final XStream X_STREAM = createXStream();
+
+    private final double time;
+    private final List<ObjectState> objectStates;
+    // ids of the simulation objects of the scenario in their order, objects without an id in the scenario file get a
+    // new one whenever the scenario is read
+    private final List<String> scenarioObjectIds;
+
+    public Checkpoint(double time, List<ObjectState> objectStates, List<String> scenarioObjectIds) {
+        this.time = time;
+        this.objectStates = objectStates;
+        this.scenarioObjectIds = scenarioObjectIds;
+    }
+
+    private static XStream createXStream() {
+        XStream xStream = new XStream();
+        xStream.addPermission(AnyTypePermission.ANY);
+        xStream.alias("checkpoint", Checkpoint.class);
+        xStream.alias("objectState", ObjectState.class);
+        xStream.registerConverter(new OmittedConverter());
+        xStream.registerLocalConverter(DynamicSimulationObject.class, "observedObjects", new EmptyMapConverter());
+        xStream.omitField(ControlledBehaviour.class, "server");
+        xStream.omitField(ControlledBehaviour.class, "serverThread");
+        xStream.omitField(ControlledBehaviour.class, "started");
+        return xStream;
+    }
+
+    /**
+     * Reads a checkpoint, all objects of the returned checkpoint are new instances
+     *
+     * @param file the checkpoint file
+     * @return the checkpoint
+     * @throws IOException if the file can't be read or doesn't contain a checkpoint
+     */
+    public static Checkpoint read(Path file) throws IOException {
+        Object checkpoint;
+        try {
+            checkpoint = X_STREAM.fromXML(Files.readString(file, StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            throw new IOException("Couldn't read checkpoint " + file, e);
+        }
+        if (!(checkpoint instanceof Checkpoint)) {
+            throw new IOException(file + " doesn't contain a checkpoint");
+        }
+        return (Checkpoint) checkpoint;
+    }
+
+    /**
+     * Writes the checkpoint into a temporary file first, so runs reading it never see a partial checkpoint
+     *
+     * @param file the checkpoint file, its directory is created if it does not exist
+     */
+    public void write(Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporaryFile = Files.createTempFile(directory, "checkpoint", ".tmp");
+        try {
+            Files.writeString(temporaryFile, X_STREAM.toXML(this), StandardCharsets.UTF_8);
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    /**
+     * Reads several checkpoints as one, a federation spread across several processes writes one checkpoint per process
+     *
+     * @param files the checkpoint files, written at the same checkpoint time
+     * @return a checkpoint holding the objects of all files
+     * @throws IOException if a file can't be read or doesn't contain a checkpoint
+     */
+    public static Checkpoint read(List<Path> files) throws IOException {
+        if (files.size() == 1) {
+            return read(files.get(0));
+        }
+        Checkpoint merged = null;
+        List<ObjectState> objectStates = new ArrayList<>();
+        for (Path file : files) {
+            Checkpoint checkpoint = read(file);
+            if (merged != null && checkpoint.getTime() != merged.getTime()) {
+                throw new IOException(file + " was written at " + checkpoint.getTime() + " instead of " + merged.getTime());
+            }
+            merged = checkpoint;
+            objectStates.addAll(checkpoint.getObjectStates());
+        }
+        if (merged == null) {
+            throw new IOException("No checkpoint given");
+        }
+        return new Checkpoint(merged.getTime(), objectStates, merged.getScenarioObjectIds());
+    }
+
+    /**
+     * Copies the given states, so they are independent of the running simulation
+     *
+     * @param objectStates states referencing the hosted objects
+     * @return deep copies of the states
+     */
+    @SuppressWarnings("unchecked")
+    static List<ObjectState> copy(List<ObjectState> objectStates) {
+        return (List<ObjectState>) X_STREAM.fromXML(X_STREAM.toXML(new ArrayList<>(objectStates)));
+    }
+
+    /**
+     * Replaces the simulation objects of the scenario by the checkpointed objects with the same id. Objects whose id
+     * isn't part of the checkpoint are replaced by the checkpointed object of the same class at the same position in the
+     * scenario, if that object's id isn't used by the scenario (it had no id in the scenario file).
+     * Objects of the scenario without a checkpointed state start from their state in the scenario, checkpointed
+     * objects missing in the scenario are left out. If the scenario doesn't restore behaviours, the checkpointed
+     * objects get the behaviours of the scenario objects.
+     *
+     * @param scenario the scenario of the restored run, it may differ from the scenario the checkpoint was written by
+     * @return the number of restored objects
+     */
+    public int restoreObjects(ScenarioDTO scenario) {
+        int restored = 0;
+        List<SimulationObject> simulationObjects = scenario.getSimulationObjects();
+        Set<String> ids = new HashSet<>();
+        for (SimulationObject simulationObject : simulationObjects) {
+            ids.add(simulationObject.getId());
+        }
+        for (int i = 0; i < simulationObjects.size(); i++) {
+            SimulationObject scenarioObject = simulationObjects.get(i);
+            ObjectState objectState = getObjectState(scenarioObject.getId());
+            if (objectState == null && i < scenarioObjectIds.size() && !ids.contains(scenarioObjectIds.get(i))) {
+                objectState = getObjectState(scenarioObjectIds.get(i));
+                if (objectState != null && objectState.getObject().getClass() != scenarioObject.getClass()) {
+                    objectState = null;
+                }
+            }
+            if (objectState == null) {
+                continue;
+            }
+            DynamicSimulationObject restoredObject = objectState.getObject();
+            if (!scenario.isRestoreBehaviours() && scenarioObject instanceof IActiveDynamic && restoredObject instanceof IActiveDynamic) {
+                ((IActiveDynamic) restoredObject).setBehaviour(((IActiveDynamic) scenarioObject).getBehaviour());
+            }
+            simulationObjects.set(i, restoredObject);
+            restored++;
+        }
+        return restored;
+    }
+
+    /**
+     * @param objectId id of a simulation object
+     * @return the checkpointed state of the object or null if it isn't part of the checkpoint
+     */
+    public ObjectState getObjectState(String objectId) {
+        for (ObjectState objectState : objectStates) {
+            if (objectState.getObject().getId().equals(objectId)) {
+                return objectState;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the checkpoint time of the scenario that wrote the checkpoint
+     */
+    public double getTime() {
+        return time;
+    }
+
+    /**
+     * Federates with different time step sizes reach the checkpoint time at different times
+     *
+     * @return the earliest time an object was checkpointed at, the restored federation starts there
+     */
+    public double getStartTime() {
+        double startTime = Double.MAX_VALUE;
+        for (ObjectState objectState : objectStates) {
+            startTime = Math.min(startTime, objectState.getTime());
+        }
+        return objectStates.isEmpty() ? time : startTime;
+    }
+
+    public List<ObjectState> getObjectStates() {
+        return objectStates;
+    }
+
+    public List<String> getScenarioObjectIds() {
+        return scenarioObjectIds;
+    }
+
+    /**
+     * State of a hosted object at the beginning of an iteration of its federate
+     */
+    public static final class ObjectState {
+
+        private final DynamicSimulationObject object;
+        // logical time of the federate
+        private final double time;
+        // number of iterations the federate has completed
+        private final int iteration;
+        // tasks not yet executed, by the ids of their attributes
+        private final Map<String, List<Task>> pendingTasks;
+
+        public ObjectState(DynamicSimulationObject object, double time, int iteration, Map<String, List<Task>> pendingTasks) {
+            this.object = object;
+            this.time = time;
+            this.iteration = iteration;
+            this.pendingTasks = pendingTasks;
+        }
+
+        public DynamicSimulationObject getObject() {
+            return object;
+        }
+
+        public double getTime() {
+            return time;
+        }
+
+        public int getIteration() {
+            return iteration;
+        }
+
+        public Map<String, List<Task>> getPendingTasks() {
+            return pendingTasks;
+        }
+    }
+
+    /**
+     * Leaves out the map of a run, the restored objects get the map of their run when they use it the next time
+     */
+    private static final class OmittedConverter implements Converter {
+
+        @Override
+        public boolean canConvert(Class type) {
+            return type != null && MapDataProvider.class.isAssignableFrom(type);
+        }
+
+        @Override
+        public void marshal(Object source, HierarchicalStreamWriter writer, MarshallingContext context) {
+            // nothing to write
+        }
+
+        @Override
+        public Object unmarshal(HierarchicalStreamReader reader, UnmarshallingContext context) {
+            return null;
+        }
+    }
+
+    /**
+     * Leaves out the observed objects, which belong to other federates. They are observed again once the federates of
+     * the restored run discover each other.
+     */
+    private static final class EmptyMapConverter implements Converter {
+
+        @Override
+        public boolean canConvert(Class type) {
+            return true;
+        }
+
+        @Override
+        public void marshal(Object source, HierarchicalStreamWriter writer, MarshallingContext context) {
+            // nothing to write
+        }
+
+        @Override
+        public Object unmarshal(HierarchicalStreamReader reader, UnmarshallingContext context) {
+            return new HashMap<>();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package simulation.coordination;
+
+import library.services.logging.LoggingService;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Collects the states of the hosted objects of all interpreted federates of a run and writes them as one checkpoint
+ * once the last federate recorded its objects. The federates don't wait for each other, each one copies the state of
+ * its objects when it reaches the checkpoint time and goes on. A federate ending before the checkpoint time records
+ * the final state of its objects instead, otherwise the checkpoint would never be written.
+ */
+public class CheckpointRecorder {
+
+    private final double time;
+    private final Path file;
+    private final int federates;
+    private final List<String> scenarioObjectIds;
+
+    private final List<Checkpoint.ObjectState> objectStates = new ArrayList<>();
+    private int recordedFederates = 0;
+
+    /**
+     * @param time              logical time of the checkpoint
+     * @param file              the file the checkpoint is written to
+     * @param federates         number of federates that record their objects
+     * @param scenarioObjectIds ids of the simulation objects of the scenario in their order
+     */
+    public CheckpointRecorder(double time, Path file, int federates, List<String> scenarioObjectIds) {
+        this.time = time;
+        this.file = file;
+        this.federates = federates;
+        this.scenarioObjectIds = scenarioObjectIds;
+    }
+
+    /**
+     * Records the states of the objects of a federate, has to be called by the federate itself while the objects
+     * aren't changed
+     *
+     * @param federateObjectStates states referencing the hosted objects of the federate, they are copied
+     */
+    public void record(List<Checkpoint.ObjectState> federateObjectStates) {
+        List<Checkpoint.ObjectState> copies = Checkpoint.copy(federateObjectStates);
+        Checkpoint checkpoint = null;
+        synchronized (this) {
+            objectStates.addAll(copies);
+            recordedFederates++;
+            if (recordedFederates == federates) {
+                // the federates record in any order, the checkpoint keeps the order of the scenario
+                List<Checkpoint.ObjectState> sortedObjectStates = new ArrayList<>(objectStates);
+                sortedObjectStates.sort(Comparator.comparingInt(objectState -> scenarioObjectIds.indexOf(objectState.getObject().getId())));
+                checkpoint = new Checkpoint(time, sortedObjectStates, scenarioObjectIds);
+            }
+        }
+        if (checkpoint == null) {
+            return;
+        }
+        try {
+            checkpoint.write(file);
+            LoggingService.logWithAll("Wrote checkpoint at " + time + " to " + file.toAbsolutePath());
+        } catch (IOException e) {
+            LoggingService.logWithAll("Couldn't write checkpoint to " + file.toAbsolutePath());
+            e.printStackTrace();
+        }
+    }
+
+    public double getTime() {
+        return time;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+}
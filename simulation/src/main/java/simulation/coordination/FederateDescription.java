@@ -0,0 +1,42 @@
+package simulation.coordination;
+
+import java.util.List;
+
+/**
+ * Describes a federate of a scenario without creating it (see {@link interpreter.Interpreter#describeFederates}), so
+ * the federates of a federation can be assigned to several processes, which create only the federates assigned to them
+ */
+public class FederateDescription {
+
+    // position of the federate in the federates created for the scenario
+    private final int index;
+    // name of the group of hosted objects or identifier of the observer
+    private final String name;
+    // ids of the hosted objects, empty for observers
+    private final List<String> objectIds;
+
+    public FederateDescription(int index, String name, List<String> objectIds) {
+        this.index = index;
+        this.name = name;
+        this.objectIds = objectIds;
+    }
+
+    /**
+     * @return the load of the federate, the number of its hosted objects (at least one)
+     */
+    public int getWeight() {
+        return Math.max(1, objectIds.size());
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<String> getObjectIds() {
+        return objectIds;
+    }
+}
@@ -0,0 +1,143 @@
+package simulation.coordination;
+
+import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.security.NoTypePermission;
+import library.model.dto.scenario.ScenarioDTO;
+import library.model.simulation.objects.SimulationObject;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Everything a node, a process hosting a part of the federates of a federation, needs to know to create its
+ * federates. The node reads the scenario itself, the description only tells which of the federates of the scenario are
+ * its own. It is written as XML by the launcher of the nodes and passed to each node as file.
+ */
+public class NodeDescription {
+
+    private static final XStream X_STREAM = createXStream();
+
+    private final int node;
+    // the node hosting the master federate, it is started first and starts the federation once all nodes are ready
+    private final boolean master;
+    private final String federationName;
+    private final String scenarioPath;
+    // checkpoints the objects are restored from, empty to start at t=0
+    private final List<String> checkpointPaths;
+    // ids of the simulation objects of the scenario in their order, objects without an id in the scenario file get a
+    // new one whenever the scenario is read, so all nodes have to use the ids the launcher got
+    private final List<String> scenarioObjectIds;
+    private final List<FederateDescription> federates;
+
+    public NodeDescription(int node, boolean master, String federationName, String scenarioPath, List<String> checkpointPaths,
+                           List<String> scenarioObjectIds, List<FederateDescription> federates) {
+        this.node = node;
+        this.master = master;
+        this.federationName = federationName;
+        this.scenarioPath = scenarioPath;
+        this.checkpointPaths = checkpointPaths;
+        this.scenarioObjectIds = scenarioObjectIds;
+        this.federates = federates;
+    }
+
+    private static XStream createXStream() {
+        XStream xStream = new XStream();
+        // only the description itself is written, nothing else may be read from the file
+        xStream.addPermission(NoTypePermission.NONE);
+        xStream.allowTypes(new Class[]{NodeDescription.class, FederateDescription.class});
+        xStream.allowTypeHierarchy(List.class);
+        xStream.allowTypeHierarchy(String.class);
+        xStream.alias("node", NodeDescription.class);
+        xStream.alias("federate", FederateDescription.class);
+        return xStream;
+    }
+
+    /**
+     * @param file a file written by {@link #write(Path)}
+     * @return the description
+     * @throws IOException if the file can't be read or doesn't contain a node description
+     */
+    public static NodeDescription read(Path file) throws IOException {
+        Object nodeDescription;
+        try {
+            nodeDescription = X_STREAM.fromXML(Files.readString(file, StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            throw new IOException("Couldn't read node description " + file, e);
+        }
+        if (!(nodeDescription instanceof NodeDescription)) {
+            throw new IOException(file + " doesn't contain a node description");
+        }
+        return (NodeDescription) nodeDescription;
+    }
+
+    public void write(Path file) throws IOException {
+        Files.writeString(file, X_STREAM.toXML(this), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gives the simulation objects of the scenario the ids the launcher got when reading the scenario
+     *
+     * @param scenario the scenario read by the node, objects restored from checkpoints have to be restored before
+     * @throws IllegalStateException if the scenario doesn't have the objects the launcher read
+     */
+    public void applyObjectIds(ScenarioDTO scenario) {
+        List<SimulationObject> simulationObjects = scenario.getSimulationObjects();
+        if (simulationObjects.size() != scenarioObjectIds.size()) {
+            throw new IllegalStateException("The scenario has " + simulationObjects.size() + " objects, the launcher read " + scenarioObjectIds.size());
+        }
+        for (int i = 0; i < simulationObjects.size(); i++) {
+            simulationObjects.get(i).setId(scenarioObjectIds.get(i));
+        }
+    }
+
+    /**
+     * @return the indexes of the federates hosted by the node
+     */
+    public List<Integer> getFederateIndexes() {
+        return federates.stream()
+                        .map(FederateDescription::getIndex)
+                        .collect(Collectors.toList());
+    }
+
+    /**
+     * @return the number of objects hosted by the node
+     */
+    public int getObjectCount() {
+        return federates.stream()
+                        .mapToInt(federate -> federate.getObjectIds().size())
+                        .sum();
+    }
+
+    public int getNode() {
+        return node;
+    }
+
+    public boolean isMaster() {
+        return master;
+    }
+
+    public String getFederationName() {
+        return federationName;
+    }
+
+    public String getScenarioPath() {
+        return scenarioPath;
+    }
+
+    public List<String> getCheckpointPaths() {
+        return checkpointPaths != null ? checkpointPaths : new ArrayList<>();
+    }
+
+    public List<String> getScenarioObjectIds() {
+        return scenarioObjectIds;
+    }
+
+    public List<FederateDescription> getFederates() {
+        return federates;
+    }
+}
@@ -12,29 +12,58 @@ import hla.rti1516e.time.HLAfloat64Time;
 import hla.rti1516e.time.HLAfloat64TimeFactory;
 import interpreter.utils.ReflectionUtils;
 import library.model.dto.observer.ObservedClassDTO;
+import library.model.dto.scenario.RTIImplementation;
+import library.model.dto.scenario.TimeManagementMode;
 import library.model.simulation.SimulationInteraction;
 import library.model.simulation.objects.SimulationObject;
+import library.services.geodata.MapDataProvider;
+import library.services.logging.LoggingService;
 import org.jetbrains.annotations.NotNull;
 import simulation.federate.handler.IncomingDataHandler;
+import simulation.federate.handler.InterestManagementHandler;
+import simulation.federate.rti.RTIAdapter;
 
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.function.BooleanSupplier;
 
 public abstract class AbstractFederate implements Runnable {
 
+    /**
+     * Name of the federation joined if no other name is set, several runs in one JVM need distinct names
+     */
+    public static final String DEFAULT_FEDERATION_NAME = "ExampleFederation";
+
     protected String federateName;
+    protected String federationName = DEFAULT_FEDERATION_NAME;
 
     protected int currentIteration = 0;
     protected final double timeStepSize;
+    protected TimeManagementMode timeManagementMode = TimeManagementMode.LOCKSTEP;
+    protected CallbackModel callbackModel = CallbackModel.HLA_EVOKED;
+    protected boolean interestManagement = false;
+    // maximum error of dead reckoned positions in meters, 0 disables dead reckoning
+    protected double deadReckoningThreshold = 0;
+    // keep the numeric attribute values of the hosted objects in a StateStore
+    protected boolean columnarStateStore = false;
+    // number of threads executing the behaviours of the hosted objects, 1 executes them sequentially
+    protected int behaviourThreads = 1;
+    // logical time the federate may advance at once while its hosted objects are idle, 0 advances step by step
+    protected double maxIdleAdvance = 0;
+    protected RTIImplementation rtiImplementation = RTIImplementation.PORTICO;
+    // logical time the federate starts at, later than 0 if the run is restored from a checkpoint
+    protected double startTime = 0;
 
     protected EncoderFactory encoderFactory;
     protected HLAfloat64TimeFactory timeFactory;
-    protected RTIambassador rtiAmb;
+    protected RTIAdapter rtiAmb;
     protected SimulationFederateAmbassador fedAmb;
+    protected CallbackMonitor callbackMonitor;
 
     protected IncomingDataHandler incomingDataHandler;
+    protected InterestManagementHandler interestManagementHandler;
 
     public AbstractFederate(double timeStepSize) {
         this.timeStepSize = timeStepSize;
@@ -74,6 +103,16 @@ public abstract class AbstractFederate implements Runnable {
         objectInstanceHandleBiMap.put(simulationObject, objectInstanceHandle);
     }
 
+    /**
+     * Forgets a removed object instance of another federate
+     *
+     * @param objectInstanceHandle handle of the removed instance
+     * @return the local object of the instance or null if it wasn't discovered
+     */
+    public SimulationObject uncacheObjectInstance(ObjectInstanceHandle objectInstanceHandle) {
+        return objectInstanceHandleBiMap.inverse().remove(objectInstanceHandle);
+    }
+
     public SimulationObject getSimulationObjectInstance(ObjectInstanceHandle objectInstanceHandle) {
         return objectInstanceHandleBiMap.inverse().get(objectInstanceHandle);
     }
@@ -118,9 +157,23 @@ public abstract class AbstractFederate implements Runnable {
 
     /**
      * This method will attempt to enable the various time related properties for
-     * the federate
+     * the federate.
+     * In LOCKSTEP mode every federate is time regulating and time constrained.
+     * In FREE_FLOW mode the federate is only time regulating if it publishes data and only time constrained if it
+     * subscribes data. This way a federate only waits for federates it depends on, and federates with a big step size
+     * don't hold back federates with a small one.
+     * In both modes the federate uses the lookahead given by {@link #getLookahead()}.
      */
     protected void enableTimePolicy() throws Exception {
+        boolean regulating = true;
+        boolean constrained = true;
+        if (timeManagementMode == TimeManagementMode.FREE_FLOW) {
+            regulating = publishesData();
+            constrained = subscribesData();
+        }
+        fedAmb.setFederateLookahead(getLookahead());
+        LoggingService.log(federateName + " uses a lookahead of " + fedAmb.getFederateLookahead());
+
         // NOTE: Unfortunately, the LogicalTime/LogicalTimeInterval create code is
         //       Portico specific. You will have to alter this if you move to a
         //       different RTI implementation. As such, we've isolated it into a
@@ -130,45 +183,138 @@ public abstract class AbstractFederate implements Runnable {
         ////////////////////////////
         // enable time regulation //
         ////////////////////////////
-        this.rtiAmb.enableTimeRegulation(lookahead);
+        if (regulating) {
+            this.rtiAmb.enableTimeRegulation(lookahead);
 
-        // tick until we get the callback
-        while (!fedAmb.isRegulating()) {
-            rtiAmb.evokeMultipleCallbacks(0.1, 0.2);
+            // wait until we get the callback
+            awaitCallbacks(fedAmb::isRegulating);
         }
 
         /////////////////////////////
         // enable time constrained //
         /////////////////////////////
-        if (!fedAmb.isConstrained()) {
-            this.rtiAmb.enableTimeConstrained();
-        }
+        if (constrained) {
+            if (!fedAmb.isConstrained()) {
+                this.rtiAmb.enableTimeConstrained();
+            }
 
-        // tick until we get the callback
-        while (!fedAmb.isConstrained()) {
-            rtiAmb.evokeMultipleCallbacks(0.1, 0.2);
+            // wait until we get the callback
+            awaitCallbacks(fedAmb::isConstrained);
         }
     }
 
+    /**
+     * The lookahead is the logical time between the time of the federate and the earliest time stamp of the updates it
+     * sends. While a federate advances by one step, the federates depending on it may advance up to its time plus its
+     * lookahead, so a lookahead larger than the time step size lets them run ahead instead of waiting for every step.
+     *
+     * @return the lookahead of the federate, its time step size by default
+     */
+    protected double getLookahead() {
+        return timeStepSize;
+    }
+
+    /**
+     * The map the objects of other federates are indexed in when their positions are reflected
+     *
+     * @return the map of the hosted objects or null if the federate has none
+     */
+    public MapDataProvider getMapDataProvider() {
+        return null;
+    }
+
+    /**
+     * Used in FREE_FLOW mode to decide if the federate has to be time regulating
+     *
+     * @return true if other federates may depend on data of this federate
+     */
+    protected boolean publishesData() {
+        return true;
+    }
+
+    /**
+     * Used in FREE_FLOW mode to decide if the federate has to be time constrained
+     *
+     * @return true if this federate depends on data of other federates
+     */
+    protected boolean subscribesData() {
+        return true;
+    }
+
     /**
      * This method will request a time advance to the current time, plus the given time step.
      * It will then wait until a notification of the time advance grant has been received.
      */
-    protected void advanceTime(double timeStep) throws RTIexception {
+    protected void advanceTime(double timeStep) throws RTIexception, InterruptedException {
 
         // request the advance
         fedAmb.setAdvancing(true);
         HLAfloat64Time time = timeFactory.makeTime(fedAmb.getFederateTime() + timeStep);
         rtiAmb.timeAdvanceRequest(time);
 
-        // wait for the time advance to be granted. ticking will tell the
-        // LRC to start delivering callbacks to the federate
-        while (fedAmb.isAdvancing()) {
-            rtiAmb.evokeMultipleCallbacks(0.1, 0.2);
+        // wait for the time advance to be granted
+        awaitCallbacks(() -> !fedAmb.isAdvancing());
+    }
+
+    /**
+     * Advances the federate to its start time, so a run restored from a checkpoint continues where it was checkpointed
+     */
+    protected void advanceToStartTime() throws RTIexception, InterruptedException {
+        if (startTime > fedAmb.getFederateTime()) {
+            advanceTime(startTime - fedAmb.getFederateTime());
+            LoggingService.log("Time Advanced to start time " + fedAmb.getFederateTime());
+        }
+    }
+
+    /**
+     * Creates the ambassador and connects it to the RTI using the configured callback model
+     */
+    protected void connect() throws RTIexception {
+        callbackMonitor = new CallbackMonitor(callbackModel);
+        fedAmb = new SimulationFederateAmbassador(this, incomingDataHandler, callbackMonitor);
+        rtiAmb.connect(fedAmb, callbackModel);
+    }
+
+    /**
+     * Blocks until the given condition, which is changed by RTI callbacks, is met.
+     * With HLA_EVOKED the callbacks are evoked by this thread, with HLA_IMMEDIATE this thread sleeps until the
+     * ambassador signals a change.
+     *
+     * @param condition condition to wait for
+     */
+    protected void awaitCallbacks(BooleanSupplier condition) throws RTIexception, InterruptedException {
+        callbackMonitor.await(rtiAmb, condition);
+    }
+
+    /**
+     * Called by the federate ambassador if another federate requests the current values of attributes of an object
+     * instance owned by this federate. Federates that publish attributes should send them with their next update.
+     *
+     * @param objectInstanceHandle handle of the requested object instance
+     * @param attributeHandles     requested attributes
+     */
+    public void provideAttributeValueUpdate(ObjectInstanceHandle objectInstanceHandle, AttributeHandleSet attributeHandles) {
+        // federates that don't publish anything have nothing to provide
+    }
+
+    /**
+     * Prepares the data distribution management (DDM), if it is used by the federation. Has to be called after joining
+     * and before publishing and subscribing. If the FOM doesn't provide the needed dimensions, the federate falls back
+     * to subscribing whole object classes.
+     */
+    protected void enableInterestManagement() {
+        if (!interestManagement || interestManagementHandler != null) {
+            return;
+        }
+        try {
+            interestManagementHandler = new InterestManagementHandler(rtiAmb);
+        } catch (RTIexception e) {
+            LoggingService.log("Interest management is not available, subscribing whole object classes instead");
+            e.printStackTrace();
         }
     }
 
-    protected void generateDataSubscriptionHandles(List<ObservedClassDTO> observedClasses) throws FederateNotExecutionMember, NotConnected, NameNotFound, RTIinternalError, InvalidObjectClassHandle, AttributeNotDefined, ObjectClassNotDefined, RestoreInProgress, SaveInProgress {
+    protected void generateDataSubscriptionHandles(List<ObservedClassDTO> observedClasses) throws RTIexception {
 
         for (ObservedClassDTO observedClass : observedClasses) {
 
@@ -178,16 +324,14 @@ public abstract class AbstractFederate implements Runnable {
             if (observedObjectFomPath != null && !observedObjectFomPath.isBlank()) {
 
                 // create the attribute handle set
-                AttributeHandleSet attributeHandleSet = rtiAmb.getAttributeHandleSetFactory().create();
+                AttributeHandleSet attributeHandleSet = rtiAmb.createAttributeHandleSet();
 
                 // create the object class handle
                 ObjectClassHandle objectClassHandle = rtiAmb.getObjectClassHandle(observedObjectFomPath);
 
-                // get all field from the object (from its class and its superclasses)
                 Class<SimulationObject> objectClass = observedClass.getObjectClass();
-                ArrayList<Field> allObjectFields = ReflectionUtils.getFieldsOfClass(objectClass);
 
-                // look for the given attribute name in the previously collected list of all object attributes
+                // look for the given attribute name in the attributes of the object (from its class and its superclasses)
                 for (String attributeFullName : observedClass.getAttributes()) {
 
                     // create an attributeHandle for the currently looked at attribute and collect them
@@ -197,7 +341,7 @@ public abstract class AbstractFederate implements Runnable {
                     String[] attributeNamesSplitByDot = attributeFullName.split("\\.");
 
                     // get the field representing the attribute inside the object
-                    Field attributeField = ReflectionUtils.getFieldFromFieldListByName(allObjectFields, attributeNamesSplitByDot[0]);
+                    Field attributeField = ReflectionUtils.getFieldOfClassByName(objectClass, attributeNamesSplitByDot[0]);
 
                     // attributes are always of type SimulationAttribute<T>, we therefore have to get the actual generic type
                     Class<?> attributeType = ReflectionUtils.getGenericTypeOfField(attributeField);
@@ -221,12 +365,45 @@ public abstract class AbstractFederate implements Runnable {
                 attributeHandleBiMap.put(objectClassHandle, attributeHandleSet);
 
                 // subscribe to all attributes of the given object //
-                rtiAmb.subscribeObjectClassAttributes(objectClassHandle, attributeHandleSet);
+                subscribeObjectClassAttributes(observedClass, objectClassHandle, attributeHandleSet);
             }
         }
     }
 
-    protected void generateInteractionSubscriptionHandles() throws FederateNotExecutionMember, NameNotFound, NotConnected, RTIinternalError, RestoreInProgress, InteractionClassNotDefined, FederateServiceInvocationsAreBeingReportedViaMOM, SaveInProgress {
+    /**
+     * Subscribes the attributes of the observed class, only within the regions of interest if there are any
+     */
+    private void subscribeObjectClassAttributes(ObservedClassDTO observedClass,
+                                                ObjectClassHandle objectClassHandle,
+                                                AttributeHandleSet attributeHandleSet) throws RTIexception {
+        RegionHandleSet regions = null;
+        if (interestManagementHandler != null) {
+            regions = createSubscriptionRegions(observedClass);
+        }
+        if (regions == null || regions.isEmpty()) {
+            rtiAmb.subscribeObjectClassAttributes(objectClassHandle, attributeHandleSet);
+        } else {
+            interestManagementHandler.subscribeObjectClassAttributes(objectClassHandle, attributeHandleSet, regions);
+        }
+    }
+
+    /**
+     * Creates the regions the observed class is subscribed in. Only the fixed area of interest is considered here,
+     * federates hosting objects with a position add regions that follow them.
+     *
+     * @param observedClass the observed class
+     * @return the regions or null if the whole class should be subscribed
+     */
+    protected RegionHandleSet createSubscriptionRegions(ObservedClassDTO observedClass) throws RTIexception {
+        if (observedClass.getInterestArea() == null) {
+            return null;
+        }
+        RegionHandleSet regions = interestManagementHandler.createRegionHandleSet();
+        regions.add(interestManagementHandler.createRegion(observedClass.getInterestArea()));
+        return regions;
+    }
+
+    protected void generateInteractionSubscriptionHandles() throws RTIexception {
         //////////////////////////////////////////////////
         // subscribe to interaction class SimulationEnd //
         //////////////////////////////////////////////////
@@ -235,7 +412,7 @@ public abstract class AbstractFederate implements Runnable {
         rtiAmb.subscribeInteractionClass(simulationEndHandle);
     }
 
-    public RTIambassador getRtiAmb() {
+    public RTIAdapter getRtiAmb() {
         return rtiAmb;
     }
 
@@ -243,6 +420,14 @@ public abstract class AbstractFederate implements Runnable {
         return federateName;
     }
 
+    public String getFederationName() {
+        return federationName;
+    }
+
+    public void setFederationName(String federationName) {
+        this.federationName = federationName;
+    }
+
     public int getCurrentIteration() {
         return currentIteration;
     }
@@ -251,6 +436,78 @@ public abstract class AbstractFederate implements Runnable {
         return timeStepSize;
     }
 
+    public TimeManagementMode getTimeManagementMode() {
+        return timeManagementMode;
+    }
+
+    public void setTimeManagementMode(TimeManagementMode timeManagementMode) {
+        this.timeManagementMode = timeManagementMode;
+    }
+
+    public boolean isInterestManagement() {
+        return interestManagement;
+    }
+
+    public void setInterestManagement(boolean interestManagement) {
+        this.interestManagement = interestManagement;
+    }
+
+    public double getDeadReckoningThreshold() {
+        return deadReckoningThreshold;
+    }
+
+    public void setDeadReckoningThreshold(double deadReckoningThreshold) {
+        this.deadReckoningThreshold = deadReckoningThreshold;
+    }
+
+    public boolean isColumnarStateStore() {
+        return columnarStateStore;
+    }
+
+    public void setColumnarStateStore(boolean columnarStateStore) {
+        this.columnarStateStore = columnarStateStore;
+    }
+
+    public int getBehaviourThreads() {
+        return behaviourThreads;
+    }
+
+    public void setBehaviourThreads(int behaviourThreads) {
+        this.behaviourThreads = Math.max(1, behaviourThreads);
+    }
+
+    public double getMaxIdleAdvance() {
+        return maxIdleAdvance;
+    }
+
+    public void setMaxIdleAdvance(double maxIdleAdvance) {
+        this.maxIdleAdvance = maxIdleAdvance;
+    }
+
+    public RTIImplementation getRtiImplementation() {
+        return rtiImplementation;
+    }
+
+    public void setRtiImplementation(RTIImplementation rtiImplementation) {
+        this.rtiImplementation = rtiImplementation;
+    }
+
+    public double getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(double startTime) {
+        this.startTime = startTime;
+    }
+
+    public CallbackModel getCallbackModel() {
+        return callbackModel;
+    }
+
+    public void setCallbackModel(CallbackModel callbackModel) {
+        this.callbackModel = callbackModel;
+    }
+
     public EncoderFactory getEncoderFactory() {
         return encoderFactory;
     }
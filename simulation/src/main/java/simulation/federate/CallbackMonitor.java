@@ -0,0 +1,88 @@
+package simulation.federate;
+
+import hla.rti1516e.CallbackModel;
+import hla.rti1516e.exceptions.RTIexception;
+import simulation.federate.rti.RTIAdapter;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Lets a federate thread wait for RTI callbacks without spinning.
+ * <p>
+ * With {@link CallbackModel#HLA_EVOKED} the waiting thread evokes the callbacks itself, like before.
+ * With {@link CallbackModel#HLA_IMMEDIATE} the callbacks are delivered by a thread of the RTI. The federate ambassador
+ * {@link #signal() signals} every state change (time advance grant, sync point, ...) and the waiting federate thread
+ * sleeps until then. Callbacks that touch simulation data are {@link #dispatch(Runnable) dispatched} to a queue which
+ * is processed by the federate thread while it waits, so the data of a federate is still only accessed by its own thread.
+ */
+public class CallbackMonitor {
+
+    private final CallbackModel callbackModel;
+    private final Deque<Runnable> pendingCallbacks = new ArrayDeque<>();
+
+    public CallbackMonitor(CallbackModel callbackModel) {
+        this.callbackModel = callbackModel;
+    }
+
+    /**
+     * Called by the ambassador after it changed a state the federate may be waiting for
+     */
+    public void signal() {
+        synchronized (this) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * Runs the given callback directly with HLA_EVOKED, or queues it for the federate thread with HLA_IMMEDIATE
+     *
+     * @param callback the data related part of an RTI callback
+     */
+    public void dispatch(Runnable callback) {
+        if (callbackModel == CallbackModel.HLA_EVOKED) {
+            callback.run();
+            return;
+        }
+        synchronized (this) {
+            pendingCallbacks.add(callback);
+            notifyAll();
+        }
+    }
+
+    /**
+     * Blocks until the given condition is met. Queued callbacks are processed in the meantime and before returning.
+     *
+     * @param rtiAmb    the RTI adapter, used to evoke the callbacks with HLA_EVOKED
+     * @param condition condition changed by the ambassador
+     */
+    public void await(RTIAdapter rtiAmb, BooleanSupplier condition) throws RTIexception, InterruptedException {
+        if (callbackModel == CallbackModel.HLA_EVOKED) {
+            // ticking will tell the LRC to start delivering callbacks to the federate
+            while (!condition.getAsBoolean()) {
+                rtiAmb.evokeMultipleCallbacks(0.1, 0.2);
+            }
+            return;
+        }
+
+        while (true) {
+            Runnable callback;
+            synchronized (this) {
+                while (pendingCallbacks.isEmpty() && !condition.getAsBoolean()) {
+                    wait();
+                }
+                callback = pendingCallbacks.poll();
+            }
+            if (callback == null) {
+                return;
+            }
+            // run outside the monitor, so the RTI thread is not blocked by the processing of the data
+            callback.run();
+        }
+    }
+
+    public CallbackModel getCallbackModel() {
+        return callbackModel;
+    }
+}
@@ -19,25 +19,28 @@ public class SimulationFederateAmbassador extends NullFederateAmbassador {
     //----------------------------------------------------------
     private final AbstractFederate federate;
     private final IncomingDataHandler incomingDataHandler;
+    private final CallbackMonitor callbackMonitor;
 
     // these variables are accessible in the package
-    private double federateTime = 0.0;
     private double federateLookahead = 1.0;
 
-    private boolean regulating = false;
-    private boolean constrained = false;
-    private boolean advancing = false;
+    // volatile, since the callbacks may be delivered by a thread of the RTI (HLA_IMMEDIATE)
+    private volatile double federateTime = 0.0;
+    private volatile boolean regulating = false;
+    private volatile boolean constrained = false;
+    private volatile boolean advancing = false;
 
-    private boolean announced = false;
-    private boolean readyToRun = false;
+    private volatile boolean announced = false;
+    private volatile boolean readyToRun = false;
 
     //----------------------------------------------------------
     //                      CONSTRUCTORS
     //----------------------------------------------------------
 
-    public SimulationFederateAmbassador(AbstractFederate federate, IncomingDataHandler incomingDataHandler) {
+    public SimulationFederateAmbassador(AbstractFederate federate, IncomingDataHandler incomingDataHandler, CallbackMonitor callbackMonitor) {
         this.federate = federate;
         this.incomingDataHandler = incomingDataHandler;
+        this.callbackMonitor = callbackMonitor;
         LoggingService.registerLogger(LoggingType.CONSOLE);
     }
     
@@ -60,6 +63,7 @@ public class SimulationFederateAmbassador extends NullFederateAmbassador {
         log("Synchronization point announced: " + label);
         if (label.equals(federate.READY_TO_RUN)) {
             this.announced = true;
+            callbackMonitor.signal();
         }
     }
 
@@ -68,6 +72,7 @@ public class SimulationFederateAmbassador extends NullFederateAmbassador {
         log("Federation Synchronized: " + label);
         if (label.equals(federate.READY_TO_RUN)) {
             this.readyToRun = true;
+            callbackMonitor.signal();
         }
     }
 
@@ -78,18 +83,21 @@ public class SimulationFederateAmbassador extends NullFederateAmbassador {
     public void timeRegulationEnabled(LogicalTime time) {
         this.federateTime = ((HLAfloat64Time) time).getValue();
         this.regulating = true;
+        callbackMonitor.signal();
     }
 
     @Override
     public void timeConstrainedEnabled(LogicalTime time) {
         this.federateTime = ((HLAfloat64Time) time).getValue();
         this.constrained = true;
+        callbackMonitor.signal();
     }
 
     @Override
     public void timeAdvanceGrant(LogicalTime time) {
         this.federateTime = ((HLAfloat64Time) time).getValue();
         this.advancing = false;
+        callbackMonitor.signal();
     }
 
     @Override
@@ -99,7 +107,7 @@ public class SimulationFederateAmbassador extends NullFederateAmbassador {
 
         log("Discovered Object: handle=" + theObject + ", classHandle=" + theObjectClass + ", name=" + objectName);
 
-        incomingDataHandler.processDiscoveredObjectInstanceData(theObject, theObjectClass, objectName);
+        callbackMonitor.dispatch(() -> incomingDataHandler.processDiscoveredObjectInstanceData(theObject, theObjectClass, objectName));
     }
 
     @Override
@@ -158,7 +166,16 @@ public class SimulationFederateAmbassador extends NullFederateAmbassador {
         log(builder.toString());
 
         //pass it to the dataHandler who will take care of everything
-        incomingDataHandler.processAttributeUpdateData(theObject, theAttributes);
+        double updateTime = time != null ? ((HLAfloat64Time) time).getValue() : federateTime;
+        callbackMonitor.dispatch(() -> incomingDataHandler.processAttributeUpdateData(theObject, theAttributes, updateTime));
+    }
+
+    @Override
+    public void provideAttributeValueUpdate(ObjectInstanceHandle theObject,
+                                            AttributeHandleSet theAttributes,
+                                            byte[] userSuppliedTag) throws FederateInternalError {
+        log("Attribute values requested: handle=" + theObject + ", attributeCount=" + theAttributes.size());
+        callbackMonitor.dispatch(() -> federate.provideAttributeValueUpdate(theObject, theAttributes));
     }
 
     @Override
@@ -232,6 +249,19 @@ public class SimulationFederateAmbassador extends NullFederateAmbassador {
                                      SupplementalRemoveInfo removeInfo)
         throws FederateInternalError {
         log("Object Removed: handle=" + theObject);
+
+        callbackMonitor.dispatch(() -> incomingDataHandler.processRemovedObjectInstance(theObject));
+    }
+
+    @Override
+    public void removeObjectInstance(ObjectInstanceHandle theObject,
+                                     byte[] tag,
+                                     OrderType sentOrdering,
+                                     LogicalTime time,
+                                     OrderType receivedOrdering,
+                                     SupplementalRemoveInfo removeInfo)
+        throws FederateInternalError {
+        removeObjectInstance(theObject, tag, sentOrdering, removeInfo);
     }
 
     public double getFederateTime() {
@@ -242,6 +272,10 @@ public class SimulationFederateAmbassador extends NullFederateAmbassador {
         return federateLookahead;
     }
 
+    public void setFederateLookahead(double federateLookahead) {
+        this.federateLookahead = federateLookahead;
+    }
+
     public boolean isRegulating() {
         return regulating;
     }
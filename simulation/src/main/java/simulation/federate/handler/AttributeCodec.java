@@ -0,0 +1,31 @@
+package simulation.federate.handler;
+
+import hla.rti1516e.encoding.DecoderException;
+import hla.rti1516e.encoding.EncoderException;
+
+/**
+ * Encodes a value of an attribute to the byte representation sent to the RTI and decodes it again.
+ * Codecs are obtained from the {@link AttributeCodecRegistry} once per attribute handle, so no reflection is needed
+ * when attribute values are updated or reflected.
+ */
+public interface AttributeCodec {
+
+    /**
+     * @return the java type of the values this codec encodes and decodes
+     */
+    Class<?> getJavaType();
+
+    /**
+     * @param value value of the attribute, has to be an instance of {@link #getJavaType()}
+     * @return the encoded value
+     * @throws EncoderException if the value can't be encoded
+     */
+    byte[] encode(Object value) throws EncoderException;
+
+    /**
+     * @param data encoded value as received from the RTI
+     * @return the decoded value as instance of {@link #getJavaType()}
+     * @throws DecoderException if the data can't be decoded
+     */
+    Object decode(byte[] data) throws DecoderException;
+}
@@ -0,0 +1,149 @@
+package simulation.federate.handler;
+
+import hla.rti1516e.encoding.DataElement;
+import hla.rti1516e.encoding.DecoderException;
+import hla.rti1516e.encoding.EncoderException;
+import hla.rti1516e.encoding.EncoderFactory;
+import hla.rti1516e.encoding.HLAASCIIstring;
+import hla.rti1516e.encoding.HLAboolean;
+import hla.rti1516e.encoding.HLAbyte;
+import hla.rti1516e.encoding.HLAfloat32BE;
+import hla.rti1516e.encoding.HLAfloat64BE;
+import hla.rti1516e.encoding.HLAinteger16BE;
+import hla.rti1516e.encoding.HLAinteger32BE;
+import hla.rti1516e.encoding.HLAinteger64BE;
+import hla.rti1516e.encoding.HLAunicodeChar;
+import interpreter.Interpreter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Maps each (java type, HLA data type) pair of {@link Interpreter#DATATYPE_MAP} to a prebuilt {@link AttributeCodec}.
+ * Enums are encoded by their string representation, as the FOM declares them as strings.
+ * <p>
+ * The codecs reuse a single DataElement each, so a registry must only be used by the thread of its federate
+ * (which is the case for both callback models, see {@link simulation.federate.CallbackMonitor}).
+ */
+public class AttributeCodecRegistry {
+
+    private final Map<String, AttributeCodec> codecsByHlaType = new HashMap<>();
+    private final Map<Class<?>, AttributeCodec> codecsByJavaType = new HashMap<>();
+
+    public AttributeCodecRegistry(EncoderFactory encoderFactory) {
+        register(Integer.class, encoderFactory.createHLAinteger32BE(),
+                (e, v) -> e.setValue((Integer) v), HLAinteger32BE::getValue);
+        register(Boolean.class, encoderFactory.createHLAboolean(),
+                (e, v) -> e.setValue((Boolean) v), HLAboolean::getValue);
+        register(Double.class, encoderFactory.createHLAfloat64BE(),
+                (e, v) -> e.setValue((Double) v), HLAfloat64BE::getValue);
+        register(String.class, encoderFactory.createHLAASCIIstring(),
+                (e, v) -> e.setValue((String) v), HLAASCIIstring::getValue);
+        register(Long.class, encoderFactory.createHLAinteger64BE(),
+                (e, v) -> e.setValue((Long) v), HLAinteger64BE::getValue);
+        register(Float.class, encoderFactory.createHLAfloat32BE(),
+                (e, v) -> e.setValue((Float) v), HLAfloat32BE::getValue);
+        // HLAunicodeChar holds the UTF-16 code unit as short
+        register(Character.class, encoderFactory.createHLAunicodeChar(),
+                (e, v) -> e.setValue((short) ((Character) v).charValue()), e -> (char) e.getValue());
+        register(Byte.class, encoderFactory.createHLAbyte(),
+                (e, v) -> e.setValue((Byte) v), HLAbyte::getValue);
+        register(Short.class, encoderFactory.createHLAinteger16BE(),
+                (e, v) -> e.setValue((Short) v), HLAinteger16BE::getValue);
+    }
+
+    private <E extends DataElement> void register(Class<?> javaType, E element, BiConsumer<E, Object> setter, Function<E, Object> getter) {
+        String hlaDataType = Interpreter.DATATYPE_MAP.get(javaType.getSimpleName());
+        codecsByHlaType.put(hlaDataType, new DataElementCodec<>(javaType, element, setter, getter));
+    }
+
+    /**
+     * Resolves the codec for the given java type. The result is cached, so resolving is only expensive once per type.
+     *
+     * @param javaType type of the attribute value
+     * @return the codec, or null if there is no HLA data type for the given java type
+     */
+    public AttributeCodec getCodec(Class<?> javaType) {
+        if (javaType == null) {
+            return null;
+        }
+        if (codecsByJavaType.containsKey(javaType)) {
+            return codecsByJavaType.get(javaType);
+        }
+        AttributeCodec codec;
+        if (javaType.isEnum()) {
+            codec = new EnumCodec(javaType, codecsByHlaType.get(Interpreter.DATATYPE_MAP.get("String")));
+        } else {
+            codec = codecsByHlaType.get(Interpreter.DATATYPE_MAP.get(javaType.getSimpleName()));
+        }
+        codecsByJavaType.put(javaType, codec);
+        return codec;
+    }
+
+    /**
+     * Codec wrapping a single, reused DataElement of the HLA encoding API
+     */
+    private static final class DataElementCodec<E extends DataElement> implements AttributeCodec {
+
+        private final Class<?> javaType;
+        private final E element;
+        private final BiConsumer<E, Object> setter;
+        private final Function<E, Object> getter;
+
+        private DataElementCodec(Class<?> javaType, E element, BiConsumer<E, Object> setter, Function<E, Object> getter) {
+            this.javaType = javaType;
+            this.element = element;
+            this.setter = setter;
+            this.getter = getter;
+        }
+
+        @Override
+        public Class<?> getJavaType() {
+            return javaType;
+        }
+
+        @Override
+        public byte[] encode(Object value) throws EncoderException {
+            setter.accept(element, value);
+            return element.toByteArray();
+        }
+
+        @Override
+        public Object decode(byte[] data) throws DecoderException {
+            element.decode(data);
+            return getter.apply(element);
+        }
+    }
+
+    /**
+     * Codec for enums, which are transferred by their string representation
+     */
+    private static final class EnumCodec implements AttributeCodec {
+
+        private final Class<?> enumType;
+        private final AttributeCodec stringCodec;
+
+        private EnumCodec(Class<?> enumType, AttributeCodec stringCodec) {
+            this.enumType = enumType;
+            this.stringCodec = stringCodec;
+        }
+
+        @Override
+        public Class<?> getJavaType() {
+            return enumType;
+        }
+
+        @Override
+        public byte[] encode(Object value) throws EncoderException {
+            return stringCodec.encode(value.toString());
+        }
+
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        public Object decode(byte[] data) throws DecoderException {
+            return Enum.valueOf((Class) enumType, (String) stringCodec.decode(data));
+        }
+    }
+}
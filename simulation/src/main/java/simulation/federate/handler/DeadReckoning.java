@@ -0,0 +1,192 @@
+package simulation.federate.handler;
+
+import library.model.simulation.Position;
+import library.model.simulation.SimulationProperty;
+import library.model.traffic.TrafficParticipant;
+
+/**
+ * The kinematic state of a TrafficParticipant at a point in time, used for dead reckoning as known from DIS / HLA.
+ * Publishers only send position, speed, rotation and acceleration of a participant when the position extrapolated from
+ * the last sent state drifts further than a threshold from its actual position. Subscribers extrapolate the position
+ * from the last received state in between. Since both sides use the same extrapolation, the position known by a
+ * subscriber is never further off than the threshold (as of the last time step of the publisher).
+ * <p>
+ * Updates are stamped with the time of the publisher plus its lookahead, so publishers send the state extrapolated to
+ * that time (see {@link #advanceTo(double)}) instead of the state of their current step. Otherwise subscribers would
+ * extrapolate from a state that is one lookahead old and always lag behind.
+ * <p>
+ * The extrapolation only relies on the transferred values: the speed is taken as m/s, the acceleration as m/s² and
+ * the rotation as bearing in degrees (clockwise from north), the same way the kinematic behaviours use them.
+ * Participants following other conventions are still correct within the threshold, they just get updated more often.
+ */
+public final class DeadReckoning {
+
+    private static final double EARTH_RADIUS = 6371 * 1000; // in meters
+
+    private final double latitude;
+    private final double longitude;
+    private final double speed;
+    private final double bearing;
+    private final double acceleration;
+    private final double time;
+
+    private DeadReckoning(double latitude, double longitude, double speed, double bearing, double acceleration, double time) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.speed = speed;
+        this.bearing = bearing;
+        this.acceleration = acceleration;
+        this.time = time;
+    }
+
+    /**
+     * Takes the current kinematic state of the participant
+     *
+     * @param trafficParticipant the participant
+     * @param time               the (logical) time the state is valid for
+     * @return the state or null if the participant has no position or speed (yet)
+     */
+    public static DeadReckoning of(TrafficParticipant trafficParticipant, double time) {
+        SimulationProperty<Double> latitude = getLatitude(trafficParticipant);
+        SimulationProperty<Double> longitude = getLongitude(trafficParticipant);
+        if (!hasValue(latitude) || !hasValue(longitude) || !hasValue(trafficParticipant.getSpeed())) {
+            return null;
+        }
+        return new DeadReckoning(latitude.getDoubleValue(),
+                                 longitude.getDoubleValue(),
+                                 trafficParticipant.getSpeed().getDoubleValue(),
+                                 doubleValueOf(trafficParticipant.getRotation()),
+                                 doubleValueOf(trafficParticipant.getAcceleration()),
+                                 time);
+    }
+
+    /**
+     * Checks if the property is part of the kinematic state, which is always sent as a whole
+     */
+    public static boolean isKinematicProperty(TrafficParticipant trafficParticipant, SimulationProperty<?> property) {
+        return property != null
+                && (property == getLatitude(trafficParticipant)
+                || property == getLongitude(trafficParticipant)
+                || property == trafficParticipant.getSpeed()
+                || property == trafficParticipant.getRotation()
+                || property == trafficParticipant.getAcceleration());
+    }
+
+    /**
+     * Extrapolates the position to the given time. A decelerating participant stops instead of moving backwards.
+     *
+     * @param time the (logical) time to extrapolate to
+     * @return latitude and longitude in degrees
+     */
+    public double[] extrapolate(double time) {
+        double timePassed = Math.max(time - this.time, 0);
+        if (acceleration < 0 && speed > 0) {
+            timePassed = Math.min(timePassed, -speed / acceleration);
+        }
+        double distance = Math.max(speed * timePassed + 0.5 * acceleration * timePassed * timePassed, 0);
+        if (distance == 0) {
+            return new double[]{latitude, longitude};
+        }
+
+        double angularDistance = distance / EARTH_RADIUS;
+        double latitudeRad = Math.toRadians(latitude);
+        double bearingRad = Math.toRadians(bearing);
+
+        double newLatitude = Math.asin(Math.sin(latitudeRad) * Math.cos(angularDistance)
+                + Math.cos(latitudeRad) * Math.sin(angularDistance) * Math.cos(bearingRad));
+        double newLongitude = Math.toRadians(longitude)
+                + Math.atan2(Math.sin(bearingRad) * Math.sin(angularDistance) * Math.cos(latitudeRad),
+                             Math.cos(angularDistance) - Math.sin(latitudeRad) * Math.sin(newLatitude));
+        return new double[]{Math.toDegrees(newLatitude), Math.toDegrees(newLongitude)};
+    }
+
+    /**
+     * Extrapolates the whole state to the given time, the speed changes by the acceleration until the participant stops
+     *
+     * @param time the (logical) time to extrapolate to
+     * @return the state valid for the given time
+     */
+    public DeadReckoning advanceTo(double time) {
+        double timePassed = Math.max(time - this.time, 0);
+        double[] extrapolated = extrapolate(time);
+        double newSpeed = Math.max(speed + acceleration * timePassed, 0);
+        return new DeadReckoning(extrapolated[0], extrapolated[1], newSpeed, bearing, acceleration, time);
+    }
+
+    /**
+     * Checks if the position of the given state is further off the position extrapolated to its time than the threshold
+     *
+     * @param state     the actual state of the participant
+     * @param threshold the maximum error in meters
+     * @return true if a new state has to be sent
+     */
+    public boolean exceedsThreshold(DeadReckoning state, double threshold) {
+        double[] extrapolated = extrapolate(state.time);
+        return distanceInMeters(extrapolated[0], extrapolated[1], state.latitude, state.longitude) > threshold;
+    }
+
+    /**
+     * Gets the value of a property as of this state. Latitude, longitude and speed are taken from the state, all other
+     * properties keep their current value.
+     *
+     * @param trafficParticipant the participant this state was taken from
+     * @param property           a property of the participant
+     * @return the value to send for the property
+     */
+    public Object valueOf(TrafficParticipant trafficParticipant, SimulationProperty<?> property) {
+        if (property == getLatitude(trafficParticipant)) {
+            return latitude;
+        } else if (property == getLongitude(trafficParticipant)) {
+            return longitude;
+        } else if (property == trafficParticipant.getSpeed()) {
+            return speed;
+        }
+        return property.getValue();
+    }
+
+    /**
+     * Sets the position of the participant to the position extrapolated to the given time
+     */
+    public void applyTo(TrafficParticipant trafficParticipant, double time) {
+        SimulationProperty<Double> latitude = getLatitude(trafficParticipant);
+        SimulationProperty<Double> longitude = getLongitude(trafficParticipant);
+        if (latitude == null || longitude == null) {
+            return;
+        }
+        double[] extrapolated = extrapolate(time);
+        latitude.setDoubleValue(extrapolated[0]);
+        longitude.setDoubleValue(extrapolated[1]);
+    }
+
+    private static double distanceInMeters(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double latitudeDiff = Math.toRadians(latitude2 - latitude1);
+        double longitudeDiff = Math.toRadians(longitude2 - longitude1);
+        double a = Math.sin(latitudeDiff / 2) * Math.sin(latitudeDiff / 2)
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2))
+                * Math.sin(longitudeDiff / 2) * Math.sin(longitudeDiff / 2);
+        return EARTH_RADIUS * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+
+    private static SimulationProperty<Double> getLatitude(TrafficParticipant trafficParticipant) {
+        Position position = valueOf(trafficParticipant.getPosition());
+        return position != null ? position.getLatitude() : null;
+    }
+
+    private static SimulationProperty<Double> getLongitude(TrafficParticipant trafficParticipant) {
+        Position position = valueOf(trafficParticipant.getPosition());
+        return position != null ? position.getLongitude() : null;
+    }
+
+    private static <T> T valueOf(SimulationProperty<T> property) {
+        return hasValue(property) ? property.getValue() : null;
+    }
+
+    private static double doubleValueOf(SimulationProperty<?> property) {
+        return hasValue(property) ? property.getDoubleValue() : 0;
+    }
+
+    private static boolean hasValue(SimulationProperty<?> property) {
+        // properties of discovered objects stay empty until their first value is reflected
+        return property != null && property.hasValue();
+    }
+}
@@ -1,24 +1,28 @@
 package simulation.federate.handler;
 
 import hla.rti1516e.*;
-import hla.rti1516e.encoding.DataElement;
 import hla.rti1516e.encoding.DecoderException;
 import hla.rti1516e.encoding.EncoderFactory;
 import hla.rti1516e.exceptions.RTIexception;
-import interpreter.Interpreter;
 import interpreter.utils.ReflectionUtils;
+import library.model.simulation.Position;
 import library.model.simulation.objects.SimulationObject;
 import library.model.simulation.SimulationProperty;
+import library.model.traffic.TrafficParticipant;
+import library.services.geodata.MapDataProvider;
 import org.portico.impl.hla1516e.Rti1516eFactory;
 import simulation.federate.AbstractFederate;
+import simulation.federate.rti.RTIAdapter;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Map;
 
+import static library.services.logging.LoggingService.log;
+
 /**
  * Manages and handles incoming data for a simulation federate.
  * Thus, it should be part of each FederateAmbassador and know the necessary Attributes of the corresponding federate.
@@ -28,10 +32,17 @@ public class IncomingDataHandler {
 
     // Federate Objects
     private final AbstractFederate federate;
-    private final RTIambassador rtiAmbassador;
+    private final RTIAdapter rtiAmbassador;
 
     // HLA Objects
     private final EncoderFactory encoderFactory = new Rti1516eFactory().getEncoderFactory();
+    private final AttributeCodecRegistry codecRegistry = new AttributeCodecRegistry(encoderFactory);
+
+    // codecs are resolved once per attribute handle and then reused for every reflection
+    private final Map<AttributeHandle, AttributeCodec> attributeCodecs = new HashMap<>();
+
+    // last received kinematic state of dead reckoned participants, see DeadReckoning
+    private final Map<TrafficParticipant, DeadReckoning> receivedStates = new HashMap<>();
 
     public IncomingDataHandler(AbstractFederate federate) throws RTIexception {
         this.federate = federate;
@@ -63,15 +74,29 @@ public class IncomingDataHandler {
         } catch (InstantiationException | IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
             e.printStackTrace();
         }
+        // attributes are only sent when they change, so the current state has to be requested once after discovery (and
+        // whenever a region moved, see InterestManagementHandler)
+        AttributeHandleSet subscribedAttributes = federate.getAttributeHandleBiMap().get(objectClassHandle);
+        if (subscribedAttributes != null && !subscribedAttributes.isEmpty()) {
+            try {
+                rtiAmbassador.requestAttributeValueUpdate(objectInstanceHandle, subscribedAttributes, new byte[0]);
+            } catch (RTIexception e) {
+                e.printStackTrace();
+            }
+        }
     }
 
     /**
      * This Method takes the incoming Message from the Ambassador, and correctly decodes it and puts the values into the correct Attribute
+     *
+     * @param time the time of the update, the extrapolation of dead reckoned positions starts from it
      */
-    public void processAttributeUpdateData(ObjectInstanceHandle instanceHandle, AttributeHandleValueMap attributeHandleValueMap) {
+    public void processAttributeUpdateData(ObjectInstanceHandle instanceHandle, AttributeHandleValueMap attributeHandleValueMap, double time) {
 
         // get the object instance to update
         SimulationObject objectToUpdate = federate.getSimulationObjectInstance(instanceHandle);
+        boolean kinematicStateUpdated = false;
+        boolean positionUpdated = false;
 
         // for every attribute that has to be updated get the attributeHandle
         for (AttributeHandle attributeHandle : attributeHandleValueMap.keySet()) {
@@ -88,33 +113,19 @@ public class IncomingDataHandler {
                 fieldToUpdate.setAccessible(true);
                 SimulationProperty<Object> attributeToUpdate = (SimulationProperty<Object>) fieldToUpdate.get(innerObjectToUpdate);
 
-                String hlaDataType;
-                boolean isEnum = attributeType.isEnum();
-                if (isEnum) {
-                    hlaDataType = Interpreter.DATATYPE_MAP.get("String");
-                } else {
-                    hlaDataType = Interpreter.DATATYPE_MAP.get(attributeType.getSimpleName());
+                AttributeCodec codec = getAttributeCodec(attributeHandle, attributeType);
+                if (codec == null) {
+                    log("No codec for attribute " + attributeName + " of type " + attributeType.getSimpleName());
+                    continue;
                 }
+                Object value = codec.decode(attributeHandleValueMap.get(attributeHandle));
 
-                DataElement dataElement;
-
-                // Invoke the correct "create" Method for the determined dataType
-                Method m = encoderFactory.getClass().getMethod("create" + hlaDataType);
-                dataElement = (DataElement) m.invoke(encoderFactory);
-                dataElement.decode(attributeHandleValueMap.get(attributeHandle));
-
-                // Invoke the getValue Method on the data Element (It is not part of DataElement, but we know that
-                // the types we get will have it) to get the actual value that has been sent.
-                m = dataElement.getClass().getMethod("getValue");
-                Object value = m.invoke(dataElement);
-                //If Attribute is Enum, create the original Value based on the String
-                if (isEnum) {
-                    Method valueOf = attributeType.getMethod("valueOf", String.class);
-                    value = valueOf.invoke(valueOf, value);
-                }
                 //Make sure the incoming value has the class that our Attribute expects then set it
                 if (value.getClass() == attributeType) {
                     attributeToUpdate.setSingleValue(value);
+                    kinematicStateUpdated |= objectToUpdate instanceof TrafficParticipant
+                            && DeadReckoning.isKinematicProperty((TrafficParticipant) objectToUpdate, attributeToUpdate);
+                    positionUpdated |= innerObjectToUpdate instanceof Position || (Object) attributeToUpdate == objectToUpdate.getPosition();
                 } else if (attributeType == ArrayList.class) {
                     //if the target is an arrayList, get the list and add the data to it
                     ArrayList<Object> targetList = (ArrayList<Object>) attributeToUpdate.getValue();
@@ -127,11 +138,78 @@ public class IncomingDataHandler {
                 //     (((ContainerShip) objectToUpdate).getEmergencyDeclared().getName()) + " = " + (((ContainerShip) objectToUpdate).getEmergencyDeclared().getValue()) + "\n"
                 // );
 
-            } catch (DecoderException | InvocationTargetException | NoSuchMethodException | IllegalAccessException | InstantiationException e) {
+            } catch (DecoderException | InvocationTargetException | IllegalAccessException | InstantiationException e) {
                 e.printStackTrace();
             }
         }
         //federate.logAttributesAsJSON();
+
+        if (kinematicStateUpdated && federate.getDeadReckoningThreshold() > 0) {
+            TrafficParticipant trafficParticipant = (TrafficParticipant) objectToUpdate;
+            DeadReckoning state = DeadReckoning.of(trafficParticipant, time);
+            if (state != null) {
+                receivedStates.put(trafficParticipant, state);
+            }
+        }
+        if (positionUpdated && objectToUpdate instanceof TrafficParticipant) {
+            updateMapPosition((TrafficParticipant) objectToUpdate);
+        }
+    }
+
+    /**
+     * Forgets an object instance deleted by its federate, e.g. when the federate resigned. Its participant is neither
+     * extrapolated anymore nor found by the neighbour queries of the map.
+     *
+     * @param instanceHandle handle of the removed instance
+     */
+    public void processRemovedObjectInstance(ObjectInstanceHandle instanceHandle) {
+        SimulationObject removedObject = federate.uncacheObjectInstance(instanceHandle);
+        if (!(removedObject instanceof TrafficParticipant)) {
+            return;
+        }
+        receivedStates.remove(removedObject);
+        MapDataProvider mapDataProvider = federate.getMapDataProvider();
+        if (mapDataProvider != null) {
+            mapDataProvider.removeTrafficParticipant((TrafficParticipant) removedObject);
+        }
+    }
+
+    /**
+     * Moves the dead reckoned participants to the positions extrapolated from their last received state.
+     * Should be called every step before the positions are used.
+     *
+     * @param time the current time of the federate
+     */
+    public void extrapolatePositions(double time) {
+        for (Map.Entry<TrafficParticipant, DeadReckoning> entry : receivedStates.entrySet()) {
+            entry.getValue().applyTo(entry.getKey(), time);
+            updateMapPosition(entry.getKey());
+        }
+    }
+
+    /**
+     * Moves a participant of another federate to its reflected position in the index of the map, so neighbour queries
+     * of the hosted objects find it where it is
+     */
+    private void updateMapPosition(TrafficParticipant trafficParticipant) {
+        MapDataProvider mapDataProvider = federate.getMapDataProvider();
+        if (mapDataProvider != null) {
+            mapDataProvider.updateTrafficParticipant(trafficParticipant);
+        }
+    }
+
+    /**
+     * Returns the codec for the given attribute handle, resolving it on first use
+     *
+     * @param attributeHandle handle of the attribute
+     * @param attributeType   java type of the attribute
+     * @return the codec or null if the type can't be transferred
+     */
+    private AttributeCodec getAttributeCodec(AttributeHandle attributeHandle, Class<?> attributeType) {
+        if (!attributeCodecs.containsKey(attributeHandle)) {
+            attributeCodecs.put(attributeHandle, codecRegistry.getCodec(attributeType));
+        }
+        return attributeCodecs.get(attributeHandle);
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,248 @@
+package simulation.federate.handler;
+
+import hla.rti1516e.AttributeHandleSet;
+import hla.rti1516e.AttributeRegionAssociation;
+import hla.rti1516e.AttributeSetRegionSetPairList;
+import hla.rti1516e.DimensionHandle;
+import hla.rti1516e.DimensionHandleSet;
+import hla.rti1516e.ObjectClassHandle;
+import hla.rti1516e.ObjectInstanceHandle;
+import hla.rti1516e.RangeBounds;
+import hla.rti1516e.RegionHandle;
+import hla.rti1516e.RegionHandleSet;
+import hla.rti1516e.exceptions.RTIexception;
+import interpreter.fom.model.FOMDimension;
+import library.model.dto.observer.InterestAreaDTO;
+import library.model.simulation.Position;
+import library.model.simulation.SimulationProperty;
+import simulation.federate.rti.RTIAdapter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Manages the regions of a federate for the data distribution management (DDM) of the RTI.
+ * Subscription regions limit the received updates to an area of interest, update regions tell the RTI where the
+ * published objects are, so updates are only delivered to federates whose subscription regions overlap.
+ * Regions bound to a position follow it, see {@link #updateRegions()}.
+ * Since only changed attributes are published, a federate whose region starts to overlap the region of an object
+ * would never receive the unchanged attributes of the object. Therefore the full state is requested whenever a region
+ * moved: the subscribed attributes of the classes subscribed in a moved subscription region are requested from their
+ * owners, and the instances of moved update regions are returned to send their full state.
+ * The regions don't need to be deleted, the RTI removes them when the federate resigns.
+ */
+public class InterestManagementHandler {
+
+    private final RTIAdapter rtiAmbassador;
+    private final DimensionHandle longitudeDimension;
+    private final DimensionHandle latitudeDimension;
+    private final DimensionHandleSet dimensions;
+    private final long longitudeUpperBound;
+    private final long latitudeUpperBound;
+
+    private final List<PositionRegion> positionRegions = new ArrayList<>();
+
+    public InterestManagementHandler(RTIAdapter rtiAmbassador) throws RTIexception {
+        this.rtiAmbassador = rtiAmbassador;
+        this.longitudeDimension = rtiAmbassador.getDimensionHandle(FOMDimension.LONGITUDE.getName());
+        this.latitudeDimension = rtiAmbassador.getDimensionHandle(FOMDimension.LATITUDE.getName());
+        this.longitudeUpperBound = rtiAmbassador.getDimensionUpperBound(longitudeDimension);
+        this.latitudeUpperBound = rtiAmbassador.getDimensionUpperBound(latitudeDimension);
+        this.dimensions = rtiAmbassador.createDimensionHandleSet();
+        this.dimensions.add(longitudeDimension);
+        this.dimensions.add(latitudeDimension);
+    }
+
+    /**
+     * Creates a region covering the given fixed area
+     *
+     * @param area the area in degrees
+     * @return the committed region
+     */
+    public RegionHandle createRegion(InterestAreaDTO area) throws RTIexception {
+        RegionHandle region = rtiAmbassador.createRegion(dimensions);
+        long[] bounds = toBounds(area.getMinLongitude(), area.getMinLatitude(), area.getMaxLongitude(), area.getMaxLatitude());
+        setBounds(region, bounds);
+        commit(region);
+        return region;
+    }
+
+    /**
+     * Creates a region around the given position, which follows the position when {@link #updateRegions()} is called
+     *
+     * @param position the position of the object owning the region
+     * @param radius   half the edge length of the region in degrees, 0 creates a region covering just the position
+     * @return the committed region
+     */
+    public RegionHandle createRegion(SimulationProperty<Position> position, double radius) throws RTIexception {
+        RegionHandle region = rtiAmbassador.createRegion(dimensions);
+        PositionRegion positionRegion = new PositionRegion(region, position, radius);
+        positionRegions.add(positionRegion);
+        positionRegion.bounds = toBounds(position.getValue(), radius);
+        setBounds(region, positionRegion.bounds);
+        commit(region);
+        return region;
+    }
+
+    /**
+     * Moves the regions to the current positions they are bound to. Only regions whose bounds actually changed are
+     * committed, all of them at once. Afterwards the attributes subscribed in moved regions are requested, so objects
+     * that just came into the region are received completely.
+     *
+     * @return the instances whose update regions moved, they may reach new subscribers and have to send their full state
+     */
+    public Set<ObjectInstanceHandle> updateRegions() throws RTIexception {
+        RegionHandleSet modifiedRegions = null;
+        Set<ObjectInstanceHandle> movedInstances = new HashSet<>();
+        Map<ObjectClassHandle, AttributeHandleSet> requestedAttributes = new HashMap<>();
+        for (PositionRegion positionRegion : positionRegions) {
+            long[] bounds = toBounds(positionRegion.position.getValue(), positionRegion.radius);
+            if (sameBounds(bounds, positionRegion.bounds)) {
+                continue;
+            }
+            positionRegion.bounds = bounds;
+            setBounds(positionRegion.region, bounds);
+            if (modifiedRegions == null) {
+                modifiedRegions = rtiAmbassador.createRegionHandleSet();
+            }
+            modifiedRegions.add(positionRegion.region);
+            movedInstances.addAll(positionRegion.updatedInstances);
+            for (Map.Entry<ObjectClassHandle, AttributeHandleSet> subscription : positionRegion.subscribedAttributes.entrySet()) {
+                if (!requestedAttributes.containsKey(subscription.getKey())) {
+                    requestedAttributes.put(subscription.getKey(), rtiAmbassador.createAttributeHandleSet());
+                }
+                requestedAttributes.get(subscription.getKey()).addAll(subscription.getValue());
+            }
+        }
+        if (modifiedRegions == null) {
+            return Collections.emptySet();
+        }
+        rtiAmbassador.commitRegionModifications(modifiedRegions);
+        for (Map.Entry<ObjectClassHandle, AttributeHandleSet> request : requestedAttributes.entrySet()) {
+            rtiAmbassador.requestAttributeValueUpdate(request.getKey(), request.getValue(), new byte[0]);
+        }
+        return movedInstances;
+    }
+
+    /**
+     * Subscribes the attributes of the object class, but only within the given regions
+     */
+    public void subscribeObjectClassAttributes(ObjectClassHandle objectClassHandle,
+                                               AttributeHandleSet attributeHandles,
+                                               RegionHandleSet regionHandles) throws RTIexception {
+        rtiAmbassador.subscribeObjectClassAttributesWithRegions(objectClassHandle, toPairList(attributeHandles, regionHandles));
+        for (PositionRegion positionRegion : getPositionRegions(regionHandles)) {
+            if (!positionRegion.subscribedAttributes.containsKey(objectClassHandle)) {
+                positionRegion.subscribedAttributes.put(objectClassHandle, rtiAmbassador.createAttributeHandleSet());
+            }
+            positionRegion.subscribedAttributes.get(objectClassHandle).addAll(attributeHandles);
+        }
+    }
+
+    /**
+     * Associates the given regions with the updates of the attributes of the object instance
+     */
+    public void associateRegionsForUpdates(ObjectInstanceHandle objectInstanceHandle,
+                                           AttributeHandleSet attributeHandles,
+                                           RegionHandleSet regionHandles) throws RTIexception {
+        rtiAmbassador.associateRegionsForUpdates(objectInstanceHandle, toPairList(attributeHandles, regionHandles));
+        for (PositionRegion positionRegion : getPositionRegions(regionHandles)) {
+            positionRegion.updatedInstances.add(objectInstanceHandle);
+        }
+    }
+
+    public RegionHandleSet createRegionHandleSet() throws RTIexception {
+        return rtiAmbassador.createRegionHandleSet();
+    }
+
+    private List<PositionRegion> getPositionRegions(RegionHandleSet regionHandles) {
+        List<PositionRegion> regions = new ArrayList<>();
+        for (PositionRegion positionRegion : positionRegions) {
+            if (regionHandles.contains(positionRegion.region)) {
+                regions.add(positionRegion);
+            }
+        }
+        return regions;
+    }
+
+    private AttributeSetRegionSetPairList toPairList(AttributeHandleSet attributeHandles, RegionHandleSet regionHandles) throws RTIexception {
+        AttributeSetRegionSetPairList pairList = rtiAmbassador.createAttributeSetRegionSetPairList(1);
+        pairList.add(new AttributeRegionAssociation(attributeHandles, regionHandles));
+        return pairList;
+    }
+
+    private void setBounds(RegionHandle region, long[] bounds) throws RTIexception {
+        rtiAmbassador.setRangeBounds(region, longitudeDimension, new RangeBounds(bounds[0], bounds[2]));
+        rtiAmbassador.setRangeBounds(region, latitudeDimension, new RangeBounds(bounds[1], bounds[3]));
+    }
+
+    private void commit(RegionHandle region) throws RTIexception {
+        RegionHandleSet regionHandles = rtiAmbassador.createRegionHandleSet();
+        regionHandles.add(region);
+        rtiAmbassador.commitRegionModifications(regionHandles);
+    }
+
+    private long[] toBounds(Position position, double radius) {
+        double longitude = position.getLongitude().getDoubleValue();
+        double latitude = position.getLatitude().getDoubleValue();
+        return toBounds(longitude - radius, latitude - radius, longitude + radius, latitude + radius);
+    }
+
+    /**
+     * Normalizes an area to the range bounds of the dimensions
+     *
+     * @return lower longitude, lower latitude, upper longitude, upper latitude
+     */
+    long[] toBounds(double minLongitude, double minLatitude, double maxLongitude, double maxLatitude) {
+        return toBounds(minLongitude, minLatitude, maxLongitude, maxLatitude, longitudeUpperBound, latitudeUpperBound);
+    }
+
+    /**
+     * Normalizes an area to the given range bounds, coordinates outside of the valid degrees are clamped
+     *
+     * @return lower longitude, lower latitude, upper longitude, upper latitude
+     */
+    static long[] toBounds(double minLongitude, double minLatitude, double maxLongitude, double maxLatitude,
+                           long longitudeUpperBound, long latitudeUpperBound) {
+        long lowerLongitude = Math.min((long) Math.floor(normalize(minLongitude, -180, 180, longitudeUpperBound)), longitudeUpperBound - 1);
+        long lowerLatitude = Math.min((long) Math.floor(normalize(minLatitude, -90, 90, latitudeUpperBound)), latitudeUpperBound - 1);
+        // the upper bound is exclusive, so a range always has to cover at least one value
+        long upperLongitude = Math.max((long) Math.ceil(normalize(maxLongitude, -180, 180, longitudeUpperBound)), lowerLongitude + 1);
+        long upperLatitude = Math.max((long) Math.ceil(normalize(maxLatitude, -90, 90, latitudeUpperBound)), lowerLatitude + 1);
+        return new long[]{lowerLongitude, lowerLatitude, upperLongitude, upperLatitude};
+    }
+
+    private static double normalize(double value, double min, double max, long upperBound) {
+        double clamped = Math.min(Math.max(value, min), max);
+        return (clamped - min) / (max - min) * upperBound;
+    }
+
+    private static boolean sameBounds(long[] a, long[] b) {
+        return a[0] == b[0] && a[1] == b[1] && a[2] == b[2] && a[3] == b[3];
+    }
+
+    /**
+     * A region following the position of an object
+     */
+    private static final class PositionRegion {
+
+        private final RegionHandle region;
+        private final SimulationProperty<Position> position;
+        private final double radius;
+        private long[] bounds;
+        // what is affected when the region moves
+        private final Map<ObjectClassHandle, AttributeHandleSet> subscribedAttributes = new HashMap<>();
+        private final Set<ObjectInstanceHandle> updatedInstances = new HashSet<>();
+
+        private PositionRegion(RegionHandle region, SimulationProperty<Position> position, double radius) {
+            this.region = region;
+            this.position = position;
+            this.radius = radius;
+        }
+    }
+}
@@ -1,18 +1,15 @@
 package simulation.federate.handler;
 
-import com.google.common.primitives.Primitives;
 import hla.rti1516e.*;
-import hla.rti1516e.encoding.DataElement;
+import hla.rti1516e.encoding.EncoderException;
 import hla.rti1516e.encoding.EncoderFactory;
-import hla.rti1516e.exceptions.FederateNotExecutionMember;
-import hla.rti1516e.exceptions.NotConnected;
 import hla.rti1516e.exceptions.RTIexception;
-import hla.rti1516e.exceptions.RTIinternalError;
 import hla.rti1516e.time.HLAfloat64Time;
 import hla.rti1516e.time.HLAfloat64TimeFactory;
-import interpreter.Interpreter;
+import interpreter.StateStore;
 import library.model.simulation.SimulationInteraction;
 import library.model.simulation.SimulationProperty;
+import library.model.traffic.TrafficParticipant;
 import library.services.logging.LoggingService;
 import org.apache.commons.lang3.tuple.MutableTriple;
 import org.apache.commons.lang3.tuple.Pair;
@@ -21,13 +18,15 @@ import org.jetbrains.annotations.NotNull;
 import org.portico.impl.hla1516e.Rti1516eFactory;
 import simulation.federate.AbstractFederate;
 import simulation.federate.SimulationFederateAmbassador;
+import simulation.federate.rti.RTIAdapter;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Manages and handles the outgoing data of a federate.
@@ -39,6 +38,7 @@ public class OutgoingDataHandler {
 
     //MAPS
     private final Map<ObjectInstanceHandle, ArrayList<SimulationProperty<?>>> instanceToAttributeMap = new HashMap<>();
+    private final Map<String, ObjectInstanceHandle> objectIdToInstanceMap = new HashMap<>();
     private final Map<SimulationProperty<?>, AttributeHandle> attributeToHandleMap = new HashMap<>();
     private final Map<SimulationInteraction, InteractionClassHandle> interactionToHandleMap = new HashMap<>();
     private final List<SimulationInteraction> interactionsToFire = new ArrayList<>();
@@ -47,77 +47,123 @@ public class OutgoingDataHandler {
     private final List<Pair<ObjectClassHandle, AttributeHandleSet>> publishList = new ArrayList<>();
     private final List<InteractionClassHandle> interactionHandlesToPublish = new ArrayList<>();
 
+    // last sent values, so only changed attributes get updated
+    private final Map<SimulationProperty<?>, byte[]> lastSentValues = new HashMap<>();
+    private final Map<SimulationProperty<?>, Number> lastSentNumbers = new HashMap<>();
+    private final Map<ObjectInstanceHandle, Set<AttributeHandle>> requestedAttributeUpdates = new HashMap<>();
+
+    // dead reckoned instances and the kinematic state last sent for them, see DeadReckoning
+    private final Map<ObjectInstanceHandle, TrafficParticipant> deadReckonedInstances = new HashMap<>();
+    private final Map<ObjectInstanceHandle, DeadReckoning> lastSentStates = new HashMap<>();
+    private double deadReckoningThreshold;
+
+    // numeric values of the hosted objects and their slots per instance (in the order of instanceToAttributeMap)
+    private StateStore stateStore;
+    private final Map<ObjectInstanceHandle, int[]> instanceSlots = new HashMap<>();
+
     //HLA Objects
     private final EncoderFactory encoderFactory = new Rti1516eFactory().getEncoderFactory();
+    private final AttributeCodecRegistry codecRegistry = new AttributeCodecRegistry(encoderFactory);
+    private final Map<AttributeHandle, AttributeCodec> attributeCodecs = new HashMap<>();
     private final HLAfloat64TimeFactory timeFactory;
 
     //Federate Objects
     private final SimulationFederateAmbassador fedAmbassador;
-    private final RTIambassador rtiAmbassador;
+    private final RTIAdapter rtiAmbassador;
     private final byte[] tag;
 
-    public OutgoingDataHandler(AbstractFederate federate, byte[] tag) throws RTIinternalError, FederateNotExecutionMember, NotConnected {
+    public OutgoingDataHandler(AbstractFederate federate, byte[] tag) throws RTIexception {
         this.fedAmbassador = federate.getFedAmb();
         this.rtiAmbassador = federate.getRtiAmb();
-        timeFactory = (HLAfloat64TimeFactory) rtiAmbassador.getTimeFactory();
+        timeFactory = rtiAmbassador.getTimeFactory();
         this.tag = tag;
         // interactionsToFire = federate.getSimulatedObject().getInteractionsToFire();
     }
 
     /**
-     * reflects the values of all the Attributes in the attributeToHandleMap to the RTI
+     * reflects the values of all the Attributes in the attributeToHandleMap to the RTI.
+     * Only attributes that changed since their last update (according to their update threshold) are sent, as well as
+     * attributes whose values were requested by other federates via provideAttributeValueUpdate.
+     * The kinematic state of dead reckoned instances is only sent (as a whole) when the position extrapolated from the
+     * last sent state is further off than the dead reckoning threshold.
+     * If a StateStore is set, the change detection of numeric attributes is done on its arrays, so unchanged numeric
+     * attributes are skipped without being encoded.
      *
      * @throws RTIexception
      */
     public void updateAttributeValues() throws RTIexception {
+        double federateTime = fedAmbassador.getFederateTime();
+        HLAfloat64Time time = timeFactory.makeTime(federateTime + fedAmbassador.getFederateLookahead());
         //First update all the Attributes
         for (Map.Entry<ObjectInstanceHandle, ArrayList<SimulationProperty<?>>> entry : instanceToAttributeMap.entrySet()) {
             // Get the data that is relevant for the update
             ObjectInstanceHandle objectInstanceHandle = entry.getKey();
-            AttributeHandleValueMap handleValueMap = rtiAmbassador.getAttributeHandleValueMapFactory().create(2);
-            for (SimulationProperty instanceAttribute : entry.getValue()) {
+            Set<AttributeHandle> requestedAttributes = requestedAttributeUpdates.remove(objectInstanceHandle);
+            TrafficParticipant deadReckoned = deadReckonedInstances.get(objectInstanceHandle);
+            // the values of this step are only valid for the federate time, subscribers get them as of the time stamp
+            DeadReckoning kinematicState = deadReckoned != null ? stateAt(deadReckoned, federateTime, time.getValue()) : null;
+            boolean sendKinematicState = deadReckoned != null
+                    && needsKinematicUpdate(objectInstanceHandle, kinematicState, deadReckoned, entry.getValue(), requestedAttributes);
+            AttributeHandleValueMap handleValueMap = rtiAmbassador.createAttributeHandleValueMap(2);
+            int[] slots = getSlots(objectInstanceHandle, entry.getValue());
+            for (int i = 0; i < entry.getValue().size(); i++) {
+                SimulationProperty instanceAttribute = entry.getValue().get(i);
+                int slot = slots != null ? slots[i] : -1;
                 AttributeHandle attributeHandle = attributeToHandleMap.get(instanceAttribute);
-                //DataElement which holds the data and the HLA Datatype for encoding
-                DataElement dataElement = null;
-                try {
-                    String hlaDataType;
-                    Class type;
-                    boolean isEnum = instanceAttribute.getValue().getClass().isEnum();
-                    Class attributeType = instanceAttribute.getValue().getClass();
-                    if (isEnum) {
-                        hlaDataType = Interpreter.DATATYPE_MAP.get("String");
-                        type = String.class;
-                    } else if (attributeType == ArrayList.class) {
-                        hlaDataType = Interpreter.DATATYPE_MAP.get(instanceAttribute.getListType().getSimpleName());
-                        type = Primitives.unwrap(instanceAttribute.getListType());
-                    } else {
-                        hlaDataType = Interpreter.DATATYPE_MAP.get(instanceAttribute.getValue().getClass().getSimpleName());
-                        type = Primitives.unwrap(instanceAttribute.getValue().getClass());
-                    }
-                    // Invoke the correct "create" Method for the determined dataType
-                    Method m = encoderFactory.getClass().getMethod("create" + hlaDataType, type);
-                    if (isEnum) {
-                        dataElement = (DataElement) m.invoke(encoderFactory, instanceAttribute.getValue().toString());
-                    } else if (instanceAttribute.getValue().getClass() == ArrayList.class) {
-                        ArrayList valueList = (ArrayList) instanceAttribute.getValue();
-                        for (Object value : valueList) {
-                            dataElement = (DataElement) m.invoke(encoderFactory, value);
-                            handleValueMap.put(attributeHandle, dataElement.toByteArray());
+                if (attributeHandle == null || objectInstanceHandle == null) {
+                    continue;
+                }
+                boolean kinematic = deadReckoned != null && DeadReckoning.isKinematicProperty(deadReckoned, instanceAttribute);
+                if (kinematic && !sendKinematicState) {
+                    continue;
+                }
+                // the kinematic state is always sent as a whole, so subscribers extrapolate from the same state
+                boolean requested = kinematic || requestedAttributes != null && requestedAttributes.contains(attributeHandle);
+                if (slot >= 0) {
+                    // numeric attributes only get encoded when they changed (or were requested)
+                    if (requested || stateStore.isChanged(slot)) {
+                        Object value = kinematic && kinematicState != null ? kinematicState.valueOf(deadReckoned, instanceAttribute) : instanceAttribute.getValue();
+                        byte[] encodedValue = encode(attributeHandle, value.getClass(), value);
+                        if (encodedValue != null) {
+                            handleValueMap.put(attributeHandle, encodedValue);
+                            stateStore.markSent(slot);
                         }
+                    }
+                    continue;
+                }
+                Object value = kinematic && kinematicState != null ? kinematicState.valueOf(deadReckoned, instanceAttribute) : instanceAttribute.getValue();
+                Class<?> valueType = value.getClass();
+                if (valueType == ArrayList.class) {
+                    // list elements are put into the map one after another, so only the last one is actually sent
+                    ArrayList valueList = (ArrayList) value;
+                    if (valueList.isEmpty()) {
                         continue;
-                    } else {
-                        dataElement = (DataElement) m.invoke(encoderFactory, instanceAttribute.getValue());
                     }
-                } catch (NoSuchMethodException | InvocationTargetException | IllegalAccessException e) {
-                    e.printStackTrace();
+                    value = valueList.get(valueList.size() - 1);
+                    valueType = instanceAttribute.getListType();
+                }
+                if (!requested && isBelowUpdateThreshold(instanceAttribute, value)) {
+                    continue;
                 }
-                if (dataElement != null && attributeHandle != null && objectInstanceHandle != null) {
-                    handleValueMap.put(attributeHandle, dataElement.toByteArray());
+                byte[] encodedValue = encode(attributeHandle, valueType, value);
+                if (encodedValue == null) {
+                    continue;
+                }
+                if (requested || !Arrays.equals(encodedValue, lastSentValues.get(instanceAttribute))) {
+                    handleValueMap.put(attributeHandle, encodedValue);
+                    lastSentValues.put(instanceAttribute, encodedValue);
+                    if (value instanceof Number) {
+                        lastSentNumbers.put(instanceAttribute, (Number) value);
+                    }
                 }
             }
-            // Reflect the updated Values to the RTI
-            HLAfloat64Time time = timeFactory.makeTime(fedAmbassador.getFederateTime() + fedAmbassador.getFederateLookahead());
-            rtiAmbassador.updateAttributeValues(objectInstanceHandle, handleValueMap, tag, time);
+            if (sendKinematicState) {
+                lastSentStates.put(objectInstanceHandle, kinematicState);
+            }
+            // Reflect the updated Values to the RTI, if anything changed
+            if (!handleValueMap.isEmpty()) {
+                rtiAmbassador.updateAttributeValues(objectInstanceHandle, handleValueMap, tag, time);
+            }
         }
 
         //Then fire Interactions (if there are any)
@@ -129,6 +175,138 @@ public class OutgoingDataHandler {
         interactionsToFire.clear();
     }
 
+    /**
+     * Resolves the slots of the properties of an instance in the StateStore once
+     *
+     * @return the slots in the order of the properties (-1 for properties without slot) or null if there is no store
+     */
+    private int[] getSlots(ObjectInstanceHandle objectInstanceHandle, List<SimulationProperty<?>> properties) {
+        if (stateStore == null) {
+            return null;
+        }
+        int[] slots = instanceSlots.get(objectInstanceHandle);
+        if (slots == null) {
+            slots = new int[properties.size()];
+            for (int i = 0; i < slots.length; i++) {
+                slots[i] = stateStore.getSlot(properties.get(i));
+            }
+            instanceSlots.put(objectInstanceHandle, slots);
+        }
+        return slots;
+    }
+
+    /**
+     * Checks if the kinematic state of a dead reckoned instance has to be sent, which is the case if it was never sent,
+     * the extrapolated position drifted too far or one of its attributes was requested
+     *
+     * @param objectInstanceHandle handle of the instance
+     * @param kinematicState       the state of the participant as of the time of the update, may be null
+     * @param trafficParticipant   the participant represented by the instance
+     * @param properties           the published properties of the instance
+     * @param requestedAttributes  attributes requested by other federates, may be null
+     * @return true if position, speed, rotation and acceleration have to be sent
+     */
+    private boolean needsKinematicUpdate(ObjectInstanceHandle objectInstanceHandle,
+                                         DeadReckoning kinematicState,
+                                         TrafficParticipant trafficParticipant,
+                                         List<SimulationProperty<?>> properties,
+                                         Set<AttributeHandle> requestedAttributes) {
+        DeadReckoning lastSentState = lastSentStates.get(objectInstanceHandle);
+        if (lastSentState == null || kinematicState != null && lastSentState.exceedsThreshold(kinematicState, deadReckoningThreshold)) {
+            return true;
+        }
+        if (requestedAttributes == null) {
+            return false;
+        }
+        // sending only a part of the state would let the requesting federate extrapolate from a different state
+        for (SimulationProperty<?> property : properties) {
+            if (DeadReckoning.isKinematicProperty(trafficParticipant, property) && requestedAttributes.contains(attributeToHandleMap.get(property))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Takes the kinematic state of a participant and extrapolates it to the time stamp of the update
+     *
+     * @param trafficParticipant the participant
+     * @param federateTime       the time the current values of the participant are valid for
+     * @param updateTime         the time stamp of the update
+     * @return the state or null if the participant has no position or speed (yet)
+     */
+    private static DeadReckoning stateAt(TrafficParticipant trafficParticipant, double federateTime, double updateTime) {
+        DeadReckoning state = DeadReckoning.of(trafficParticipant, federateTime);
+        return state != null ? state.advanceTo(updateTime) : null;
+    }
+
+    /**
+     * Checks if a numeric value changed less than the update threshold of its property since it was last sent.
+     *
+     * @param property property the value belongs to
+     * @param value    current value of the property
+     * @return true if the value should not be sent again yet
+     */
+    private boolean isBelowUpdateThreshold(SimulationProperty<?> property, Object value) {
+        double threshold = property.getUpdateThreshold();
+        Number lastSentNumber = lastSentNumbers.get(property);
+        if (threshold <= 0 || lastSentNumber == null || !(value instanceof Number)) {
+            return false;
+        }
+        return Math.abs(((Number) value).doubleValue() - lastSentNumber.doubleValue()) < threshold;
+    }
+
+    /**
+     * Called when another federate requests the current values of attributes (e.g. after it discovered the object).
+     * The requested attributes will be sent with the next update, whether they changed or not.
+     *
+     * @param objectInstanceHandle handle of the instance whose attributes are requested
+     * @param attributeHandles     requested attributes
+     */
+    public void provideAttributeValueUpdate(ObjectInstanceHandle objectInstanceHandle, AttributeHandleSet attributeHandles) {
+        if (!instanceToAttributeMap.containsKey(objectInstanceHandle)) {
+            return;
+        }
+        if (!requestedAttributeUpdates.containsKey(objectInstanceHandle)) {
+            requestedAttributeUpdates.put(objectInstanceHandle, new HashSet<>());
+        }
+        requestedAttributeUpdates.get(objectInstanceHandle).addAll(attributeHandles);
+    }
+
+    /**
+     * @return true if other federates requested values that haven't been sent yet
+     */
+    public boolean hasRequestedAttributeUpdates() {
+        return !requestedAttributeUpdates.isEmpty();
+    }
+
+    /**
+     * Encodes the value with the codec of the given attribute handle. The codec is resolved on first use and only
+     * resolved again if the type of the value changes.
+     *
+     * @param attributeHandle handle of the attribute the value belongs to
+     * @param javaType        type of the value
+     * @param value           value to encode
+     * @return the encoded value or null if there is no codec for the type
+     */
+    private byte[] encode(AttributeHandle attributeHandle, Class<?> javaType, Object value) {
+        AttributeCodec codec = attributeCodecs.get(attributeHandle);
+        if (codec == null || codec.getJavaType() != javaType) {
+            codec = codecRegistry.getCodec(javaType);
+            attributeCodecs.put(attributeHandle, codec);
+        }
+        if (codec == null) {
+            LoggingService.logWithAll("No codec for attribute values of type " + javaType);
+            return null;
+        }
+        try {
+            return codec.encode(value);
+        } catch (EncoderException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
     /**
      * Sends an interaction depending on the interaction parameter using the interactionToHandleMap
      *
@@ -137,8 +315,9 @@ public class OutgoingDataHandler {
      */
     public void sendInteraction(SimulationInteraction interaction) throws RTIexception {
         InteractionClassHandle interactionHandle = interactionToHandleMap.get(interaction);
-        ParameterHandleValueMap parameters = rtiAmbassador.getParameterHandleValueMapFactory().create(0);
-        HLAfloat64Time time = timeFactory.makeTime(fedAmbassador.getFederateTime() + fedAmbassador.getFederateLookahead());
+        ParameterHandleValueMap parameters = rtiAmbassador.createParameterHandleValueMap(0);
+        double federateTime = fedAmbassador.getFederateTime();
+        HLAfloat64Time time = timeFactory.makeTime(federateTime + fedAmbassador.getFederateLookahead());
         rtiAmbassador.sendInteraction(interactionHandle, parameters, tag, time);
     }
 
@@ -248,6 +427,9 @@ public class OutgoingDataHandler {
                     instanceHandle = rtiAmbassador.registerObjectInstance(triple.getLeft());
                 }
                 instanceToAttributeMap.put(instanceHandle, triple.getMiddle());
+                if (triple.getRight() != null) {
+                    objectIdToInstanceMap.put(triple.getRight(), instanceHandle);
+                }
             } catch (RTIexception e) {
                 LoggingService.logWithAll("Error while registering an ObjectInstance: ");
                 e.printStackTrace();
@@ -255,6 +437,52 @@ public class OutgoingDataHandler {
         }
     }
 
+    /**
+     * @param objectId id of a simulation object
+     * @return the handle of the instance registered for the object or null if there is none
+     */
+    public ObjectInstanceHandle getInstanceHandle(String objectId) {
+        return objectIdToInstanceMap.get(objectId);
+    }
+
+    /**
+     * Lets the kinematic state of the instance only be sent when the position extrapolated by subscribers drifts
+     * further than the threshold from the actual position, see {@link DeadReckoning}
+     *
+     * @param objectInstanceHandle handle of a registered instance
+     * @param trafficParticipant   the participant represented by the instance
+     * @param threshold            maximum error of the extrapolated position in meters
+     */
+    public void enableDeadReckoning(ObjectInstanceHandle objectInstanceHandle, TrafficParticipant trafficParticipant, double threshold) {
+        deadReckonedInstances.put(objectInstanceHandle, trafficParticipant);
+        deadReckoningThreshold = threshold;
+    }
+
+    /**
+     * Lets the change detection of numeric attributes use the arrays of the given store
+     *
+     * @param stateStore store containing the numeric attributes of the hosted objects
+     */
+    public void setStateStore(StateStore stateStore) {
+        this.stateStore = stateStore;
+        this.instanceSlots.clear();
+    }
+
+    /**
+     * @param objectInstanceHandle handle of a registered instance
+     * @return the handles of all attributes published for the instance
+     */
+    public AttributeHandleSet getPublishedAttributeHandles(ObjectInstanceHandle objectInstanceHandle) throws RTIexception {
+        AttributeHandleSet attributeHandles = rtiAmbassador.createAttributeHandleSet();
+        for (SimulationProperty<?> property : instanceToAttributeMap.getOrDefault(objectInstanceHandle, new ArrayList<>())) {
+            AttributeHandle attributeHandle = attributeToHandleMap.get(property);
+            if (attributeHandle != null) {
+                attributeHandles.add(attributeHandle);
+            }
+        }
+        return attributeHandles;
+    }
+
     /**
      * destroys all the ObjectInstances
      */
@@ -270,6 +498,13 @@ public class OutgoingDataHandler {
         }
         //Since the Instances dont exist anymore, we should clear the Map
         instanceToAttributeMap.clear();
+        objectIdToInstanceMap.clear();
+        lastSentValues.clear();
+        lastSentNumbers.clear();
+        requestedAttributeUpdates.clear();
+        deadReckonedInstances.clear();
+        lastSentStates.clear();
+        instanceSlots.clear();
     }
 
 }
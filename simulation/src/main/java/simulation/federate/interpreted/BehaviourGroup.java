@@ -0,0 +1,80 @@
+package simulation.federate.interpreted;
+
+import library.model.simulation.IBehaviour;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The behaviours of a hosted object. The steps of the object are skipped as long as all of its behaviours are idle
+ * (see {@link IBehaviour#getIdleTime()}), the next executed step passes the skipped time to the behaviours.
+ */
+final class BehaviourGroup {
+
+    private final List<IBehaviour> behaviours;
+    // time passed since the behaviours were executed the last time
+    private double skippedTime = 0;
+
+    BehaviourGroup(List<IBehaviour> behaviours) {
+        this.behaviours = new ArrayList<>(behaviours);
+    }
+
+    /**
+     * @param timeStepSize the time step size of the federate
+     * @return true if the behaviours are idle in the coming step, so it can be skipped
+     */
+    boolean isIdle(double timeStepSize) {
+        return skippedTime + timeStepSize <= getIdleTime();
+    }
+
+    /**
+     * @param timeStepSize the time step size of the federate
+     * @return the number of following steps in which the behaviours are idle, so they can be skipped
+     */
+    int getIdleSteps(double timeStepSize) {
+        double idleSteps = Math.floor((getIdleTime() - skippedTime) / timeStepSize);
+        return (int) Math.max(0, Math.min(Integer.MAX_VALUE, idleSteps));
+    }
+
+    void skip(double time) {
+        skippedTime += time;
+    }
+
+    /**
+     * Executes the behaviours one after another with the time of the step and the time of the skipped steps before
+     *
+     * @param timeStepSize the time step size of the federate
+     * @return the attribute updates of the behaviours in their order
+     */
+    List<Map<String, Object>> execute(double timeStepSize) {
+        double timePassed = skippedTime + timeStepSize;
+        skippedTime = 0;
+        List<Map<String, Object>> results = new ArrayList<>(behaviours.size());
+        for (IBehaviour behaviour : behaviours) {
+            results.add(behaviour.nextStep(timePassed));
+        }
+        return results;
+    }
+
+    /**
+     * Executes the behaviours with the time of the skipped steps, so they are up to date without executing the coming
+     * step
+     *
+     * @return the attribute updates of the behaviours in their order, empty if no step was skipped
+     */
+    List<Map<String, Object>> catchUp() {
+        if (skippedTime == 0) {
+            return new ArrayList<>();
+        }
+        return execute(0);
+    }
+
+    private double getIdleTime() {
+        double idleTime = Double.POSITIVE_INFINITY;
+        for (IBehaviour behaviour : behaviours) {
+            idleTime = Math.min(idleTime, behaviour.getIdleTime());
+        }
+        return idleTime;
+    }
+}
@@ -2,22 +2,19 @@ package simulation.federate.interpreted;
 
 import hla.rti1516e.AttributeHandle;
 import hla.rti1516e.AttributeHandleSet;
-import hla.rti1516e.CallbackModel;
 import hla.rti1516e.ObjectClassHandle;
 import hla.rti1516e.ObjectInstanceHandle;
+import hla.rti1516e.RegionHandleSet;
 import hla.rti1516e.ResignAction;
 import hla.rti1516e.encoding.EncoderFactory;
 import hla.rti1516e.exceptions.FederateNotExecutionMember;
 import hla.rti1516e.exceptions.FederatesCurrentlyJoined;
 import hla.rti1516e.exceptions.FederationExecutionDoesNotExist;
-import hla.rti1516e.exceptions.InvalidObjectClassHandle;
-import hla.rti1516e.exceptions.NameNotFound;
-import hla.rti1516e.exceptions.NotConnected;
 import hla.rti1516e.exceptions.RTIexception;
-import hla.rti1516e.exceptions.RTIinternalError;
-import hla.rti1516e.time.HLAfloat64TimeFactory;
 import interpreter.ReferenceStore;
+import interpreter.StateStore;
 import interpreter.utils.ReflectionUtils;
+import library.model.dto.observer.ObservedClassDTO;
 import library.model.simulation.Behaviour;
 import library.model.simulation.objects.ActiveSimulationObject;
 import library.model.simulation.objects.DynamicSimulationObject;
@@ -28,18 +25,22 @@ import library.model.simulation.SimulationInteraction;
 import library.model.simulation.objects.SimulationObject;
 import library.model.simulation.SimulationProperty;
 import library.model.simulation.Task;
+import library.model.traffic.TrafficParticipant;
+import library.services.geodata.MapDataProvider;
 import library.services.logging.LoggingService;
 import library.services.logging.LoggingType;
+import library.services.utils.ClassModel;
 import org.apache.commons.lang3.tuple.MutablePair;
 import org.jetbrains.annotations.NotNull;
 import org.portico.impl.hla1516e.Rti1516eFactory;
+import simulation.coordination.Checkpoint;
+import simulation.coordination.CheckpointRecorder;
 import simulation.federate.AbstractFederate;
 import simulation.federate.SimulationFederateAmbassador;
 import simulation.federate.handler.IncomingDataHandler;
 import simulation.federate.handler.OutgoingDataHandler;
+import simulation.federate.rti.RTIAdapter;
 
-import java.beans.IntrospectionException;
-import java.beans.PropertyDescriptor;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.lang.reflect.Field;
@@ -50,16 +51,26 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.LogManager;
 import java.util.logging.Logger;
 
 import static library.services.logging.LoggingService.log;
 
 /**
- * A Federate that is instantiated by the Interpreter and represents (contains and calls) a SimulationObject.
+ * A Federate that is instantiated by the Interpreter and represents (contains and calls) one or more SimulationObjects.
+ * All hosted objects share the RTI connection, the join and the time advance cycle of the federate.
  */
 public class InterpretedFederate extends AbstractFederate {
 
@@ -79,20 +90,42 @@ public class InterpretedFederate extends AbstractFederate {
     private final int iterations;
 
     // SIMULATION CONTENTS
-    private final ReferenceStore referenceStore;
-    private final DynamicSimulationObject simulatedObject;
+    private final List<ReferenceStore> referenceStores;
+    private final List<DynamicSimulationObject> simulatedObjects = new ArrayList<>();
+    private final Map<String, SimulationProperty<?>> simulationAttributesById = new HashMap<>();
+    private StateStore stateStore; // only set if the columnar state store is enabled
 
     // SIMULATION OBJECT STUFF
     private final ArrayList<IBehaviour> behaviours;
+    // the behaviours of each hosted object, the groups are executed in parallel if behaviourThreads > 1
+    private final List<BehaviourGroup> behaviourGroups = new ArrayList<>();
+    // the smallest lookahead of the hosted objects
+    private double lookahead = Double.MAX_VALUE;
+    private ExecutorService behaviourExecutor;
     private ArrayList<SimulationInteraction> interactionsToFire; // TODO implement usage
     private HashMap<String, LinkedBlockingQueue<Task>> taskQueues = new HashMap<>(); // TODO check if a ConcurrentLinkedQueue would be more suitable here.
 
+    // CHECKPOINTS
+    private CheckpointRecorder checkpointRecorder; // only set if the scenario writes a checkpoint
+    private boolean checkpointRecorded = false;
+
     //----------------------------------------------------------
     //                      CONSTRUCTORS
     //----------------------------------------------------------
     public InterpretedFederate(ReferenceStore referenceStore, int iterations) throws FederateNotExecutionMember {
+        this(null, List.of(referenceStore), iterations);
+    }
+
+    /**
+     * Creates a federate hosting several simulation objects, which all need to have the same time step size
+     *
+     * @param groupName       name of the group of objects, used as federate name if more than one object is hosted
+     * @param referenceStores the reference stores of the hosted objects
+     * @param iterations      number of iterations to simulate, unlimited if not positive
+     */
+    public InterpretedFederate(String groupName, List<ReferenceStore> referenceStores, int iterations) throws FederateNotExecutionMember {
 
-        super(referenceStore.getSimulationObject().getTimeStepSize());
+        super(referenceStores.get(0).getSimulationObject().getTimeStepSize());
 
         LoggingService.registerLogger(LoggingType.CONSOLE); // TODO make logger configurable
         Logger logger = Logger.getAnonymousLogger();
@@ -105,12 +138,37 @@ public class InterpretedFederate extends AbstractFederate {
         }
 
         this.LOCK = new Object();
-        this.referenceStore = referenceStore;
-        this.simulatedObject = referenceStore.getSimulationObject();
+        this.referenceStores = new ArrayList<>(referenceStores);
         this.behaviours = new ArrayList<>();
 
-        findAllActiveDynamics(this.simulatedObject, new HashSet<>(), new HashSet<>());
+        for (ReferenceStore referenceStore : referenceStores) {
+            DynamicSimulationObject simulatedObject = referenceStore.getSimulationObject();
+            simulatedObjects.add(simulatedObject);
+            simulationAttributesById.putAll(referenceStore.getUuidToSimulationAttributeBiMap());
+            int firstBehaviour = behaviours.size();
+            findAllActiveDynamics(simulatedObject, simulatedObject, new HashSet<>(), new HashSet<>());
+            List<IBehaviour> objectBehaviours = behaviours.subList(firstBehaviour, behaviours.size());
+            if (!objectBehaviours.isEmpty()) {
+                behaviourGroups.add(new BehaviourGroup(objectBehaviours));
+            }
+            lookahead = Math.min(lookahead, getLookahead(simulatedObject, objectBehaviours));
+        }
+
+        this.iterations = iterations;
+        if (simulatedObjects.size() == 1 || groupName == null) {
+            this.federateName = "Federate(" + getNameOfSimulatedObject(simulatedObjects.get(0)) + ")";
+        } else {
+            this.federateName = "Federate(" + groupName + " - " + simulatedObjects.size() + " objects)";
+        }
+    }
 
+    /**
+     * Searches for a name attribute inside the simulated object
+     *
+     * @param simulatedObject the simulated object
+     * @return the name followed by the id of the object
+     */
+    private String getNameOfSimulatedObject(DynamicSimulationObject simulatedObject) {
         String name = null;
         ArrayList<Field> fieldArrayList = ReflectionUtils.getFieldsOfClass(simulatedObject.getClass());
 
@@ -118,8 +176,7 @@ public class InterpretedFederate extends AbstractFederate {
         for (Field aField : fieldArrayList) {
             if (aField.getName().toLowerCase().contains("name")) {
                 try {
-                    String property = aField.getName();
-                    Method method = new PropertyDescriptor(property, simulatedObject.getClass(), "is" + Character.toUpperCase(property.charAt(0)) + property.substring(1), null).getReadMethod();
+                    Method method = ClassModel.of(simulatedObject.getClass()).getGetter(aField.getName());
                     if (method == null) {
                         continue;
                     }
@@ -132,7 +189,7 @@ public class InterpretedFederate extends AbstractFederate {
                         name = ((SimulationProperty<String>) nameAttribute).getValue();
                     }
                     name = name + " - " + simulatedObject.getId();
-                } catch (IllegalAccessException | InvocationTargetException | IntrospectionException | ClassCastException e) {
+                } catch (IllegalAccessException | InvocationTargetException | ClassCastException e) {
                     e.printStackTrace();
                     // TODO proper error handling
                 }
@@ -141,9 +198,7 @@ public class InterpretedFederate extends AbstractFederate {
         if (name == null || name.isBlank()) {
             name = simulatedObject.getClass().getSimpleName() + "-" + simulatedObject.getId();
         }
-
-        this.iterations = iterations;
-        this.federateName = "Federate(" + name + ")";
+        return name;
     }
 
     ///////////////////////////////////////////////////////////////////////////
@@ -159,17 +214,16 @@ public class InterpretedFederate extends AbstractFederate {
     public void execute() throws Exception {
 
         /////////////////////////////////////////////////
-        // 1 & 2. create the RTIambassador and Connect //
+        // 1 & 2. create the RTI adapter and Connect //
         /////////////////////////////////////////////////
-        log("Creating RTIambassador");
-        rtiAmb = new Rti1516eFactory().getRtiAmbassador();
+        log("Creating RTI adapter (" + rtiImplementation + ")");
+        rtiAmb = RTIAdapter.create(rtiImplementation);
         encoderFactory = new Rti1516eFactory().getEncoderFactory();
 
         // connect with our federate ambassador
         log("Connecting...");
         incomingDataHandler = new IncomingDataHandler(this);
-        fedAmb = new SimulationFederateAmbassador(this, incomingDataHandler);
-        rtiAmb.connect(fedAmb, CallbackModel.HLA_EVOKED);
+        connect();
 
         //////////////////////////////
         // 3. create the federation //
@@ -181,24 +235,31 @@ public class InterpretedFederate extends AbstractFederate {
         // 4. join the federation //
         ////////////////////////////
 
-        //Here the proper FOM-Modules for joining are selected
-        URL[] joinModules = new URL[]{
-                referenceStore.getFom().getPath().toFile().toURI().toURL(),
-                (getClass().getResource("/foms/SimulationFunctions.xml"))
-        };
+        //Here the proper FOM-Modules for joining are selected (objects of the same class share their FOM)
+        Set<URL> fomModules = new LinkedHashSet<>();
+        for (ReferenceStore referenceStore : referenceStores) {
+            fomModules.add(referenceStore.getFom().getPath().toFile().toURI().toURL());
+        }
+        fomModules.add(getClass().getResource("/foms/SimulationFunctions.xml"));
+        URL[] joinModules = fomModules.toArray(new URL[0]);
 
         rtiAmb.joinFederationExecution(this.federateName,    // name for the federate
                 "InterpretedFederate",               // federate type
-                "ExampleFederation",                 // name of federation TODO use a proper name
+                federationName,                      // name of federation
                 joinModules);                           // modules we want to add
 
         log("Joined Federation as " + this.federateName);
 
         // cache the time factory for easy access
-        this.timeFactory = (HLAfloat64TimeFactory) rtiAmb.getTimeFactory();
+        this.timeFactory = rtiAmb.getTimeFactory();
 
         //create the OutgoingDataHandler which will handle our outgoing data traffic
         this.outgoingDataHandler = new OutgoingDataHandler(this, generateTag());
+        if (columnarStateStore) {
+            this.stateStore = new StateStore(referenceStores);
+            outgoingDataHandler.setStateStore(stateStore);
+            log("Keeping " + stateStore.size() + " numeric attributes in the state store");
+        }
 
         ////////////////////////////////
         // 5. announce the sync point //
@@ -209,10 +270,7 @@ public class InterpretedFederate extends AbstractFederate {
         rtiAmb.registerFederationSynchronizationPoint(READY_TO_RUN, null);
 
         // wait until the point is announced
-        while (!fedAmb.isAnnounced()) {
-            rtiAmb.evokeMultipleCallbacks(0.1, 0.2);
-            System.out.println("Still waiting for announce");
-        }
+        awaitCallbacks(fedAmb::isAnnounced);
 
         ///////////////////////////////////////////////////////
         // 6. achieve the point and wait for synchronization //
@@ -229,9 +287,7 @@ public class InterpretedFederate extends AbstractFederate {
         }
 
         //Wait for the sync-point to be achieved by everyone (last one will be the masterFederate)
-        while (!fedAmb.isReadyToRun()) {
-            rtiAmb.evokeMultipleCallbacks(0.1, 0.2);
-        }
+        awaitCallbacks(fedAmb::isReadyToRun);
 
         /////////////////////////////
         // 7. enable time policies //
@@ -246,6 +302,7 @@ public class InterpretedFederate extends AbstractFederate {
         //////////////////////////////
         // in this section we tell the RTI about all the data we are going to
         // produce, and all the data we want to know about
+        enableInterestManagement();
         publish();
         subscribe();
         log("Published and Subscribed");
@@ -255,6 +312,8 @@ public class InterpretedFederate extends AbstractFederate {
         ///////////////////////////////////////
         //register our actual instanced attributes at the RTI
         outgoingDataHandler.registerInstances();
+        associateUpdateRegions();
+        enableDeadReckoning();
 
         // register mainFederateObject for the communication with the MasterFederate
         // mainFederateInstanceHandle = rtiAmb.registerObjectInstance(mainFederateClassHandle);
@@ -262,6 +321,14 @@ public class InterpretedFederate extends AbstractFederate {
         //initially share the values of the attributes
         outgoingDataHandler.updateAttributeValues();
 
+        // a restored run continues at the time of the checkpoint, the values shared above are received before
+        advanceToStartTime();
+
+        if (behaviourThreads > 1 && behaviourGroups.size() > 1) {
+            behaviourExecutor = createBehaviourExecutor(Math.min(behaviourThreads, behaviourGroups.size()));
+            log("Executing behaviours with " + Math.min(behaviourThreads, behaviourGroups.size()) + " threads");
+        }
+
         /////////////////////////////////////
         // 10. do the main simulation loop //
         /////////////////////////////////////
@@ -270,18 +337,46 @@ public class InterpretedFederate extends AbstractFederate {
         // fire all interactions that need to be fired.
         while (!reachedSimulationEnd()) {
 
+            // record the state of the hosted objects once the checkpoint time is reached
+            if (checkpointRecorder != null && !checkpointRecorded && fedAmb.getFederateTime() >= checkpointRecorder.getTime()) {
+                // the current iteration has just been started
+                recordCheckpoint(currentIteration - 1);
+            }
+
+            // move dead reckoned objects of other federates to their estimated positions
+            incomingDataHandler.extrapolatePositions(fedAmb.getFederateTime());
+
             // 9.1 update the attribute values of the instance //
             executeBehaviours();
             executeAllTasks();
+            updateMapPositions();
+
+            // let the regions follow the moved objects, objects whose regions moved may reach new subscribers
+            if (interestManagementHandler != null) {
+                for (ObjectInstanceHandle movedInstance : interestManagementHandler.updateRegions()) {
+                    outgoingDataHandler.provideAttributeValueUpdate(movedInstance, outgoingDataHandler.getPublishedAttributeHandles(movedInstance));
+                }
+            }
 
             // 9.2 reflect the updated values to the RTI and fire Interactions
             outgoingDataHandler.updateAttributeValues();
 
-            // 9.3 request a time advance and wait until we get it
-            advanceTime(timeStepSize);
+            // 9.3 request a time advance and wait until we get it, beyond the steps in which all objects are idle
+            advanceTime(timeStepSize * (1 + skipIdleSteps()));
             log("Time Advanced to " + fedAmb.getFederateTime());
         }
 
+        // the other federates wait for the objects of this one, so a federate ending early records its final state
+        if (checkpointRecorder != null && !checkpointRecorded) {
+            LoggingService.logWithAll(this.federateName + " ended at " + fedAmb.getFederateTime() + " before the checkpoint time "
+                                      + checkpointRecorder.getTime() + ", its final state is checkpointed");
+            recordCheckpoint(currentIteration);
+        }
+
+        if (behaviourExecutor != null) {
+            behaviourExecutor.shutdown();
+        }
+
         //////////////////////////////////////
         // 9. delete the objects we created //
         //////////////////////////////////////
@@ -300,7 +395,7 @@ public class InterpretedFederate extends AbstractFederate {
         // NOTE: we won't die if we can't do this because other federates
         //       remain. in that case we'll leave it for them to clean up
         try {
-            rtiAmb.destroyFederationExecution("ExampleFederation");
+            rtiAmb.destroyFederationExecution(federationName);
             log("Destroyed Federation");
         } catch (FederationExecutionDoesNotExist dne) {
             log("No need to destroy federation, it doesn't exist");
@@ -334,8 +429,11 @@ public class InterpretedFederate extends AbstractFederate {
      * @throws RTIexception
      */
     private void subscribe() throws RTIexception {
+        // objects hosted by this federate are not discovered via the RTI, so they have to observe each other directly
+        linkHostedObjects();
+
         // generate the handles
-        generateDataSubscriptionHandles(simulatedObject.getObservedClasses());
+        generateDataSubscriptionHandles(mergeObservedClasses());
         generateInteractionSubscriptionHandles();
 
         // move the actual subscription to the incoming data handler (or federate ambassador?)
@@ -349,20 +447,22 @@ public class InterpretedFederate extends AbstractFederate {
      * Therefore it iterates over all given objectClass and gives their handles into the Incoming/
      * OutgoingDataHandler
      *
-     * @throws NameNotFound
-     * @throws NotConnected
-     * @throws RTIinternalError
-     * @throws FederateNotExecutionMember
-     * @throws InvalidObjectClassHandle
+     * @throws RTIexception
      */
-    private void generateDataPublicationHandles() throws NameNotFound, NotConnected, RTIinternalError, FederateNotExecutionMember, InvalidObjectClassHandle {
+    private void generateDataPublicationHandles() throws RTIexception {
+        for (ReferenceStore referenceStore : referenceStores) {
+            generateDataPublicationHandles(referenceStore);
+        }
+    }
+
+    private void generateDataPublicationHandles(ReferenceStore referenceStore) throws RTIexception {
 
         SimulationObject simulationObject = referenceStore.getSimulationObject();
         String simulatedObjectFomPath = referenceStore.getFomPathForSimulationObject(simulationObject);
         ObjectClassHandle objectClassHandle = rtiAmb.getObjectClassHandle(simulatedObjectFomPath);
 
         // keeps the attribute handles that should be published
-        AttributeHandleSet publishSet = rtiAmb.getAttributeHandleSetFactory().create();
+        AttributeHandleSet publishSet = rtiAmb.createAttributeHandleSet();
 
         // contains all SimulationProperties of this SimulationObject
         final Set<SimulationProperty<?>> allSimulationProperties = referenceStore.getAllSimulationAttributes();
@@ -397,20 +497,165 @@ public class InterpretedFederate extends AbstractFederate {
         // TODO implement interaction publishing
     }
 
+    /**
+     * Merges the observed classes of all hosted objects, so every class is subscribed once with all attributes needed
+     *
+     * @return the merged observed classes
+     */
+    private List<ObservedClassDTO> mergeObservedClasses() {
+        Map<String, ObservedClassDTO> mergedClasses = new LinkedHashMap<>();
+        List<ObservedClassDTO> withoutFomPath = new ArrayList<>();
+        for (DynamicSimulationObject simulatedObject : simulatedObjects) {
+            for (ObservedClassDTO observedClass : simulatedObject.getObservedClasses()) {
+                if (observedClass.getFomPath() == null) {
+                    withoutFomPath.add(observedClass);
+                    continue;
+                }
+                ObservedClassDTO mergedClass = mergedClasses.get(observedClass.getFomPath());
+                if (mergedClass == null) {
+                    mergedClass = new ObservedClassDTO();
+                    mergedClass.setType(observedClass.getType());
+                    mergedClass.setFomPath(observedClass.getFomPath());
+                    mergedClass.setObjectClass(observedClass.getObjectClass());
+                    mergedClass.setAttributes(new ArrayList<>());
+                    mergedClasses.put(observedClass.getFomPath(), mergedClass);
+                }
+                for (String attribute : observedClass.getAttributes()) {
+                    if (!mergedClass.getAttributes().contains(attribute)) {
+                        mergedClass.getAttributes().add(attribute);
+                    }
+                }
+            }
+        }
+        List<ObservedClassDTO> observedClasses = new ArrayList<>(mergedClasses.values());
+        observedClasses.addAll(withoutFomPath);
+        return observedClasses;
+    }
+
+    /**
+     * Lets every hosted object observe the other hosted objects of the classes it observes
+     */
+    private void linkHostedObjects() {
+        for (DynamicSimulationObject observingObject : simulatedObjects) {
+            for (DynamicSimulationObject observedObject : simulatedObjects) {
+                if (observingObject != observedObject && isObservedBy(observedObject, observingObject)) {
+                    observingObject.addObservedObject(observedObject);
+                }
+            }
+        }
+    }
+
+    private boolean isObservedBy(SimulationObject observedObject, DynamicSimulationObject observingObject) {
+        return observingObject.getObservedClasses()
+                              .stream()
+                              .anyMatch(c -> c.getObjectClass() != null && c.getObjectClass().isInstance(observedObject));
+    }
+
+    /**
+     * Adds regions following the hosted objects for every hosted object observing the class with an interest radius.
+     * If one of the hosted objects is interested in the whole class, the whole class is subscribed.
+     */
+    @Override
+    protected RegionHandleSet createSubscriptionRegions(ObservedClassDTO observedClass) throws RTIexception {
+        List<ObservedClassDTO> interests = new ArrayList<>();
+        List<DynamicSimulationObject> interestedObjects = new ArrayList<>();
+        for (DynamicSimulationObject simulatedObject : simulatedObjects) {
+            for (ObservedClassDTO ownObservedClass : simulatedObject.getObservedClasses()) {
+                if (!Objects.equals(ownObservedClass.getFomPath(), observedClass.getFomPath())) {
+                    continue;
+                }
+                boolean hasPosition = simulatedObject.getPosition() != null && simulatedObject.getPosition().getValue() != null;
+                if (ownObservedClass.getInterestArea() == null && (ownObservedClass.getInterestRadius() <= 0 || !hasPosition)) {
+                    return null;
+                }
+                interests.add(ownObservedClass);
+                interestedObjects.add(simulatedObject);
+            }
+        }
+        if (interests.isEmpty()) {
+            return null;
+        }
+
+        RegionHandleSet regions = interestManagementHandler.createRegionHandleSet();
+        for (int i = 0; i < interests.size(); i++) {
+            ObservedClassDTO interest = interests.get(i);
+            if (interest.getInterestArea() != null) {
+                regions.add(interestManagementHandler.createRegion(interest.getInterestArea()));
+            }
+            if (interest.getInterestRadius() > 0) {
+                regions.add(interestManagementHandler.createRegion(interestedObjects.get(i).getPosition(), interest.getInterestRadius()));
+            }
+        }
+        return regions;
+    }
+
+    /**
+     * Associates a region following the position with the instance of every hosted object, so the RTI only delivers
+     * the updates of an object to federates whose regions of interest contain it
+     */
+    private void associateUpdateRegions() throws RTIexception {
+        if (interestManagementHandler == null) {
+            return;
+        }
+        for (DynamicSimulationObject simulatedObject : simulatedObjects) {
+            ObjectInstanceHandle objectInstanceHandle = outgoingDataHandler.getInstanceHandle(simulatedObject.getId());
+            if (objectInstanceHandle == null || simulatedObject.getPosition() == null || simulatedObject.getPosition().getValue() == null) {
+                continue;
+            }
+            RegionHandleSet regions = interestManagementHandler.createRegionHandleSet();
+            regions.add(interestManagementHandler.createRegion(simulatedObject.getPosition(), 0));
+            interestManagementHandler.associateRegionsForUpdates(objectInstanceHandle,
+                                                                 outgoingDataHandler.getPublishedAttributeHandles(objectInstanceHandle),
+                                                                 regions);
+        }
+    }
+
+    /**
+     * Moves the hosted traffic participants to their new positions in the index of the map, so neighbour queries of
+     * other objects find them where they are
+     */
+    private void updateMapPositions() {
+        for (DynamicSimulationObject simulatedObject : simulatedObjects) {
+            if (simulatedObject instanceof TrafficParticipant) {
+                MapDataProvider mapDataProvider = MapDataProvider.getMap(simulatedObject);
+                if (mapDataProvider != null) {
+                    mapDataProvider.updateTrafficParticipant((TrafficParticipant) simulatedObject);
+                }
+            }
+        }
+    }
+
+    /**
+     * Lets the kinematic state of every hosted traffic participant only be sent when the position extrapolated by the
+     * subscribers drifts further than the dead reckoning threshold
+     */
+    private void enableDeadReckoning() {
+        if (deadReckoningThreshold <= 0) {
+            return;
+        }
+        for (DynamicSimulationObject simulatedObject : simulatedObjects) {
+            ObjectInstanceHandle objectInstanceHandle = outgoingDataHandler.getInstanceHandle(simulatedObject.getId());
+            if (objectInstanceHandle != null && simulatedObject instanceof TrafficParticipant) {
+                outgoingDataHandler.enableDeadReckoning(objectInstanceHandle, (TrafficParticipant) simulatedObject, deadReckoningThreshold);
+            }
+        }
+    }
+
     /**
      * Recursively searches the datastructures of an object for possibly executable implementations of IActiveDynamic
      *
+     * @param simulatedObject the hosted object the found behaviours belong to
      * @param mainObject      the object in which to search for
      * @param iActiveDynamics HashSet for the found IActiveDynamic objects
      * @return HashSet of all found IActiveDynamic Objects
      */
-    private HashSet<IActiveDynamic> findAllActiveDynamics(Object mainObject, HashSet<IActiveDynamic> iActiveDynamics, HashSet<Object> visistedNodes) {
+    private HashSet<IActiveDynamic> findAllActiveDynamics(DynamicSimulationObject simulatedObject, Object mainObject, HashSet<IActiveDynamic> iActiveDynamics, HashSet<Object> visistedNodes) {
         if (mainObject instanceof IActiveDynamic) {
             if (((IActiveDynamic) mainObject).getBehaviour() != null) {
                 IBehaviour behaviour = ((IActiveDynamic) mainObject).getBehaviour();
                 if (behaviour != null) {
                     //Behaviour is executable, save for later execution
-                    behaviour.setSimulationObject(this.simulatedObject);
+                    behaviour.setSimulationObject(simulatedObject);
                     behaviours.add(behaviour);
                 }
             } else if (mainObject instanceof ActiveSimulationObject
@@ -449,17 +694,17 @@ public class InterpretedFederate extends AbstractFederate {
                 visistedNodes.add(anObject);
             }
             if (anObject instanceof SimulationProperty) {
-                iActiveDynamics = findAllActiveDynamics(((SimulationProperty) anObject).getValue(), iActiveDynamics, visistedNodes);
+                iActiveDynamics = findAllActiveDynamics(simulatedObject, ((SimulationProperty) anObject).getValue(), iActiveDynamics, visistedNodes);
             } else if (anObject instanceof Collection) {
                 for (Object secondObject : (Collection) anObject) {
                     if (secondObject instanceof SimulationProperty) {
-                        iActiveDynamics = findAllActiveDynamics(((SimulationProperty) secondObject).getValue(), iActiveDynamics, visistedNodes);
+                        iActiveDynamics = findAllActiveDynamics(simulatedObject, ((SimulationProperty) secondObject).getValue(), iActiveDynamics, visistedNodes);
                     } else {
-                        iActiveDynamics = findAllActiveDynamics(secondObject, iActiveDynamics, visistedNodes);
+                        iActiveDynamics = findAllActiveDynamics(simulatedObject, secondObject, iActiveDynamics, visistedNodes);
                     }
                 }
             } else {
-                iActiveDynamics = findAllActiveDynamics(anObject, iActiveDynamics, visistedNodes);
+                iActiveDynamics = findAllActiveDynamics(simulatedObject, anObject, iActiveDynamics, visistedNodes);
             }
         }
 
@@ -469,23 +714,178 @@ public class InterpretedFederate extends AbstractFederate {
     /**
      * execute all behaviours in the simulated object
      * usually called once in each time cycle
+     * <p>
+     * The behaviours don't change any attribute themselves, their results are pushed as tasks which are only applied by
+     * executeAllTasks once all behaviours of the time step are done. So every behaviour sees the state of the previous
+     * time step, no matter in which order (or on which thread) the behaviours are executed.
+     * With more than one behaviour thread the behaviours of different hosted objects are executed in parallel, the
+     * behaviours of one object are still executed one after another. The results are pushed in the order of the
+     * behaviours, so they are the same as with sequential execution.
+     * The behaviours of objects whose behaviours are all idle aren't executed, they get the skipped time passed once
+     * they are executed again.
      */
     private void executeBehaviours() {
-        for (IBehaviour behaviour : behaviours) {
-            Map<String, Object> attributesToUpdate = behaviour.nextStep(this.timeStepSize);
-            attributesToUpdate.entrySet()
-                    .stream()
-                    .forEach(entry -> pushTask(new Task(entry.getKey(), entry.getValue())));
+        List<BehaviourGroup> dueGroups = new ArrayList<>(behaviourGroups.size());
+        for (BehaviourGroup behaviourGroup : behaviourGroups) {
+            if (behaviourGroup.isIdle(this.timeStepSize)) {
+                behaviourGroup.skip(this.timeStepSize);
+            } else {
+                dueGroups.add(behaviourGroup);
+            }
+        }
+
+        if (behaviourExecutor == null) {
+            for (BehaviourGroup behaviourGroup : dueGroups) {
+                behaviourGroup.execute(this.timeStepSize).forEach(this::pushTasks);
+            }
+            return;
+        }
+
+        List<Future<List<Map<String, Object>>>> results = new ArrayList<>(dueGroups.size());
+        for (BehaviourGroup behaviourGroup : dueGroups) {
+            results.add(behaviourExecutor.submit(() -> behaviourGroup.execute(this.timeStepSize)));
+        }
+        try {
+            for (Future<List<Map<String, Object>>> result : results) {
+                for (Map<String, Object> attributesToUpdate : result.get()) {
+                    pushTasks(attributesToUpdate);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(this.federateName + " was interrupted while executing behaviours", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Skips the following steps of the federate as long as all hosted objects are idle, so the federate requests one
+     * larger time advance instead of advancing step by step. The skipped steps are counted as iterations and their time
+     * is passed to the behaviours with the next step they execute. The federate only skips up to its maximum idle
+     * advance, the end of the simulation and the checkpoint time, and not while tasks or requested updates are pending.
+     *
+     * @return the number of skipped steps
+     */
+    private int skipIdleSteps() {
+        int steps = (int) Math.min(Integer.MAX_VALUE, Math.floor(maxIdleAdvance / timeStepSize)) - 1;
+        if (steps <= 0 || hasPendingTasks() || outgoingDataHandler.hasRequestedAttributeUpdates()) {
+            return 0;
+        }
+        if (iterations > 0) {
+            steps = Math.min(steps, iterations - currentIteration);
+        }
+        if (checkpointRecorder != null && !checkpointRecorded) {
+            // the checkpoint is recorded in the first step at or after the checkpoint time
+            double stepsToCheckpoint = Math.ceil((checkpointRecorder.getTime() - fedAmb.getFederateTime()) / timeStepSize);
+            steps = (int) Math.min(steps, Math.max(0, stepsToCheckpoint - 1));
         }
+        for (BehaviourGroup behaviourGroup : behaviourGroups) {
+            steps = Math.min(steps, behaviourGroup.getIdleSteps(this.timeStepSize));
+        }
+        if (steps <= 0) {
+            return 0;
+        }
+        for (BehaviourGroup behaviourGroup : behaviourGroups) {
+            behaviourGroup.skip(steps * this.timeStepSize);
+        }
+        currentIteration += steps;
+        return steps;
+    }
+
+    private boolean hasPendingTasks() {
+        return taskQueues.values().stream().anyMatch(taskQueue -> !taskQueue.isEmpty());
+    }
+
+    private void pushTasks(Map<String, Object> attributesToUpdate) {
+        for (Map.Entry<String, Object> entry : attributesToUpdate.entrySet()) {
+            pushTask(new Task(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    /**
+     * Creates the pool executing the behaviours, its threads don't keep the JVM alive
+     */
+    private ExecutorService createBehaviourExecutor(int threads) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, this.federateName + "-behaviour-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     /**
-     * generates a tag as byte[] based on the simulatedObject ID
+     * generates a tag as byte[] based on the simulatedObject ID, or on the federate name if several objects are hosted
      *
      * @return
      */
     private byte[] generateTag() {
-        return this.simulatedObject.getId().getBytes();
+        if (simulatedObjects.size() == 1) {
+            return simulatedObjects.get(0).getId().getBytes();
+        }
+        return this.federateName.getBytes();
+    }
+
+    /**
+     * Hands the state of the hosted objects to the checkpoint recorder. It is called at the beginning of an iteration,
+     * when the tasks of the previous iteration are executed and the behaviours of this one haven't run yet, or once the
+     * federate ended before the checkpoint time.
+     *
+     * @param completedIterations number of iterations the federate has completed
+     */
+    private void recordCheckpoint(int completedIterations) {
+        // idle objects catch up on their skipped steps first, the restored run doesn't know about the skipped time
+        for (BehaviourGroup behaviourGroup : behaviourGroups) {
+            behaviourGroup.catchUp().forEach(this::pushTasks);
+        }
+        List<Checkpoint.ObjectState> objectStates = new ArrayList<>();
+        for (ReferenceStore referenceStore : referenceStores) {
+            Map<String, List<Task>> pendingTasks = new LinkedHashMap<>();
+            for (String attributeId : referenceStore.getUuidToSimulationAttributeBiMap().keySet()) {
+                LinkedBlockingQueue<Task> taskQueue = taskQueues.get(attributeId);
+                if (taskQueue != null && !taskQueue.isEmpty()) {
+                    pendingTasks.put(attributeId, new ArrayList<>(taskQueue));
+                }
+            }
+            objectStates.add(new Checkpoint.ObjectState(referenceStore.getSimulationObject(), fedAmb.getFederateTime(),
+                                                        completedIterations, pendingTasks));
+        }
+        checkpointRecorder.record(objectStates);
+        checkpointRecorded = true;
+        log(this.federateName + " recorded its objects at " + fedAmb.getFederateTime());
+    }
+
+    /**
+     * Continues the hosted objects from a checkpoint. The objects have to be the restored objects of the checkpoint
+     * already (see {@link Checkpoint#restoreObjects}), the federate starts at the time and iteration they were
+     * checkpointed at with the tasks that were pending then. Objects that aren't part of the checkpoint start at the
+     * start time of the checkpoint.
+     *
+     * @param checkpoint the checkpoint the run is restored from
+     */
+    public void restoreFrom(Checkpoint checkpoint) {
+        this.startTime = checkpoint.getStartTime();
+        this.currentIteration = (int) Math.round(startTime / timeStepSize);
+        for (DynamicSimulationObject simulatedObject : simulatedObjects) {
+            Checkpoint.ObjectState objectState = checkpoint.getObjectState(simulatedObject.getId());
+            if (objectState == null) {
+                continue;
+            }
+            // all hosted objects have the same time step size, so they were checkpointed at the same time
+            this.startTime = objectState.getTime();
+            this.currentIteration = objectState.getIteration();
+            for (List<Task> tasks : objectState.getPendingTasks().values()) {
+                tasks.forEach(this::pushTask);
+            }
+        }
+    }
+
+    public void setCheckpointRecorder(CheckpointRecorder checkpointRecorder) {
+        this.checkpointRecorder = checkpointRecorder;
     }
 
     /**
@@ -504,14 +904,12 @@ public class InterpretedFederate extends AbstractFederate {
         if (simulationEndIsDetected) {
             LoggingService.logWithAll(this.federateName + "detected end of simulation");
             return true;
-        } else if (iterations > 0) {
-            if (currentIteration >= iterations) {
-                log("Ending Federate after max Iterations of: " + iterations);
-                return true;
-            } else {
-                currentIteration++;
-            }
+        } else if (iterations > 0 && currentIteration >= iterations) {
+            log("Ending Federate after max Iterations of: " + iterations);
+            return true;
         }
+        // the iterations are also counted if they are unlimited, a checkpoint records them for restored runs
+        currentIteration++;
         return false;
     }
 
@@ -520,6 +918,53 @@ public class InterpretedFederate extends AbstractFederate {
         return atSyncPoint;
     }
 
+    @Override
+    protected double getLookahead() {
+        return lookahead;
+    }
+
+    @Override
+    public MapDataProvider getMapDataProvider() {
+        for (DynamicSimulationObject simulatedObject : simulatedObjects) {
+            MapDataProvider mapDataProvider = MapDataProvider.getMap(simulatedObject);
+            if (mapDataProvider != null) {
+                return mapDataProvider;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * An object may configure its lookahead, otherwise the results of a step are visible one time step later plus the
+     * output delay of its behaviours
+     *
+     * @param simulatedObject  a hosted object
+     * @param objectBehaviours the behaviours of the object
+     * @return the lookahead the object allows its federate
+     */
+    private double getLookahead(DynamicSimulationObject simulatedObject, List<IBehaviour> objectBehaviours) {
+        if (simulatedObject instanceof ActiveSimulationObject && ((ActiveSimulationObject) simulatedObject).getLookahead() > 0) {
+            return ((ActiveSimulationObject) simulatedObject).getLookahead();
+        }
+        double outputDelay = objectBehaviours.stream()
+                                             .mapToDouble(IBehaviour::getOutputDelay)
+                                             .min()
+                                             .orElse(0);
+        return timeStepSize + Math.max(0, outputDelay);
+    }
+
+    @Override
+    protected boolean publishesData() {
+        return referenceStores.stream()
+                              .flatMap(referenceStore -> referenceStore.getAllSimulationAttributes().stream())
+                              .anyMatch(SimulationProperty::isPublish);
+    }
+
+    @Override
+    protected boolean subscribesData() {
+        return simulatedObjects.stream().anyMatch(simulatedObject -> !simulatedObject.getObservedClasses().isEmpty());
+    }
+
     public String getFederateName() {
         return federateName;
     }
@@ -528,20 +973,24 @@ public class InterpretedFederate extends AbstractFederate {
     //                     STATIC METHODS
     //----------------------------------------------------------
 
-    public DynamicSimulationObject getSimulatedObject() {
-        return this.simulatedObject;
+    public List<DynamicSimulationObject> getSimulatedObjects() {
+        return this.simulatedObjects;
     }
 
     public Set<SimulationProperty<?>> getAllSimulationAttributeInstances() {
-        return referenceStore.getUuidToSimulationAttributeBiMap().values();
+        return new HashSet<>(simulationAttributesById.values());
     }
 
     public Set<SimulationInteraction> getAllSimulationInteractions() {
-        return referenceStore.getUuidToSimulationInteractionBiMap().values();
+        Set<SimulationInteraction> simulationInteractions = new HashSet<>();
+        for (ReferenceStore referenceStore : referenceStores) {
+            simulationInteractions.addAll(referenceStore.getUuidToSimulationInteractionBiMap().values());
+        }
+        return simulationInteractions;
     }
 
     public SimulationProperty<?> getSimulationAttributeByID(String attributeID) {
-        return referenceStore.getSimulationAttributeByUUID(attributeID);
+        return simulationAttributesById.get(attributeID);
     }
 
     private boolean objectHasAttribute(String attributeID) {
@@ -577,8 +1026,15 @@ public class InterpretedFederate extends AbstractFederate {
     }
 
     public void executeTask(@NotNull Task task) {
+        // numeric attributes are written through their slot in the state store (if there is one)
+        if (stateStore != null) {
+            int slot = stateStore.getSlot(task.getAttributeID());
+            if (slot >= 0 && stateStore.write(slot, task.getValue())) {
+                return;
+            }
+        }
         //Check if the TrafficParticipant contains a SimulationAttribute with the SimulationAttributeID
-        SimulationProperty propertyToUpdate = referenceStore.getSimulationAttributeByUUID(task.getAttributeID());
+        SimulationProperty propertyToUpdate = getSimulationAttributeByID(task.getAttributeID());
         if (propertyToUpdate == null) {
             // LOGGER.log(Level.INFO, this.simulationObject.getId() + "  Value to Change couldn't be found.");
             log(task.getAttributeID() + "  Value to update couldn't be found.");
@@ -595,19 +1051,41 @@ public class InterpretedFederate extends AbstractFederate {
         return null;
     }
 
-    public ReferenceStore getReferenceStore() {
-        return referenceStore;
+    public List<ReferenceStore> getReferenceStores() {
+        return referenceStores;
     }
 
     public HashMap<String, LinkedBlockingQueue<Task>> getTaskQueues() {
         return taskQueues;
     }
 
+    @Override
+    public void provideAttributeValueUpdate(ObjectInstanceHandle objectInstanceHandle, AttributeHandleSet attributeHandles) {
+        if (outgoingDataHandler != null) {
+            outgoingDataHandler.provideAttributeValueUpdate(objectInstanceHandle, attributeHandles);
+        }
+    }
+
     @Override
     public void cacheObjectInstance(@NotNull SimulationObject simulationObject,
                                     @NotNull ObjectInstanceHandle objectInstanceHandle) {
         objectInstanceHandleBiMap.put(simulationObject, objectInstanceHandle);
-        this.simulatedObject.addObservedObject(simulationObject);
+        for (DynamicSimulationObject simulatedObject : simulatedObjects) {
+            if (simulatedObjects.size() == 1 || isObservedBy(simulationObject, simulatedObject)) {
+                simulatedObject.addObservedObject(simulationObject);
+            }
+        }
+    }
+
+    @Override
+    public SimulationObject uncacheObjectInstance(ObjectInstanceHandle objectInstanceHandle) {
+        SimulationObject simulationObject = super.uncacheObjectInstance(objectInstanceHandle);
+        if (simulationObject != null) {
+            for (DynamicSimulationObject simulatedObject : simulatedObjects) {
+                simulatedObject.removeObservedObject(simulationObject);
+            }
+        }
+        return simulationObject;
     }
 
 }
@@ -1,15 +1,21 @@
 package simulation.federate.master;
 
 import hla.rti1516e.*;
+import hla.rti1516e.exceptions.FederatesCurrentlyJoined;
 import hla.rti1516e.exceptions.FederationExecutionAlreadyExists;
+import hla.rti1516e.exceptions.FederationExecutionDoesNotExist;
 import hla.rti1516e.exceptions.RTIexception;
 import hla.rti1516e.time.HLAfloat64Interval;
 import hla.rti1516e.time.HLAfloat64Time;
 import hla.rti1516e.time.HLAfloat64TimeFactory;
+import library.model.dto.scenario.RTIImplementation;
+import library.model.dto.scenario.TimeManagementMode;
 import simulation.coordination.SynchronisationPoint;
+import simulation.federate.CallbackMonitor;
+import simulation.federate.AbstractFederate;
+import simulation.federate.rti.RTIAdapter;
 import library.services.logging.LoggingService;
 import library.services.logging.LoggingType;
-import org.portico.impl.hla1516e.Rti1516eFactory;
 
 import java.net.URL;
 import java.util.ArrayList;
@@ -36,25 +42,40 @@ public class MasterFederate implements Runnable {
     private final String federationName;
     private final int iterations;
     private final boolean iterationsUnlimited;
+    private final TimeManagementMode timeManagementMode;
+    private CallbackModel callbackModel = CallbackModel.HLA_EVOKED;
+    private RTIImplementation rtiImplementation = RTIImplementation.PORTICO;
+    private CallbackMonitor callbackMonitor;
 
     private int currentIteration = 0;
+    // logical time the federation starts at, later than 0 if the run is restored from a checkpoint
+    private double startTime = 0;
     private boolean syncPointAnnounced = false;
     private boolean federationFullySynced = false;
     private boolean mainFederateDetected = false;
-    private boolean simulationEndIsDetected = false;
-    private RTIambassador rtiAmb;
+    private volatile boolean simulationEndIsDetected = false;
+    private RTIAdapter rtiAmb;
     private MasterFederateAmbassador fedAmb;
     private ArrayList<ObjectInstanceHandle> mainFederates = new ArrayList<>();
     private HLAfloat64TimeFactory timeFactory; // set when we join
 
     public MasterFederate(int iterations) {
+        this(iterations, TimeManagementMode.LOCKSTEP);
+    }
+
+    public MasterFederate(int iterations, TimeManagementMode timeManagementMode) {
+        this(iterations, timeManagementMode, AbstractFederate.DEFAULT_FEDERATION_NAME);
+    }
+
+    public MasterFederate(int iterations, TimeManagementMode timeManagementMode, String federationName) {
         LoggingService.registerLogger(LoggingType.CONSOLE);
         this.iterations = iterations;
+        this.timeManagementMode = timeManagementMode;
         this.iterationsUnlimited = iterations <= 0;
         this.federateId = UUID.randomUUID().toString();
         this.federateName = "MasterFederate";
         this.federateType = "MasterFederate";
-        this.federationName = "ExampleFederation";
+        this.federationName = federationName;
     }
 
     public void run() {
@@ -66,15 +87,16 @@ public class MasterFederate implements Runnable {
     }
 
     public void runFederate() throws Exception {
-        rtiAmb = new Rti1516eFactory().getRtiAmbassador();
-        fedAmb = new MasterFederateAmbassador(this);
+        rtiAmb = RTIAdapter.create(rtiImplementation);
+        callbackMonitor = new CallbackMonitor(callbackModel);
+        fedAmb = new MasterFederateAmbassador(this, callbackMonitor);
 
-        rtiAmb.connect(fedAmb, CallbackModel.HLA_EVOKED);
+        rtiAmb.connect(fedAmb, callbackModel);
 
         log("Creating Simulation Federation");
         try {
             URL[] modules = new URL[]{getClass().getResource(EMPTY_FOM_PATH)};
-            rtiAmb.createFederationExecution(federationName, modules); // TODO get name from scenario file
+            rtiAmb.createFederationExecution(federationName, modules);
             log("Created Federation");
         } catch (FederationExecutionAlreadyExists exists) {
             log("Did not create federation, it already existed");
@@ -89,11 +111,11 @@ public class MasterFederate implements Runnable {
         log("Joined Federation as " + federateName);
 
         // cache the time factory for easy access
-        this.timeFactory = (HLAfloat64TimeFactory) rtiAmb.getTimeFactory();
+        this.timeFactory = rtiAmb.getTimeFactory();
 
         //Subscribe to Main Federates
         mainFederateClassHandle = rtiAmb.getObjectClassHandle("HLAobjectRoot.MainFederate");
-        AttributeHandleSet handleSet = rtiAmb.getAttributeHandleSetFactory().create();
+        AttributeHandleSet handleSet = rtiAmb.createAttributeHandleSet();
         AttributeHandle attributeHandle = rtiAmb.getAttributeHandle(mainFederateClassHandle, "dummyAttribute");
         handleSet.add(attributeHandle);
 
@@ -106,9 +128,7 @@ public class MasterFederate implements Runnable {
         // Set Up SyncPoint for Blocking
         rtiAmb.registerFederationSynchronizationPoint(SynchronisationPoint.READY_TO_RUN.toString(), null);
 
-        while (!fedAmb.syncPointAnnounced) {
-            rtiAmb.evokeMultipleCallbacks(0.1, 0.2);
-        }
+        callbackMonitor.await(rtiAmb, () -> fedAmb.syncPointAnnounced);
         syncPointAnnounced = true;
 
         synchronized (LOCK) {
@@ -124,13 +144,18 @@ public class MasterFederate implements Runnable {
 
         rtiAmb.synchronizationPointAchieved(SynchronisationPoint.READY_TO_RUN.toString());
 
-        while (!fedAmb.isReadyToRun) {
-            rtiAmb.evokeMultipleCallbacks(0.1, 0.2);
-        }
+        callbackMonitor.await(rtiAmb, () -> fedAmb.isReadyToRun);
 
         enableTimePolicy();
         log("Time Policy Enabled");
 
+        if (startTime > 0) {
+            // the restored federates continue the iterations where they were checkpointed
+            currentIteration = (int) (startTime / fedAmb.federateLookahead);
+            advanceTime(startTime);
+            log("Time Advanced to start time " + fedAmb.federateTime);
+        }
+
         while (!reachedSimulationEnd()) {
             advanceTime();
         }
@@ -141,12 +166,34 @@ public class MasterFederate implements Runnable {
 
         /** Resign after End of Simulation **/
         rtiAmb.resignFederationExecution(ResignAction.NO_ACTION);
+
+        // the federate resigning last destroys the federation, the master may be the last one as well
+        try {
+            rtiAmb.destroyFederationExecution(federationName);
+            log("Destroyed Federation");
+        } catch (FederationExecutionDoesNotExist dne) {
+            log("No need to destroy federation, it doesn't exist");
+        } catch (FederatesCurrentlyJoined fcj) {
+            log("Didn't destroy federation, federates still joined");
+        }
     }
 
     public String getFederateName() {
         return federateName;
     }
 
+    public void setCallbackModel(CallbackModel callbackModel) {
+        this.callbackModel = callbackModel;
+    }
+
+    public void setRtiImplementation(RTIImplementation rtiImplementation) {
+        this.rtiImplementation = rtiImplementation;
+    }
+
+    public void setStartTime(double startTime) {
+        this.startTime = startTime;
+    }
+
     public boolean isSyncPointAnnounced() {
         return syncPointAnnounced;
     }
@@ -184,6 +231,10 @@ public class MasterFederate implements Runnable {
         return false;
     }
 
+    /**
+     * In FREE_FLOW mode the master is only time constrained, so it follows the federation time without
+     * holding back any of the other federates.
+     */
     private void enableTimePolicy() throws Exception {
         // NOTE: Unfortunately, the LogicalTime/LogicalTimeInterval create code is
         //       Portico specific. You will have to alter this if you move to a
@@ -194,11 +245,11 @@ public class MasterFederate implements Runnable {
         ////////////////////////////
         // enable time regulation //
         ////////////////////////////
-        this.rtiAmb.enableTimeRegulation(lookahead);
+        if (timeManagementMode != TimeManagementMode.FREE_FLOW) {
+            this.rtiAmb.enableTimeRegulation(lookahead);
 
-        // tick until we get the callback
-        while (!fedAmb.isRegulating) {
-            rtiAmb.evokeMultipleCallbacks(0.1, 0.2);
+            // wait until we get the callback
+            callbackMonitor.await(rtiAmb, () -> fedAmb.isRegulating);
         }
 
         /////////////////////////////
@@ -208,10 +259,8 @@ public class MasterFederate implements Runnable {
             this.rtiAmb.enableTimeConstrained();
         }
 
-        // tick until we get the callback
-        while (!fedAmb.isConstrained) {
-            rtiAmb.evokeMultipleCallbacks(0.1, 0.2);
-        }
+        // wait until we get the callback
+        callbackMonitor.await(rtiAmb, () -> fedAmb.isConstrained);
     }
 
     /**
@@ -219,24 +268,25 @@ public class MasterFederate implements Runnable {
      * It will then wait until a notification of the time advance grant
      * has been received.
      */
-    private void advanceTime() throws RTIexception {
+    private void advanceTime() throws RTIexception, InterruptedException {
+        advanceTime(fedAmb.federateTime + fedAmb.federateLookahead);
+    }
+
+    private void advanceTime(double requestedTime) throws RTIexception, InterruptedException {
         // request the advance
         fedAmb.isAdvancing = true;
-        HLAfloat64Time time = timeFactory.makeTime(fedAmb.federateTime + fedAmb.federateLookahead);
+        HLAfloat64Time time = timeFactory.makeTime(requestedTime);
         rtiAmb.timeAdvanceRequest(time);
 
-        // wait for the time advance to be granted. ticking will tell the
-        // LRC to start delivering callbacks to the federate
-        while (fedAmb.isAdvancing) {
-            rtiAmb.evokeMultipleCallbacks(0.1, 0.2);
-        }
+        // wait for the time advance to be granted
+        callbackMonitor.await(rtiAmb, () -> !fedAmb.isAdvancing);
     }
 
     private void sendSimulationEndInteraction() throws RTIexception {
         //////////////////////////
         // send the interaction //
         //////////////////////////
-        ParameterHandleValueMap parameters = rtiAmb.getParameterHandleValueMapFactory().create(0);
+        ParameterHandleValueMap parameters = rtiAmb.createParameterHandleValueMap(0);
         HLAfloat64Time time = timeFactory.makeTime(fedAmb.federateTime + fedAmb.federateLookahead);
         rtiAmb.sendInteraction(simulationEndHandle, parameters, generateTag(), time);
         log(" SimulationEnd Interaction was send ");
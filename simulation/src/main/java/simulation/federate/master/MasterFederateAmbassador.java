@@ -3,6 +3,7 @@ package simulation.federate.master;
 import hla.rti1516e.*;
 import hla.rti1516e.time.HLAfloat64Time;
 import simulation.coordination.SynchronisationPoint;
+import simulation.federate.CallbackMonitor;
 
 /**
  * Ambassador for the MasterFederate
@@ -11,19 +12,22 @@ import simulation.coordination.SynchronisationPoint;
 public class MasterFederateAmbassador extends NullFederateAmbassador {
 
     private MasterFederate masterFederate;
+    private CallbackMonitor callbackMonitor;
 
-    protected boolean syncPointAnnounced = false;
-    protected boolean isReadyToRun = false;
+    // volatile, since the callbacks may be delivered by a thread of the RTI (HLA_IMMEDIATE)
+    protected volatile boolean syncPointAnnounced = false;
+    protected volatile boolean isReadyToRun = false;
 
-    protected double federateTime = 0.0;
+    protected volatile double federateTime = 0.0;
     protected double federateLookahead = 1.0;
 
-    protected boolean isRegulating = false;
-    protected boolean isConstrained = false;
-    protected boolean isAdvancing = false;
+    protected volatile boolean isRegulating = false;
+    protected volatile boolean isConstrained = false;
+    protected volatile boolean isAdvancing = false;
 
-    public MasterFederateAmbassador(MasterFederate masterFederate) {
+    public MasterFederateAmbassador(MasterFederate masterFederate, CallbackMonitor callbackMonitor) {
         this.masterFederate = masterFederate;
+        this.callbackMonitor = callbackMonitor;
     }
 
     @Override
@@ -31,6 +35,7 @@ public class MasterFederateAmbassador extends NullFederateAmbassador {
         log("Synchronization point announced: " + label);
         if (label.equals(SynchronisationPoint.READY_TO_RUN.toString())) {
             this.syncPointAnnounced = true;
+            callbackMonitor.signal();
         }
     }
 
@@ -39,6 +44,7 @@ public class MasterFederateAmbassador extends NullFederateAmbassador {
         log("Federation Synchronized: " + label);
         if (label.equals(SynchronisationPoint.READY_TO_RUN.toString())) {
             this.isReadyToRun = true;
+            callbackMonitor.signal();
         }
     }
 
@@ -47,7 +53,7 @@ public class MasterFederateAmbassador extends NullFederateAmbassador {
                                        ObjectClassHandle theObjectClass,
                                        String objectName) {
         if (theObjectClass.equals(this.masterFederate.mainFederateClassHandle)) {
-            this.masterFederate.addMainFederate(theObject);
+            callbackMonitor.dispatch(() -> this.masterFederate.addMainFederate(theObject));
         }
     }
 
@@ -56,7 +62,7 @@ public class MasterFederateAmbassador extends NullFederateAmbassador {
                                      byte[] tag,
                                      OrderType sentOrdering,
                                      FederateAmbassador.SupplementalRemoveInfo removeInfo) {
-        this.masterFederate.removeMainFederate(theObject);
+        callbackMonitor.dispatch(() -> this.masterFederate.removeMainFederate(theObject));
     }
 
     @Override
@@ -131,18 +137,21 @@ public class MasterFederateAmbassador extends NullFederateAmbassador {
     public void timeRegulationEnabled(LogicalTime time) {
         this.federateTime = ((HLAfloat64Time) time).getValue();
         this.isRegulating = true;
+        callbackMonitor.signal();
     }
 
     @Override
     public void timeConstrainedEnabled(LogicalTime time) {
         this.federateTime = ((HLAfloat64Time) time).getValue();
         this.isConstrained = true;
+        callbackMonitor.signal();
     }
 
     @Override
     public void timeAdvanceGrant(LogicalTime time) {
         this.federateTime = ((HLAfloat64Time) time).getValue();
         this.isAdvancing = false;
+        callbackMonitor.signal();
     }
 
     public double getFederateTime() {
@@ -1,21 +1,21 @@
 package simulation.federate.observer;
 
-import hla.rti1516e.CallbackModel;
 import hla.rti1516e.ResignAction;
 import hla.rti1516e.exceptions.FederatesCurrentlyJoined;
 import hla.rti1516e.exceptions.FederationExecutionDoesNotExist;
 import hla.rti1516e.exceptions.RTIexception;
-import hla.rti1516e.time.HLAfloat64TimeFactory;
 import interpreter.utils.ReflectionUtils;
 import library.model.dto.observer.Observer;
 import library.model.simulation.objects.SimulationObject;
 import library.model.simulation.SimulationProperty;
+import library.services.logging.AsyncLogDispatcher;
 import library.services.logging.ConsoleLogger;
 import library.services.logging.ExampleLogger;
 import library.services.logging.FileLogger;
 import library.services.logging.ILogger;
 import library.services.logging.LoggingService;
 import library.services.logging.LoggingType;
+import library.services.logging.OverflowPolicy;
 import library.services.logging.UDPLogger;
 import library.services.logging.WebSocketLogger;
 import org.apache.commons.lang3.StringUtils;
@@ -24,6 +24,7 @@ import org.portico.impl.hla1516e.Rti1516eFactory;
 import simulation.federate.AbstractFederate;
 import simulation.federate.SimulationFederateAmbassador;
 import simulation.federate.handler.IncomingDataHandler;
+import simulation.federate.rti.RTIAdapter;
 
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
@@ -33,9 +34,10 @@ import java.net.URL;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import static library.services.logging.LoggingService.log;
@@ -57,6 +59,8 @@ public class ObserverFederate extends AbstractFederate {
 
     public final double timeStepSize;
 
+    private static final long FLUSH_TIMEOUT_MILLIS = 5000;
+
     //----------------------------------------------------------
     //                   INSTANCE VARIABLES
     //----------------------------------------------------------
@@ -71,7 +75,11 @@ public class ObserverFederate extends AbstractFederate {
     // CONFIGURATION
     private final String address;
     private final int port;
-    private static HashMap<LoggingType, ILogger> loggers = new HashMap<>();
+    // every observer has its own loggers, so simulation runs sharing a JVM don't write into each others outputs
+    private Map<LoggingType, ILogger> loggers = new ConcurrentHashMap<>();
+    // the observed values are logged every time step, so they are written by a background thread. It only runs while
+    // the federate is executed and the logging is asynchronous, otherwise it is null.
+    private volatile AsyncLogDispatcher logDispatcher;
 
     //----------------------------------------------------------
     //                      CONSTRUCTORS
@@ -101,12 +109,32 @@ public class ObserverFederate extends AbstractFederate {
      */
     @Override
     public void execute() throws Exception {
+        if (LoggingService.isAsynchronous()) {
+            logDispatcher = new AsyncLogDispatcher(LoggingService.DEFAULT_BUFFER_CAPACITY,
+                                                   LoggingService.DEFAULT_BATCH_SIZE,
+                                                   OverflowPolicy.BLOCK,
+                                                   () -> loggers,
+                                                   "Observer-" + federationName + "-" + federateName + "-Consumer");
+        }
+        try {
+            observe();
+        } finally {
+            // the background thread ends even if the federate failed
+            AsyncLogDispatcher dispatcher = logDispatcher;
+            logDispatcher = null;
+            if (dispatcher != null) {
+                dispatcher.shutdown(FLUSH_TIMEOUT_MILLIS);
+            }
+        }
+    }
+
+    private void observe() throws Exception {
 
         /////////////////////////////////////////////////
-        // 1 & 2. create the RTIambassador and Connect //
+        // 1 & 2. create the RTI adapter and Connect //
         /////////////////////////////////////////////////
-        log("Creating RTIambassador");
-        rtiAmb = new Rti1516eFactory().getRtiAmbassador();
+        log("Creating RTI adapter (" + rtiImplementation + ")");
+        rtiAmb = RTIAdapter.create(rtiImplementation);
         this.encoderFactory = new Rti1516eFactory().getEncoderFactory();
 
         // connect to the RTI with our ambassador who will receive the RTI callbacks
@@ -115,8 +143,7 @@ public class ObserverFederate extends AbstractFederate {
         //create the IncomingDataHandler which will handle our incoming data traffic
         //tell the federateAmbassador about the handler, so it routes incoming messages into it
         incomingDataHandler = new IncomingDataHandler(this);
-        fedAmb = new SimulationFederateAmbassador(this, incomingDataHandler);
-        rtiAmb.connect(fedAmb, CallbackModel.HLA_EVOKED);
+        connect();
 
         //////////////////////////////
         // 3. create the federation //
@@ -130,13 +157,13 @@ public class ObserverFederate extends AbstractFederate {
         URL[] joinModules = new URL[0];
         rtiAmb.joinFederationExecution("Oberserver(" + this.federateName + ")",
                                        "ObserverFederate",
-                                       "ExampleFederation", // TODO use a proper name
+                                       federationName,
                                        joinModules);
 
         log("Joined Federation as " + federateName);
 
         // cache the time factory for easy access
-        this.timeFactory = (HLAfloat64TimeFactory) rtiAmb.getTimeFactory();
+        this.timeFactory = rtiAmb.getTimeFactory();
 
         ////////////////////////////////
         // 5. announce the sync point //
@@ -147,10 +174,7 @@ public class ObserverFederate extends AbstractFederate {
         rtiAmb.registerFederationSynchronizationPoint(READY_TO_RUN, null);
 
         // wait until the point is announced
-        while (!fedAmb.isAnnounced()) {
-            rtiAmb.evokeMultipleCallbacks(0.1, 0.2);
-            System.out.println("Still waiting for announce");
-        }
+        awaitCallbacks(fedAmb::isAnnounced);
 
         ///////////////////////////////////////////////////////
         // 6. achieve the point and wait for synchronization //
@@ -167,9 +191,7 @@ public class ObserverFederate extends AbstractFederate {
         }
 
         //Wait for the sync-point to be achieved by everyone (last one will be the masterFederate)
-        while (!fedAmb.isReadyToRun()) {
-            rtiAmb.evokeMultipleCallbacks(0.1, 0.2);
-        }
+        awaitCallbacks(fedAmb::isReadyToRun);
 
         /////////////////////////////
         // 7. enable time policies //
@@ -184,9 +206,13 @@ public class ObserverFederate extends AbstractFederate {
         //////////////////////////////
         // in this section we tell the RTI of all the data we are going to
         // produce, and all the data we want to know about
+        enableInterestManagement();
         subscribe();
         log("Subscribed");
 
+        // a restored run continues at the time of the checkpoint
+        advanceToStartTime();
+
         /////////////////////////////////////
         // 9. register an object to update //
         /////////////////////////////////////
@@ -199,6 +225,9 @@ public class ObserverFederate extends AbstractFederate {
         // update the attribute values of the object we registered, and will
         // send an interaction.
         while (!this.simulationEndDetected) {
+            // move dead reckoned objects to their estimated positions
+            incomingDataHandler.extrapolatePositions(fedAmb.getFederateTime());
+
             //log all the observed values in JSN Format
             logAttributesAsJSON();
 
@@ -207,6 +236,9 @@ public class ObserverFederate extends AbstractFederate {
             log("Time Advanced to " + fedAmb.getFederateTime());
         }
 
+        // make sure all observed values are written before the simulation ends
+        removeAllLoggers();
+
         //////////////////////////////////////
         // 11. delete the object we created //
         //////////////////////////////////////
@@ -224,7 +256,7 @@ public class ObserverFederate extends AbstractFederate {
         // NOTE: we won't die if we can't do this because other federates remain.
         //       in that case we'll leave it for them to clean up
         try {
-            rtiAmb.destroyFederationExecution("ExampleFederation");
+            rtiAmb.destroyFederationExecution(federationName);
             log("Destroyed Federation");
         } catch (FederationExecutionDoesNotExist dne) {
             log("No need to destroy federation, it doesn't exist");
@@ -247,51 +279,60 @@ public class ObserverFederate extends AbstractFederate {
      */
     private void logAttributesAsJSON() {
         for (SimulationObject simulationObject : objectInstanceHandleBiMap.keySet()) {
-            StringBuilder jsonString = new StringBuilder();
-            jsonString.append(
-                "{\n" +
-                "\"id\" : \"" + simulationObject.getId() + "\",\n" +
-                "\"type\" : \"" + simulationObject.getClass().getSimpleName() + "\",\n"
-            );
-
-            List<SimulationProperty<?>> attributes = ReflectionUtils.getFieldsOfClass(simulationObject.getClass())
-                                                                     .stream()
-                                                                     .filter(f -> f.getType().equals(SimulationProperty.class))
-                                                                     .map(f -> {
-                                                                         try {
-                                                                             f.setAccessible(true);
-                                                                             return (SimulationProperty<?>) f.get(simulationObject);
-                                                                         } catch (IllegalAccessException e) {
-                                                                             e.printStackTrace();
-                                                                             return null;
-                                                                         }
-                                                                     })
-                                                                     .filter(Objects::nonNull)
-                                                                     .collect(Collectors.toList());
-
-            for (SimulationProperty<?> simulationProperty : attributes) {
-
-                if (simulationProperty == null) {
-                    continue;
-                }
-                String attributeJsonString = getSimulationAttributeAsJsonString(simulationProperty);
-                if (attributeJsonString != null && !attributeJsonString.isBlank()) {
-                    jsonString.append(attributeJsonString);
-                    jsonString.append(",\n");
-                }
+            //Hier müsste noch geschaut werden wie Components verarbeitet werden
+            logWithAll(getAttributesAsJSON(simulationObject));
+        }
+    }
 
+    /**
+     * Builds the JSON representation of the observed attributes of the given object
+     *
+     * @param simulationObject the object to build the JSON for
+     * @return the JSON as logged by this federate
+     */
+    public String getAttributesAsJSON(SimulationObject simulationObject) {
+        StringBuilder jsonString = new StringBuilder();
+        jsonString.append(
+            "{\n" +
+            "\"id\" : \"" + simulationObject.getId() + "\",\n" +
+            "\"type\" : \"" + simulationObject.getClass().getSimpleName() + "\",\n"
+        );
+
+        List<SimulationProperty<?>> attributes = ReflectionUtils.getFieldsOfClass(simulationObject.getClass())
+                                                                 .stream()
+                                                                 .filter(f -> f.getType().equals(SimulationProperty.class))
+                                                                 .map(f -> {
+                                                                     try {
+                                                                         f.setAccessible(true);
+                                                                         return (SimulationProperty<?>) f.get(simulationObject);
+                                                                     } catch (IllegalAccessException e) {
+                                                                         e.printStackTrace();
+                                                                         return null;
+                                                                     }
+                                                                 })
+                                                                 .filter(Objects::nonNull)
+                                                                 .collect(Collectors.toList());
+
+        for (SimulationProperty<?> simulationProperty : attributes) {
+
+            if (simulationProperty == null) {
+                continue;
+            }
+            String attributeJsonString = getSimulationAttributeAsJsonString(simulationProperty);
+            if (attributeJsonString != null && !attributeJsonString.isBlank()) {
+                jsonString.append(attributeJsonString);
+                jsonString.append(",\n");
             }
-            jsonString.append("}");
-            String outputJson = jsonString.toString();
-
-            // clean up
-            outputJson = outputJson.replaceAll(",}", "}");
-            outputJson = outputJson.replaceAll(",\n}", "\n}");
 
-            //Hier müsste noch geschaut werden wie Components verarbeitet werden
-            // System.out.println(outputJson);
-            logWithAll(outputJson);
         }
+        jsonString.append("}");
+        String outputJson = jsonString.toString();
+
+        // clean up
+        outputJson = outputJson.replaceAll(",}", "}");
+        outputJson = outputJson.replaceAll(",\n}", "\n}");
+
+        return outputJson;
     }
 
     private String getSimulationAttributeAsJsonString(@NotNull SimulationProperty<?> simulationProperty) {
@@ -366,6 +407,12 @@ public class ObserverFederate extends AbstractFederate {
         return atSyncPoint;
     }
 
+    @Override
+    protected boolean publishesData() {
+        // observers only observe
+        return false;
+    }
+
     @Override
     public void run() {
         try {
@@ -381,7 +428,12 @@ public class ObserverFederate extends AbstractFederate {
      * @param data
      * @throws IOException
      */
-    public static void logWithAll(String data) {
+    public void logWithAll(String data) {
+        AsyncLogDispatcher dispatcher = logDispatcher;
+        if (dispatcher != null && LoggingService.isAsynchronous()) {
+            dispatcher.dispatch(null, data);
+            return;
+        }
         for (ILogger logger : loggers.values()) {
             try {
                 logger.logData(data);
@@ -397,7 +449,14 @@ public class ObserverFederate extends AbstractFederate {
      * @param loggingType
      * @param data
      */
-    public static void logAttributeToObserve(LoggingType loggingType, String data) {
+    public void logAttributeToObserve(LoggingType loggingType, String data) {
+        AsyncLogDispatcher dispatcher = logDispatcher;
+        if (dispatcher != null && LoggingService.isAsynchronous()) {
+            if (loggers.containsKey(loggingType)) {
+                dispatcher.dispatch(loggingType, data);
+            }
+            return;
+        }
         try {
             if (loggers.containsKey(loggingType)) {
                 loggers.get(loggingType).logData(data);
@@ -425,7 +484,8 @@ public class ObserverFederate extends AbstractFederate {
                 loggers.put(loggingType, new ExampleLogger());
                 return;
             case FILE:
-                loggers.put(loggingType, new FileLogger());
+                // the name of the federation keeps the log files of concurrent runs apart
+                loggers.put(loggingType, new FileLogger(federationName + "_" + federateName));
                 return;
             case CONSOLE:
                 loggers.put(loggingType, new ConsoleLogger());
@@ -442,10 +502,11 @@ public class ObserverFederate extends AbstractFederate {
      * closes and removes all loggers
      */
     public void removeAllLoggers() {
+        flushLogDispatcher();
         for (ILogger logger : loggers.values()) {
             logger.close();
         }
-        loggers = new HashMap<>();
+        loggers = new ConcurrentHashMap<>();
     }
 
     /**
@@ -454,14 +515,26 @@ public class ObserverFederate extends AbstractFederate {
      * @param loggingType
      */
     public void removeLogger(LoggingType loggingType) {
+        flushLogDispatcher();
         loggers.get(loggingType).close();
         loggers.remove(loggingType);
     }
 
-    public static Collection<ILogger> getLoggers() {
+    public Collection<ILogger> getLoggers() {
+        flushLogDispatcher();
         return loggers.values();
     }
 
+    /**
+     * Waits until the observed values logged so far are written, if they are logged asynchronously
+     */
+    private void flushLogDispatcher() {
+        AsyncLogDispatcher dispatcher = logDispatcher;
+        if (dispatcher != null) {
+            dispatcher.flush(FLUSH_TIMEOUT_MILLIS);
+        }
+    }
+
     public Observer getObserver() {
         return this.observer;
     }
@@ -0,0 +1,751 @@
+package simulation.federate.rti;
+
+import hla.rti1516e.AttributeHandle;
+import hla.rti1516e.AttributeHandleSet;
+import hla.rti1516e.AttributeHandleValueMap;
+import hla.rti1516e.AttributeRegionAssociation;
+import hla.rti1516e.AttributeSetRegionSetPairList;
+import hla.rti1516e.DimensionHandle;
+import hla.rti1516e.DimensionHandleSet;
+import hla.rti1516e.FederateAmbassador;
+import hla.rti1516e.FederateHandle;
+import hla.rti1516e.LogicalTime;
+import hla.rti1516e.OrderType;
+import hla.rti1516e.ParameterHandleValueMap;
+import hla.rti1516e.RangeBounds;
+import hla.rti1516e.RegionHandle;
+import hla.rti1516e.ResignAction;
+import hla.rti1516e.SynchronizationPointFailureReason;
+import hla.rti1516e.exceptions.AttributeNotDefined;
+import hla.rti1516e.exceptions.CouldNotOpenFDD;
+import hla.rti1516e.exceptions.ErrorReadingFDD;
+import hla.rti1516e.exceptions.FederateInternalError;
+import hla.rti1516e.exceptions.FederateNameAlreadyInUse;
+import hla.rti1516e.exceptions.FederatesCurrentlyJoined;
+import hla.rti1516e.exceptions.FederationExecutionAlreadyExists;
+import hla.rti1516e.exceptions.FederationExecutionDoesNotExist;
+import hla.rti1516e.exceptions.InTimeAdvancingState;
+import hla.rti1516e.exceptions.InteractionClassNotDefined;
+import hla.rti1516e.exceptions.InvalidDimensionHandle;
+import hla.rti1516e.exceptions.InvalidRegion;
+import hla.rti1516e.exceptions.LogicalTimeAlreadyPassed;
+import hla.rti1516e.exceptions.NameNotFound;
+import hla.rti1516e.exceptions.ObjectClassNotDefined;
+import hla.rti1516e.exceptions.ObjectInstanceNameInUse;
+import hla.rti1516e.exceptions.ObjectInstanceNotKnown;
+import hla.rti1516e.exceptions.SynchronizationPointLabelNotAnnounced;
+import hla.rti1516e.exceptions.TimeConstrainedAlreadyEnabled;
+import hla.rti1516e.exceptions.TimeRegulationAlreadyEnabled;
+import hla.rti1516e.time.HLAfloat64Time;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * A federation execution of the loopback RTI. The federations live in a static registry, so all federates of a JVM
+ * that use the loopback RTI and join the same federation name meet in the same instance.
+ * <p>
+ * Every operation is synchronized on the federation. The callbacks are only put into the callback queues of the
+ * receiving federates, they are delivered later by the thread of the receiver, so no federate ambassador is ever called
+ * while the lock is held.
+ * <p>
+ * Time management follows the conservative HLA rules: a time advance request of a time constrained federate is granted
+ * as soon as the requested time is less than the greatest available logical time (GALT), the minimum of the current or
+ * requested time plus lookahead of all other time regulating federates. Timestamp ordered messages are delivered in
+ * time stamp order right before the grant that reaches their time stamp.
+ */
+final class LoopbackFederation {
+
+    private static final Map<String, LoopbackFederation> FEDERATIONS = new HashMap<>();
+
+    private final String name;
+    private final LoopbackObjectModel objectModel = new LoopbackObjectModel();
+
+    private int nextHandle = 1;
+    private long nextMessage = 0;
+
+    private final List<Member> members = new ArrayList<>();
+    private final Map<String, SynchronizationPoint> synchronizationPoints = new LinkedHashMap<>();
+    private final Map<LoopbackHandle, Instance> instances = new LinkedHashMap<>();
+    private final Set<String> instanceNames = new HashSet<>();
+    private final Map<LoopbackHandle, Region> regions = new HashMap<>();
+
+    private LoopbackFederation(String name) {
+        this.name = name;
+    }
+
+    static LoopbackFederation create(String name, URL[] fomModules)
+            throws FederationExecutionAlreadyExists, CouldNotOpenFDD, ErrorReadingFDD {
+        synchronized (FEDERATIONS) {
+            if (FEDERATIONS.containsKey(name)) {
+                throw new FederationExecutionAlreadyExists(name);
+            }
+            LoopbackFederation federation = new LoopbackFederation(name);
+            federation.addModules(fomModules);
+            FEDERATIONS.put(name, federation);
+            return federation;
+        }
+    }
+
+    static LoopbackFederation get(String name) throws FederationExecutionDoesNotExist {
+        synchronized (FEDERATIONS) {
+            LoopbackFederation federation = FEDERATIONS.get(name);
+            if (federation == null) {
+                throw new FederationExecutionDoesNotExist(name);
+            }
+            return federation;
+        }
+    }
+
+    static void destroy(String name) throws FederationExecutionDoesNotExist, FederatesCurrentlyJoined {
+        synchronized (FEDERATIONS) {
+            LoopbackFederation federation = get(name);
+            synchronized (federation) {
+                if (!federation.members.isEmpty()) {
+                    throw new FederatesCurrentlyJoined(name);
+                }
+            }
+            FEDERATIONS.remove(name);
+        }
+    }
+
+    synchronized void addModules(URL[] fomModules) throws CouldNotOpenFDD, ErrorReadingFDD {
+        if (fomModules != null) {
+            for (URL module : fomModules) {
+                objectModel.addModule(module);
+            }
+        }
+    }
+
+    ///////////////////////////
+    // federation management //
+    ///////////////////////////
+
+    synchronized Member join(String federateName, LoopbackRTIAdapter adapter) throws FederateNameAlreadyInUse {
+        for (Member member : members) {
+            if (member.name.equals(federateName)) {
+                throw new FederateNameAlreadyInUse(federateName);
+            }
+        }
+        Member member = new Member(federateName, adapter, newHandle(LoopbackHandle.Kind.FEDERATE));
+        members.add(member);
+        // synchronization points registered before are announced to late joiners as well
+        for (SynchronizationPoint point : synchronizationPoints.values()) {
+            member.announced.add(point.label);
+            member.enqueue(ambassador -> ambassador.announceSynchronizationPoint(point.label, point.tag));
+        }
+        return member;
+    }
+
+    synchronized void resign(Member member, ResignAction resignAction) {
+        members.remove(member);
+        if (resignAction == ResignAction.DELETE_OBJECTS || resignAction == ResignAction.DELETE_OBJECTS_THEN_DIVEST
+                || resignAction == ResignAction.CANCEL_THEN_DELETE_THEN_DIVEST) {
+            for (Instance instance : new ArrayList<>(instances.values())) {
+                if (instance.owner == member) {
+                    delete(instance, new byte[0]);
+                }
+            }
+        }
+        for (Instance instance : instances.values()) {
+            instance.discoveredBy.remove(member);
+        }
+        for (SynchronizationPoint point : new ArrayList<>(synchronizationPoints.values())) {
+            checkSynchronized(point);
+        }
+        // the resigned federate doesn't hold back the others anymore
+        processGrants();
+    }
+
+    synchronized void registerSynchronizationPoint(Member member, String label, byte[] tag) {
+        if (synchronizationPoints.containsKey(label)) {
+            member.enqueue(ambassador -> ambassador.synchronizationPointRegistrationFailed(
+                    label, SynchronizationPointFailureReason.SYNCHRONIZATION_POINT_LABEL_NOT_UNIQUE));
+            return;
+        }
+        SynchronizationPoint point = new SynchronizationPoint(label, tag != null ? tag : new byte[0]);
+        synchronizationPoints.put(label, point);
+        member.enqueue(ambassador -> ambassador.synchronizationPointRegistrationSucceeded(label));
+        for (Member other : members) {
+            other.announced.add(label);
+            other.enqueue(ambassador -> ambassador.announceSynchronizationPoint(label, point.tag));
+        }
+    }
+
+    synchronized void synchronizationPointAchieved(Member member, String label) throws SynchronizationPointLabelNotAnnounced {
+        SynchronizationPoint point = synchronizationPoints.get(label);
+        if (point == null || !member.announced.contains(label)) {
+            throw new SynchronizationPointLabelNotAnnounced(label);
+        }
+        point.achieved.add(member);
+        checkSynchronized(point);
+    }
+
+    private void checkSynchronized(SynchronizationPoint point) {
+        for (Member member : members) {
+            if (!point.achieved.contains(member)) {
+                return;
+            }
+        }
+        synchronizationPoints.remove(point.label);
+        for (Member member : members) {
+            member.announced.remove(point.label);
+            member.enqueue(ambassador -> ambassador.federationSynchronized(point.label, new LoopbackTypes.FederateHandleSetImpl()));
+        }
+    }
+
+    /////////////////////
+    // time management //
+    /////////////////////
+
+    synchronized void enableTimeRegulation(Member member, double lookahead) throws TimeRegulationAlreadyEnabled {
+        if (member.regulating) {
+            throw new TimeRegulationAlreadyEnabled(member.name);
+        }
+        member.regulating = true;
+        member.lookahead = lookahead;
+        LoopbackTime time = new LoopbackTime(member.time);
+        member.enqueue(ambassador -> ambassador.timeRegulationEnabled(time));
+        processGrants();
+    }
+
+    synchronized void enableTimeConstrained(Member member) throws TimeConstrainedAlreadyEnabled {
+        if (member.constrained) {
+            throw new TimeConstrainedAlreadyEnabled(member.name);
+        }
+        member.constrained = true;
+        LoopbackTime time = new LoopbackTime(member.time);
+        member.enqueue(ambassador -> ambassador.timeConstrainedEnabled(time));
+        processGrants();
+    }
+
+    synchronized void timeAdvanceRequest(Member member, double time) throws InTimeAdvancingState, LogicalTimeAlreadyPassed {
+        if (member.advancing) {
+            throw new InTimeAdvancingState(member.name);
+        }
+        if (time < member.time) {
+            throw new LogicalTimeAlreadyPassed(Double.toString(time));
+        }
+        member.requestedTime = time;
+        member.advancing = true;
+        processGrants();
+    }
+
+    /**
+     * Grants all pending time advance requests that can be granted
+     */
+    private void processGrants() {
+        for (Member member : members) {
+            if (member.advancing && (!member.constrained || member.requestedTime < getGalt(member))) {
+                grant(member);
+            }
+        }
+    }
+
+    /**
+     * @return the greatest available logical time of the federate, nothing with a lower time stamp can reach it anymore
+     */
+    private double getGalt(Member member) {
+        double galt = Double.POSITIVE_INFINITY;
+        for (Member other : members) {
+            if (other != member && other.regulating) {
+                galt = Math.min(galt, (other.advancing ? other.requestedTime : other.time) + other.lookahead);
+            }
+        }
+        return galt;
+    }
+
+    private void grant(Member member) {
+        member.time = member.requestedTime;
+        member.advancing = false;
+        while (!member.timestampOrdered.isEmpty() && member.timestampOrdered.peek().time <= member.time) {
+            member.enqueue(member.timestampOrdered.poll().callback);
+        }
+        LoopbackTime time = new LoopbackTime(member.time);
+        member.enqueue(ambassador -> ambassador.timeAdvanceGrant(time));
+    }
+
+    /**
+     * Delivers the message receive ordered or, if the sender is time regulating, the receiver time constrained and the
+     * message has a time stamp, timestamp ordered
+     */
+    private void deliver(Member sender, Member receiver, LogicalTime<?, ?> time, Message.Delivery receiveOrdered,
+                         Message.Delivery timestampOrdered) {
+        if (time != null && sender.regulating && receiver.constrained) {
+            receiver.timestampOrdered.add(new Message(toDouble(time), nextMessage++,
+                                                      ambassador -> timestampOrdered.deliver(ambassador, time, OrderType.TIMESTAMP)));
+        } else {
+            receiver.enqueue(ambassador -> receiveOrdered.deliver(ambassador, time, OrderType.RECEIVE));
+        }
+    }
+
+    static double toDouble(LogicalTime<?, ?> time) {
+        if (time instanceof HLAfloat64Time) {
+            return ((HLAfloat64Time) time).getValue();
+        }
+        return Double.parseDouble(time.toString());
+    }
+
+    ///////////////////////////////////////
+    // declaration and object management //
+    ///////////////////////////////////////
+
+    synchronized LoopbackHandle getObjectClassHandle(String objectClassName) throws NameNotFound {
+        LoopbackObjectModel.ObjectClass objectClass = objectModel.getObjectClass(objectClassName);
+        if (objectClass == null) {
+            throw new NameNotFound(objectClassName);
+        }
+        return objectClass.handle;
+    }
+
+    synchronized LoopbackHandle getAttributeHandle(LoopbackHandle objectClassHandle, String attributeName)
+            throws ObjectClassNotDefined, NameNotFound {
+        LoopbackHandle attribute = getObjectClass(objectClassHandle).getAttribute(attributeName);
+        if (attribute == null) {
+            throw new NameNotFound(attributeName);
+        }
+        return attribute;
+    }
+
+    synchronized LoopbackHandle getInteractionClassHandle(String interactionClassName) throws NameNotFound {
+        LoopbackObjectModel.InteractionClass interactionClass = objectModel.getInteractionClass(interactionClassName);
+        if (interactionClass == null) {
+            throw new NameNotFound(interactionClassName);
+        }
+        return interactionClass.handle;
+    }
+
+    synchronized void subscribeObjectClassAttributes(Member member, LoopbackHandle objectClassHandle,
+                                                     AttributeHandleSet attributes, RegionHandle[] regionHandles)
+            throws ObjectClassNotDefined, InvalidRegion {
+        LoopbackObjectModel.ObjectClass objectClass = getObjectClass(objectClassHandle);
+        Subscription subscription = member.subscriptions.computeIfAbsent(objectClass, c -> new Subscription());
+        List<Region> subscribedRegions = new ArrayList<>();
+        if (regionHandles != null) {
+            for (RegionHandle regionHandle : regionHandles) {
+                subscribedRegions.add(getRegion(regionHandle));
+            }
+        }
+        for (AttributeHandle attribute : attributes) {
+            if (regionHandles == null) {
+                subscription.unbounded.add(attribute);
+            } else {
+                subscription.regions.computeIfAbsent(attribute, a -> new HashSet<>()).addAll(subscribedRegions);
+            }
+        }
+        // instances registered before are discovered now
+        for (Instance instance : instances.values()) {
+            discover(member, instance);
+        }
+    }
+
+    synchronized void subscribeInteractionClass(Member member, LoopbackHandle interactionClassHandle)
+            throws InteractionClassNotDefined {
+        member.subscribedInteractions.add(getInteractionClass(interactionClassHandle));
+    }
+
+    synchronized LoopbackHandle registerObjectInstance(Member member, LoopbackHandle objectClassHandle, String instanceName)
+            throws ObjectClassNotDefined, ObjectInstanceNameInUse {
+        LoopbackObjectModel.ObjectClass objectClass = getObjectClass(objectClassHandle);
+        LoopbackHandle handle = newHandle(LoopbackHandle.Kind.OBJECT_INSTANCE);
+        if (instanceName == null) {
+            instanceName = "HLAobject_" + handle;
+        }
+        if (!instanceNames.add(instanceName)) {
+            throw new ObjectInstanceNameInUse(instanceName);
+        }
+        Instance instance = new Instance(handle, instanceName, objectClass, member);
+        instances.put(handle, instance);
+        for (Member other : members) {
+            discover(other, instance);
+        }
+        return handle;
+    }
+
+    private void discover(Member member, Instance instance) {
+        if (instance.owner == member || instance.discoveredBy.containsKey(member)) {
+            return;
+        }
+        LoopbackObjectModel.ObjectClass knownClass = getKnownClass(member, instance.objectClass);
+        if (knownClass == null) {
+            return;
+        }
+        instance.discoveredBy.put(member, knownClass);
+        member.enqueue(ambassador -> ambassador.discoverObjectInstance(instance.handle, knownClass.handle, instance.name));
+    }
+
+    /**
+     * @return the most specific subscribed class of the instance class and its superclasses, null if there is none
+     */
+    private static LoopbackObjectModel.ObjectClass getKnownClass(Member member, LoopbackObjectModel.ObjectClass objectClass) {
+        for (LoopbackObjectModel.ObjectClass knownClass = objectClass; knownClass != null; knownClass = knownClass.parent) {
+            if (member.subscriptions.containsKey(knownClass)) {
+                return knownClass;
+            }
+        }
+        return null;
+    }
+
+    synchronized void updateAttributeValues(Member member, LoopbackHandle instanceHandle, AttributeHandleValueMap attributeValues,
+                                            byte[] tag, LogicalTime<?, ?> time) throws ObjectInstanceNotKnown {
+        Instance instance = getInstance(instanceHandle);
+        byte[] userSuppliedTag = tag != null ? tag : new byte[0];
+        for (Map.Entry<Member, LoopbackObjectModel.ObjectClass> discovered : instance.discoveredBy.entrySet()) {
+            Member receiver = discovered.getKey();
+            Subscription subscription = receiver.subscriptions.get(discovered.getValue());
+            // every receiver gets its own map, the values themselves are shared
+            AttributeHandleValueMap reflected = new LoopbackTypes.AttributeHandleValueMapImpl(attributeValues.size());
+            for (Map.Entry<AttributeHandle, byte[]> attributeValue : attributeValues.entrySet()) {
+                if (subscription.isInterested(attributeValue.getKey(), instance.updateRegions.get(attributeValue.getKey()))) {
+                    reflected.put(attributeValue.getKey(), attributeValue.getValue());
+                }
+            }
+            if (reflected.isEmpty()) {
+                continue;
+            }
+            Message.Delivery reflect = (ambassador, reflectTime, order) -> ambassador.reflectAttributeValues(
+                    instance.handle, reflected, userSuppliedTag, order, null, reflectTime, order, null);
+            deliver(member, receiver, time, reflect, reflect);
+        }
+    }
+
+    synchronized void requestAttributeValueUpdate(LoopbackHandle instanceHandle, AttributeHandleSet attributes, byte[] tag)
+            throws ObjectInstanceNotKnown {
+        Instance instance = getInstance(instanceHandle);
+        byte[] userSuppliedTag = tag != null ? tag : new byte[0];
+        instance.owner.enqueue(ambassador -> ambassador.provideAttributeValueUpdate(instance.handle, attributes, userSuppliedTag));
+    }
+
+    synchronized void requestAttributeValueUpdate(Member member, LoopbackHandle objectClassHandle, AttributeHandleSet attributes, byte[] tag)
+            throws ObjectClassNotDefined {
+        LoopbackObjectModel.ObjectClass objectClass = getObjectClass(objectClassHandle);
+        byte[] userSuppliedTag = tag != null ? tag : new byte[0];
+        // the instances of the class and its subclasses, the requesting member doesn't provide values to itself
+        for (Instance instance : instances.values()) {
+            if (instance.owner != member && isSubclassOf(instance.objectClass, objectClass)) {
+                instance.owner.enqueue(ambassador -> ambassador.provideAttributeValueUpdate(instance.handle, attributes, userSuppliedTag));
+            }
+        }
+    }
+
+    private static boolean isSubclassOf(LoopbackObjectModel.ObjectClass objectClass, LoopbackObjectModel.ObjectClass superclass) {
+        for (LoopbackObjectModel.ObjectClass current = objectClass; current != null; current = current.parent) {
+            if (current == superclass) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    synchronized void deleteObjectInstance(LoopbackHandle instanceHandle, byte[] tag) throws ObjectInstanceNotKnown {
+        delete(getInstance(instanceHandle), tag != null ? tag : new byte[0]);
+    }
+
+    private void delete(Instance instance, byte[] tag) {
+        instances.remove(instance.handle);
+        instanceNames.remove(instance.name);
+        for (Member receiver : instance.discoveredBy.keySet()) {
+            receiver.enqueue(ambassador -> ambassador.removeObjectInstance(instance.handle, tag, OrderType.RECEIVE, null));
+        }
+    }
+
+    synchronized void sendInteraction(Member member, LoopbackHandle interactionClassHandle, ParameterHandleValueMap parameterValues,
+                                      byte[] tag, LogicalTime<?, ?> time) throws InteractionClassNotDefined {
+        LoopbackObjectModel.InteractionClass interactionClass = getInteractionClass(interactionClassHandle);
+        byte[] userSuppliedTag = tag != null ? tag : new byte[0];
+        for (Member receiver : members) {
+            if (receiver == member) {
+                continue;
+            }
+            LoopbackObjectModel.InteractionClass knownClass = interactionClass;
+            while (knownClass != null && !receiver.subscribedInteractions.contains(knownClass)) {
+                knownClass = knownClass.parent;
+            }
+            if (knownClass == null) {
+                continue;
+            }
+            LoopbackHandle knownHandle = knownClass.handle;
+            // every receiver gets its own map, the values themselves are shared
+            ParameterHandleValueMap received = new LoopbackTypes.ParameterHandleValueMapImpl(parameterValues.size());
+            received.putAll(parameterValues);
+            Message.Delivery receive = (ambassador, receiveTime, order) -> ambassador.receiveInteraction(
+                    knownHandle, received, userSuppliedTag, order, null, receiveTime, order, null);
+            deliver(member, receiver, time, receive, receive);
+        }
+    }
+
+    private LoopbackObjectModel.ObjectClass getObjectClass(LoopbackHandle handle) throws ObjectClassNotDefined {
+        LoopbackObjectModel.ObjectClass objectClass = objectModel.getObjectClass(handle);
+        if (objectClass == null) {
+            throw new ObjectClassNotDefined(String.valueOf(handle));
+        }
+        return objectClass;
+    }
+
+    private LoopbackObjectModel.InteractionClass getInteractionClass(LoopbackHandle handle) throws InteractionClassNotDefined {
+        LoopbackObjectModel.InteractionClass interactionClass = objectModel.getInteractionClass(handle);
+        if (interactionClass == null) {
+            throw new InteractionClassNotDefined(String.valueOf(handle));
+        }
+        return interactionClass;
+    }
+
+    private Instance getInstance(LoopbackHandle handle) throws ObjectInstanceNotKnown {
+        Instance instance = instances.get(handle);
+        if (instance == null) {
+            throw new ObjectInstanceNotKnown(String.valueOf(handle));
+        }
+        return instance;
+    }
+
+    //////////////////////////////////
+    // data distribution management //
+    //////////////////////////////////
+
+    synchronized LoopbackHandle getDimensionHandle(String dimensionName) throws NameNotFound {
+        LoopbackObjectModel.Dimension dimension = objectModel.getDimension(dimensionName);
+        if (dimension == null) {
+            throw new NameNotFound(dimensionName);
+        }
+        return dimension.handle;
+    }
+
+    synchronized long getDimensionUpperBound(DimensionHandle dimensionHandle) throws InvalidDimensionHandle {
+        return getDimension(dimensionHandle).upperBound;
+    }
+
+    synchronized LoopbackHandle createRegion(DimensionHandleSet dimensionHandles) throws InvalidDimensionHandle {
+        Region region = new Region(newHandle(LoopbackHandle.Kind.REGION));
+        for (DimensionHandle dimensionHandle : dimensionHandles) {
+            region.bounds.put(dimensionHandle, new long[]{0, getDimension(dimensionHandle).upperBound});
+        }
+        regions.put(region.handle, region);
+        return region.handle;
+    }
+
+    /**
+     * Changes the bounds right away, there is nothing to commit
+     */
+    synchronized void setRangeBounds(RegionHandle regionHandle, DimensionHandle dimensionHandle, RangeBounds rangeBounds)
+            throws InvalidRegion, InvalidDimensionHandle {
+        long[] bounds = getRegion(regionHandle).bounds.get(dimensionHandle);
+        if (bounds == null) {
+            throw new InvalidDimensionHandle(String.valueOf(dimensionHandle));
+        }
+        bounds[0] = rangeBounds.lower;
+        bounds[1] = rangeBounds.upper;
+    }
+
+    synchronized void subscribeObjectClassAttributesWithRegions(Member member, LoopbackHandle objectClassHandle,
+                                                                AttributeSetRegionSetPairList attributesAndRegions)
+            throws ObjectClassNotDefined, InvalidRegion {
+        for (AttributeRegionAssociation association : attributesAndRegions) {
+            subscribeObjectClassAttributes(member, objectClassHandle, association.ahset,
+                                           association.rhset.toArray(new RegionHandle[0]));
+        }
+    }
+
+    synchronized void associateRegionsForUpdates(LoopbackHandle instanceHandle, AttributeSetRegionSetPairList attributesAndRegions)
+            throws ObjectInstanceNotKnown, InvalidRegion, AttributeNotDefined {
+        Instance instance = getInstance(instanceHandle);
+        for (AttributeRegionAssociation association : attributesAndRegions) {
+            List<Region> updateRegions = new ArrayList<>();
+            for (RegionHandle regionHandle : association.rhset) {
+                updateRegions.add(getRegion(regionHandle));
+            }
+            for (AttributeHandle attribute : association.ahset) {
+                instance.updateRegions.computeIfAbsent(attribute, a -> new HashSet<>()).addAll(updateRegions);
+            }
+        }
+    }
+
+    private LoopbackObjectModel.Dimension getDimension(DimensionHandle handle) throws InvalidDimensionHandle {
+        LoopbackObjectModel.Dimension dimension = handle instanceof LoopbackHandle ? objectModel.getDimension((LoopbackHandle) handle) : null;
+        if (dimension == null) {
+            throw new InvalidDimensionHandle(String.valueOf(handle));
+        }
+        return dimension;
+    }
+
+    private Region getRegion(RegionHandle handle) throws InvalidRegion {
+        Region region = regions.get(handle);
+        if (region == null) {
+            throw new InvalidRegion(String.valueOf(handle));
+        }
+        return region;
+    }
+
+    private LoopbackHandle newHandle(LoopbackHandle.Kind kind) {
+        return new LoopbackHandle(kind, nextHandle++);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    /**
+     * A federate joined to the federation
+     */
+    static final class Member {
+
+        final String name;
+        final LoopbackRTIAdapter adapter;
+        final FederateHandle handle;
+
+        private boolean regulating;
+        private boolean constrained;
+        private boolean advancing;
+        private double time;
+        private double requestedTime;
+        private double lookahead;
+        private final PriorityQueue<Message> timestampOrdered = new PriorityQueue<>();
+
+        private final Set<String> announced = new HashSet<>();
+        private final Map<LoopbackObjectModel.ObjectClass, Subscription> subscriptions = new HashMap<>();
+        private final Set<LoopbackObjectModel.InteractionClass> subscribedInteractions = new HashSet<>();
+
+        private Member(String name, LoopbackRTIAdapter adapter, FederateHandle handle) {
+            this.name = name;
+            this.adapter = adapter;
+            this.handle = handle;
+        }
+
+        private void enqueue(Callback callback) {
+            adapter.enqueue(callback);
+        }
+    }
+
+    /**
+     * A callback to deliver to the federate ambassador of a federate
+     */
+    @FunctionalInterface
+    interface Callback {
+
+        void deliver(FederateAmbassador ambassador) throws FederateInternalError;
+    }
+
+    /**
+     * A timestamp ordered message waiting for the time advance of its receiver.
+     * Messages with the same time stamp keep the order they were sent in.
+     */
+    private static final class Message implements Comparable<Message> {
+
+        private final double time;
+        private final long sequenceNumber;
+        private final Callback callback;
+
+        private Message(double time, long sequenceNumber, Callback callback) {
+            this.time = time;
+            this.sequenceNumber = sequenceNumber;
+            this.callback = callback;
+        }
+
+        @Override
+        public int compareTo(Message other) {
+            int comparison = Double.compare(time, other.time);
+            return comparison != 0 ? comparison : Long.compare(sequenceNumber, other.sequenceNumber);
+        }
+
+        @FunctionalInterface
+        private interface Delivery {
+
+            void deliver(FederateAmbassador ambassador, LogicalTime<?, ?> time, OrderType order) throws FederateInternalError;
+        }
+    }
+
+    /**
+     * The subscribed attributes of an object class, each attribute is subscribed without a region (everywhere) or with
+     * a set of regions
+     */
+    private static final class Subscription {
+
+        private final Set<AttributeHandle> unbounded = new HashSet<>();
+        private final Map<AttributeHandle, Set<Region>> regions = new HashMap<>();
+
+        /**
+         * @param attribute     the updated attribute
+         * @param updateRegions the update regions of the attribute, null or empty for the default region
+         */
+        private boolean isInterested(AttributeHandle attribute, Set<Region> updateRegions) {
+            if (unbounded.contains(attribute)) {
+                return true;
+            }
+            Set<Region> subscribedRegions = regions.get(attribute);
+            if (subscribedRegions == null) {
+                return false;
+            }
+            if (updateRegions == null || updateRegions.isEmpty()) {
+                return true;
+            }
+            for (Region subscribedRegion : subscribedRegions) {
+                for (Region updateRegion : updateRegions) {
+                    if (subscribedRegion.overlaps(updateRegion)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class Region {
+
+        private final LoopbackHandle handle;
+        private final Map<DimensionHandle, long[]> bounds = new HashMap<>();
+
+        private Region(LoopbackHandle handle) {
+            this.handle = handle;
+        }
+
+        /**
+         * Two regions overlap if their ranges overlap in every dimension both of them have
+         */
+        private boolean overlaps(Region other) {
+            for (Map.Entry<DimensionHandle, long[]> range : bounds.entrySet()) {
+                long[] otherRange = other.bounds.get(range.getKey());
+                if (otherRange != null && !(range.getValue()[0] < otherRange[1] && otherRange[0] < range.getValue()[1])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class SynchronizationPoint {
+
+        private final String label;
+        private final byte[] tag;
+        private final Set<Member> achieved = new HashSet<>();
+
+        private SynchronizationPoint(String label, byte[] tag) {
+            this.label = label;
+            this.tag = tag;
+        }
+    }
+
+    private static final class Instance {
+
+        private final LoopbackHandle handle;
+        private final String name;
+        private final LoopbackObjectModel.ObjectClass objectClass;
+        private final Member owner;
+        // receivers and the class they know the instance as
+        private final Map<Member, LoopbackObjectModel.ObjectClass> discoveredBy = new LinkedHashMap<>();
+        private final Map<AttributeHandle, Set<Region>> updateRegions = new HashMap<>();
+
+        private Instance(LoopbackHandle handle, String name, LoopbackObjectModel.ObjectClass objectClass, Member owner) {
+            this.handle = handle;
+            this.name = name;
+            this.objectClass = objectClass;
+            this.owner = owner;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package simulation.federate.rti;
+
+import hla.rti1516e.AttributeHandle;
+import hla.rti1516e.DimensionHandle;
+import hla.rti1516e.FederateHandle;
+import hla.rti1516e.InteractionClassHandle;
+import hla.rti1516e.ObjectClassHandle;
+import hla.rti1516e.ObjectInstanceHandle;
+import hla.rti1516e.ParameterHandle;
+import hla.rti1516e.RegionHandle;
+
+/**
+ * Handle of the loopback RTI. One class serves all kinds of handles, handles of different kinds are never equal.
+ */
+final class LoopbackHandle implements ObjectClassHandle, AttributeHandle, InteractionClassHandle, ParameterHandle,
+        ObjectInstanceHandle, DimensionHandle, RegionHandle, FederateHandle {
+
+    private static final long serialVersionUID = 1L;
+
+    enum Kind {
+        OBJECT_CLASS, ATTRIBUTE, INTERACTION_CLASS, PARAMETER, OBJECT_INSTANCE, DIMENSION, REGION, FEDERATE
+    }
+
+    private final Kind kind;
+    private final int value;
+
+    LoopbackHandle(Kind kind, int value) {
+        this.kind = kind;
+        this.value = value;
+    }
+
+    Kind getKind() {
+        return kind;
+    }
+
+    @Override
+    public int encodedLength() {
+        return 4;
+    }
+
+    @Override
+    public void encode(byte[] buffer, int offset) {
+        buffer[offset] = (byte) (value >>> 24);
+        buffer[offset + 1] = (byte) (value >>> 16);
+        buffer[offset + 2] = (byte) (value >>> 8);
+        buffer[offset + 3] = (byte) value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        LoopbackHandle that = (LoopbackHandle) o;
+        return value == that.value && kind == that.kind;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * kind.ordinal() + value;
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(value);
+    }
+}
@@ -0,0 +1,240 @@
+package simulation.federate.rti;
+
+import hla.rti1516e.exceptions.CouldNotOpenFDD;
+import hla.rti1516e.exceptions.ErrorReadingFDD;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.SAXException;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The object classes, interaction classes and dimensions of the FOM modules of a loopback federation.
+ * Modules are merged by the names of their classes, attributes and dimensions, so modules declaring the same class
+ * share its handles. Inherited attributes have the handle of the class declaring them.
+ */
+final class LoopbackObjectModel {
+
+    private static final String OBJECT_ROOT = "HLAobjectRoot";
+    private static final String INTERACTION_ROOT = "HLAinteractionRoot";
+
+    private int nextHandle = 1;
+
+    private final Map<String, ObjectClass> objectClassesByName = new HashMap<>();
+    private final Map<LoopbackHandle, ObjectClass> objectClassesByHandle = new HashMap<>();
+    private final Map<String, InteractionClass> interactionClassesByName = new HashMap<>();
+    private final Map<LoopbackHandle, InteractionClass> interactionClassesByHandle = new HashMap<>();
+    private final Map<String, Dimension> dimensionsByName = new HashMap<>();
+    private final Map<LoopbackHandle, Dimension> dimensionsByHandle = new HashMap<>();
+
+    LoopbackObjectModel() {
+        addObjectClass(null, OBJECT_ROOT);
+        addInteractionClass(null, INTERACTION_ROOT);
+    }
+
+    /**
+     * Reads a FOM module and adds its classes and dimensions
+     *
+     * @param module url of the module
+     */
+    void addModule(URL module) throws CouldNotOpenFDD, ErrorReadingFDD {
+        if (module == null) {
+            throw new CouldNotOpenFDD("FOM module not found");
+        }
+        Document document;
+        try (InputStream inputStream = module.openStream()) {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setNamespaceAware(true);
+            document = factory.newDocumentBuilder().parse(inputStream);
+        } catch (IOException e) {
+            throw new CouldNotOpenFDD("Could not open FOM module " + module, e);
+        } catch (ParserConfigurationException | SAXException e) {
+            throw new ErrorReadingFDD("Could not read FOM module " + module, e);
+        }
+
+        Element root = document.getDocumentElement();
+        for (Element objects : children(root, "objects")) {
+            for (Element objectClass : children(objects, "objectClass")) {
+                readObjectClass(objectClass, null);
+            }
+        }
+        for (Element interactions : children(root, "interactions")) {
+            for (Element interactionClass : children(interactions, "interactionClass")) {
+                readInteractionClass(interactionClass, null);
+            }
+        }
+        for (Element dimensions : children(root, "dimensions")) {
+            for (Element dimension : children(dimensions, "dimension")) {
+                readDimension(dimension);
+            }
+        }
+    }
+
+    private void readObjectClass(Element element, ObjectClass parent) {
+        ObjectClass objectClass = addObjectClass(parent, childText(element, "name"));
+        for (Element attribute : children(element, "attribute")) {
+            String attributeName = childText(attribute, "name");
+            if (objectClass.getAttribute(attributeName) == null) {
+                objectClass.attributes.put(attributeName, new LoopbackHandle(LoopbackHandle.Kind.ATTRIBUTE, nextHandle++));
+            }
+        }
+        for (Element subClass : children(element, "objectClass")) {
+            readObjectClass(subClass, objectClass);
+        }
+    }
+
+    private void readInteractionClass(Element element, InteractionClass parent) {
+        InteractionClass interactionClass = addInteractionClass(parent, childText(element, "name"));
+        for (Element subClass : children(element, "interactionClass")) {
+            readInteractionClass(subClass, interactionClass);
+        }
+    }
+
+    private void readDimension(Element element) {
+        String name = childText(element, "name");
+        if (dimensionsByName.containsKey(name)) {
+            return;
+        }
+        String upperBound = childText(element, "upperBound");
+        Dimension dimension = new Dimension(new LoopbackHandle(LoopbackHandle.Kind.DIMENSION, nextHandle++),
+                                            upperBound.isEmpty() ? Long.MAX_VALUE : Long.parseLong(upperBound));
+        dimensionsByName.put(name, dimension);
+        dimensionsByHandle.put(dimension.handle, dimension);
+    }
+
+    private ObjectClass addObjectClass(ObjectClass parent, String name) {
+        String fullName = parent == null ? name : parent.name + "." + name;
+        ObjectClass objectClass = objectClassesByName.get(fullName);
+        if (objectClass == null) {
+            objectClass = new ObjectClass(fullName, parent, new LoopbackHandle(LoopbackHandle.Kind.OBJECT_CLASS, nextHandle++));
+            objectClassesByName.put(fullName, objectClass);
+            objectClassesByHandle.put(objectClass.handle, objectClass);
+        }
+        return objectClass;
+    }
+
+    private InteractionClass addInteractionClass(InteractionClass parent, String name) {
+        String fullName = parent == null ? name : parent.name + "." + name;
+        InteractionClass interactionClass = interactionClassesByName.get(fullName);
+        if (interactionClass == null) {
+            interactionClass = new InteractionClass(fullName, parent, new LoopbackHandle(LoopbackHandle.Kind.INTERACTION_CLASS, nextHandle++));
+            interactionClassesByName.put(fullName, interactionClass);
+            interactionClassesByHandle.put(interactionClass.handle, interactionClass);
+        }
+        return interactionClass;
+    }
+
+    /**
+     * @param name the name of the class, with or without HLAobjectRoot
+     * @return the class or null if there is no such class
+     */
+    ObjectClass getObjectClass(String name) {
+        ObjectClass objectClass = objectClassesByName.get(name);
+        return objectClass != null ? objectClass : objectClassesByName.get(OBJECT_ROOT + "." + name);
+    }
+
+    ObjectClass getObjectClass(LoopbackHandle handle) {
+        return objectClassesByHandle.get(handle);
+    }
+
+    /**
+     * @param name the name of the class, with or without HLAinteractionRoot
+     * @return the class or null if there is no such class
+     */
+    InteractionClass getInteractionClass(String name) {
+        InteractionClass interactionClass = interactionClassesByName.get(name);
+        return interactionClass != null ? interactionClass : interactionClassesByName.get(INTERACTION_ROOT + "." + name);
+    }
+
+    InteractionClass getInteractionClass(LoopbackHandle handle) {
+        return interactionClassesByHandle.get(handle);
+    }
+
+    Dimension getDimension(String name) {
+        return dimensionsByName.get(name);
+    }
+
+    Dimension getDimension(LoopbackHandle handle) {
+        return dimensionsByHandle.get(handle);
+    }
+
+    private static Iterable<Element> children(Element parent, String localName) {
+        java.util.List<Element> children = new java.util.ArrayList<>();
+        for (Node node = parent.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (node instanceof Element && localName.equals(localName(node))) {
+                children.add((Element) node);
+            }
+        }
+        return children;
+    }
+
+    private static String childText(Element parent, String localName) {
+        for (Element child : children(parent, localName)) {
+            return child.getTextContent().trim();
+        }
+        return "";
+    }
+
+    private static String localName(Node node) {
+        return node.getLocalName() != null ? node.getLocalName() : node.getNodeName();
+    }
+
+    static final class ObjectClass {
+
+        final String name;
+        final ObjectClass parent;
+        final LoopbackHandle handle;
+        // attributes declared by this class
+        private final Map<String, LoopbackHandle> attributes = new HashMap<>();
+
+        private ObjectClass(String name, ObjectClass parent, LoopbackHandle handle) {
+            this.name = name;
+            this.parent = parent;
+            this.handle = handle;
+        }
+
+        /**
+         * @return the handle of the attribute declared by this class or one of its superclasses, null if there is none
+         */
+        LoopbackHandle getAttribute(String attributeName) {
+            for (ObjectClass objectClass = this; objectClass != null; objectClass = objectClass.parent) {
+                LoopbackHandle attribute = objectClass.attributes.get(attributeName);
+                if (attribute != null) {
+                    return attribute;
+                }
+            }
+            return null;
+        }
+    }
+
+    static final class InteractionClass {
+
+        final String name;
+        final InteractionClass parent;
+        final LoopbackHandle handle;
+
+        private InteractionClass(String name, InteractionClass parent, LoopbackHandle handle) {
+            this.name = name;
+            this.parent = parent;
+            this.handle = handle;
+        }
+    }
+
+    static final class Dimension {
+
+        final LoopbackHandle handle;
+        final long upperBound;
+
+        private Dimension(LoopbackHandle handle, long upperBound) {
+            this.handle = handle;
+            this.upperBound = upperBound;
+        }
+    }
+}
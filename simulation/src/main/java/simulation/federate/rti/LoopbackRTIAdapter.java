@@ -0,0 +1,397 @@
+package simulation.federate.rti;
+
+import hla.rti1516e.AttributeHandle;
+import hla.rti1516e.AttributeHandleSet;
+import hla.rti1516e.AttributeHandleValueMap;
+import hla.rti1516e.AttributeSetRegionSetPairList;
+import hla.rti1516e.CallbackModel;
+import hla.rti1516e.DimensionHandle;
+import hla.rti1516e.DimensionHandleSet;
+import hla.rti1516e.FederateAmbassador;
+import hla.rti1516e.InteractionClassHandle;
+import hla.rti1516e.LogicalTime;
+import hla.rti1516e.LogicalTimeInterval;
+import hla.rti1516e.ObjectClassHandle;
+import hla.rti1516e.ObjectInstanceHandle;
+import hla.rti1516e.ParameterHandleValueMap;
+import hla.rti1516e.RangeBounds;
+import hla.rti1516e.RegionHandle;
+import hla.rti1516e.RegionHandleSet;
+import hla.rti1516e.ResignAction;
+import hla.rti1516e.exceptions.AlreadyConnected;
+import hla.rti1516e.exceptions.FederateAlreadyExecutionMember;
+import hla.rti1516e.exceptions.FederateInternalError;
+import hla.rti1516e.exceptions.FederateIsExecutionMember;
+import hla.rti1516e.exceptions.FederateNotExecutionMember;
+import hla.rti1516e.exceptions.InvalidLookahead;
+import hla.rti1516e.exceptions.NotConnected;
+import hla.rti1516e.exceptions.RTIexception;
+import hla.rti1516e.exceptions.RTIinternalError;
+import hla.rti1516e.time.HLAfloat64Interval;
+import hla.rti1516e.time.HLAfloat64TimeFactory;
+
+import java.net.URL;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RTI for federates running in the same JVM. The federates meet in a {@link LoopbackFederation} in memory, attribute
+ * updates and interactions are handed to the receivers as they were sent, without network transport and without
+ * copying the encoded values.
+ * <p>
+ * The callbacks of a federate are queued and delivered by {@link #evokeMultipleCallbacks(double, double)} when using
+ * {@link CallbackModel#HLA_EVOKED}, or by a delivery thread of the adapter when using {@link CallbackModel#HLA_IMMEDIATE}.
+ * Ownership management, save and restore, publication checks and the MOM are not supported.
+ */
+public class LoopbackRTIAdapter implements RTIAdapter {
+
+    private static final HLAfloat64TimeFactory TIME_FACTORY = new LoopbackTime.Factory();
+
+    // put into the queue to stop the delivery thread
+    private static final LoopbackFederation.Callback STOP = ambassador -> {};
+
+    private final BlockingQueue<LoopbackFederation.Callback> callbacks = new LinkedBlockingQueue<>();
+
+    private FederateAmbassador federateAmbassador;
+    private Thread deliveryThread;
+    private LoopbackFederation federation;
+    private LoopbackFederation.Member member;
+
+    void enqueue(LoopbackFederation.Callback callback) {
+        callbacks.add(callback);
+    }
+
+    private void deliver(LoopbackFederation.Callback callback) {
+        try {
+            callback.deliver(federateAmbassador);
+        } catch (FederateInternalError e) {
+            e.printStackTrace();
+        }
+    }
+
+    private synchronized void checkConnected() throws NotConnected {
+        if (federateAmbassador == null) {
+            throw new NotConnected("Not connected to the loopback RTI");
+        }
+    }
+
+    private synchronized LoopbackFederation.Member checkJoined() throws NotConnected, FederateNotExecutionMember {
+        checkConnected();
+        if (member == null) {
+            throw new FederateNotExecutionMember("Not joined to a federation of the loopback RTI");
+        }
+        return member;
+    }
+
+    private synchronized LoopbackFederation getFederation() throws NotConnected, FederateNotExecutionMember {
+        checkJoined();
+        return federation;
+    }
+
+    private static LoopbackHandle handle(Object handle) throws RTIinternalError {
+        if (!(handle instanceof LoopbackHandle)) {
+            throw new RTIinternalError("Not a handle of the loopback RTI: " + handle);
+        }
+        return (LoopbackHandle) handle;
+    }
+
+    ///////////////////////////
+    // federation management //
+    ///////////////////////////
+
+    @Override
+    public synchronized void connect(FederateAmbassador federateAmbassador, CallbackModel callbackModel) throws RTIexception {
+        if (this.federateAmbassador != null) {
+            throw new AlreadyConnected("Already connected to the loopback RTI");
+        }
+        this.federateAmbassador = federateAmbassador;
+        if (callbackModel == CallbackModel.HLA_IMMEDIATE) {
+            deliveryThread = new Thread(this::deliverCallbacks, "LoopbackRTI-callbacks");
+            deliveryThread.setDaemon(true);
+            deliveryThread.start();
+        }
+    }
+
+    private void deliverCallbacks() {
+        try {
+            for (LoopbackFederation.Callback callback = callbacks.take(); callback != STOP; callback = callbacks.take()) {
+                deliver(callback);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public synchronized void disconnect() throws RTIexception {
+        if (member != null) {
+            throw new FederateIsExecutionMember("Resign before disconnecting from the loopback RTI");
+        }
+        if (deliveryThread != null) {
+            callbacks.add(STOP);
+            deliveryThread = null;
+        }
+        federateAmbassador = null;
+    }
+
+    @Override
+    public void createFederationExecution(String federationName, URL[] fomModules) throws RTIexception {
+        checkConnected();
+        LoopbackFederation.create(federationName, fomModules);
+    }
+
+    @Override
+    public void destroyFederationExecution(String federationName) throws RTIexception {
+        checkConnected();
+        LoopbackFederation.destroy(federationName);
+    }
+
+    @Override
+    public void joinFederationExecution(String federateName, String federateType, String federationName,
+                                        URL[] fomModules) throws RTIexception {
+        checkConnected();
+        synchronized (this) {
+            if (member != null) {
+                throw new FederateAlreadyExecutionMember(member.name);
+            }
+        }
+        LoopbackFederation joinedFederation = LoopbackFederation.get(federationName);
+        joinedFederation.addModules(fomModules);
+        LoopbackFederation.Member joinedMember = joinedFederation.join(federateName, this);
+        synchronized (this) {
+            federation = joinedFederation;
+            member = joinedMember;
+        }
+    }
+
+    @Override
+    public void resignFederationExecution(ResignAction resignAction) throws RTIexception {
+        LoopbackFederation.Member resigningMember = checkJoined();
+        getFederation().resign(resigningMember, resignAction);
+        synchronized (this) {
+            federation = null;
+            member = null;
+        }
+    }
+
+    @Override
+    public void registerFederationSynchronizationPoint(String label, byte[] tag) throws RTIexception {
+        getFederation().registerSynchronizationPoint(checkJoined(), label, tag);
+    }
+
+    @Override
+    public void synchronizationPointAchieved(String label) throws RTIexception {
+        getFederation().synchronizationPointAchieved(checkJoined(), label);
+    }
+
+    /**
+     * Waits up to the minimum time for the first callback, then delivers callbacks until none is left or the maximum
+     * time is over
+     */
+    @Override
+    public boolean evokeMultipleCallbacks(double approximateMinimumTimeInSeconds, double approximateMaximumTimeInSeconds) throws RTIexception {
+        checkConnected();
+        long deadline = System.nanoTime() + (long) (approximateMaximumTimeInSeconds * 1e9);
+        try {
+            LoopbackFederation.Callback callback = callbacks.poll((long) (approximateMinimumTimeInSeconds * 1e9), TimeUnit.NANOSECONDS);
+            while (callback != null) {
+                deliver(callback);
+                if (System.nanoTime() >= deadline) {
+                    break;
+                }
+                callback = callbacks.poll();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return !callbacks.isEmpty();
+    }
+
+    /////////////////////
+    // time management //
+    /////////////////////
+
+    @Override
+    public HLAfloat64TimeFactory getTimeFactory() throws RTIexception {
+        checkJoined();
+        return TIME_FACTORY;
+    }
+
+    @Override
+    public void enableTimeRegulation(LogicalTimeInterval<?> lookahead) throws RTIexception {
+        if (!(lookahead instanceof HLAfloat64Interval) || ((HLAfloat64Interval) lookahead).getValue() < 0) {
+            throw new InvalidLookahead(String.valueOf(lookahead));
+        }
+        getFederation().enableTimeRegulation(checkJoined(), ((HLAfloat64Interval) lookahead).getValue());
+    }
+
+    @Override
+    public void enableTimeConstrained() throws RTIexception {
+        getFederation().enableTimeConstrained(checkJoined());
+    }
+
+    @Override
+    public void timeAdvanceRequest(LogicalTime<?, ?> time) throws RTIexception {
+        getFederation().timeAdvanceRequest(checkJoined(), LoopbackFederation.toDouble(time));
+    }
+
+    ///////////////////////////////////////
+    // declaration and object management //
+    ///////////////////////////////////////
+
+    @Override
+    public ObjectClassHandle getObjectClassHandle(String objectClassName) throws RTIexception {
+        return getFederation().getObjectClassHandle(objectClassName);
+    }
+
+    @Override
+    public AttributeHandle getAttributeHandle(ObjectClassHandle objectClassHandle, String attributeName) throws RTIexception {
+        return getFederation().getAttributeHandle(handle(objectClassHandle), attributeName);
+    }
+
+    @Override
+    public InteractionClassHandle getInteractionClassHandle(String interactionClassName) throws RTIexception {
+        return getFederation().getInteractionClassHandle(interactionClassName);
+    }
+
+    /**
+     * Publications aren't checked, every federate may update and send everything
+     */
+    @Override
+    public void publishObjectClassAttributes(ObjectClassHandle objectClassHandle, AttributeHandleSet attributeHandles) throws RTIexception {
+        checkJoined();
+    }
+
+    @Override
+    public void subscribeObjectClassAttributes(ObjectClassHandle objectClassHandle, AttributeHandleSet attributeHandles) throws RTIexception {
+        getFederation().subscribeObjectClassAttributes(checkJoined(), handle(objectClassHandle), attributeHandles, null);
+    }
+
+    @Override
+    public void publishInteractionClass(InteractionClassHandle interactionClassHandle) throws RTIexception {
+        checkJoined();
+    }
+
+    @Override
+    public void subscribeInteractionClass(InteractionClassHandle interactionClassHandle) throws RTIexception {
+        getFederation().subscribeInteractionClass(checkJoined(), handle(interactionClassHandle));
+    }
+
+    @Override
+    public ObjectInstanceHandle registerObjectInstance(ObjectClassHandle objectClassHandle) throws RTIexception {
+        return getFederation().registerObjectInstance(checkJoined(), handle(objectClassHandle), null);
+    }
+
+    @Override
+    public ObjectInstanceHandle registerObjectInstance(ObjectClassHandle objectClassHandle, String objectInstanceName) throws RTIexception {
+        return getFederation().registerObjectInstance(checkJoined(), handle(objectClassHandle), objectInstanceName);
+    }
+
+    @Override
+    public void updateAttributeValues(ObjectInstanceHandle objectInstanceHandle, AttributeHandleValueMap attributeValues,
+                                      byte[] tag, LogicalTime<?, ?> time) throws RTIexception {
+        getFederation().updateAttributeValues(checkJoined(), handle(objectInstanceHandle), attributeValues, tag, time);
+    }
+
+    @Override
+    public void requestAttributeValueUpdate(ObjectInstanceHandle objectInstanceHandle, AttributeHandleSet attributeHandles,
+                                            byte[] tag) throws RTIexception {
+        getFederation().requestAttributeValueUpdate(handle(objectInstanceHandle), attributeHandles, tag);
+    }
+
+    @Override
+    public void requestAttributeValueUpdate(ObjectClassHandle objectClassHandle, AttributeHandleSet attributeHandles,
+                                            byte[] tag) throws RTIexception {
+        getFederation().requestAttributeValueUpdate(checkJoined(), handle(objectClassHandle), attributeHandles, tag);
+    }
+
+    @Override
+    public void deleteObjectInstance(ObjectInstanceHandle objectInstanceHandle, byte[] tag) throws RTIexception {
+        getFederation().deleteObjectInstance(handle(objectInstanceHandle), tag);
+    }
+
+    @Override
+    public void sendInteraction(InteractionClassHandle interactionClassHandle, ParameterHandleValueMap parameterValues,
+                                byte[] tag, LogicalTime<?, ?> time) throws RTIexception {
+        getFederation().sendInteraction(checkJoined(), handle(interactionClassHandle), parameterValues, tag, time);
+    }
+
+    //////////////////////////////////
+    // data distribution management //
+    //////////////////////////////////
+
+    @Override
+    public DimensionHandle getDimensionHandle(String dimensionName) throws RTIexception {
+        return getFederation().getDimensionHandle(dimensionName);
+    }
+
+    @Override
+    public long getDimensionUpperBound(DimensionHandle dimensionHandle) throws RTIexception {
+        return getFederation().getDimensionUpperBound(dimensionHandle);
+    }
+
+    @Override
+    public RegionHandle createRegion(DimensionHandleSet dimensionHandles) throws RTIexception {
+        return getFederation().createRegion(dimensionHandles);
+    }
+
+    @Override
+    public void setRangeBounds(RegionHandle regionHandle, DimensionHandle dimensionHandle, RangeBounds rangeBounds) throws RTIexception {
+        getFederation().setRangeBounds(regionHandle, dimensionHandle, rangeBounds);
+    }
+
+    /**
+     * Range bounds take effect when they are set, so there is nothing to commit
+     */
+    @Override
+    public void commitRegionModifications(RegionHandleSet regionHandles) throws RTIexception {
+        checkJoined();
+    }
+
+    @Override
+    public void subscribeObjectClassAttributesWithRegions(ObjectClassHandle objectClassHandle,
+                                                          AttributeSetRegionSetPairList attributesAndRegions) throws RTIexception {
+        getFederation().subscribeObjectClassAttributesWithRegions(checkJoined(), handle(objectClassHandle), attributesAndRegions);
+    }
+
+    @Override
+    public void associateRegionsForUpdates(ObjectInstanceHandle objectInstanceHandle,
+                                           AttributeSetRegionSetPairList attributesAndRegions) throws RTIexception {
+        getFederation().associateRegionsForUpdates(handle(objectInstanceHandle), attributesAndRegions);
+    }
+
+    ///////////////
+    // factories //
+    ///////////////
+
+    @Override
+    public AttributeHandleSet createAttributeHandleSet() {
+        return new LoopbackTypes.AttributeHandleSetImpl();
+    }
+
+    @Override
+    public AttributeHandleValueMap createAttributeHandleValueMap(int capacity) {
+        return new LoopbackTypes.AttributeHandleValueMapImpl(capacity);
+    }
+
+    @Override
+    public ParameterHandleValueMap createParameterHandleValueMap(int capacity) {
+        return new LoopbackTypes.ParameterHandleValueMapImpl(capacity);
+    }
+
+    @Override
+    public DimensionHandleSet createDimensionHandleSet() {
+        return new LoopbackTypes.DimensionHandleSetImpl();
+    }
+
+    @Override
+    public RegionHandleSet createRegionHandleSet() {
+        return new LoopbackTypes.RegionHandleSetImpl();
+    }
+
+    @Override
+    public AttributeSetRegionSetPairList createAttributeSetRegionSetPairList(int capacity) {
+        return new LoopbackTypes.AttributeSetRegionSetPairListImpl(capacity);
+    }
+}
@@ -0,0 +1,205 @@
+package simulation.federate.rti;
+
+import hla.rti1516e.exceptions.CouldNotDecode;
+import hla.rti1516e.time.HLAfloat64Interval;
+import hla.rti1516e.time.HLAfloat64Time;
+import hla.rti1516e.time.HLAfloat64TimeFactory;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The HLAfloat64Time of the loopback RTI, together with its interval and factory
+ */
+final class LoopbackTime implements HLAfloat64Time {
+
+    private static final long serialVersionUID = 1L;
+
+    private final double value;
+
+    LoopbackTime(double value) {
+        this.value = value;
+    }
+
+    @Override
+    public double getValue() {
+        return value;
+    }
+
+    @Override
+    public boolean isInitial() {
+        return value == 0;
+    }
+
+    @Override
+    public boolean isFinal() {
+        return value == Double.MAX_VALUE;
+    }
+
+    @Override
+    public HLAfloat64Time add(HLAfloat64Interval interval) {
+        return new LoopbackTime(value + interval.getValue());
+    }
+
+    @Override
+    public HLAfloat64Time subtract(HLAfloat64Interval interval) {
+        return new LoopbackTime(value - interval.getValue());
+    }
+
+    @Override
+    public HLAfloat64Interval distance(HLAfloat64Time time) {
+        return new Interval(Math.abs(value - time.getValue()));
+    }
+
+    @Override
+    public int compareTo(HLAfloat64Time time) {
+        return Double.compare(value, time.getValue());
+    }
+
+    @Override
+    public int encodedLength() {
+        return Double.BYTES;
+    }
+
+    @Override
+    public void encode(byte[] buffer, int offset) {
+        ByteBuffer.wrap(buffer, offset, Double.BYTES).putDouble(value);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof HLAfloat64Time && ((HLAfloat64Time) o).getValue() == value;
+    }
+
+    @Override
+    public int hashCode() {
+        return Double.hashCode(value);
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(value);
+    }
+
+    static final class Interval implements HLAfloat64Interval {
+
+        private static final long serialVersionUID = 1L;
+
+        private final double value;
+
+        Interval(double value) {
+            this.value = value;
+        }
+
+        @Override
+        public double getValue() {
+            return value;
+        }
+
+        @Override
+        public boolean isZero() {
+            return value == 0;
+        }
+
+        @Override
+        public boolean isEpsilon() {
+            return value == Double.MIN_VALUE;
+        }
+
+        @Override
+        public HLAfloat64Interval add(HLAfloat64Interval interval) {
+            return new Interval(value + interval.getValue());
+        }
+
+        @Override
+        public HLAfloat64Interval subtract(HLAfloat64Interval interval) {
+            return new Interval(value - interval.getValue());
+        }
+
+        @Override
+        public int compareTo(HLAfloat64Interval interval) {
+            return Double.compare(value, interval.getValue());
+        }
+
+        @Override
+        public int encodedLength() {
+            return Double.BYTES;
+        }
+
+        @Override
+        public void encode(byte[] buffer, int offset) {
+            ByteBuffer.wrap(buffer, offset, Double.BYTES).putDouble(value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof HLAfloat64Interval && ((HLAfloat64Interval) o).getValue() == value;
+        }
+
+        @Override
+        public int hashCode() {
+            return Double.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(value);
+        }
+    }
+
+    static final class Factory implements HLAfloat64TimeFactory {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public HLAfloat64Time makeTime(double value) {
+            return new LoopbackTime(value);
+        }
+
+        @Override
+        public HLAfloat64Interval makeInterval(double value) {
+            return new Interval(value);
+        }
+
+        @Override
+        public HLAfloat64Time decodeTime(byte[] buffer, int offset) throws CouldNotDecode {
+            return new LoopbackTime(decode(buffer, offset));
+        }
+
+        @Override
+        public HLAfloat64Interval decodeInterval(byte[] buffer, int offset) throws CouldNotDecode {
+            return new Interval(decode(buffer, offset));
+        }
+
+        private static double decode(byte[] buffer, int offset) throws CouldNotDecode {
+            if (buffer == null || offset < 0 || buffer.length - offset < Double.BYTES) {
+                throw new CouldNotDecode("Not enough bytes for an HLAfloat64 value");
+            }
+            return ByteBuffer.wrap(buffer, offset, Double.BYTES).getDouble();
+        }
+
+        @Override
+        public HLAfloat64Time makeInitial() {
+            return new LoopbackTime(0);
+        }
+
+        @Override
+        public HLAfloat64Time makeFinal() {
+            return new LoopbackTime(Double.MAX_VALUE);
+        }
+
+        @Override
+        public HLAfloat64Interval makeZero() {
+            return new Interval(0);
+        }
+
+        @Override
+        public HLAfloat64Interval makeEpsilon() {
+            return new Interval(Double.MIN_VALUE);
+        }
+
+        @Override
+        public String getName() {
+            return "HLAfloat64Time";
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package simulation.federate.rti;
+
+import hla.rti1516e.AttributeHandle;
+import hla.rti1516e.AttributeHandleSet;
+import hla.rti1516e.AttributeHandleValueMap;
+import hla.rti1516e.AttributeRegionAssociation;
+import hla.rti1516e.AttributeSetRegionSetPairList;
+import hla.rti1516e.DimensionHandle;
+import hla.rti1516e.DimensionHandleSet;
+import hla.rti1516e.FederateHandle;
+import hla.rti1516e.FederateHandleSet;
+import hla.rti1516e.ParameterHandle;
+import hla.rti1516e.ParameterHandleValueMap;
+import hla.rti1516e.RegionHandle;
+import hla.rti1516e.RegionHandleSet;
+import hla.rti1516e.encoding.ByteWrapper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+
+/**
+ * The handle sets and value maps of the loopback RTI, plain collections implementing the interfaces of the HLA API
+ */
+final class LoopbackTypes {
+
+    private LoopbackTypes() {}
+
+    static final class AttributeHandleSetImpl extends HashSet<AttributeHandle> implements AttributeHandleSet {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public AttributeHandleSetImpl clone() {
+            return (AttributeHandleSetImpl) super.clone();
+        }
+    }
+
+    static final class DimensionHandleSetImpl extends HashSet<DimensionHandle> implements DimensionHandleSet {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public DimensionHandleSetImpl clone() {
+            return (DimensionHandleSetImpl) super.clone();
+        }
+    }
+
+    static final class RegionHandleSetImpl extends HashSet<RegionHandle> implements RegionHandleSet {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public RegionHandleSetImpl clone() {
+            return (RegionHandleSetImpl) super.clone();
+        }
+    }
+
+    static final class FederateHandleSetImpl extends HashSet<FederateHandle> implements FederateHandleSet {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public FederateHandleSetImpl clone() {
+            return (FederateHandleSetImpl) super.clone();
+        }
+    }
+
+    static final class AttributeHandleValueMapImpl extends HashMap<AttributeHandle, byte[]> implements AttributeHandleValueMap {
+
+        private static final long serialVersionUID = 1L;
+
+        AttributeHandleValueMapImpl(int capacity) {
+            super(Math.max(capacity, 1));
+        }
+
+        @Override
+        public ByteWrapper getValueReference(AttributeHandle key) {
+            byte[] value = get(key);
+            return value != null ? new ByteWrapper(value) : null;
+        }
+
+        @Override
+        public ByteWrapper getValueReference(AttributeHandle key, ByteWrapper byteWrapper) {
+            return getValueReference(key);
+        }
+    }
+
+    static final class ParameterHandleValueMapImpl extends HashMap<ParameterHandle, byte[]> implements ParameterHandleValueMap {
+
+        private static final long serialVersionUID = 1L;
+
+        ParameterHandleValueMapImpl(int capacity) {
+            super(Math.max(capacity, 1));
+        }
+
+        @Override
+        public ByteWrapper getValueReference(ParameterHandle key) {
+            byte[] value = get(key);
+            return value != null ? new ByteWrapper(value) : null;
+        }
+
+        @Override
+        public ByteWrapper getValueReference(ParameterHandle key, ByteWrapper byteWrapper) {
+            return getValueReference(key);
+        }
+    }
+
+    static final class AttributeSetRegionSetPairListImpl extends ArrayList<AttributeRegionAssociation> implements AttributeSetRegionSetPairList {
+
+        private static final long serialVersionUID = 1L;
+
+        AttributeSetRegionSetPairListImpl(int capacity) {
+            super(capacity);
+        }
+    }
+}
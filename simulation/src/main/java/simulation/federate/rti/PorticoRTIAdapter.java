@@ -0,0 +1,243 @@
+package simulation.federate.rti;
+
+import hla.rti1516e.AttributeHandle;
+import hla.rti1516e.AttributeHandleSet;
+import hla.rti1516e.AttributeHandleValueMap;
+import hla.rti1516e.AttributeSetRegionSetPairList;
+import hla.rti1516e.CallbackModel;
+import hla.rti1516e.DimensionHandle;
+import hla.rti1516e.DimensionHandleSet;
+import hla.rti1516e.FederateAmbassador;
+import hla.rti1516e.InteractionClassHandle;
+import hla.rti1516e.LogicalTime;
+import hla.rti1516e.LogicalTimeInterval;
+import hla.rti1516e.ObjectClassHandle;
+import hla.rti1516e.ObjectInstanceHandle;
+import hla.rti1516e.ParameterHandleValueMap;
+import hla.rti1516e.RTIambassador;
+import hla.rti1516e.RangeBounds;
+import hla.rti1516e.RegionHandle;
+import hla.rti1516e.RegionHandleSet;
+import hla.rti1516e.ResignAction;
+import hla.rti1516e.exceptions.RTIexception;
+import hla.rti1516e.time.HLAfloat64TimeFactory;
+
+import java.net.URL;
+
+/**
+ * Passes the calls on to an RTIambassador of Portico (or any other RTI implementing the HLA 1516e Java API)
+ */
+public class PorticoRTIAdapter implements RTIAdapter {
+
+    private final RTIambassador rtiAmbassador;
+
+    public PorticoRTIAdapter(RTIambassador rtiAmbassador) {
+        this.rtiAmbassador = rtiAmbassador;
+    }
+
+    @Override
+    public void connect(FederateAmbassador federateAmbassador, CallbackModel callbackModel) throws RTIexception {
+        rtiAmbassador.connect(federateAmbassador, callbackModel);
+    }
+
+    @Override
+    public void disconnect() throws RTIexception {
+        rtiAmbassador.disconnect();
+    }
+
+    @Override
+    public void createFederationExecution(String federationName, URL[] fomModules) throws RTIexception {
+        rtiAmbassador.createFederationExecution(federationName, fomModules);
+    }
+
+    @Override
+    public void destroyFederationExecution(String federationName) throws RTIexception {
+        rtiAmbassador.destroyFederationExecution(federationName);
+    }
+
+    @Override
+    public void joinFederationExecution(String federateName, String federateType, String federationName, URL[] fomModules) throws RTIexception {
+        rtiAmbassador.joinFederationExecution(federateName, federateType, federationName, fomModules);
+    }
+
+    @Override
+    public void resignFederationExecution(ResignAction resignAction) throws RTIexception {
+        rtiAmbassador.resignFederationExecution(resignAction);
+    }
+
+    @Override
+    public void registerFederationSynchronizationPoint(String label, byte[] tag) throws RTIexception {
+        rtiAmbassador.registerFederationSynchronizationPoint(label, tag);
+    }
+
+    @Override
+    public void synchronizationPointAchieved(String label) throws RTIexception {
+        rtiAmbassador.synchronizationPointAchieved(label);
+    }
+
+    @Override
+    public boolean evokeMultipleCallbacks(double approximateMinimumTimeInSeconds, double approximateMaximumTimeInSeconds) throws RTIexception {
+        return rtiAmbassador.evokeMultipleCallbacks(approximateMinimumTimeInSeconds, approximateMaximumTimeInSeconds);
+    }
+
+    @Override
+    public HLAfloat64TimeFactory getTimeFactory() throws RTIexception {
+        return (HLAfloat64TimeFactory) rtiAmbassador.getTimeFactory();
+    }
+
+    @Override
+    public void enableTimeRegulation(LogicalTimeInterval<?> lookahead) throws RTIexception {
+        rtiAmbassador.enableTimeRegulation(lookahead);
+    }
+
+    @Override
+    public void enableTimeConstrained() throws RTIexception {
+        rtiAmbassador.enableTimeConstrained();
+    }
+
+    @Override
+    public void timeAdvanceRequest(LogicalTime<?, ?> time) throws RTIexception {
+        rtiAmbassador.timeAdvanceRequest(time);
+    }
+
+    @Override
+    public ObjectClassHandle getObjectClassHandle(String objectClassName) throws RTIexception {
+        return rtiAmbassador.getObjectClassHandle(objectClassName);
+    }
+
+    @Override
+    public AttributeHandle getAttributeHandle(ObjectClassHandle objectClassHandle, String attributeName) throws RTIexception {
+        return rtiAmbassador.getAttributeHandle(objectClassHandle, attributeName);
+    }
+
+    @Override
+    public InteractionClassHandle getInteractionClassHandle(String interactionClassName) throws RTIexception {
+        return rtiAmbassador.getInteractionClassHandle(interactionClassName);
+    }
+
+    @Override
+    public void publishObjectClassAttributes(ObjectClassHandle objectClassHandle, AttributeHandleSet attributeHandles) throws RTIexception {
+        rtiAmbassador.publishObjectClassAttributes(objectClassHandle, attributeHandles);
+    }
+
+    @Override
+    public void subscribeObjectClassAttributes(ObjectClassHandle objectClassHandle, AttributeHandleSet attributeHandles) throws RTIexception {
+        rtiAmbassador.subscribeObjectClassAttributes(objectClassHandle, attributeHandles);
+    }
+
+    @Override
+    public void publishInteractionClass(InteractionClassHandle interactionClassHandle) throws RTIexception {
+        rtiAmbassador.publishInteractionClass(interactionClassHandle);
+    }
+
+    @Override
+    public void subscribeInteractionClass(InteractionClassHandle interactionClassHandle) throws RTIexception {
+        rtiAmbassador.subscribeInteractionClass(interactionClassHandle);
+    }
+
+    @Override
+    public ObjectInstanceHandle registerObjectInstance(ObjectClassHandle objectClassHandle) throws RTIexception {
+        return rtiAmbassador.registerObjectInstance(objectClassHandle);
+    }
+
+    @Override
+    public ObjectInstanceHandle registerObjectInstance(ObjectClassHandle objectClassHandle, String objectInstanceName) throws RTIexception {
+        return rtiAmbassador.registerObjectInstance(objectClassHandle, objectInstanceName);
+    }
+
+    @Override
+    public void updateAttributeValues(ObjectInstanceHandle objectInstanceHandle, AttributeHandleValueMap attributeValues,
+                                      byte[] tag, LogicalTime<?, ?> time) throws RTIexception {
+        rtiAmbassador.updateAttributeValues(objectInstanceHandle, attributeValues, tag, time);
+    }
+
+    @Override
+    public void requestAttributeValueUpdate(ObjectInstanceHandle objectInstanceHandle, AttributeHandleSet attributeHandles,
+                                            byte[] tag) throws RTIexception {
+        rtiAmbassador.requestAttributeValueUpdate(objectInstanceHandle, attributeHandles, tag);
+    }
+
+    @Override
+    public void requestAttributeValueUpdate(ObjectClassHandle objectClassHandle, AttributeHandleSet attributeHandles,
+                                            byte[] tag) throws RTIexception {
+        rtiAmbassador.requestAttributeValueUpdate(objectClassHandle, attributeHandles, tag);
+    }
+
+    @Override
+    public void deleteObjectInstance(ObjectInstanceHandle objectInstanceHandle, byte[] tag) throws RTIexception {
+        rtiAmbassador.deleteObjectInstance(objectInstanceHandle, tag);
+    }
+
+    @Override
+    public void sendInteraction(InteractionClassHandle interactionClassHandle, ParameterHandleValueMap parameterValues,
+                                byte[] tag, LogicalTime<?, ?> time) throws RTIexception {
+        rtiAmbassador.sendInteraction(interactionClassHandle, parameterValues, tag, time);
+    }
+
+    @Override
+    public DimensionHandle getDimensionHandle(String dimensionName) throws RTIexception {
+        return rtiAmbassador.getDimensionHandle(dimensionName);
+    }
+
+    @Override
+    public long getDimensionUpperBound(DimensionHandle dimensionHandle) throws RTIexception {
+        return rtiAmbassador.getDimensionUpperBound(dimensionHandle);
+    }
+
+    @Override
+    public RegionHandle createRegion(DimensionHandleSet dimensionHandles) throws RTIexception {
+        return rtiAmbassador.createRegion(dimensionHandles);
+    }
+
+    @Override
+    public void setRangeBounds(RegionHandle regionHandle, DimensionHandle dimensionHandle, RangeBounds rangeBounds) throws RTIexception {
+        rtiAmbassador.setRangeBounds(regionHandle, dimensionHandle, rangeBounds);
+    }
+
+    @Override
+    public void commitRegionModifications(RegionHandleSet regionHandles) throws RTIexception {
+        rtiAmbassador.commitRegionModifications(regionHandles);
+    }
+
+    @Override
+    public void subscribeObjectClassAttributesWithRegions(ObjectClassHandle objectClassHandle,
+                                                          AttributeSetRegionSetPairList attributesAndRegions) throws RTIexception {
+        rtiAmbassador.subscribeObjectClassAttributesWithRegions(objectClassHandle, attributesAndRegions);
+    }
+
+    @Override
+    public void associateRegionsForUpdates(ObjectInstanceHandle objectInstanceHandle,
+                                           AttributeSetRegionSetPairList attributesAndRegions) throws RTIexception {
+        rtiAmbassador.associateRegionsForUpdates(objectInstanceHandle, attributesAndRegions);
+    }
+
+    @Override
+    public AttributeHandleSet createAttributeHandleSet() throws RTIexception {
+        return rtiAmbassador.getAttributeHandleSetFactory().create();
+    }
+
+    @Override
+    public AttributeHandleValueMap createAttributeHandleValueMap(int capacity) throws RTIexception {
+        return rtiAmbassador.getAttributeHandleValueMapFactory().create(capacity);
+    }
+
+    @Override
+    public ParameterHandleValueMap createParameterHandleValueMap(int capacity) throws RTIexception {
+        return rtiAmbassador.getParameterHandleValueMapFactory().create(capacity);
+    }
+
+    @Override
+    public DimensionHandleSet createDimensionHandleSet() throws RTIexception {
+        return rtiAmbassador.getDimensionHandleSetFactory().create();
+    }
+
+    @Override
+    public RegionHandleSet createRegionHandleSet() throws RTIexception {
+        return rtiAmbassador.getRegionHandleSetFactory().create();
+    }
+
+    @Override
+    public AttributeSetRegionSetPairList createAttributeSetRegionSetPairList(int capacity) throws RTIexception {
+        return rtiAmbassador.getAttributeSetRegionSetPairListFactory().create(capacity);
+    }
+}
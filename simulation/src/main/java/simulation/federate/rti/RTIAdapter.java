@@ -0,0 +1,160 @@
+package simulation.federate.rti;
+
+import hla.rti1516e.AttributeHandle;
+import hla.rti1516e.AttributeHandleSet;
+import hla.rti1516e.AttributeHandleValueMap;
+import hla.rti1516e.AttributeSetRegionSetPairList;
+import hla.rti1516e.CallbackModel;
+import hla.rti1516e.DimensionHandle;
+import hla.rti1516e.DimensionHandleSet;
+import hla.rti1516e.FederateAmbassador;
+import hla.rti1516e.InteractionClassHandle;
+import hla.rti1516e.LogicalTime;
+import hla.rti1516e.LogicalTimeInterval;
+import hla.rti1516e.ObjectClassHandle;
+import hla.rti1516e.ObjectInstanceHandle;
+import hla.rti1516e.ParameterHandleValueMap;
+import hla.rti1516e.RangeBounds;
+import hla.rti1516e.RegionHandle;
+import hla.rti1516e.RegionHandleSet;
+import hla.rti1516e.ResignAction;
+import hla.rti1516e.exceptions.RTIexception;
+import hla.rti1516e.time.HLAfloat64TimeFactory;
+import library.model.dto.scenario.RTIImplementation;
+import org.portico.impl.hla1516e.Rti1516eFactory;
+
+import java.net.URL;
+
+/**
+ * The services of the RTI used by the federates. The methods behave like the ones of the same name of the
+ * {@link hla.rti1516e.RTIambassador}, the factories of the handle sets and maps are replaced by create methods.
+ * <p>
+ * {@link PorticoRTIAdapter} passes the calls on to Portico, {@link LoopbackRTIAdapter} connects federates running in
+ * the same JVM through memory, without the encoding and the message queues of an RTI.
+ */
+public interface RTIAdapter {
+
+    /**
+     * Creates the adapter of the given RTI implementation
+     *
+     * @param rtiImplementation the RTI to connect with
+     * @return a new, not yet connected adapter
+     */
+    static RTIAdapter create(RTIImplementation rtiImplementation) throws RTIexception {
+        if (rtiImplementation == RTIImplementation.LOOPBACK) {
+            return new LoopbackRTIAdapter();
+        }
+        return new PorticoRTIAdapter(new Rti1516eFactory().getRtiAmbassador());
+    }
+
+    ///////////////////////////
+    // federation management //
+    ///////////////////////////
+
+    void connect(FederateAmbassador federateAmbassador, CallbackModel callbackModel) throws RTIexception;
+
+    void disconnect() throws RTIexception;
+
+    void createFederationExecution(String federationName, URL[] fomModules) throws RTIexception;
+
+    void destroyFederationExecution(String federationName) throws RTIexception;
+
+    void joinFederationExecution(String federateName, String federateType, String federationName, URL[] fomModules) throws RTIexception;
+
+    void resignFederationExecution(ResignAction resignAction) throws RTIexception;
+
+    void registerFederationSynchronizationPoint(String label, byte[] tag) throws RTIexception;
+
+    void synchronizationPointAchieved(String label) throws RTIexception;
+
+    /**
+     * Delivers the pending callbacks when using {@link CallbackModel#HLA_EVOKED}
+     *
+     * @return true if there are still callbacks pending
+     */
+    boolean evokeMultipleCallbacks(double approximateMinimumTimeInSeconds, double approximateMaximumTimeInSeconds) throws RTIexception;
+
+    /////////////////////
+    // time management //
+    /////////////////////
+
+    HLAfloat64TimeFactory getTimeFactory() throws RTIexception;
+
+    void enableTimeRegulation(LogicalTimeInterval<?> lookahead) throws RTIexception;
+
+    void enableTimeConstrained() throws RTIexception;
+
+    void timeAdvanceRequest(LogicalTime<?, ?> time) throws RTIexception;
+
+    ///////////////////////////////////////
+    // declaration and object management //
+    ///////////////////////////////////////
+
+    ObjectClassHandle getObjectClassHandle(String objectClassName) throws RTIexception;
+
+    AttributeHandle getAttributeHandle(ObjectClassHandle objectClassHandle, String attributeName) throws RTIexception;
+
+    InteractionClassHandle getInteractionClassHandle(String interactionClassName) throws RTIexception;
+
+    void publishObjectClassAttributes(ObjectClassHandle objectClassHandle, AttributeHandleSet attributeHandles) throws RTIexception;
+
+    void subscribeObjectClassAttributes(ObjectClassHandle objectClassHandle, AttributeHandleSet attributeHandles) throws RTIexception;
+
+    void publishInteractionClass(InteractionClassHandle interactionClassHandle) throws RTIexception;
+
+    void subscribeInteractionClass(InteractionClassHandle interactionClassHandle) throws RTIexception;
+
+    ObjectInstanceHandle registerObjectInstance(ObjectClassHandle objectClassHandle) throws RTIexception;
+
+    ObjectInstanceHandle registerObjectInstance(ObjectClassHandle objectClassHandle, String objectInstanceName) throws RTIexception;
+
+    void updateAttributeValues(ObjectInstanceHandle objectInstanceHandle, AttributeHandleValueMap attributeValues,
+                               byte[] tag, LogicalTime<?, ?> time) throws RTIexception;
+
+    void requestAttributeValueUpdate(ObjectInstanceHandle objectInstanceHandle, AttributeHandleSet attributeHandles,
+                                     byte[] tag) throws RTIexception;
+
+    void requestAttributeValueUpdate(ObjectClassHandle objectClassHandle, AttributeHandleSet attributeHandles,
+                                     byte[] tag) throws RTIexception;
+
+    void deleteObjectInstance(ObjectInstanceHandle objectInstanceHandle, byte[] tag) throws RTIexception;
+
+    void sendInteraction(InteractionClassHandle interactionClassHandle, ParameterHandleValueMap parameterValues,
+                         byte[] tag, LogicalTime<?, ?> time) throws RTIexception;
+
+    //////////////////////////////////
+    // data distribution management //
+    //////////////////////////////////
+
+    DimensionHandle getDimensionHandle(String dimensionName) throws RTIexception;
+
+    long getDimensionUpperBound(DimensionHandle dimensionHandle) throws RTIexception;
+
+    RegionHandle createRegion(DimensionHandleSet dimensionHandles) throws RTIexception;
+
+    void setRangeBounds(RegionHandle regionHandle, DimensionHandle dimensionHandle, RangeBounds rangeBounds) throws RTIexception;
+
+    void commitRegionModifications(RegionHandleSet regionHandles) throws RTIexception;
+
+    void subscribeObjectClassAttributesWithRegions(ObjectClassHandle objectClassHandle,
+                                                   AttributeSetRegionSetPairList attributesAndRegions) throws RTIexception;
+
+    void associateRegionsForUpdates(ObjectInstanceHandle objectInstanceHandle,
+                                    AttributeSetRegionSetPairList attributesAndRegions) throws RTIexception;
+
+    ///////////////
+    // factories //
+    ///////////////
+
+    AttributeHandleSet createAttributeHandleSet() throws RTIexception;
+
+    AttributeHandleValueMap createAttributeHandleValueMap(int capacity) throws RTIexception;
+
+    ParameterHandleValueMap createParameterHandleValueMap(int capacity) throws RTIexception;
+
+    DimensionHandleSet createDimensionHandleSet() throws RTIexception;
+
+    RegionHandleSet createRegionHandleSet() throws RTIexception;
+
+    AttributeSetRegionSetPairList createAttributeSetRegionSetPairList(int capacity) throws RTIexception;
+}
@@ -0,0 +1,87 @@
+package interpreter;
+
+import library.model.simulation.SimulationProperty;
+import library.model.simulation.units.NoUnit;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StateStoreTest {
+
+    private final SimulationProperty<Double> speed = new SimulationProperty<>(NoUnit.get(), 5.0, "speed");
+    private final SimulationProperty<Integer> capacity = new SimulationProperty<>(NoUnit.get(), 100, "capacity");
+    private final SimulationProperty<Boolean> emergency = new SimulationProperty<>(NoUnit.get(), false, "emergency");
+    private final SimulationProperty<String> name = new SimulationProperty<>(NoUnit.get(), "Ship", "name");
+
+    @Test
+    void onlyNumericAttributesGetSlots() {
+        StateStore stateStore = new StateStore(List.of(speed, capacity, emergency, name, speed));
+
+        assertEquals(2, stateStore.size());
+        assertEquals(0, stateStore.getSlot(speed));
+        assertEquals(1, stateStore.getSlot(capacity.getId()));
+        assertEquals(-1, stateStore.getSlot(emergency));
+        assertEquals(-1, stateStore.getSlot(name.getId()));
+        assertEquals(5.0, stateStore.get(0));
+        assertEquals(100.0, stateStore.get(1));
+    }
+
+    @Test
+    void writeUpdatesSlotAndProperty() {
+        StateStore stateStore = new StateStore(List.of(speed, capacity));
+
+        assertTrue(stateStore.write(0, 7.5));
+        assertEquals(7.5, stateStore.get(0));
+        assertEquals(7.5, speed.getValue());
+
+        assertTrue(stateStore.write(1, 80));
+        assertEquals(80, capacity.getValue());
+
+        assertFalse(stateStore.write(0, "fast"));
+        assertEquals(7.5, speed.getValue());
+    }
+
+    @Test
+    void changesAreDetectedSinceLastSent() {
+        StateStore stateStore = new StateStore(List.of(speed));
+
+        // never sent values are always changed
+        assertTrue(stateStore.isChanged(0));
+        stateStore.markSent(0);
+        assertFalse(stateStore.isChanged(0));
+
+        stateStore.write(0, 5.0);
+        assertFalse(stateStore.isChanged(0));
+        stateStore.write(0, 5.5);
+        assertTrue(stateStore.isChanged(0));
+        stateStore.markSent(0);
+        assertFalse(stateStore.isChanged(0));
+    }
+
+    @Test
+    void changesBelowUpdateThresholdAreIgnored() {
+        speed.setUpdateThreshold(1.0);
+        StateStore stateStore = new StateStore(List.of(speed));
+        stateStore.markSent(0);
+
+        stateStore.write(0, 5.9);
+        assertFalse(stateStore.isChanged(0));
+        stateStore.write(0, 6.0);
+        assertTrue(stateStore.isChanged(0));
+    }
+
+    @Test
+    void onlyWrittenValuesAreTakenOver() {
+        StateStore stateStore = new StateStore(List.of(speed));
+        stateStore.markSent(0);
+
+        // the store isn't synchronized with the properties, values have to be written through it
+        speed.setSingleValue(9.0);
+        assertEquals(5.0, stateStore.get(0));
+        assertFalse(stateStore.isChanged(0));
+    }
+}
@@ -0,0 +1,79 @@
+package interpreter.fom.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FOMCacheTest {
+
+    @TempDir
+    Path cacheDirectory;
+
+    @BeforeEach
+    void setCacheDirectory() {
+        System.setProperty(FOMCache.CACHE_DIRECTORY_PROPERTY, cacheDirectory.toString());
+    }
+
+    @AfterEach
+    void resetCacheDirectory() {
+        System.clearProperty(FOMCache.CACHE_DIRECTORY_PROPERTY);
+    }
+
+    @Test
+    void hashIgnoresModificationDate() {
+        String hash = FOMCache.hash(fom("Vessel", "2021-01-01"));
+        assertEquals(64, hash.length());
+        assertTrue(hash.matches("[0-9a-f]+"));
+        assertEquals(hash, FOMCache.hash(fom("Vessel", "2026-10-18")));
+        assertNotEquals(hash, FOMCache.hash(fom("Buoy", "2021-01-01")));
+    }
+
+    @Test
+    void moduleIsWrittenOnceAndServedFromMemory() throws IOException {
+        String content = fom("ContainerShip-" + cacheDirectory.getFileName(), "2021-01-01");
+        Path path = FOMCache.getModule(content);
+
+        assertEquals(cacheDirectory.resolve(FOMCache.hash(content) + ".xml"), path);
+        assertTrue(Files.readString(path).contains("<name>ContainerShip-"));
+
+        // a hit neither looks at nor writes the file again
+        Files.delete(path);
+        assertSame(path, FOMCache.getModule(fom("ContainerShip-" + cacheDirectory.getFileName(), "2026-10-18")));
+        assertTrue(Files.notExists(path));
+    }
+
+    @Test
+    void existingModuleOfEarlierRunIsReused() throws IOException {
+        String content = fom("Tanker-" + cacheDirectory.getFileName(), "2021-01-01");
+        Path existingModule = cacheDirectory.resolve(FOMCache.hash(content) + ".xml");
+        Files.writeString(existingModule, "written by an earlier run");
+
+        assertEquals(existingModule, FOMCache.getModule(content));
+        assertEquals("written by an earlier run", Files.readString(existingModule));
+    }
+
+    @Test
+    void changedModuleGetsNewFile() throws IOException {
+        Path path = FOMCache.getModule(fom("Ferry-" + cacheDirectory.getFileName(), "2021-01-01"));
+        Path changedPath = FOMCache.getModule(fom("Ferry2-" + cacheDirectory.getFileName(), "2021-01-01"));
+
+        assertNotEquals(path, changedPath);
+        assertTrue(Files.isRegularFile(path));
+        assertTrue(Files.isRegularFile(changedPath));
+    }
+
+    private static String fom(String name, String modificationDate) {
+        return "<objectModel><modelIdentification><name>" + name + "</name>"
+                + "<modificationDate>" + modificationDate + "</modificationDate></modelIdentification></objectModel>";
+    }
+}
@@ -0,0 +1,87 @@
+package interpreter.utils;
+
+import library.model.maritime.ContainerShip;
+import library.model.maritime.Vessel;
+import library.model.simulation.Position;
+import library.model.simulation.SimulationSuperClass;
+import library.model.simulation.objects.SimulationObject;
+import library.model.traffic.TrafficParticipant;
+import library.services.utils.ClassModel;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Map;
+import java.util.Stack;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReflectionUtilsTest {
+
+    @Test
+    void classModelIsSharedPerClass() {
+        assertSame(ClassModel.of(ContainerShip.class), ClassModel.of(ContainerShip.class));
+        List<Class<?>> hierarchy = ClassModel.of(ContainerShip.class).getHierarchy();
+        assertEquals(List.of(ContainerShip.class, Vessel.class, TrafficParticipant.class), hierarchy.subList(0, 3));
+        assertTrue(hierarchy.indexOf(SimulationObject.class) < hierarchy.indexOf(SimulationSuperClass.class));
+        assertEquals(Object.class, hierarchy.get(hierarchy.size() - 1));
+    }
+
+    @Test
+    void inheritanceStackEndsAtStopClass() {
+        Stack<Class<?>> classes = ReflectionUtils.getInheritanceStackOfClass(ContainerShip.class, TrafficParticipant.class);
+        assertEquals(TrafficParticipant.class, classes.pop());
+        assertEquals(Vessel.class, classes.pop());
+        assertEquals(ContainerShip.class, classes.pop());
+        assertTrue(classes.isEmpty());
+
+        // the stack handed out is a copy, popping it doesn't change the next one
+        assertEquals(3, ReflectionUtils.getInheritanceStackOfClass(ContainerShip.class, TrafficParticipant.class).size());
+    }
+
+    @Test
+    void fieldsStopAtSimulationSuperClass() {
+        List<Field> fields = ReflectionUtils.getFieldsOfClass(ContainerShip.class);
+        // the fields of the class itself come first
+        assertEquals(ContainerShip.class, fields.get(0).getDeclaringClass());
+        assertTrue(fields.stream().anyMatch(f -> f.getName().equals("position")));
+        assertTrue(fields.stream().noneMatch(f -> f.getDeclaringClass() == SimulationSuperClass.class));
+
+        // the interpreter ignores the case of attribute names
+        Field speed = ReflectionUtils.getFieldOfClassByName(ContainerShip.class, "SPEED");
+        assertEquals(TrafficParticipant.class, speed.getDeclaringClass());
+        assertNull(ClassModel.of(ContainerShip.class).getField("id", SimulationSuperClass.class));
+        assertNotNull(ClassModel.of(ContainerShip.class).getField("id", null));
+    }
+
+    @Test
+    void gettersAndSettersAreResolved() {
+        ClassModel model = ClassModel.of(ContainerShip.class);
+        assertEquals("getEmergencyDeclared", model.getGetter("emergencyDeclared").getName());
+        assertEquals("setSpeed", model.getSetter("speed").getName());
+        assertNull(model.getGetter("doesNotExist"));
+        assertNull(model.getSetter("doesNotExist"));
+    }
+
+    @Test
+    void genericTypeOfPropertyIsResolved() {
+        assertEquals(Double.class, ReflectionUtils.getGenericTypeOfField(ReflectionUtils.getFieldOfClassByName(ContainerShip.class, "speed")));
+        assertEquals(Position.class, ReflectionUtils.getGenericTypeOfField(ReflectionUtils.getFieldOfClassByName(ContainerShip.class, "position")));
+    }
+
+    @Test
+    void deepFieldPathCreatesMissingProperties() throws Exception {
+        Field latitude = ReflectionUtils.getDeepFieldOfClassByName(ContainerShip.class, "Position.Latitude");
+        assertEquals(Position.class, latitude.getDeclaringClass());
+
+        ContainerShip ship = new ContainerShip();
+        Map.Entry<Object, Field> objectAndField = ReflectionUtils.getDeepObjectAndFieldByPath(ship, "position.latitude");
+        assertNotNull(ship.getPosition());
+        assertSame(ship.getPosition().getValue(), objectAndField.getKey());
+        assertEquals(latitude, objectAndField.getValue());
+    }
+}
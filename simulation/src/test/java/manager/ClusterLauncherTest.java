@@ -0,0 +1,62 @@
+package manager;
+
+import org.junit.jupiter.api.Test;
+import simulation.coordination.FederateDescription;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClusterLauncherTest {
+
+    @Test
+    void heaviestFederatesGoToTheLightestNodes() {
+        List<FederateDescription> federates = List.of(federate(0, 2), federate(1, 5), federate(2, 1), federate(3, 3), federate(4, 2));
+
+        List<List<FederateDescription>> assignment = ClusterLauncher.assignFederates(federates, 2);
+
+        // 5 -> node 0, 3 -> node 1, 2 -> node 1, 2 -> node 0 (tie), 1 -> node 1
+        assertEquals(List.of(List.of(1, 4), List.of(0, 2, 3)), indexes(assignment));
+        assertEquals(List.of(7, 6), weights(assignment));
+    }
+
+    @Test
+    void federatesWithoutObjectsCountAsOne() {
+        List<FederateDescription> federates = List.of(federate(0, 0), federate(1, 0), federate(2, 0), federate(3, 0));
+
+        assertEquals(List.of(List.of(0, 2), List.of(1, 3)), indexes(ClusterLauncher.assignFederates(federates, 2)));
+    }
+
+    @Test
+    void onlyTrailingEmptyNodesAreLeftOut() {
+        List<FederateDescription> federates = List.of(federate(0, 4), federate(1, 1));
+
+        assertEquals(List.of(List.of(0), List.of(1)), indexes(ClusterLauncher.assignFederates(federates, 4)));
+
+        // the first node hosts the master, so it is kept without federates
+        List<List<FederateDescription>> assignment = ClusterLauncher.assignFederates(List.of(), 3);
+        assertEquals(1, assignment.size());
+        assertTrue(assignment.get(0).isEmpty());
+    }
+
+    private static FederateDescription federate(int index, int objects) {
+        List<String> objectIds = new ArrayList<>(Collections.nCopies(objects, "object"));
+        return new FederateDescription(index, "federate" + index, objectIds);
+    }
+
+    private static List<List<Integer>> indexes(List<List<FederateDescription>> assignment) {
+        return assignment.stream()
+                         .map(node -> node.stream().map(FederateDescription::getIndex).collect(Collectors.toList()))
+                         .collect(Collectors.toList());
+    }
+
+    private static List<Integer> weights(List<List<FederateDescription>> assignment) {
+        return assignment.stream()
+                         .map(node -> node.stream().mapToInt(FederateDescription::getWeight).sum())
+                         .collect(Collectors.toList());
+    }
+}
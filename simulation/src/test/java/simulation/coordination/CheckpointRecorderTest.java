@@ -0,0 +1,37 @@
+package simulation.coordination;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static simulation.coordination.CheckpointTest.createShip;
+import static simulation.coordination.CheckpointTest.objectState;
+
+class CheckpointRecorderTest {
+
+    @TempDir
+    Path checkpointDirectory;
+
+    @Test
+    void checkpointIsWrittenOnceAllFederatesRecorded() throws IOException {
+        Path file = checkpointDirectory.resolve("checkpoint.xml");
+        CheckpointRecorder recorder = new CheckpointRecorder(5.0, file, 2, new ArrayList<>(List.of("a", "b")));
+
+        recorder.record(List.of(objectState(createShip("b", 1), 5.0)));
+        assertFalse(Files.exists(file));
+
+        // a federate ending before the checkpoint time records its final state
+        recorder.record(List.of(objectState(createShip("a", 1), 3.0)));
+        Checkpoint checkpoint = Checkpoint.read(file);
+        assertEquals("a", checkpoint.getObjectStates().get(0).getObject().getId());
+        assertEquals("b", checkpoint.getObjectStates().get(1).getObject().getId());
+        assertEquals(3.0, checkpoint.getStartTime());
+    }
+}
@@ -0,0 +1,134 @@
+package simulation.coordination;
+
+import library.model.dto.scenario.ScenarioDTO;
+import library.model.examples.behaviours.ConstantSpeedBehaviour;
+import library.model.maritime.ContainerShip;
+import library.model.maritime.GeneralCargo;
+import library.model.simulation.Position;
+import library.model.simulation.SimulationProperty;
+import library.model.simulation.Task;
+import library.model.simulation.units.NoUnit;
+import library.model.simulation.units.SpeedUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class CheckpointTest {
+
+    @TempDir
+    Path checkpointDirectory;
+
+    @Test
+    void copiesAreIndependentOfTheSimulation() {
+        ContainerShip ship = createShip("ship", 10);
+        Map<String, List<Task>> pendingTasks = new HashMap<>();
+        pendingTasks.put(ship.getSpeed().getId(), new ArrayList<>(List.of(new Task(ship.getSpeed().getId(), 11.0))));
+        Checkpoint.ObjectState objectState = new Checkpoint.ObjectState(ship, 5.0, 4, pendingTasks);
+
+        Checkpoint.ObjectState copy = Checkpoint.copy(List.of(objectState)).get(0);
+        ship.getSpeed().setSingleValue(20.0);
+
+        ContainerShip copiedShip = (ContainerShip) copy.getObject();
+        assertNotSame(ship, copiedShip);
+        assertEquals("ship", copiedShip.getId());
+        assertEquals(10.0, copiedShip.getSpeed().getValue());
+        assertEquals(54.0, copiedShip.getPosition().getValue().getLatitude().getValue());
+        assertEquals(5.0, copy.getTime());
+        assertEquals(4, copy.getIteration());
+        assertEquals(11.0, copy.getPendingTasks().get(ship.getSpeed().getId()).get(0).getValue());
+    }
+
+    @Test
+    void everyReadReturnsNewObjects() throws IOException {
+        Path file = checkpointDirectory.resolve("checkpoint.xml");
+        // the checkpoint is written with the mutable lists of the recorder, XStream can't write the immutable ones
+        new Checkpoint(5.0, Checkpoint.copy(List.of(objectState(createShip("ship", 10), 5.0))), new ArrayList<>(List.of("ship"))).write(file);
+
+        Checkpoint checkpoint = Checkpoint.read(file);
+        assertEquals(5.0, checkpoint.getTime());
+        assertEquals(List.of("ship"), checkpoint.getScenarioObjectIds());
+        assertNotSame(checkpoint.getObjectState("ship").getObject(), Checkpoint.read(file).getObjectState("ship").getObject());
+    }
+
+    @Test
+    void objectsAreRestoredById() {
+        Checkpoint checkpoint = new Checkpoint(5.0, Checkpoint.copy(List.of(objectState(createShip("ship", 10), 5.0))),
+                                               List.of("other", "ship"));
+        ScenarioDTO scenario = new ScenarioDTO();
+        scenario.addSimulationObject(createShip("new", 1));
+        scenario.addSimulationObject(createShip("ship", 1));
+
+        assertEquals(1, checkpoint.restoreObjects(scenario));
+        assertEquals("new", scenario.getSimulationObjects().get(0).getId());
+        assertSame(checkpoint.getObjectState("ship").getObject(), scenario.getSimulationObjects().get(1));
+    }
+
+    @Test
+    void objectsWithoutIdInTheScenarioAreRestoredByPositionAndClass() {
+        // the scenario file had no ids, so the objects got new ones when the scenario was read again
+        Checkpoint checkpoint = new Checkpoint(5.0, Checkpoint.copy(List.of(objectState(createShip("first", 10), 5.0),
+                                                                             objectState(createShip("second", 10), 5.0))),
+                                               List.of("first", "second"));
+        ScenarioDTO scenario = new ScenarioDTO();
+        scenario.addSimulationObject(createShip("renamed", 1));
+        GeneralCargo otherClass = new GeneralCargo();
+        scenario.addSimulationObject(otherClass);
+
+        assertEquals(1, checkpoint.restoreObjects(scenario));
+        assertSame(checkpoint.getObjectState("first").getObject(), scenario.getSimulationObjects().get(0));
+        assertSame(otherClass, scenario.getSimulationObjects().get(1));
+
+        // an id still used by the scenario isn't taken for another object
+        scenario = new ScenarioDTO();
+        scenario.addSimulationObject(createShip("renamed", 1));
+        scenario.addSimulationObject(createShip("first", 1));
+        assertEquals(1, checkpoint.restoreObjects(scenario));
+        assertEquals("renamed", scenario.getSimulationObjects().get(0).getId());
+    }
+
+    @Test
+    void scenarioBehavioursAreKeptUnlessBehavioursAreRestored() {
+        Checkpoint checkpoint = new Checkpoint(5.0, Checkpoint.copy(List.of(objectState(createShip("ship", 10), 5.0))), List.of("ship"));
+        ContainerShip scenarioShip = createShip("ship", 1);
+        ConstantSpeedBehaviour behaviour = new ConstantSpeedBehaviour(scenarioShip);
+        scenarioShip.setBehaviour(behaviour);
+        ScenarioDTO scenario = new ScenarioDTO();
+        scenario.addSimulationObject(scenarioShip);
+        scenario.setRestoreBehaviours(false);
+
+        checkpoint.restoreObjects(scenario);
+        ContainerShip restoredShip = (ContainerShip) scenario.getSimulationObjects().get(0);
+        assertEquals(10.0, restoredShip.getSpeed().getValue());
+        assertSame(behaviour, restoredShip.getBehaviour());
+    }
+
+    @Test
+    void startTimeIsTheEarliestCheckpointedTime() {
+        Checkpoint checkpoint = new Checkpoint(5.0, List.of(objectState(createShip("a", 1), 6.0), objectState(createShip("b", 1), 5.5)),
+                                               List.of("a", "b"));
+        assertEquals(5.5, checkpoint.getStartTime());
+        assertEquals(5.0, new Checkpoint(5.0, List.of(), List.of()).getStartTime());
+    }
+
+    static Checkpoint.ObjectState objectState(ContainerShip ship, double time) {
+        return new Checkpoint.ObjectState(ship, time, 0, new HashMap<>());
+    }
+
+    static ContainerShip createShip(String id, double speed) {
+        ContainerShip ship = new ContainerShip();
+        ship.setId(id);
+        ship.setPosition(new SimulationProperty<>(NoUnit.get(), new Position(8.0, 54.0, 0), "position"));
+        ship.setSpeed(new SimulationProperty<>(SpeedUnit.METERSPERSECOND, speed, "speed"));
+        return ship;
+    }
+}
@@ -0,0 +1,68 @@
+package simulation.coordination;
+
+import library.model.dto.scenario.ScenarioDTO;
+import library.model.maritime.ContainerShip;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NodeDescriptionTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void descriptionIsReadAsWritten() throws IOException {
+        Path file = directory.resolve("node1.xml");
+        // the launcher writes mutable lists, XStream can't write the immutable ones
+        List<FederateDescription> federates = new ArrayList<>();
+        federates.add(new FederateDescription(2, "group", new ArrayList<>(List.of("a", "b"))));
+        federates.add(new FederateDescription(5, "observer", new ArrayList<>()));
+        new NodeDescription(1, false, "federation", "/scenario.xml", null, new ArrayList<>(List.of("a", "b", "c")), federates).write(file);
+
+        NodeDescription description = NodeDescription.read(file);
+        assertEquals(1, description.getNode());
+        assertEquals("federation", description.getFederationName());
+        assertEquals("/scenario.xml", description.getScenarioPath());
+        // a description without checkpoints starts at t=0
+        assertTrue(description.getCheckpointPaths().isEmpty());
+        assertEquals(List.of("a", "b", "c"), description.getScenarioObjectIds());
+        assertEquals(List.of(2, 5), description.getFederateIndexes());
+        assertEquals("observer", description.getFederates().get(1).getName());
+        assertEquals(2, description.getObjectCount());
+    }
+
+    @Test
+    void otherTypesAreNotRead() throws IOException {
+        Path file = directory.resolve("node.xml");
+        Files.writeString(file, "<java.io.File><path>/</path></java.io.File>");
+        assertThrows(IOException.class, () -> NodeDescription.read(file));
+
+        Files.writeString(file, "<string>node</string>");
+        assertThrows(IOException.class, () -> NodeDescription.read(file));
+    }
+
+    @Test
+    void scenarioGetsTheIdsOfTheLauncher() {
+        NodeDescription description = new NodeDescription(0, true, "federation", "/scenario.xml", List.of(), List.of("a", "b"), List.of());
+        ScenarioDTO scenario = new ScenarioDTO();
+        scenario.addSimulationObject(new ContainerShip());
+        scenario.addSimulationObject(new ContainerShip());
+
+        description.applyObjectIds(scenario);
+        assertEquals("a", scenario.getSimulationObjects().get(0).getId());
+        assertEquals("b", scenario.getSimulationObjects().get(1).getId());
+
+        scenario.addSimulationObject(new ContainerShip());
+        assertThrows(IllegalStateException.class, () -> description.applyObjectIds(scenario));
+    }
+}
@@ -0,0 +1,109 @@
+package simulation.federate.handler;
+
+import library.model.maritime.ContainerShip;
+import library.model.simulation.Position;
+import library.model.simulation.SimulationProperty;
+import library.model.simulation.units.NoUnit;
+import library.model.simulation.units.SpeedUnit;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeadReckoningTest {
+
+    // meters per degree of latitude on the sphere used by DeadReckoning
+    private static final double METERS_PER_DEGREE = 6371 * 1000 * Math.PI / 180;
+    private static final double DELTA = 1e-9;
+
+    @Test
+    void participantWithoutSpeedHasNoState() {
+        ContainerShip ship = new ContainerShip();
+        ship.setPosition(new SimulationProperty<>(NoUnit.get(), new Position(8.0, 54.0, 0), "position"));
+        assertNull(DeadReckoning.of(ship, 0));
+    }
+
+    @Test
+    void extrapolatesAlongTheBearing() {
+        DeadReckoning state = DeadReckoning.of(createShip(8.0, 54.0, 10, 0, 0), 10);
+
+        double[] position = state.extrapolate(110);
+        assertEquals(54.0 + 1000 / METERS_PER_DEGREE, position[0], DELTA);
+        assertEquals(8.0, position[1], DELTA);
+
+        // towards the east the latitude stays (almost) the same
+        position = DeadReckoning.of(createShip(8.0, 0.0, 10, 90, 0), 0).extrapolate(100);
+        assertEquals(0.0, position[0], DELTA);
+        assertEquals(8.0 + 1000 / METERS_PER_DEGREE, position[1], DELTA);
+    }
+
+    @Test
+    void doesNotExtrapolateBackwards() {
+        DeadReckoning state = DeadReckoning.of(createShip(8.0, 54.0, 10, 0, 0), 10);
+        assertArrayEquals(new double[]{54.0, 8.0}, state.extrapolate(5), DELTA);
+    }
+
+    @Test
+    void deceleratingParticipantStops() {
+        // stops after 10 s and 50 m
+        DeadReckoning state = DeadReckoning.of(createShip(8.0, 54.0, 10, 0, -1), 0);
+
+        assertEquals(54.0 + 50 / METERS_PER_DEGREE, state.extrapolate(10)[0], DELTA);
+        assertEquals(54.0 + 50 / METERS_PER_DEGREE, state.extrapolate(100)[0], DELTA);
+        assertEquals(0.0, speedOf(state.advanceTo(100)), DELTA);
+    }
+
+    @Test
+    void exceedsThresholdOnlyWhenTheActualPositionDrifted() {
+        DeadReckoning lastSent = DeadReckoning.of(createShip(8.0, 54.0, 10, 0, 0), 0);
+
+        // the ship kept its course, it is exactly where it was extrapolated to
+        DeadReckoning onCourse = lastSent.advanceTo(100);
+        assertFalse(lastSent.exceedsThreshold(onCourse, 1));
+
+        // the ship turned east and ended up 1000 m away from the extrapolated position
+        DeadReckoning turned = DeadReckoning.of(createShip(8.0 + 1000 / METERS_PER_DEGREE, 54.0, 10, 90, 0), 100);
+        assertTrue(lastSent.exceedsThreshold(turned, 5));
+        assertFalse(lastSent.exceedsThreshold(turned, 100000));
+    }
+
+    @Test
+    void subscriberDoesNotLagBehindWithLookahead() {
+        double federateTime = 10;
+        double lookahead = 5;
+        ContainerShip publishedShip = createShip(8.0, 54.0, 10, 45, 0.5);
+        DeadReckoning actual = DeadReckoning.of(publishedShip, federateTime);
+
+        // the publisher sends the state as of the time stamp of the update, the subscriber takes it for that time stamp
+        DeadReckoning sent = actual.advanceTo(federateTime + lookahead);
+        ContainerShip reflectedShip = createShip((Double) sent.valueOf(publishedShip, publishedShip.getPosition().getValue().getLongitude()),
+                                                 (Double) sent.valueOf(publishedShip, publishedShip.getPosition().getValue().getLatitude()),
+                                                 (Double) sent.valueOf(publishedShip, publishedShip.getSpeed()),
+                                                 45, 0.5);
+        DeadReckoning received = DeadReckoning.of(reflectedShip, federateTime + lookahead);
+
+        // the great circle is left when the bearing is kept at the time stamp, which only makes millimeters here
+        assertArrayEquals(actual.extrapolate(40), received.extrapolate(40), 1e-6);
+        assertFalse(actual.exceedsThreshold(received.advanceTo(40), 0.1));
+        // taking the state of the federate time for the time stamp lets the subscriber lag one lookahead behind
+        DeadReckoning lagging = DeadReckoning.of(publishedShip, federateTime + lookahead);
+        assertTrue(actual.exceedsThreshold(lagging.advanceTo(40), 50));
+    }
+
+    private static double speedOf(DeadReckoning state) {
+        ContainerShip ship = createShip(0, 0, 0, 0, 0);
+        return (Double) state.valueOf(ship, ship.getSpeed());
+    }
+
+    private static ContainerShip createShip(double longitude, double latitude, double speed, double bearing, double acceleration) {
+        ContainerShip ship = new ContainerShip();
+        ship.setPosition(new SimulationProperty<>(NoUnit.get(), new Position(longitude, latitude, 0), "position"));
+        ship.setSpeed(new SimulationProperty<>(SpeedUnit.METERSPERSECOND, speed, "speed"));
+        ship.setRotation(new SimulationProperty<>(NoUnit.get(), bearing, "rotation"));
+        ship.setAcceleration(new SimulationProperty<>(NoUnit.get(), acceleration, "acceleration"));
+        return ship;
+    }
+}
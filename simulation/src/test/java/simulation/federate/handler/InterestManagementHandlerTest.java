@@ -0,0 +1,259 @@
+package simulation.federate.handler;
+
+import hla.rti1516e.AttributeHandle;
+import hla.rti1516e.AttributeHandleSet;
+import hla.rti1516e.AttributeHandleValueMap;
+import hla.rti1516e.CallbackModel;
+import hla.rti1516e.LogicalTime;
+import hla.rti1516e.NullFederateAmbassador;
+import hla.rti1516e.ObjectClassHandle;
+import hla.rti1516e.ObjectInstanceHandle;
+import hla.rti1516e.OrderType;
+import hla.rti1516e.RegionHandleSet;
+import hla.rti1516e.ResignAction;
+import hla.rti1516e.TransportationTypeHandle;
+import hla.rti1516e.exceptions.RTIexception;
+import interpreter.fom.model.FOMDimension;
+import library.model.dto.observer.InterestAreaDTO;
+import library.model.simulation.Position;
+import library.model.simulation.SimulationProperty;
+import library.model.simulation.units.NoUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import simulation.federate.rti.LoopbackRTIAdapter;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InterestManagementHandlerTest {
+
+    private static final long LONGITUDE_BOUND = FOMDimension.LONGITUDE.getUpperBound();
+    private static final long LATITUDE_BOUND = FOMDimension.LATITUDE.getUpperBound();
+
+    private static final String FOM = "<objectModel xmlns=\"http://standards.ieee.org/IEEE1516-2010\">"
+            + "<objects><objectClass><name>HLAobjectRoot</name>"
+            + "<objectClass><name>Ship</name><attribute><name>mmsi</name></attribute><attribute><name>position</name></attribute></objectClass>"
+            + "</objectClass></objects>"
+            + "<dimensions><dimension><name>Longitude</name><upperBound>36000</upperBound></dimension>"
+            + "<dimension><name>Latitude</name><upperBound>18000</upperBound></dimension></dimensions>"
+            + "</objectModel>";
+
+    @TempDir
+    Path fomDirectory;
+
+    private final String federationName = "InterestManagementHandlerTest-" + UUID.randomUUID();
+    private final List<Federate> federates = new ArrayList<>();
+
+    @Test
+    void wholeWorldCoversWholeDimensions() {
+        assertArrayEquals(new long[]{0, 0, 36000, 18000}, toBounds(-180, -90, 180, 90));
+    }
+
+    @Test
+    void coordinatesOutsideOfTheWorldAreClamped() {
+        assertArrayEquals(new long[]{0, 0, 36000, 18000}, toBounds(-180.5, -90.5, 180.5, 90.5));
+        assertArrayEquals(new long[]{0, 0, 36000, 18000}, toBounds(-1000, -1000, 1000, 1000));
+    }
+
+    @Test
+    void edgesStillCoverOneValue() {
+        // the upper bound is exclusive, so the lower bound may not reach it
+        assertArrayEquals(new long[]{35999, 17999, 36000, 18000}, toBounds(180, 90, 180, 90));
+        assertArrayEquals(new long[]{35999, 17999, 36000, 18000}, toBounds(181, 91, 181, 91));
+        assertArrayEquals(new long[]{0, 0, 1, 1}, toBounds(-180, -90, -180, -90));
+        assertArrayEquals(new long[]{0, 0, 1, 1}, toBounds(-181, -91, -181, -91));
+    }
+
+    @Test
+    void valuesJustInsideTheEdges() {
+        // a hundredth of a degree is one value of both dimensions
+        assertArrayEquals(new long[]{35999, 17999, 36000, 18000}, toBounds(179.995, 89.995, 179.995, 89.995));
+        assertArrayEquals(new long[]{0, 0, 1, 1}, toBounds(-179.995, -89.995, -179.995, -89.995));
+    }
+
+    @Test
+    void areasAreRoundedOutwards() {
+        assertArrayEquals(new long[]{18000, 9000, 18001, 9001}, toBounds(0, 0, 0, 0));
+        assertArrayEquals(new long[]{18850, 14350, 18861, 14361}, toBounds(8.505, 53.505, 8.605, 53.605));
+    }
+
+    @Test
+    void objectMovingIntoRegionSendsItsFullState() throws Exception {
+        Federate subscriber = join("subscriber");
+        Federate publisher = join("publisher");
+        RegionHandleSet interestArea = subscriber.interestManagement.createRegionHandleSet();
+        interestArea.add(subscriber.interestManagement.createRegion(new InterestAreaDTO(8.0, 54.0, 8.1, 54.1)));
+        subscriber.interestManagement.subscribeObjectClassAttributes(subscriber.ship, subscriber.attributes(), interestArea);
+
+        // the full state is sent once the instance is registered, but the ship isn't in the area yet
+        SimulationProperty<Position> position = new SimulationProperty<>(NoUnit.get(), new Position(7.5, 54.05, 0), "position");
+        ObjectInstanceHandle instance = publisher.registerShip(position);
+        publisher.update(instance, publisher.mmsi, publisher.position);
+        assertEquals(List.of("discover"), subscriber.events());
+
+        // within the cell of its region the ship only sends its changed position, the mmsi never changes
+        position.setValue(new Position(7.501, 54.05, 0));
+        assertTrue(publisher.interestManagement.updateRegions().isEmpty());
+
+        position.setValue(new Position(8.05, 54.05, 0));
+        Set<ObjectInstanceHandle> movedInstances = publisher.interestManagement.updateRegions();
+        assertEquals(Set.of(instance), movedInstances);
+        // moved instances send their full state (see InterpretedFederate)
+        publisher.update(instance, publisher.mmsi, publisher.position);
+        assertEquals(List.of("discover", "reflect[mmsi, position]"), subscriber.events());
+    }
+
+    @Test
+    void regionMovingOverObjectRequestsItsFullState() throws Exception {
+        Federate subscriber = join("subscriber");
+        Federate publisher = join("publisher");
+        SimulationProperty<Position> subscriberPosition = new SimulationProperty<>(NoUnit.get(), new Position(7.5, 54.05, 0), "position");
+        RegionHandleSet interestRegion = subscriber.interestManagement.createRegionHandleSet();
+        interestRegion.add(subscriber.interestManagement.createRegion(subscriberPosition, 0.05));
+        subscriber.interestManagement.subscribeObjectClassAttributes(subscriber.ship, subscriber.attributes(), interestRegion);
+
+        // a moored ship, it never sends anything again
+        ObjectInstanceHandle instance = publisher.registerShip(new SimulationProperty<>(NoUnit.get(), new Position(8.05, 54.05, 0), "position"));
+        publisher.update(instance, publisher.mmsi, publisher.position);
+        assertEquals(List.of("discover"), subscriber.events());
+
+        subscriberPosition.setValue(new Position(8.0, 54.05, 0));
+        assertTrue(subscriber.interestManagement.updateRegions().isEmpty());
+        assertEquals(List.of("provide[mmsi, position]"), publisher.events());
+
+        publisher.update(instance, publisher.mmsi, publisher.position);
+        assertEquals(List.of("discover", "reflect[mmsi, position]"), subscriber.events());
+    }
+
+    @AfterEach
+    void destroyFederation() throws RTIexception {
+        if (federates.isEmpty()) {
+            return;
+        }
+        for (Federate federate : federates) {
+            federate.rti.resignFederationExecution(ResignAction.DELETE_OBJECTS);
+        }
+        federates.get(0).rti.destroyFederationExecution(federationName);
+    }
+
+    private Federate join(String federateName) throws RTIexception, IOException {
+        Path fom = fomDirectory.resolve("RegionTestFOM.xml");
+        if (!Files.exists(fom)) {
+            Files.writeString(fom, FOM);
+        }
+        URL[] modules = {fom.toUri().toURL()};
+        Federate federate = new Federate();
+        federate.rti.connect(federate.ambassador, CallbackModel.HLA_EVOKED);
+        if (federates.isEmpty()) {
+            federate.rti.createFederationExecution(federationName, modules);
+        }
+        federate.rti.joinFederationExecution(federateName, "test", federationName, modules);
+        federate.initialize();
+        federates.add(federate);
+        return federate;
+    }
+
+    private static final class Federate {
+
+        private final LoopbackRTIAdapter rti = new LoopbackRTIAdapter();
+        private final RecordingAmbassador ambassador = new RecordingAmbassador(this);
+        private InterestManagementHandler interestManagement;
+        private ObjectClassHandle ship;
+        private AttributeHandle mmsi;
+        private AttributeHandle position;
+
+        private void initialize() throws RTIexception {
+            interestManagement = new InterestManagementHandler(rti);
+            ship = rti.getObjectClassHandle("Ship");
+            mmsi = rti.getAttributeHandle(ship, "mmsi");
+            position = rti.getAttributeHandle(ship, "position");
+        }
+
+        private AttributeHandleSet attributes() throws RTIexception {
+            AttributeHandleSet attributes = rti.createAttributeHandleSet();
+            attributes.add(mmsi);
+            attributes.add(position);
+            return attributes;
+        }
+
+        private ObjectInstanceHandle registerShip(SimulationProperty<Position> shipPosition) throws RTIexception {
+            ObjectInstanceHandle instance = rti.registerObjectInstance(ship);
+            RegionHandleSet updateRegion = interestManagement.createRegionHandleSet();
+            updateRegion.add(interestManagement.createRegion(shipPosition, 0));
+            interestManagement.associateRegionsForUpdates(instance, attributes(), updateRegion);
+            return instance;
+        }
+
+        private void update(ObjectInstanceHandle instance, AttributeHandle... attributes) throws RTIexception {
+            AttributeHandleValueMap values = rti.createAttributeHandleValueMap(attributes.length);
+            for (AttributeHandle attribute : attributes) {
+                values.put(attribute, new byte[]{1});
+            }
+            rti.updateAttributeValues(instance, values, new byte[0], null);
+        }
+
+        private String names(Set<AttributeHandle> attributes) {
+            List<String> names = new ArrayList<>();
+            if (attributes.contains(mmsi)) {
+                names.add("mmsi");
+            }
+            if (attributes.contains(position)) {
+                names.add("position");
+            }
+            return names.toString();
+        }
+
+        /**
+         * Delivers the queued callbacks
+         *
+         * @return the callbacks delivered so far
+         */
+        private List<String> events() throws RTIexception {
+            rti.evokeMultipleCallbacks(0, 1);
+            return ambassador.events;
+        }
+    }
+
+    private static final class RecordingAmbassador extends NullFederateAmbassador {
+
+        private final Federate federate;
+        private final List<String> events = new ArrayList<>();
+
+        private RecordingAmbassador(Federate federate) {
+            this.federate = federate;
+        }
+
+        @Override
+        public void discoverObjectInstance(ObjectInstanceHandle theObject, ObjectClassHandle theObjectClass, String objectName) {
+            events.add("discover");
+        }
+
+        @Override
+        public void reflectAttributeValues(ObjectInstanceHandle theObject, AttributeHandleValueMap theAttributes, byte[] userSuppliedTag,
+                                           OrderType sentOrdering, TransportationTypeHandle theTransport, LogicalTime theTime,
+                                           OrderType receivedOrdering, SupplementalReflectInfo reflectInfo) {
+            events.add("reflect" + federate.names(theAttributes.keySet()));
+        }
+
+        @Override
+        public void provideAttributeValueUpdate(ObjectInstanceHandle theObject, AttributeHandleSet theAttributes, byte[] userSuppliedTag) {
+            events.add("provide" + federate.names(new HashSet<>(theAttributes)));
+        }
+    }
+
+    private static long[] toBounds(double minLongitude, double minLatitude, double maxLongitude, double maxLatitude) {
+        return InterestManagementHandler.toBounds(minLongitude, minLatitude, maxLongitude, maxLatitude, LONGITUDE_BOUND, LATITUDE_BOUND);
+    }
+}
@@ -0,0 +1,308 @@
+package simulation.federate.rti;
+
+import hla.rti1516e.AttributeHandle;
+import hla.rti1516e.AttributeHandleSet;
+import hla.rti1516e.AttributeHandleValueMap;
+import hla.rti1516e.AttributeRegionAssociation;
+import hla.rti1516e.AttributeSetRegionSetPairList;
+import hla.rti1516e.CallbackModel;
+import hla.rti1516e.DimensionHandle;
+import hla.rti1516e.DimensionHandleSet;
+import hla.rti1516e.FederateHandleSet;
+import hla.rti1516e.InteractionClassHandle;
+import hla.rti1516e.LogicalTime;
+import hla.rti1516e.MessageRetractionHandle;
+import hla.rti1516e.NullFederateAmbassador;
+import hla.rti1516e.ObjectClassHandle;
+import hla.rti1516e.ObjectInstanceHandle;
+import hla.rti1516e.OrderType;
+import hla.rti1516e.ParameterHandleValueMap;
+import hla.rti1516e.RangeBounds;
+import hla.rti1516e.RegionHandle;
+import hla.rti1516e.RegionHandleSet;
+import hla.rti1516e.ResignAction;
+import hla.rti1516e.TransportationTypeHandle;
+import hla.rti1516e.exceptions.FederatesCurrentlyJoined;
+import hla.rti1516e.exceptions.FederationExecutionDoesNotExist;
+import hla.rti1516e.exceptions.RTIexception;
+import hla.rti1516e.time.HLAfloat64Time;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoopbackFederationTest {
+
+    private static final String FOM = "<objectModel xmlns=\"http://standards.ieee.org/IEEE1516-2010\">"
+            + "<objects><objectClass><name>HLAobjectRoot</name>"
+            + "<objectClass><name>Ship</name><attribute><name>position</name></attribute></objectClass>"
+            + "</objectClass></objects>"
+            + "<interactions><interactionClass><name>HLAinteractionRoot</name>"
+            + "<interactionClass><name>Alarm</name></interactionClass>"
+            + "</interactionClass></interactions>"
+            + "<dimensions><dimension><name>Longitude</name><upperBound>100</upperBound></dimension></dimensions>"
+            + "</objectModel>";
+
+    @TempDir
+    Path fomDirectory;
+
+    private final String federationName = "LoopbackFederationTest-" + UUID.randomUUID();
+    private final List<Federate> federates = new ArrayList<>();
+
+    @AfterEach
+    void destroyFederation() throws RTIexception {
+        for (Federate federate : federates) {
+            if (federate.joined) {
+                federate.rti.resignFederationExecution(ResignAction.NO_ACTION);
+                federate.joined = false;
+            }
+        }
+        try {
+            federates.get(0).rti.destroyFederationExecution(federationName);
+        } catch (FederationExecutionDoesNotExist e) {
+            // already destroyed by the test
+        }
+    }
+
+    @Test
+    void timeAdvanceIsGrantedOnlyBelowGalt() throws Exception {
+        Federate regulating = join("regulating");
+        Federate constrained = join("constrained");
+        regulating.rti.enableTimeRegulation(regulating.rti.getTimeFactory().makeInterval(1.0));
+        constrained.rti.enableTimeConstrained();
+
+        // the regulating federate may still send at time 1, so the GALT of 1 doesn't allow a grant to 1
+        constrained.rti.timeAdvanceRequest(time(constrained, 1.0));
+        assertTrue(constrained.events().stream().noneMatch(event -> event.startsWith("grant")));
+
+        regulating.rti.timeAdvanceRequest(time(regulating, 0.5));
+        assertEquals(List.of("grant@0.5"), grants(regulating.events()));
+        assertEquals(List.of("grant@1.0"), grants(constrained.events()));
+    }
+
+    @Test
+    void timestampOrderedMessagesAreDeliveredInOrderBeforeTheGrant() throws Exception {
+        Federate sender = join("sender");
+        Federate receiver = join("receiver");
+        sender.rti.enableTimeRegulation(sender.rti.getTimeFactory().makeInterval(1.0));
+        receiver.rti.enableTimeConstrained();
+        ObjectClassHandle ship = sender.rti.getObjectClassHandle("Ship");
+        AttributeHandle position = sender.rti.getAttributeHandle(ship, "position");
+        receiver.rti.subscribeObjectClassAttributes(ship, attributes(receiver, position));
+        ObjectInstanceHandle instance = sender.rti.registerObjectInstance(ship);
+
+        sender.rti.updateAttributeValues(instance, values(sender, position, 3), new byte[0], time(sender, 3.0));
+        sender.rti.updateAttributeValues(instance, values(sender, position, 2), new byte[0], time(sender, 2.0));
+        sender.rti.updateAttributeValues(instance, values(sender, position, 7), new byte[0], time(sender, 7.0));
+        receiver.rti.timeAdvanceRequest(time(receiver, 5.0));
+        assertEquals(List.of("discover"), receiver.events());
+
+        sender.rti.timeAdvanceRequest(time(sender, 5.0));
+        // the update at time 7 waits for a later grant
+        assertEquals(List.of("discover", "reflect@2.0:TIMESTAMP", "reflect@3.0:TIMESTAMP", "grant@5.0"), receiver.events());
+    }
+
+    @Test
+    void updatesOnlyReachOverlappingRegions() throws Exception {
+        Federate sender = join("sender");
+        Federate inside = join("inside");
+        Federate outside = join("outside");
+        ObjectClassHandle ship = sender.rti.getObjectClassHandle("Ship");
+        AttributeHandle position = sender.rti.getAttributeHandle(ship, "position");
+        inside.rti.subscribeObjectClassAttributesWithRegions(ship, regions(inside, position, 15, 30));
+        outside.rti.subscribeObjectClassAttributesWithRegions(ship, regions(outside, position, 20, 40));
+
+        ObjectInstanceHandle instance = sender.rti.registerObjectInstance(ship);
+        sender.rti.associateRegionsForUpdates(instance, regions(sender, position, 10, 20));
+        sender.rti.updateAttributeValues(instance, values(sender, position, 1), new byte[0], null);
+
+        assertEquals(List.of("discover", "reflect@null:RECEIVE"), inside.events());
+        // the ranges are half open, [10, 20) and [20, 40) don't overlap
+        assertEquals(List.of("discover"), outside.events());
+    }
+
+    @Test
+    void interactionReceiversGetTheirOwnParameters() throws Exception {
+        Federate sender = join("sender");
+        Federate first = join("first");
+        Federate second = join("second");
+        InteractionClassHandle alarm = sender.rti.getInteractionClassHandle("Alarm");
+        first.rti.subscribeInteractionClass(alarm);
+        second.rti.subscribeInteractionClass(alarm);
+
+        ParameterHandleValueMap parameters = sender.rti.createParameterHandleValueMap(1);
+        LoopbackHandle parameter = new LoopbackHandle(LoopbackHandle.Kind.PARAMETER, 1000);
+        parameters.put(parameter, new byte[]{1});
+        sender.rti.sendInteraction(alarm, parameters, new byte[0], null);
+        parameters.clear();
+
+        first.events();
+        second.events();
+        assertEquals(1, first.ambassador.parameters.get(0).size());
+        assertNotSame(first.ambassador.parameters.get(0), second.ambassador.parameters.get(0));
+        first.ambassador.parameters.get(0).clear();
+        assertEquals(1, second.ambassador.parameters.get(0).get(parameter)[0]);
+    }
+
+    @Test
+    void synchronizationPointCompletesWhenMemberResigns() throws Exception {
+        Federate master = join("master");
+        Federate federate = join("federate");
+        master.rti.registerFederationSynchronizationPoint("ReadyToRun", new byte[0]);
+        master.rti.synchronizationPointAchieved("ReadyToRun");
+        assertTrue(master.events().stream().noneMatch(event -> event.startsWith("synchronized")));
+
+        federate.rti.resignFederationExecution(ResignAction.DELETE_OBJECTS);
+        federate.joined = false;
+        assertTrue(master.events().contains("synchronized:ReadyToRun"));
+    }
+
+    @Test
+    void federationIsDestroyedByTheLastResigningFederate() throws Exception {
+        Federate master = join("master");
+        Federate federate = join("federate");
+
+        federate.rti.resignFederationExecution(ResignAction.DELETE_OBJECTS);
+        federate.joined = false;
+        assertThrows(FederatesCurrentlyJoined.class, () -> federate.rti.destroyFederationExecution(federationName));
+
+        master.rti.resignFederationExecution(ResignAction.NO_ACTION);
+        master.joined = false;
+        master.rti.destroyFederationExecution(federationName);
+        assertThrows(FederationExecutionDoesNotExist.class, () -> LoopbackFederation.get(federationName));
+    }
+
+    private Federate join(String federateName) throws RTIexception, IOException {
+        Federate federate = new Federate();
+        federate.rti.connect(federate.ambassador, CallbackModel.HLA_EVOKED);
+        URL[] modules = {getFom()};
+        if (federates.isEmpty()) {
+            federate.rti.createFederationExecution(federationName, modules);
+        }
+        federate.rti.joinFederationExecution(federateName, "test", federationName, modules);
+        federate.joined = true;
+        federates.add(federate);
+        return federate;
+    }
+
+    private URL getFom() throws IOException {
+        Path fom = fomDirectory.resolve("LoopbackTestFOM.xml");
+        if (!Files.exists(fom)) {
+            Files.writeString(fom, FOM);
+        }
+        return fom.toUri().toURL();
+    }
+
+    private static HLAfloat64Time time(Federate federate, double time) throws RTIexception {
+        return federate.rti.getTimeFactory().makeTime(time);
+    }
+
+    private static AttributeHandleSet attributes(Federate federate, AttributeHandle attribute) {
+        AttributeHandleSet attributes = federate.rti.createAttributeHandleSet();
+        attributes.add(attribute);
+        return attributes;
+    }
+
+    private static AttributeHandleValueMap values(Federate federate, AttributeHandle attribute, int value) {
+        AttributeHandleValueMap values = federate.rti.createAttributeHandleValueMap(1);
+        values.put(attribute, new byte[]{(byte) value});
+        return values;
+    }
+
+    private static AttributeSetRegionSetPairList regions(Federate federate, AttributeHandle attribute, long lower, long upper)
+            throws RTIexception {
+        DimensionHandleSet dimensions = federate.rti.createDimensionHandleSet();
+        DimensionHandle longitude = federate.rti.getDimensionHandle("Longitude");
+        dimensions.add(longitude);
+        RegionHandle region = federate.rti.createRegion(dimensions);
+        federate.rti.setRangeBounds(region, longitude, new RangeBounds(lower, upper));
+        RegionHandleSet regions = federate.rti.createRegionHandleSet();
+        regions.add(region);
+        AttributeSetRegionSetPairList attributesAndRegions = federate.rti.createAttributeSetRegionSetPairList(1);
+        attributesAndRegions.add(new AttributeRegionAssociation(attributes(federate, attribute), regions));
+        return attributesAndRegions;
+    }
+
+    private static List<String> grants(List<String> events) {
+        List<String> grants = new ArrayList<>();
+        for (String event : events) {
+            if (event.startsWith("grant")) {
+                grants.add(event);
+            }
+        }
+        return grants;
+    }
+
+    private static final class Federate {
+
+        private final LoopbackRTIAdapter rti = new LoopbackRTIAdapter();
+        private final RecordingAmbassador ambassador = new RecordingAmbassador();
+        private boolean joined;
+
+        /**
+         * Delivers the queued callbacks
+         *
+         * @return the callbacks delivered so far
+         */
+        private List<String> events() throws RTIexception {
+            rti.evokeMultipleCallbacks(0, 1);
+            return ambassador.events;
+        }
+    }
+
+    private static final class RecordingAmbassador extends NullFederateAmbassador {
+
+        private final List<String> events = new ArrayList<>();
+        private final List<ParameterHandleValueMap> parameters = new ArrayList<>();
+
+        @Override
+        public void discoverObjectInstance(ObjectInstanceHandle theObject, ObjectClassHandle theObjectClass, String objectName) {
+            events.add("discover");
+        }
+
+        @Override
+        public void reflectAttributeValues(ObjectInstanceHandle theObject, AttributeHandleValueMap theAttributes, byte[] userSuppliedTag,
+                                           OrderType sentOrdering, TransportationTypeHandle theTransport, LogicalTime theTime,
+                                           OrderType receivedOrdering, SupplementalReflectInfo reflectInfo) {
+            events.add("reflect@" + (theTime != null ? ((HLAfloat64Time) theTime).getValue() : null) + ":" + receivedOrdering);
+        }
+
+        @Override
+        public void reflectAttributeValues(ObjectInstanceHandle theObject, AttributeHandleValueMap theAttributes, byte[] userSuppliedTag,
+                                           OrderType sentOrdering, TransportationTypeHandle theTransport, LogicalTime theTime,
+                                           OrderType receivedOrdering, MessageRetractionHandle retractionHandle,
+                                           SupplementalReflectInfo reflectInfo) {
+            reflectAttributeValues(theObject, theAttributes, userSuppliedTag, sentOrdering, theTransport, theTime, receivedOrdering, reflectInfo);
+        }
+
+        @Override
+        public void receiveInteraction(InteractionClassHandle interactionClass, ParameterHandleValueMap theParameters, byte[] userSuppliedTag,
+                                       OrderType sentOrdering, TransportationTypeHandle theTransport, LogicalTime theTime,
+                                       OrderType receivedOrdering, SupplementalReceiveInfo receiveInfo) {
+            events.add("interaction");
+            parameters.add(theParameters);
+        }
+
+        @Override
+        public void federationSynchronized(String synchronizationPointLabel, FederateHandleSet failedToSyncSet) {
+            events.add("synchronized:" + synchronizationPointLabel);
+        }
+
+        @Override
+        public void timeAdvanceGrant(LogicalTime theTime) {
+            events.add("grant@" + ((HLAfloat64Time) theTime).getValue());
+        }
+    }
+}